@@ -0,0 +1,71 @@
+package bench;
+
+import domain.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import service.POISnapshotFile;
+import service.PlacesService;
+import service.SyntheticPOIGenerator;
+
+/**
+ * Shared helpers for the JMH benchmarks.
+ *
+ * @author CPS731 Team 20
+ */
+final class BenchmarkSupport {
+
+    static final long SEED = 42;
+    static final LatLng DOWNTOWN = new LatLng(43.6532, -79.3832);
+
+    private static final String[] INTERESTS = {"restaurants", "cafes", "museums", "parks", "bars", "shopping"};
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Discard console output. The services print progress on every call;
+     * writing that to the forked JVM's console would swamp the measurement.
+     */
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * PlacesService over the seeded synthetic catalog of a given size.
+     *
+     * JMH runs every parameter combination in its own forked JVM, so the
+     * catalog and its indexes are built once per size and kept as a snapshot
+     * file in bench-data/; every later trial, in any fork or run, only maps it.
+     */
+    static PlacesService placesService(int catalogSize) {
+        Path file = Paths.get("bench-data", "catalog-" + SEED + "-" + catalogSize + ".snapshot");
+        try {
+            if (!Files.exists(file)) {
+                POISnapshotFile.write(new SyntheticPOIGenerator(SEED).generate(catalogSize), null, file);
+            }
+            return new PlacesService(POISnapshotFile.open(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare benchmark catalog " + file, e);
+        }
+    }
+
+    static Preferences preferences(int interestCount, int radiusMeters) {
+        List<String> interests = new ArrayList<>();
+        for (int i = 0; i < interestCount; i++) {
+            interests.add(INTERESTS[i % INTERESTS.length]);
+        }
+        Preferences prefs = new Preferences();
+        prefs.setInterests(interests);
+        prefs.setBudget("high");
+        prefs.setRadius(radiusMeters);
+        prefs.setTransportMode("walking");
+        return prefs;
+    }
+}
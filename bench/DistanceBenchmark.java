@@ -0,0 +1,62 @@
+package bench;
+
+import domain.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import service.SpatialGridIndex;
+import service.TransitService;
+
+/**
+ * Benchmarks the Haversine distance helper and TransitService ETAs,
+ * which compute one distance per destination.
+ *
+ * @author CPS731 Team 20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int destinationCount;
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private RouteRequest request;
+    private TransitService transitService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.silenceConsole();
+        Random random = new Random(BenchmarkSupport.SEED);
+        latitudes = new double[destinationCount];
+        longitudes = new double[destinationCount];
+        List<LatLng> destinations = new ArrayList<>();
+        for (int i = 0; i < destinationCount; i++) {
+            latitudes[i] = 43.60 + random.nextDouble() * 0.12;
+            longitudes[i] = -79.45 + random.nextDouble() * 0.15;
+            destinations.add(new LatLng(latitudes[i], longitudes[i]));
+        }
+        request = new RouteRequest(BenchmarkSupport.DOWNTOWN, destinations, "walking");
+        transitService = new TransitService();
+    }
+
+    @Benchmark
+    public void haversine(Blackhole blackhole) {
+        for (int i = 0; i < destinationCount; i++) {
+            blackhole.consume(SpatialGridIndex.distanceMeters(43.6532, -79.3832, latitudes[i], longitudes[i]));
+        }
+    }
+
+    @Benchmark
+    public List<ETA> transitETAs() {
+        return transitService.getTransitETAs(request);
+    }
+}
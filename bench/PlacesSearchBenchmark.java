@@ -0,0 +1,53 @@
+package bench;
+
+import domain.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import service.PlacesService;
+
+/**
+ * Benchmarks PlacesService.searchPlaces and searchAlongRoute over
+ * synthetic catalogs of increasing size.
+ *
+ * @author CPS731 Team 20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlacesSearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"500", "2000", "5000"})
+    public int radiusMeters;
+
+    @Param({"0", "1", "3"})
+    public int interestCount;
+
+    private PlacesService placesService;
+    private Preferences prefs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.silenceConsole();
+        placesService = BenchmarkSupport.placesService(catalogSize);
+        prefs = BenchmarkSupport.preferences(interestCount, radiusMeters);
+    }
+
+    @Benchmark
+    public List<POI> searchPlaces() {
+        return placesService.searchPlaces(BenchmarkSupport.DOWNTOWN, prefs);
+    }
+
+    @Benchmark
+    public List<POI> searchAlongRoute() {
+        // Union Station area -> Royal Ontario Museum, detour capped at the radius
+        return placesService.searchAlongRoute(new LatLng(43.6453, -79.3806), new LatLng(43.6677, -79.3948),
+                                              prefs, radiusMeters);
+    }
+}
@@ -0,0 +1,63 @@
+package bench;
+
+import domain.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.RecommendationCard;
+import model.RecommendationEngine;
+import org.openjdk.jmh.annotations.*;
+import service.IntegrationLayer;
+import service.TransitService;
+
+/**
+ * Benchmarks RecommendationEngine.rankPOIs, both the full path
+ * (fetch, convert to cards, sort) and a re-rank of cached cards.
+ *
+ * @author CPS731 Team 20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RankingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"1000", "5000"})
+    public int radiusMeters;
+
+    @Param({"0", "3"})
+    public int interestCount;
+
+    private RecommendationEngine engine;
+    private Preferences prefs;
+    private Context ctx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.silenceConsole();
+        IntegrationLayer integrationLayer = new IntegrationLayer();
+        integrationLayer.setPlacesService(BenchmarkSupport.placesService(catalogSize));
+        integrationLayer.setTransitService(new TransitService());
+
+        engine = new RecommendationEngine();
+        engine.setIntegrationLayer(integrationLayer);
+        prefs = BenchmarkSupport.preferences(interestCount, radiusMeters);
+        ctx = new Context(BenchmarkSupport.DOWNTOWN, LocalDateTime.of(2025, 6, 1, 14, 0), null, "afternoon");
+    }
+
+    @Benchmark
+    public List<RecommendationCard> rankPOIs() {
+        engine.clearCache();
+        return engine.rankPOIs(prefs, ctx);
+    }
+
+    @Benchmark
+    public List<RecommendationCard> rerankCached() {
+        return engine.rankPOIs(prefs, ctx);
+    }
+}
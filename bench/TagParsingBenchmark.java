@@ -0,0 +1,55 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import service.POILoader;
+
+/**
+ * Benchmarks parsing of the pois.tags JSON column: the single-pass scanner
+ * against the original replace/split parser, kept here as a baseline.
+ *
+ * @author CPS731 Team 20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TagParsingBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int tagCount;
+
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < tagCount; i++) {
+            builder.append(i > 0 ? ", " : "").append("\"tag-").append(i).append('"');
+        }
+        json = builder.append(']').toString();
+    }
+
+    @Benchmark
+    public List<String> scanner() {
+        return POILoader.parseTags(json);
+    }
+
+    @Benchmark
+    public List<String> replaceSplit() {
+        List<String> list = new ArrayList<>();
+        String cleaned = json.replace("[", "").replace("]", "").replace("\"", "").trim();
+        if (!cleaned.isEmpty()) {
+            for (String item : cleaned.split(",\\s*")) {
+                if (!item.trim().isEmpty()) {
+                    list.add(item.trim());
+                }
+            }
+        }
+        return list;
+    }
+}
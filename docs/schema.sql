@@ -4,7 +4,8 @@
 -- Phase 3: System Implementation
 -- ============================================================================
 -- Database: travel_assistant_db
--- Tables: profiles, sessions, conversation_history, events
+-- Tables: profiles, sessions, conversation_history, events, sessions_archive,
+--         conversation_history_archive
 -- Version: 1.0
 -- Last Updated: November 20, 2024
 -- ============================================================================
@@ -14,7 +15,9 @@ USE travel_assistant_db;
 
 -- Drop existing tables (if re-running schema)
 DROP TABLE IF EXISTS conversation_history;
+DROP TABLE IF EXISTS conversation_history_archive;
 DROP TABLE IF EXISTS events;
+DROP TABLE IF EXISTS sessions_archive;
 DROP TABLE IF EXISTS sessions;
 DROP TABLE IF EXISTS profiles;
 
@@ -49,7 +52,10 @@ CREATE TABLE sessions (
     request_count INT DEFAULT 0 COMMENT 'Number of requests in this session (for rate limiting NFR-3)',
 
     FOREIGN KEY (user_id) REFERENCES profiles(user_id) ON DELETE CASCADE,
-    INDEX idx_user_id (user_id),
+    -- Session history pages seek on (user_id, created_at, session_id);
+    -- on an existing database: ALTER TABLE sessions DROP INDEX idx_user_id,
+    --   ADD INDEX idx_user_created (user_id, created_at, session_id);
+    INDEX idx_user_created (user_id, created_at, session_id),
     INDEX idx_last_active (last_active)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='User sessions for tracking and context (FR-5, FR-17)';
 
@@ -90,6 +96,40 @@ CREATE TABLE events (
     INDEX idx_timestamp (timestamp) COMMENT 'Fast time-range queries'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='Analytics and event logging (FR-20, NFR-3)';
 
+-- ============================================================================
+-- Table 5: sessions_archive
+-- Purpose: Sessions expired by SessionExpiryJob (idle past the TTL), kept for analytics
+-- Traceability: FR-17, NFR-8, Class: SessionExpiryJob.java
+-- ============================================================================
+CREATE TABLE sessions_archive (
+    session_id VARCHAR(100) PRIMARY KEY COMMENT 'Archived session identifier',
+    user_id VARCHAR(50) COMMENT 'User ID (no foreign key: archived rows outlive profiles)',
+    created_at TIMESTAMP NULL COMMENT 'Session start time',
+    last_active TIMESTAMP NULL COMMENT 'Last activity before expiry',
+    request_count INT DEFAULT 0 COMMENT 'Number of requests in the session',
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'When the session was archived',
+
+    INDEX idx_user_id (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='Expired sessions moved out of sessions (FR-17)';
+
+-- ============================================================================
+-- Table 6: conversation_history_archive
+-- Purpose: Conversation history of archived sessions (copied before the
+--          session row is deleted, which cascades to conversation_history)
+-- Traceability: FR-4, FR-17, Class: SessionExpiryJob.java
+-- ============================================================================
+CREATE TABLE conversation_history_archive (
+    message_id INT PRIMARY KEY COMMENT 'message_id from conversation_history',
+    session_id VARCHAR(100) NOT NULL COMMENT 'Archived session (see sessions_archive)',
+    timestamp TIMESTAMP NULL COMMENT 'Message timestamp',
+    role ENUM('user', 'assistant') NOT NULL COMMENT 'Message sender',
+    message_text TEXT NOT NULL COMMENT 'The actual message content',
+    preferences_snapshot JSON COMMENT 'Preferences state at message time',
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'When the message was archived',
+
+    INDEX idx_session_timestamp (session_id, timestamp)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='Conversation history of expired sessions (FR-17)';
+
 -- ============================================================================
 -- Insert Sample Data (for testing and TA demo)
 -- ============================================================================
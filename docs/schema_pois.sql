@@ -21,8 +21,14 @@ CREATE TABLE pois (
     open_now BOOLEAN DEFAULT TRUE,
     address VARCHAR(500),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),  -- change watermark for delta refresh
+    deleted BOOLEAN DEFAULT FALSE,  -- tombstone: set instead of DELETE so refreshes see removals
+    -- on an existing database: ALTER TABLE pois
+    --   MODIFY updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    --   ADD COLUMN deleted BOOLEAN DEFAULT FALSE, ADD INDEX idx_updated_at (updated_at);
     INDEX idx_category (category),
-    INDEX idx_location (latitude, longitude)
+    INDEX idx_location (latitude, longitude),
+    INDEX idx_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- ============================================================================
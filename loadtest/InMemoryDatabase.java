@@ -0,0 +1,409 @@
+package loadtest;
+
+import service.DatabaseConnection;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Local stand-in for the MySQL database used by ProfileContextStore.
+ *
+ * Hands out JDBC connections (dynamic proxies) backed by in-memory
+ * profiles, sessions and conversation_history tables. It understands exactly the statements
+ * ProfileContextStore issues and rejects anything else. To behave like a
+ * server rather than a HashMap it:
+ * - charges a connect cost per getConnection() and a round trip per statement
+ *   (each jittered, so the latency has a realistic tail)
+ * - enforces max_connections, failing with MySQL's "Too many connections"
+ * - enforces the sessions.user_id foreign key to profiles and the
+ *   conversation_history.session_id foreign key to sessions
+ *
+ * @author CPS731 Team 20
+ */
+public class InMemoryDatabase extends DatabaseConnection {
+
+    // MySQL defaults: max_connections = 151
+    public static final int DEFAULT_MAX_CONNECTIONS = 151;
+    public static final long DEFAULT_CONNECT_MICROS = 1500;
+    public static final long DEFAULT_QUERY_MICROS = 300;
+
+    private final long connectNanos;
+    private final long queryNanos;
+    private final int maxConnections;
+    private final Semaphore connectionSlots;
+
+    // Tables: primary key -> column name -> value
+    private final Map<String, Map<String, Object>> profiles = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong conversationRows = new AtomicLong();
+
+    // Statistics
+    private final AtomicLong connectionCount = new AtomicLong();
+    private final AtomicLong statementCount = new AtomicLong();
+    private final AtomicLong rejectedConnections = new AtomicLong();
+
+    public InMemoryDatabase() {
+        this(DEFAULT_CONNECT_MICROS, DEFAULT_QUERY_MICROS, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * @param connectMicros Mean cost of opening a connection
+     * @param queryMicros Mean round trip per statement
+     * @param maxConnections Open connections allowed at once
+     */
+    public InMemoryDatabase(long connectMicros, long queryMicros, int maxConnections) {
+        super(false);
+        this.connectNanos = connectMicros * 1000;
+        this.queryNanos = queryMicros * 1000;
+        this.maxConnections = maxConnections;
+        this.connectionSlots = new Semaphore(maxConnections);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!connectionSlots.tryAcquire()) {
+            rejectedConnections.incrementAndGet();
+            throw new SQLException("Too many connections", "08004", 1040);
+        }
+        connectionCount.incrementAndGet();
+        pause(connectNanos);
+        return new InMemoryConnection().proxy;
+    }
+
+    @Override
+    public String getDatabaseURL() {
+        return "in-memory (max " + maxConnections + " connections)";
+    }
+
+    /**
+     * Sleep for an exponentially distributed time with the given mean,
+     * capped at 10x the mean.
+     */
+    private static void pause(long meanNanos) {
+        if (meanNanos <= 0) {
+            return;
+        }
+        double sample = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanNanos;
+        LockSupport.parkNanos((long) Math.min(sample, meanNanos * 10.0));
+    }
+
+    // ========================================================================
+    // JDBC proxies
+    // ========================================================================
+
+    private class InMemoryConnection {
+        final Connection proxy = proxy(Connection.class, this::invoke);
+        private boolean closed;
+
+        private Object invoke(String method, Object[] args) throws SQLException {
+            switch (method) {
+                case "prepareStatement":
+                    checkOpen();
+                    return new InMemoryStatement(this, (String) args[0]).proxy(PreparedStatement.class);
+                case "createStatement":
+                    checkOpen();
+                    return new InMemoryStatement(this, null).proxy(Statement.class);
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        connectionSlots.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getAutoCommit":
+                    return true;
+                case "setAutoCommit":
+                case "commit":
+                case "rollback":
+                    return null;
+                case "getCatalog":
+                    return "travel_assistant_db";
+                case "isValid":
+                    return !closed;
+                default:
+                    throw new SQLException("Unsupported by the in-memory database: Connection." + method);
+            }
+        }
+
+        private void checkOpen() throws SQLException {
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+        }
+    }
+
+    private class InMemoryStatement {
+        private final InMemoryConnection connection;
+        private final String sql;
+        private final Map<Integer, Object> params = new HashMap<>();
+        private final List<Map<Integer, Object>> batch = new ArrayList<>();
+
+        InMemoryStatement(InMemoryConnection connection, String sql) {
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        <T> T proxy(Class<T> type) {
+            return InMemoryDatabase.proxy(type, this::invoke);
+        }
+
+        private Object invoke(String method, Object[] args) throws SQLException {
+            if (method.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                // setString / setInt / setBoolean / setNull(index, sqlType)
+                params.put((Integer) args[0], method.equals("setNull") ? null : args[1]);
+                return null;
+            }
+            switch (method) {
+                case "executeQuery":
+                    connection.checkOpen();
+                    return execute(args != null ? (String) args[0] : sql).proxy;
+                case "executeUpdate":
+                    connection.checkOpen();
+                    return executeUpdate(args != null ? (String) args[0] : sql);
+                case "addBatch":
+                    batch.add(new HashMap<>(params));
+                    return null;
+                case "executeBatch":
+                    connection.checkOpen();
+                    return executeBatch();
+                case "clearBatch":
+                    batch.clear();
+                    return null;
+                case "clearParameters":
+                    params.clear();
+                    return null;
+                case "close":
+                    return null;
+                default:
+                    throw new SQLException("Unsupported by the in-memory database: Statement." + method);
+            }
+        }
+
+        private InMemoryResultSet execute(String query) throws SQLException {
+            statementCount.incrementAndGet();
+            pause(queryNanos);
+            String q = normalize(query);
+
+            if (q.startsWith("select count(*) as count from profiles")) {
+                return InMemoryResultSet.of(Map.of("count", profiles.size()));
+            }
+            if (q.startsWith("select count(*) as count from sessions")) {
+                return InMemoryResultSet.of(Map.of("count", sessions.size()));
+            }
+            if (q.startsWith("select user_id, interests") && q.contains("from profiles where user_id = ?")) {
+                return InMemoryResultSet.of(profiles.get((String) params.get(1)));
+            }
+            if (q.startsWith("select session_id") && q.contains("from sessions where session_id = ?")) {
+                return InMemoryResultSet.of(sessions.get((String) params.get(1)));
+            }
+            if (q.startsWith("select session_id") && q.contains("from sessions where user_id = ?")) {
+                String userId = (String) params.get(1);
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for (Map<String, Object> row : sessions.values()) {
+                    if (userId.equals(row.get("user_id"))) {
+                        rows.add(row);
+                    }
+                }
+                rows.sort(Comparator.comparing((Map<String, Object> row) -> (Timestamp) row.get("created_at"))
+                                    .reversed());
+                return new InMemoryResultSet(rows);
+            }
+            throw new SQLException("Unsupported by the in-memory database: " + query);
+        }
+
+        private int executeUpdate(String update) throws SQLException {
+            statementCount.incrementAndGet();
+            pause(queryNanos);
+            String q = normalize(update);
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+
+            if (q.startsWith("insert into profiles")) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("user_id", params.get(1));
+                row.put("interests", params.get(2));
+                row.put("budget", params.get(3));
+                row.put("radius", params.get(4));
+                row.put("transport_mode", params.get(5));
+                row.put("accessibility_needs", params.get(6));
+                row.put("created_at", now);
+                Map<String, Object> previous = profiles.put((String) params.get(1), row);
+                if (previous != null) {
+                    row.put("created_at", previous.get("created_at"));
+                }
+                // ON DUPLICATE KEY UPDATE reports 2 rows for an update
+                return previous == null ? 1 : 2;
+            }
+            if (q.startsWith("insert into sessions")) {
+                String userId = (String) params.get(2);
+                if (userId != null && !profiles.containsKey(userId)) {
+                    throw new SQLException("Cannot add or update a child row: a foreign key constraint fails " +
+                                           "(sessions.user_id -> profiles.user_id)", "23000", 1452);
+                }
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("session_id", params.get(1));
+                row.put("user_id", userId);
+                row.put("created_at", now);
+                row.put("last_active", now);
+                row.put("request_count", params.get(3));
+                Map<String, Object> previous = sessions.putIfAbsent((String) params.get(1), row);
+                if (previous != null) {
+                    // The upsert only touches last_active and request_count
+                    Map<String, Object> updated = new LinkedHashMap<>(previous);
+                    updated.put("last_active", now);
+                    updated.put("request_count", params.get(3));
+                    sessions.put((String) params.get(1), updated);
+                    return 2;
+                }
+                return 1;
+            }
+            throw new SQLException("Unsupported by the in-memory database: " + update);
+        }
+
+        /**
+         * One round trip for the whole batch, as with rewriteBatchedStatements.
+         */
+        private int[] executeBatch() throws SQLException {
+            statementCount.incrementAndGet();
+            pause(queryNanos);
+            if (!normalize(sql).startsWith("insert into conversation_history")) {
+                throw new SQLException("Unsupported batch in the in-memory database: " + sql);
+            }
+            int[] counts = new int[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                if (!sessions.containsKey((String) batch.get(i).get(1))) {
+                    throw new SQLException("Cannot add or update a child row: a foreign key constraint fails " +
+                                           "(conversation_history.session_id -> sessions.session_id)", "23000", 1452);
+                }
+                counts[i] = 1;
+            }
+            conversationRows.addAndGet(batch.size());
+            batch.clear();
+            return counts;
+        }
+    }
+
+    private static class InMemoryResultSet {
+        final ResultSet proxy = proxy(ResultSet.class, this::invoke);
+        private final List<Map<String, Object>> rows;
+        private int cursor = -1;
+        private boolean wasNull;
+
+        InMemoryResultSet(List<Map<String, Object>> rows) {
+            this.rows = rows;
+        }
+
+        static InMemoryResultSet of(Map<String, Object> row) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            if (row != null) {
+                rows.add(row);
+            }
+            return new InMemoryResultSet(rows);
+        }
+
+        private Object invoke(String method, Object[] args) throws SQLException {
+            switch (method) {
+                case "next":
+                    return ++cursor < rows.size();
+                case "close":
+                    return null;
+                case "wasNull":
+                    return wasNull;
+                case "getString":
+                    Object text = column(args[0]);
+                    return text != null ? text.toString() : null;
+                case "getInt":
+                    Object number = column(args[0]);
+                    return number != null ? ((Number) number).intValue() : 0;
+                case "getBoolean":
+                    Object flag = column(args[0]);
+                    return flag != null && (Boolean) flag;
+                case "getTimestamp":
+                    return column(args[0]);
+                default:
+                    throw new SQLException("Unsupported by the in-memory database: ResultSet." + method);
+            }
+        }
+
+        private Object column(Object key) throws SQLException {
+            if (cursor < 0 || cursor >= rows.size()) {
+                throw new SQLException("No current row");
+            }
+            Map<String, Object> row = rows.get(cursor);
+            Object value;
+            if (key instanceof Integer) {
+                value = new ArrayList<>(row.values()).get((Integer) key - 1);
+            } else if (row.containsKey(key)) {
+                value = row.get(key);
+            } else {
+                throw new SQLException("Unknown column: " + key);
+            }
+            wasNull = value == null;
+            return value;
+        }
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args) throws SQLException;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        InvocationHandler invocation = (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "hashCode": return System.identityHashCode(p);
+                    case "equals": return p == args[0];
+                    default: return type.getSimpleName() + "@in-memory";
+                }
+            }
+            return handler.handle(method.getName(), args);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocation);
+    }
+
+    private static String normalize(String sql) {
+        return sql.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    // Statistics (for the load test report)
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public long getStatementCount() {
+        return statementCount.get();
+    }
+
+    public long getRejectedConnections() {
+        return rejectedConnections.get();
+    }
+
+    public int getProfileRows() {
+        return profiles.size();
+    }
+
+    public int getSessionRows() {
+        return sessions.size();
+    }
+
+    public long getConversationRows() {
+        return conversationRows.get();
+    }
+}
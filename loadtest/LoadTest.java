@@ -0,0 +1,424 @@
+package loadtest;
+
+import controller.ConversationEngine;
+import domain.*;
+import model.*;
+import service.*;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Closed-loop load generator that drives ConversationEngine end to end.
+ *
+ * Each simulated user has its own ConversationEngine and RecommendationEngine
+ * (as in a per-user UI session) and shares the PlacesService, IntegrationLayer
+ * and ProfileContextStore with everyone else, the way a server deployment
+ * would. ProfileContextStore talks to an {@link InMemoryDatabase} instead of
+ * MySQL, through a ConnectionPool unless --db-pool is 0. Users repeat this journey until the run ends:
+ *
+ *   startSession (sign in: load or create profile) -> startPlanning
+ *   -> adjustPreferences -> handleSelectCard -> saveCurrentSession
+ *
+ * with exponentially distributed think times between steps. A failed step
+ * ends that journey. Latencies recorded during the warmup are discarded.
+ *
+ * Usage: LoadTest [--users N] [--duration S] [--warmup S] [--ramp S]
+ *                 [--think-ms M] [--catalog N] [--db-connect-us U]
+ *                 [--db-query-us U] [--db-max-connections N] [--db-pool N]
+ *                 [--seed N] [--verbose]
+ *
+ * @author CPS731 Team 20
+ */
+public class LoadTest {
+
+    static final String[] OPERATIONS = {
+        "startSession", "startPlanning", "adjustPreferences", "handleSelectCard", "saveCurrentSession"
+    };
+
+    private static final String[] INTERESTS = {"restaurants", "cafes", "museums", "parks", "bars", "shopping"};
+    private static final String[] BUDGETS = {"low", "medium", "high"};
+    private static final String[] TRANSPORT_MODES = {"walking", "transit", "driving"};
+    private static final int[] RADII = {1000, 2000, 5000};
+
+    // Run configuration
+    private int users = 500;
+    private int durationSeconds = 60;
+    private int warmupSeconds = 10;
+    private int rampSeconds = 10;
+    private long thinkMillis = 1000;
+    private int catalogSize = 50_000;
+    private long dbConnectMicros = InMemoryDatabase.DEFAULT_CONNECT_MICROS;
+    private long dbQueryMicros = InMemoryDatabase.DEFAULT_QUERY_MICROS;
+    private int dbMaxConnections = InMemoryDatabase.DEFAULT_MAX_CONNECTIONS;
+    private int dbPoolSize = 20;
+    private long seed = 42;
+    private boolean verbose;
+
+    // Shared components
+    private IntegrationLayer integrationLayer;
+    private ProfileContextStore profileContextStore;
+    private ConversationLog conversationLog;
+    private InMemoryDatabase database;
+    private ConnectionPool pool;
+
+    private volatile long measureFromNanos;
+    private volatile long endNanos;
+
+    /**
+     * Per-user latency samples and error counts, one slot per operation.
+     * Only the owning user thread writes to it.
+     */
+    static final class Recorder {
+        long[][] samples = new long[OPERATIONS.length][256];
+        final int[] counts = new int[OPERATIONS.length];
+        final int[] errors = new int[OPERATIONS.length];
+        int journeys;
+
+        void record(int op, long nanos) {
+            if (counts[op] == samples[op].length) {
+                samples[op] = Arrays.copyOf(samples[op], counts[op] * 2);
+            }
+            samples[op][counts[op]++] = nanos;
+        }
+    }
+
+    /**
+     * One simulated planner.
+     */
+    private final class SimulatedUser implements Runnable {
+        private final int index;
+        private final Random random;
+        private final Recorder recorder = new Recorder();
+        private final CountDownLatch done;
+
+        SimulatedUser(int index, CountDownLatch done) {
+            this.index = index;
+            this.random = new Random(seed + index);
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            RecommendationEngine recommendationEngine = new RecommendationEngine();
+            recommendationEngine.setIntegrationLayer(integrationLayer);
+            ConversationEngine engine = new ConversationEngine();
+            engine.setRecommendationEngine(recommendationEngine);
+            engine.setIntegrationLayer(integrationLayer);
+            engine.setProfileContextStore(profileContextStore);
+            engine.setConversationLog(conversationLog);
+            UserID userId = new UserID("loaduser_" + index);
+
+            try {
+                // Ramp-up: spread user arrivals over the ramp period
+                sleepMillis(rampSeconds * 1000L * index / Math.max(1, users));
+                while (System.nanoTime() < endNanos) {
+                    runJourney(engine, userId);
+                    think();
+                }
+            } finally {
+                engine.close();
+                done.countDown();
+            }
+        }
+
+        private void runJourney(ConversationEngine engine, UserID userId) {
+            Preferences prefs = randomPreferences();
+
+            boolean ok = step(0, () -> {
+                Profile profile = engine.loadProfile(userId);
+                if (profile == null) {
+                    profile = new Profile();
+                    profile.setUserId(userId);
+                    profile.setPreferences(prefs);
+                    engine.saveProfile(profile);
+                }
+                engine.startSession(userId);
+                return engine.getCurrentSession() != null;
+            });
+            ok = ok && think() && step(1, () -> {
+                engine.startPlanning(prefs);
+                return engine.getCurrentRecommendations() != null;
+            });
+            ok = ok && think() && step(2, () -> {
+                Preferences delta = new Preferences();
+                if (random.nextBoolean()) {
+                    delta.setRadius(RADII[random.nextInt(RADII.length)]);
+                } else {
+                    delta.setBudget(BUDGETS[random.nextInt(BUDGETS.length)]);
+                }
+                engine.adjustPreferences(delta);
+                return engine.getCurrentRecommendations() != null;
+            });
+            List<RecommendationCard> cards = engine.getCurrentRecommendations();
+            if (ok && cards != null && !cards.isEmpty()) {
+                // Users mostly click one of the first few cards
+                String cardId = cards.get(random.nextInt(Math.min(5, cards.size()))).getPlaceId();
+                ok = think() && step(3, () -> {
+                    engine.handleSelectCard(cardId);
+                    return engine.getCurrentItinerary() != null;
+                });
+            }
+            ok = ok && think() && step(4, () -> {
+                engine.saveCurrentSession();
+                return true;
+            });
+            if (ok && System.nanoTime() >= measureFromNanos) {
+                recorder.journeys++;
+            }
+        }
+
+        /**
+         * Time one operation. An exception or a false result counts as an error.
+         *
+         * @return true if the operation succeeded
+         */
+        private boolean step(int op, Operation operation) {
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = operation.run();
+            } catch (RuntimeException e) {
+                ok = false;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (start >= measureFromNanos && start < endNanos) {
+                recorder.record(op, elapsed);
+                if (!ok) {
+                    recorder.errors[op]++;
+                }
+            }
+            return ok;
+        }
+
+        /**
+         * Exponential think time (capped at 5x the mean).
+         *
+         * @return false once the run is over
+         */
+        private boolean think() {
+            double sample = -Math.log(1 - random.nextDouble()) * thinkMillis;
+            sleepMillis((long) Math.min(sample, thinkMillis * 5.0));
+            return System.nanoTime() < endNanos;
+        }
+
+        private Preferences randomPreferences() {
+            List<String> interests = new ArrayList<>();
+            int count = 1 + random.nextInt(3);
+            while (interests.size() < count) {
+                String interest = INTERESTS[random.nextInt(INTERESTS.length)];
+                if (!interests.contains(interest)) {
+                    interests.add(interest);
+                }
+            }
+            Preferences prefs = new Preferences();
+            prefs.setInterests(interests);
+            prefs.setBudget(BUDGETS[random.nextInt(BUDGETS.length)]);
+            prefs.setRadius(RADII[random.nextInt(RADII.length)]);
+            prefs.setTransportMode(TRANSPORT_MODES[random.nextInt(TRANSPORT_MODES.length)]);
+            return prefs;
+        }
+    }
+
+    private interface Operation {
+        boolean run();
+    }
+
+    private static void sleepMillis(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Run the load test and print the report.
+     *
+     * @param report Where to print the report
+     * @return Merged per-operation results
+     */
+    public Recorder run(PrintStream report) throws InterruptedException {
+        report.println("[LoadTest] Generating " + catalogSize + " synthetic POIs (seed " + seed + ")...");
+        PlacesService placesService = new PlacesService(new SyntheticPOIGenerator(seed).generate(catalogSize));
+        integrationLayer = new IntegrationLayer();
+        integrationLayer.setPlacesService(placesService);
+        integrationLayer.setTransitService(new TransitService());
+        integrationLayer.setWeatherService(new WeatherService());
+        database = new InMemoryDatabase(dbConnectMicros, dbQueryMicros, dbMaxConnections);
+        if (dbPoolSize > 0) {
+            pool = new ConnectionPool(database, dbPoolSize, ConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE,
+                                      ConnectionPool.DEFAULT_CHECKOUT_TIMEOUT_MILLIS);
+            profileContextStore = new ProfileContextStore(pool);
+        } else {
+            profileContextStore = new ProfileContextStore(database);
+        }
+        conversationLog = new ConversationLog(profileContextStore.getStorage());
+
+        report.println("[LoadTest] " + users + " users, " + durationSeconds + "s measured after " + warmupSeconds +
+                       "s warmup (" + rampSeconds + "s ramp), think time " + thinkMillis + " ms");
+        report.println("[LoadTest] Database stand-in: connect " + dbConnectMicros + " us, query " + dbQueryMicros +
+                       " us, max " + dbMaxConnections + " connections, " +
+                       (pool != null ? "pool of " + dbPoolSize : "no pool"));
+
+        long start = System.nanoTime();
+        measureFromNanos = start + warmupSeconds * 1_000_000_000L;
+        endNanos = measureFromNanos + durationSeconds * 1_000_000_000L;
+
+        CountDownLatch done = new CountDownLatch(users);
+        List<SimulatedUser> simulated = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            SimulatedUser user = new SimulatedUser(i, done);
+            simulated.add(user);
+            Thread thread = new Thread(user, "load-user-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        // Stage metrics should cover the measured period only
+        long untilMeasured = measureFromNanos - System.nanoTime();
+        if (untilMeasured > 0) {
+            sleepMillis(untilMeasured / 1_000_000);
+        }
+        MetricsRegistry.shared().reset();
+        done.await();
+        conversationLog.close();
+
+        Recorder merged = new Recorder();
+        for (SimulatedUser user : simulated) {
+            merged.journeys += user.recorder.journeys;
+            for (int op = 0; op < OPERATIONS.length; op++) {
+                for (int i = 0; i < user.recorder.counts[op]; i++) {
+                    merged.record(op, user.recorder.samples[op][i]);
+                }
+                merged.errors[op] += user.recorder.errors[op];
+            }
+        }
+        printReport(merged, report);
+        return merged;
+    }
+
+    private void printReport(Recorder results, PrintStream out) {
+        out.println();
+        out.println("=".repeat(100));
+        out.println("   LOAD TEST RESULTS");
+        out.println("=".repeat(100));
+        out.printf("%-20s %9s %8s %8s %10s %10s %10s %10s %10s %9s%n",
+                   "operation", "count", "errors", "err %", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms", "ops/s");
+        out.println("-".repeat(100));
+
+        long totalOps = 0;
+        long totalErrors = 0;
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            int count = results.counts[op];
+            long[] sorted = Arrays.copyOf(results.samples[op], count);
+            Arrays.sort(sorted);
+            totalOps += count;
+            totalErrors += results.errors[op];
+            out.printf("%-20s %9d %8d %7.2f%% %10.2f %10.2f %10.2f %10.2f %10.2f %9.1f%n",
+                       OPERATIONS[op], count, results.errors[op], percent(results.errors[op], count),
+                       millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                       millis(percentile(sorted, 0.99)), millis(percentile(sorted, 0.999)),
+                       millis(count > 0 ? sorted[count - 1] : 0), (double) count / durationSeconds);
+        }
+        out.println("-".repeat(100));
+        out.printf("Throughput: %.1f ops/s, %.1f completed journeys/s%n",
+                   (double) totalOps / durationSeconds, (double) results.journeys / durationSeconds);
+        out.printf("Errors: %d of %d operations (%.2f%%)%n", totalErrors, totalOps, percent(totalErrors, totalOps));
+        out.println("Database stand-in: " + database.getConnectionCount() + " connections, " +
+                    database.getStatementCount() + " statements, " + database.getRejectedConnections() +
+                    " rejected (too many connections), " + database.getProfileRows() + " profiles, " +
+                    database.getSessionRows() + " sessions, " + database.getConversationRows() +
+                    " conversation turns");
+        if (pool != null) {
+            out.printf("Connection pool: %d open, statement reuse %.1f%%%n",
+                       pool.getOpenCount(), 100 * ConnectionPool.getStatementReuseRate());
+        }
+        out.println("=".repeat(100));
+        printStages(out);
+    }
+
+    /**
+     * Per-stage latencies from the shared MetricsRegistry.
+     */
+    private void printStages(PrintStream out) {
+        out.println();
+        out.printf("%-40s %9s %10s %10s %10s %10s%n", "stage", "count", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        out.println("-".repeat(94));
+        for (LatencyHistogram stage : MetricsRegistry.shared().getHistograms().values()) {
+            if (stage.getCount() == 0) {
+                continue;
+            }
+            out.printf("%-40s %9d %10.2f %10.2f %10.2f %10.2f%n", stage.getName(), stage.getCount(),
+                       millis(stage.getValueAtPercentile(50)), millis(stage.getValueAtPercentile(99)),
+                       millis(stage.getValueAtPercentile(99.9)), millis(stage.getMaxNanos()));
+        }
+        out.println("=".repeat(94));
+    }
+
+    /**
+     * Nearest-rank percentile of sorted samples (0 if empty).
+     */
+    static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double percent(long part, long total) {
+        return total > 0 ? 100.0 * part / total : 0;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTest test = new LoadTest();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--verbose")) {
+                test.verbose = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("❌ Missing value for " + option);
+                System.exit(2);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--users": test.users = Integer.parseInt(value); break;
+                case "--duration": test.durationSeconds = Integer.parseInt(value); break;
+                case "--warmup": test.warmupSeconds = Integer.parseInt(value); break;
+                case "--ramp": test.rampSeconds = Integer.parseInt(value); break;
+                case "--think-ms": test.thinkMillis = Long.parseLong(value); break;
+                case "--catalog": test.catalogSize = Integer.parseInt(value); break;
+                case "--db-connect-us": test.dbConnectMicros = Long.parseLong(value); break;
+                case "--db-query-us": test.dbQueryMicros = Long.parseLong(value); break;
+                case "--db-max-connections": test.dbMaxConnections = Integer.parseInt(value); break;
+                case "--db-pool": test.dbPoolSize = Integer.parseInt(value); break;
+                case "--seed": test.seed = Long.parseLong(value); break;
+                default:
+                    System.err.println("❌ Unknown option: " + option);
+                    System.exit(2);
+            }
+        }
+
+        // Per-request activity is logged at DEBUG; --verbose turns it on (the
+        // logging cost is then part of the measurement). The report goes to
+        // the real console either way.
+        PrintStream console = System.out;
+        if (test.verbose) {
+            Log.setLevel(Log.Level.DEBUG);
+        } else {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        test.run(console);
+    }
+}
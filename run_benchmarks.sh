@@ -0,0 +1,64 @@
+#!/bin/bash
+
+# TravelAssistant - Benchmark Execution Script
+# This script compiles and runs the JMH benchmarks in bench/
+#
+# Usage:
+#   ./run_benchmarks.sh                      (all benchmarks)
+#   ./run_benchmarks.sh PlacesSearch         (benchmarks matching a pattern)
+#   ./run_benchmarks.sh -p catalogSize=1000  (any other JMH option)
+
+echo "========================================="
+echo "  TravelAssistant - Benchmarks"
+echo "========================================="
+echo ""
+
+# Color codes for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+JMH_JARS="lib/jmh-core-1.37.jar:lib/jmh-generator-annprocess-1.37.jar:lib/jopt-simple-5.0.4.jar:lib/commons-math3-3.6.1.jar"
+
+# Check that the JMH jars exist
+for JAR in ${JMH_JARS//:/ }; do
+    if [ ! -f "$JAR" ]; then
+        echo -e "${RED}ERROR: $JAR not found!${NC}"
+        echo ""
+        echo "Download jmh-core, jmh-generator-annprocess (1.37), jopt-simple (5.0.4)"
+        echo "and commons-math3 (3.6.1) from Maven Central into lib/"
+        exit 1
+    fi
+done
+
+echo -e "${YELLOW}Compiling sources and benchmarks...${NC}"
+rm -rf bench-bin
+mkdir -p bench-bin
+javac -encoding UTF-8 -cp "$JMH_JARS" -d bench-bin \
+  $(find src bench -name "*.java")
+
+if [ $? -ne 0 ]; then
+    echo -e "${RED}ERROR: Compilation failed!${NC}"
+    exit 1
+fi
+
+echo -e "${YELLOW}Running JMH (gc profiler enabled)...${NC}"
+echo ""
+
+# -prof gc reports allocation rate and bytes allocated per operation
+java -Xmx4g -cp "bench-bin:$JMH_JARS" org.openjdk.jmh.Main -prof gc "$@" | tee bench_output.txt
+
+EXIT_CODE=${PIPESTATUS[0]}
+
+echo ""
+echo "========================================="
+if [ $EXIT_CODE -eq 0 ]; then
+    echo -e "${GREEN}  BENCHMARKS COMPLETE (bench_output.txt)${NC}"
+else
+    echo -e "${RED}  BENCHMARKS FAILED!${NC}"
+fi
+echo "========================================="
+echo ""
+
+exit $EXIT_CODE
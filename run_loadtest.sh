@@ -0,0 +1,46 @@
+#!/bin/bash
+
+# TravelAssistant - Load Test Script
+# Simulates concurrent planners against ConversationEngine (no MySQL needed)
+#
+# Usage:
+#   ./run_loadtest.sh                                 (500 users, 60s)
+#   ./run_loadtest.sh --users 200 --duration 30       (see loadtest/LoadTest.java for options)
+
+echo "========================================="
+echo "  TravelAssistant - Load Test"
+echo "========================================="
+echo ""
+
+# Color codes for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+echo -e "${YELLOW}Compiling sources and load test...${NC}"
+rm -rf loadtest-bin
+mkdir -p loadtest-bin
+javac -encoding UTF-8 -d loadtest-bin $(find src loadtest -name "*.java")
+
+if [ $? -ne 0 ]; then
+    echo -e "${RED}ERROR: Compilation failed!${NC}"
+    exit 1
+fi
+
+echo ""
+java -Xmx2g -cp loadtest-bin loadtest.LoadTest "$@" | tee loadtest_output.txt
+
+EXIT_CODE=${PIPESTATUS[0]}
+
+echo ""
+echo "========================================="
+if [ $EXIT_CODE -eq 0 ]; then
+    echo -e "${GREEN}  LOAD TEST COMPLETE (loadtest_output.txt)${NC}"
+else
+    echo -e "${RED}  LOAD TEST FAILED!${NC}"
+fi
+echo "========================================="
+echo ""
+
+exit $EXIT_CODE
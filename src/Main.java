@@ -2,6 +2,10 @@ import controller.*;
 import model.*;
 import service.*;
 import view.*;
+import domain.POI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import javax.swing.SwingUtilities;
 
 /**
@@ -11,7 +15,7 @@ import javax.swing.SwingUtilities;
  * Demonstrates:
  * - GRASP patterns (Controller, Information Expert, Indirection, etc.)
  * - MVC architecture
- * - MySQL persistence
+ * - MySQL persistence (or an embedded log store)
  * - Mock service implementations
  * - Java Swing UI
  *
@@ -19,6 +23,10 @@ import javax.swing.SwingUtilities;
  */
 public class Main {
 
+    static final String STORAGE_PROPERTY = "travelassistant.storage";
+    static final String STORAGE_DIR_PROPERTY = "travelassistant.storage.dir";
+    static final String METRICS_BIND_PROPERTY = "travelassistant.metrics.bind";
+
     public static void main(String[] args) {
         System.out.println("=".repeat(70));
         System.out.println("   CPS731 TRAVEL ASSISTANT - PHASE 3");
@@ -26,14 +34,36 @@ public class Main {
         System.out.println("=".repeat(70));
         System.out.println();
 
-        // Step 1: Initialize services (database-backed implementations)
+        // Step 1: Choose storage (-Dtravelassistant.storage=embedded runs without MySQL)
+        boolean embedded = "embedded".equalsIgnoreCase(System.getProperty(STORAGE_PROPERTY, "mysql"));
+        Storage storage;
+        if (embedded) {
+            storage = openEmbeddedStorage();
+        } else {
+            storage = new MySQLStorage(ConnectionPool.shared());
+        }
+
+        // Step 2: Initialize services (database-backed implementations)
         System.out.println("[Main] Initializing services...");
-        PlacesService placesService = new PlacesService();
+        PlacesService placesService;
+        if (embedded) {
+            List<POI> pois = storage.loadPOIs();
+            if (pois.isEmpty()) {
+                pois = TorontoPOIData.getSamplePOIs();
+                storage.savePOIs(pois);
+                System.out.println("✓ Seeded embedded store with " + pois.size() + " sample POIs");
+            }
+            placesService = new PlacesService(pois);
+        } else {
+            placesService = new PlacesService(Paths.get("data", "pois.snapshot"));
+            placesService.startAutoRefresh(60);
+            System.out.println("✓ POI delta refresh scheduled every 60s");
+        }
         TransitService transitService = new TransitService();
         WeatherService weatherService = new WeatherService();
         System.out.println();
 
-        // Step 2: Initialize IntegrationLayer
+        // Step 3: Initialize IntegrationLayer
         System.out.println("[Main] Initializing integration layer...");
         IntegrationLayer integrationLayer = new IntegrationLayer();
         integrationLayer.setPlacesService(placesService);
@@ -42,29 +72,62 @@ public class Main {
         System.out.println("✓ IntegrationLayer initialized");
         System.out.println();
 
-        // Step 3: Initialize persistence (ProfileContextStore with MySQL)
+        // Step 4: Initialize persistence (ProfileContextStore on the chosen storage)
         System.out.println("[Main] Initializing persistence layer...");
-        ProfileContextStore profileContextStore = new ProfileContextStore();
+        ProfileContextStore profileContextStore = new ProfileContextStore(storage);
         profileContextStore.initialize();
+        SessionExpiryJob sessionExpiryJob = SessionExpiryJob.fromSystemProperties(profileContextStore);
+        if (sessionExpiryJob != null) {
+            sessionExpiryJob.start(SessionExpiryJob.DEFAULT_PERIOD_MINUTES);
+        }
         System.out.println();
 
-        // Step 4: Initialize RecommendationEngine
+        // Step 5: Initialize RecommendationEngine
         System.out.println("[Main] Initializing recommendation engine...");
         RecommendationEngine recommendationEngine = new RecommendationEngine();
         recommendationEngine.setIntegrationLayer(integrationLayer);
         System.out.println("✓ RecommendationEngine initialized");
+        TripPlanner tripPlanner = new TripPlanner();
+        tripPlanner.setIntegrationLayer(integrationLayer);
+        System.out.println("✓ TripPlanner initialized");
         System.out.println();
 
-        // Step 5: Initialize ConversationEngine (Controller)
+        // Step 6: Initialize ConversationEngine (Controller)
         System.out.println("[Main] Initializing conversation engine...");
         ConversationEngine conversationEngine = new ConversationEngine();
         conversationEngine.setRecommendationEngine(recommendationEngine);
+        conversationEngine.setTripPlanner(tripPlanner);
         conversationEngine.setIntegrationLayer(integrationLayer);
         conversationEngine.setProfileContextStore(profileContextStore);
+        ConversationLog conversationLog = new ConversationLog(storage);
+        conversationEngine.setConversationLog(conversationLog);
+        // Write queued conversation turns before the storage closes
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            conversationEngine.close();
+            conversationLog.close();
+            storage.close();
+        }, "storage-close"));
         System.out.println("✓ ConversationEngine initialized");
         System.out.println();
 
-        // Step 6: Launch UI
+        // Step 7: Expose metrics (JMX + text endpoint)
+        System.out.println("[Main] Exposing metrics...");
+        MetricsRegistry.shared().registerMBean();
+        try {
+            // Loopback only unless a bind address is given (e.g. 0.0.0.0 for a scraper on another host)
+            String metricsBind = System.getProperty(METRICS_BIND_PROPERTY);
+            MetricsEndpoint metricsEndpoint = new MetricsEndpoint(MetricsRegistry.shared());
+            if (metricsBind != null) {
+                metricsEndpoint.start(java.net.InetAddress.getByName(metricsBind), MetricsEndpoint.DEFAULT_PORT);
+            } else {
+                metricsEndpoint.start(MetricsEndpoint.DEFAULT_PORT);
+            }
+        } catch (java.io.IOException e) {
+            System.err.println("⚠️ Warning: Metrics endpoint not started: " + e.getMessage());
+        }
+        System.out.println();
+
+        // Step 8: Launch UI
         System.out.println("[Main] Launching UI...");
         System.out.println("=".repeat(70));
         System.out.println();
@@ -86,4 +149,21 @@ public class Main {
             System.out.println("=".repeat(70));
         });
     }
+
+    /**
+     * Open the embedded store (default directory data/store).
+     * Exits if it cannot be opened: there is no other storage to fall back to.
+     */
+    private static Storage openEmbeddedStorage() {
+        Path directory = Paths.get(System.getProperty(STORAGE_DIR_PROPERTY, "data/store"));
+        try {
+            EmbeddedStorage storage = new EmbeddedStorage(directory, true);
+            System.out.println("✓ Using embedded storage in " + directory);
+            return storage;
+        } catch (java.io.IOException e) {
+            System.err.println("❌ Could not open embedded storage in " + directory + ": " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
 }
@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * «controller» central application controller.
@@ -23,18 +24,26 @@ import java.util.UUID;
  */
 public class ConversationEngine {
 
+    private static final Log LOG = Log.get(ConversationEngine.class);
+
     private Context sessionContext;
     private String promptState;
     private Preferences currentPreferences;
     private List<RecommendationCard> currentRecommendations;
+    private Itinerary currentItinerary;
     private Session currentSession;
     private UserID currentUserId;
 
     // Dependencies from the class diagram
     private RecommendationEngine recommendationEngine;
+    private TripPlanner tripPlanner;
+    private final ItineraryPrefetcher itineraryPrefetcher = new ItineraryPrefetcher();
+    private final NearbyTracker nearbyTracker = new NearbyTracker();
+    private boolean trackingLocation;
     private ProfileContextStore profileContextStore;
     private IntegrationLayer integrationLayer;
     private AnalyticsLogger analyticsLogger;
+    private ConversationLog conversationLog;
 
     /**
      * Main entry point: Start planning flow.
@@ -49,12 +58,19 @@ public class ConversationEngine {
      * @param prefs User preferences (interests, budget, radius, etc.)
      */
     public void startPlanning(Preferences prefs) {
-        System.out.println("\n" + "=".repeat(70));
-        System.out.println("   STARTING PLANNING SESSION");
-        System.out.println("=".repeat(70));
+        Tracer.Span span = startTrace("ConversationEngine.startPlanning");
+        try {
+            plan(prefs);
+        } finally {
+            span.end();
+        }
+    }
+
+    private void plan(Preferences prefs) {
+        LOG.debug("Starting planning session");
 
         if (prefs == null) {
-            System.err.println("❌ Preferences cannot be null");
+            LOG.error("❌ Preferences cannot be null");
             return;
         }
 
@@ -63,20 +79,22 @@ public class ConversationEngine {
 
         // Clear any cached results from previous searches
         recommendationEngine.clearCache();
+        itineraryPrefetcher.cancel();
+        trackingLocation = false;
 
         // Step 1: Initialize context
-        System.out.println("\n[ConversationEngine] Initializing session context...");
+        LOG.debug("Initializing session context...");
         sessionContext = new Context();
 
         // Get user location (from integration layer geocoding)
         LatLng userLocation = integrationLayer.geocode("Toronto, ON");
         sessionContext.setCurrentLocation(userLocation);
-        System.out.println("  Location: " + userLocation);
+        LOG.debug(() -> "Location: " + userLocation);
 
         // Get weather
         Weather weather = integrationLayer.getWeather(userLocation);
         sessionContext.setCurrentWeather(weather);
-        System.out.println("  Weather: " + weather);
+        LOG.debug(() -> "Weather: " + weather);
 
         // Determine time of day
         LocalDateTime now = LocalDateTime.now();
@@ -93,11 +111,12 @@ public class ConversationEngine {
             timeOfDay = "night";
         }
         sessionContext.setTimeOfDay(timeOfDay);
-        System.out.println("  Time of day: " + timeOfDay);
+        LOG.debug(() -> "Time of day: " + timeOfDay);
 
         // Step 2: Get recommendations from engine
-        System.out.println("\n[ConversationEngine] Getting recommendations...");
+        LOG.debug("Getting recommendations...");
         currentRecommendations = recommendationEngine.rankPOIs(prefs, sessionContext);
+        itineraryPrefetcher.prefetch(recommendationEngine, prefs, currentRecommendations);
 
         // Step 3: Update prompt state
         promptState = "showing_recommendations";
@@ -105,9 +124,10 @@ public class ConversationEngine {
         // Step 4: Increment session request count
         incrementSessionRequests();
 
-        System.out.println("\n✅ Planning session started!");
-        System.out.println("  Found " + currentRecommendations.size() + " recommendations");
-        System.out.println("=".repeat(70) + "\n");
+        recordTurn(ConversationTurn.ROLE_USER, "Plan: " + describe(prefs));
+        recordTurn(ConversationTurn.ROLE_ASSISTANT, describe(currentRecommendations));
+
+        LOG.debug(() -> "✅ Planning session started! Found " + currentRecommendations.size() + " recommendations");
     }
 
     /**
@@ -117,45 +137,134 @@ public class ConversationEngine {
      *
      * Flow:
      * 1. Merge delta preferences into current preferences
-     * 2. Clear cached results in recommendation engine
+     * 2. Clear cached results and cancel itinerary prefetch
      * 3. Re-run ranking with new preferences
      * 4. Update UI with new results
      *
      * @param delta Preference changes (partial update)
      */
     public void adjustPreferences(Preferences delta) {
-        System.out.println("\n[ConversationEngine] Adjusting preferences...");
+        Tracer.Span span = startTrace("ConversationEngine.adjustPreferences");
+        try {
+            refine(delta);
+        } finally {
+            span.end();
+        }
+    }
+
+    private void refine(Preferences delta) {
+        LOG.debug("Adjusting preferences...");
 
         if (delta == null || currentPreferences == null) {
-            System.err.println("❌ Cannot adjust preferences");
+            LOG.error("❌ Cannot adjust preferences");
             return;
         }
 
         // Merge delta into current preferences
         if (delta.getInterests() != null) {
             currentPreferences.setInterests(delta.getInterests());
-            System.out.println("  Updated interests: " + delta.getInterests());
+            LOG.debug(() -> "Updated interests: " + delta.getInterests());
         }
         if (delta.getBudget() != null) {
             currentPreferences.setBudget(delta.getBudget());
-            System.out.println("  Updated budget: " + delta.getBudget());
+            LOG.debug(() -> "Updated budget: " + delta.getBudget());
         }
         if (delta.getRadius() > 0) {
             currentPreferences.setRadius(delta.getRadius());
-            System.out.println("  Updated radius: " + delta.getRadius() + "m");
+            LOG.debug(() -> "Updated radius: " + delta.getRadius() + "m");
         }
         if (delta.getTransportMode() != null) {
             currentPreferences.setTransportMode(delta.getTransportMode());
-            System.out.println("  Updated transport: " + delta.getTransportMode());
+            LOG.debug(() -> "Updated transport: " + delta.getTransportMode());
         }
 
-        // Clear cached results
+        // Clear cached results (prefetched itineraries are stale too)
         recommendationEngine.clearCache();
+        itineraryPrefetcher.cancel();
+        trackingLocation = false;
 
         // Re-run ranking
         currentRecommendations = recommendationEngine.rankPOIs(currentPreferences, sessionContext);
+        itineraryPrefetcher.prefetch(recommendationEngine, currentPreferences, currentRecommendations);
+
+        recordTurn(ConversationTurn.ROLE_USER, "Adjust: " + describe(delta));
+        recordTurn(ConversationTurn.ROLE_ASSISTANT, describe(currentRecommendations));
+
+        LOG.debug(() -> "✅ Preferences adjusted! New results: " + currentRecommendations.size());
+    }
+
+    /**
+     * Handle a GPS fix from a moving user.
+     * UC-1: Discover Places (results follow the user)
+     *
+     * Flow:
+     * 1. NearbyTracker throttles the fix and works out which POIs entered
+     *    or left the radius (with hysteresis), refetching candidates only
+     *    when the user has moved far from the last fetch
+     * 2. Session context location is updated
+     * 3. The in-range POIs are re-ranked (distances changed) without a new search
+     *    and become the recommendation engine's cached candidates
+     * 4. Itineraries prefetched for the old location are cancelled and the
+     *    new top cards are prefetched
+     *
+     * startPlanning must have run first.
+     *
+     * @param fix New user location
+     * @return POIs that entered/left the radius (throttled fixes report no changes)
+     */
+    public NearbyTracker.Update updateLocation(LatLng fix) {
+        return updateLocation(fix, System.currentTimeMillis());
+    }
+
+    /**
+     * Handle a GPS fix with an explicit timestamp (e.g., replayed location streams).
+     *
+     * @param fix New user location
+     * @param timestampMillis Time the fix was taken
+     * @return POIs that entered/left the radius (throttled fixes report no changes)
+     */
+    public NearbyTracker.Update updateLocation(LatLng fix, long timestampMillis) {
+        if (sessionContext == null || currentPreferences == null) {
+            LOG.error("❌ Start planning before sending location updates");
+            return nearbyTracker.onFix(null, timestampMillis);
+        }
+
+        NearbyTracker.Update update;
+        if (!trackingLocation) {
+            nearbyTracker.setIntegrationLayer(integrationLayer);
+            update = nearbyTracker.start(fix, currentPreferences, timestampMillis);
+            trackingLocation = true;
+        } else {
+            update = nearbyTracker.onFix(fix, timestampMillis);
+        }
 
-        System.out.println("✅ Preferences adjusted! New results: " + currentRecommendations.size());
+        if (update.isThrottled()) {
+            return update;
+        }
+
+        sessionContext.setCurrentLocation(fix);
+        currentRecommendations = recommendationEngine.rankCandidates(
+            nearbyTracker.getInRange(), currentPreferences, sessionContext);
+        // Prefetched itineraries give distances from the previous location
+        itineraryPrefetcher.prefetch(recommendationEngine, currentPreferences, currentRecommendations);
+
+        if (update.hasChanges()) {
+            LOG.debug(() -> "Location " + fix + ": +" + update.getEntered().size() +
+                            " / -" + update.getLeft().size() + " places");
+        }
+        return update;
+    }
+
+    /**
+     * Release the engine's background work when its session ends:
+     * in-flight itinerary prefetches are cancelled and no new ones start.
+     */
+    public void close() {
+        itineraryPrefetcher.shutdown();
+    }
+
+    public NearbyTracker getNearbyTracker() {
+        return nearbyTracker;
     }
 
     /**
@@ -163,16 +272,16 @@ public class ConversationEngine {
      * Simply returns current recommendations (could be expanded to pagination).
      */
     public void handleShowMore() {
-        System.out.println("\n[ConversationEngine] Showing more results...");
+        LOG.debug("Showing more results...");
 
         if (currentRecommendations == null || currentRecommendations.isEmpty()) {
-            System.out.println("  No more results available");
+            LOG.debug("No more results available");
             return;
         }
 
         // For now, just indicate we're showing the same results
         // In a full implementation, we could fetch more POIs or paginate
-        System.out.println("  Showing all " + currentRecommendations.size() + " results");
+        LOG.debug(() -> "Showing all " + currentRecommendations.size() + " results");
     }
 
     /**
@@ -182,16 +291,28 @@ public class ConversationEngine {
      *
      * Flow:
      * 1. Find selected card in cached results
-     * 2. Call recommendation engine to build itinerary
+     * 2. Take the prefetched itinerary (or build it on a cache miss)
      * 3. Update prompt state to show itinerary
      *
      * @param cardId ID of selected recommendation card
      */
     public void handleSelectCard(String cardId) {
-        System.out.println("\n[ConversationEngine] Card selected: " + cardId);
+        Tracer.Span span = startTrace("ConversationEngine.handleSelectCard");
+        try {
+            selectCard(cardId);
+        } finally {
+            span.end();
+        }
+    }
+
+    private void selectCard(String cardId) {
+        LOG.debug(() -> "Card selected: " + cardId);
+
+        // A previous card's itinerary must not be shown if this one fails
+        currentItinerary = null;
 
         if (currentRecommendations == null || currentRecommendations.isEmpty()) {
-            System.err.println("❌ No recommendations available");
+            LOG.error("❌ No recommendations available");
             return;
         }
 
@@ -205,29 +326,61 @@ public class ConversationEngine {
         }
 
         if (selectedCard == null) {
-            System.err.println("❌ Card not found: " + cardId);
+            LOG.error("❌ Card not found: " + cardId);
             return;
         }
 
-        // Build micro-itinerary
-        System.out.println("  Building itinerary for: " + selectedCard.getName());
-        Itinerary itinerary = recommendationEngine.buildMicroItinerary(currentPreferences, selectedCard);
+        // Get micro-itinerary (prefetched for top cards)
+        String selectedName = selectedCard.getName();
+        LOG.debug(() -> "Building itinerary for: " + selectedName);
+        Itinerary itinerary = itineraryPrefetcher.getItinerary(recommendationEngine, currentPreferences, selectedCard);
+        currentItinerary = itinerary;
 
         // Update prompt state
         promptState = "showing_itinerary";
 
+        recordTurn(ConversationTurn.ROLE_USER, "Show itinerary for " + selectedName);
+        recordTurn(ConversationTurn.ROLE_ASSISTANT, "Itinerary with " + itinerary.getSteps().size() + " steps");
+
         // Display itinerary steps
-        System.out.println("\n📍 MICRO-ITINERARY:");
-        System.out.println("-".repeat(70));
-        for (String step : itinerary.getSteps()) {
-            System.out.println(step);
+        LOG.debug(() -> "📍 MICRO-ITINERARY:\n" + String.join("\n", itinerary.getSteps()));
+    }
+
+    /**
+     * Plan a multi-stop trip that fits in the given time budget.
+     * FR-3: Build itineraries
+     *
+     * Uses the current session context (location) and preferences, so
+     * startPlanning must have run first. Better plans are streamed to the
+     * listener while the planner searches.
+     *
+     * @param timeBudgetMinutes Time the user has available (e.g. 240 for an afternoon)
+     * @param wallClockMillis How long the planner may search
+     * @param listener Receives progressively better itineraries (may be null)
+     * @return Best itinerary found, or null if planning is not possible
+     */
+    public Itinerary planTrip(int timeBudgetMinutes, long wallClockMillis, Consumer<Itinerary> listener) {
+        LOG.debug(() -> "Planning trip (" + timeBudgetMinutes + " min)...");
+
+        if (tripPlanner == null) {
+            LOG.warn("⚠️ TripPlanner not initialized");
+            return null;
+        }
+        if (sessionContext == null || currentPreferences == null) {
+            LOG.error("❌ Start planning before requesting a trip");
+            return null;
         }
-        System.out.println("-".repeat(70));
+
+        Itinerary itinerary = tripPlanner.planTrip(sessionContext.getCurrentLocation(), currentPreferences,
+                                                   timeBudgetMinutes, wallClockMillis, listener);
+        promptState = "showing_itinerary";
+        incrementSessionRequests();
+        return itinerary;
     }
 
     public Profile loadProfile(UserID userId) {
         if (profileContextStore == null) {
-            System.err.println("⚠️ ProfileContextStore not initialized");
+            LOG.warn("⚠️ ProfileContextStore not initialized");
             return null;
         }
         return profileContextStore.loadProfile(userId);
@@ -235,7 +388,7 @@ public class ConversationEngine {
 
     public void saveProfile(Profile profile) {
         if (profileContextStore == null) {
-            System.err.println("⚠️ ProfileContextStore not initialized");
+            LOG.warn("⚠️ ProfileContextStore not initialized");
             return;
         }
         profileContextStore.saveProfile(profile);
@@ -246,6 +399,17 @@ public class ConversationEngine {
         return currentRecommendations;
     }
 
+    /**
+     * Get the itinerary built by the last handleSelectCard call.
+     */
+    public Itinerary getCurrentItinerary() {
+        return currentItinerary;
+    }
+
+    public ItineraryPrefetcher getItineraryPrefetcher() {
+        return itineraryPrefetcher;
+    }
+
     public Context getSessionContext() {
         return sessionContext;
     }
@@ -271,6 +435,10 @@ public class ConversationEngine {
         this.recommendationEngine = recommendationEngine;
     }
 
+    public void setTripPlanner(TripPlanner tripPlanner) {
+        this.tripPlanner = tripPlanner;
+    }
+
     public void setProfileContextStore(ProfileContextStore profileContextStore) {
         this.profileContextStore = profileContextStore;
     }
@@ -283,6 +451,26 @@ public class ConversationEngine {
         this.analyticsLogger = analyticsLogger;
     }
 
+    public void setConversationLog(ConversationLog conversationLog) {
+        this.conversationLog = conversationLog;
+    }
+
+    public ConversationLog getConversationLog() {
+        return conversationLog;
+    }
+
+    /**
+     * Start the trace span for a user request, tagged with the session so
+     * traces can be matched to a session in the exported file.
+     */
+    private Tracer.Span startTrace(String name) {
+        Tracer.Span span = Tracer.startTrace(name);
+        if (span.isSampled() && currentSession != null) {
+            span.setAttribute("sessionId", currentSession.getSessionId().getValue());
+        }
+        return span;
+    }
+
     // ========================================================================
     // Session Management
     // ========================================================================
@@ -296,18 +484,68 @@ public class ConversationEngine {
     public void startSession(UserID userId) {
         this.currentUserId = userId;
 
+        // Prefetched itineraries belong to the previous session
+        itineraryPrefetcher.cancel();
+        currentItinerary = null;
+
+        if (conversationLog != null && currentSession != null) {
+            conversationLog.release(currentSession.getSessionId());
+        }
+
         // Create new session
         currentSession = new Session();
         currentSession.setSessionId(new SessionID("session_" + UUID.randomUUID().toString()));
         currentSession.setUserId(userId); // Can be null for guests
         currentSession.setCreatedAt(Instant.now());
 
-        System.out.println("[ConversationEngine] New session started: " + currentSession.getSessionId().getValue());
-        if (userId != null) {
-            System.out.println("  User: " + userId.getValue());
-        } else {
-            System.out.println("  User: Guest");
+        LOG.debug(() -> "New session started: " + currentSession.getSessionId().getValue() +
+                        " (user: " + (userId != null ? userId.getValue() : "Guest") + ")");
+        if (conversationLog != null) {
+            conversationLog.startSession(currentSession.getSessionId());
+        }
+    }
+
+    /**
+     * Continue a saved session: it becomes the current session, and its
+     * last turns are loaded (only those, not the whole conversation).
+     * FR-17: Store and retrieve session history
+     *
+     * @param sessionId Saved session to continue
+     * @return true if the session was found
+     */
+    public boolean resumeSession(SessionID sessionId) {
+        if (profileContextStore == null) {
+            LOG.warn("⚠️ ProfileContextStore not initialized");
+            return false;
+        }
+        Session session = profileContextStore.loadSession(sessionId);
+        if (session == null) {
+            LOG.warn("⚠️ Session not found: " + sessionId.getValue());
+            return false;
+        }
+
+        itineraryPrefetcher.cancel();
+        currentItinerary = null;
+        if (conversationLog != null && currentSession != null) {
+            conversationLog.release(currentSession.getSessionId());
+        }
+        currentSession = session;
+        currentUserId = session.getUserId();
+        if (conversationLog != null) {
+            conversationLog.resume(sessionId);
+        }
+        LOG.debug(() -> "Session resumed: " + sessionId.getValue());
+        return true;
+    }
+
+    /**
+     * The last n turns of the current session's conversation, oldest first.
+     */
+    public List<ConversationTurn> getRecentTurns(int n) {
+        if (conversationLog == null || currentSession == null) {
+            return java.util.Collections.emptyList();
         }
+        return conversationLog.recentTurns(currentSession.getSessionId(), n);
     }
 
     /**
@@ -325,21 +563,65 @@ public class ConversationEngine {
      * Call this when user is done with planning or navigates away.
      */
     public void saveCurrentSession() {
+        Tracer.Span span = startTrace("ConversationEngine.saveCurrentSession");
+        try {
+            persistSession();
+        } finally {
+            span.end();
+        }
+    }
+
+    private void persistSession() {
         if (currentSession == null) {
-            System.err.println("⚠️ No active session to save");
+            LOG.warn("⚠️ No active session to save");
             return;
         }
 
         if (profileContextStore == null) {
-            System.err.println("⚠️ ProfileContextStore not initialized");
+            LOG.warn("⚠️ ProfileContextStore not initialized");
             return;
         }
 
         profileContextStore.saveSession(currentSession);
-        System.out.println("✓ Session saved: " + currentSession.getSessionId().getValue() +
+        if (conversationLog != null) {
+            // The session row exists now, so its turns can be written
+            conversationLog.sessionSaved(currentSession.getSessionId());
+        }
+        LOG.debug(() -> "✓ Session saved: " + currentSession.getSessionId().getValue() +
                          " (" + currentSession.getRequestCount() + " requests)");
     }
 
+    private void recordTurn(String role, String text) {
+        if (conversationLog != null && currentSession != null) {
+            conversationLog.append(currentSession.getSessionId(), role, text, currentPreferences);
+        }
+    }
+
+    private static String describe(Preferences prefs) {
+        StringBuilder text = new StringBuilder();
+        if (prefs.getInterests() != null) {
+            text.append(String.join(", ", prefs.getInterests()));
+        }
+        if (prefs.getBudget() != null) {
+            text.append(text.length() > 0 ? "; " : "").append("budget ").append(prefs.getBudget());
+        }
+        if (prefs.getRadius() > 0) {
+            text.append(text.length() > 0 ? "; " : "").append("within ").append(prefs.getRadius()).append("m");
+        }
+        if (prefs.getTransportMode() != null) {
+            text.append(text.length() > 0 ? "; " : "").append("by ").append(prefs.getTransportMode());
+        }
+        return text.toString();
+    }
+
+    private static String describe(List<RecommendationCard> cards) {
+        StringBuilder text = new StringBuilder("Found " + cards.size() + " recommendations");
+        for (int i = 0; i < Math.min(3, cards.size()); i++) {
+            text.append(i == 0 ? ": " : ", ").append(cards.get(i).getName());
+        }
+        return text.toString();
+    }
+
     public Session getCurrentSession() {
         return currentSession;
     }
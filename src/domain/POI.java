@@ -4,15 +4,18 @@ import java.util.List;
 
 /**
  * Point of Interest domain object.
+ *
+ * Category, price level and tags are stored as ids from the shared
+ * {@link SymbolTable}; the String accessors translate on the way in and out.
  */
 public class POI {
     private String id;
     private String name;
     private LatLng location;
-    private String category;       // e.g., "restaurant", "museum", "park"
-    private float rating;          // 0.0 to 5.0
-    private String priceLevel;     // "$", "$$", "$$$", "$$$$"
-    private List<String> tags;     // e.g., "outdoor", "family-friendly"
+    private int categoryId = SymbolTable.NONE;     // e.g., "restaurant", "museum", "park"
+    private float rating;                          // 0.0 to 5.0
+    private int priceLevelId = SymbolTable.NONE;   // "$", "$$", "$$$", "$$$$"
+    private int[] tagIds;                          // e.g., "outdoor", "family-friendly" (null if unset)
     private boolean openNow;
     private String address;
 
@@ -23,7 +26,7 @@ public class POI {
         this.id = id;
         this.name = name;
         this.location = location;
-        this.category = category;
+        this.categoryId = SymbolTable.shared().intern(category);
         this.rating = rating;
     }
 
@@ -53,11 +56,15 @@ public class POI {
     }
 
     public String getCategory() {
-        return category;
+        return SymbolTable.shared().name(categoryId);
     }
 
     public void setCategory(String category) {
-        this.category = category;
+        this.categoryId = SymbolTable.shared().intern(category);
+    }
+
+    public int getCategoryId() {
+        return categoryId;
     }
 
     public float getRating() {
@@ -69,19 +76,36 @@ public class POI {
     }
 
     public String getPriceLevel() {
-        return priceLevel;
+        return SymbolTable.shared().name(priceLevelId);
     }
 
     public void setPriceLevel(String priceLevel) {
-        this.priceLevel = priceLevel;
+        this.priceLevelId = SymbolTable.shared().intern(priceLevel);
+    }
+
+    public int getPriceLevelId() {
+        return priceLevelId;
     }
 
+    /**
+     * Tags as a read-only list (null if never set).
+     */
     public List<String> getTags() {
-        return tags;
+        return tagIds != null ? SymbolTable.shared().names(tagIds) : null;
     }
 
+    /**
+     * Set tags (the list is copied into symbol ids).
+     */
     public void setTags(List<String> tags) {
-        this.tags = tags;
+        this.tagIds = tags != null ? SymbolTable.shared().internAll(tags) : null;
+    }
+
+    /**
+     * Tag symbol ids (null if never set). The array must not be modified.
+     */
+    public int[] getTagIds() {
+        return tagIds;
     }
 
     public boolean isOpenNow() {
@@ -0,0 +1,123 @@
+package domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary mapping repeated strings to small int ids.
+ *
+ * POI categories, price levels and tags come from a small vocabulary but
+ * are repeated across every POI. POIs store ids from the shared table
+ * instead of their own String instances, so each distinct value is held
+ * once. Ids are dense (0, 1, 2, ...) and never reused, which lets callers
+ * keep per-symbol arrays, e.g. to memoize a match per category.
+ *
+ * Lookups are lock-free; adding a new symbol takes a lock.
+ * The vocabulary is assumed to be bounded, so symbols are never removed.
+ *
+ * @author CPS731 Team 20
+ */
+public final class SymbolTable {
+
+    /** Id used for a null value. */
+    public static final int NONE = -1;
+
+    private static final SymbolTable SHARED = new SymbolTable();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private int size;   // guarded by this
+
+    /**
+     * The table shared by all POIs.
+     */
+    public static SymbolTable shared() {
+        return SHARED;
+    }
+
+    /**
+     * Id of a value, adding it if new.
+     *
+     * @param value String to intern (may be null)
+     * @return Symbol id, or NONE for null
+     */
+    public int intern(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(value);
+            if (id == null) {
+                if (size == names.length) {
+                    names = Arrays.copyOf(names, size * 2);
+                }
+                id = size++;
+                // Store the name before publishing the id, so name(id) always sees it
+                names[id] = value;
+                ids.put(value, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Intern every value of a list.
+     *
+     * @param values Strings to intern
+     * @return Symbol ids in list order
+     */
+    public int[] internAll(List<String> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = intern(values.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Id of a value without adding it.
+     *
+     * @return Symbol id, or NONE if unknown
+     */
+    public int lookup(String value) {
+        Integer id = value != null ? ids.get(value) : null;
+        return id != null ? id : NONE;
+    }
+
+    /**
+     * String for an id (null for NONE).
+     */
+    public String name(int id) {
+        return id < 0 ? null : names[id];
+    }
+
+    /**
+     * Read-only list view of the strings for an array of ids.
+     */
+    public List<String> names(int[] symbolIds) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return name(symbolIds[index]);
+            }
+
+            @Override
+            public int size() {
+                return symbolIds.length;
+            }
+        };
+    }
+
+    /**
+     * Number of symbols (every id is below this).
+     */
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,509 @@
+package model;
+
+import domain.Preferences;
+import domain.SessionID;
+import service.LatencyHistogram;
+import service.Log;
+import service.MetricsRegistry;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conversation history for active sessions: the last few turns of each
+ * session in memory, with writes to conversation_history done in batches
+ * off the request thread.
+ *
+ * Each session keeps a fixed-size ring of its most recent turns, so
+ * recentTurns never touches the database. A resumed session is filled
+ * with only its last capacity turns (Storage loadRecentTurns), never the
+ * whole history; the read happens in resume, not while appending.
+ *
+ * Appended turns go on a bounded queue that a background writer drains
+ * every flushMillis, or as soon as batchSize turns are waiting, with one
+ * Storage appendConversationTurns call per batch. conversation_history
+ * references the sessions table, and sessions are only saved when the
+ * user saves them, so turns of an unsaved session are held (up to
+ * maxUnsavedTurns) until sessionSaved is called. If the queue is full,
+ * turns are dropped from persistence (they stay in the ring) rather than
+ * blocking the request.
+ *
+ * A batch can hold turns of many sessions. If the database rejects it as
+ * invalid (e.g. one session was archived by SessionExpiryJob, so the
+ * foreign key fails), each session's turns are written on their own and
+ * a rejected session loses only its own turns. Turns that failed for
+ * other reasons (e.g. a lost connection) are kept as a whole and retried
+ * first, up to MAX_WRITE_ATTEMPTS times; the writer waits between
+ * attempts, doubling the wait after each failure.
+ *
+ * Traceability:
+ * - FR-4: Allow preference adjustments (conversational context)
+ * - FR-17: Store and retrieve session history
+ * - NFR-1: Performance
+ *
+ * @author CPS731 Team 20
+ */
+public class ConversationLog {
+
+    private static final Log LOG = Log.get(ConversationLog.class);
+
+    public static final int DEFAULT_CAPACITY = 20;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final long DEFAULT_FLUSH_MILLIS = 200;
+    public static final int DEFAULT_MAX_UNSAVED_TURNS = 200;
+    public static final int DEFAULT_QUEUE_SIZE = 10000;
+    public static final int MAX_WRITE_ATTEMPTS = 5;
+    public static final long INITIAL_RETRY_DELAY_MILLIS = 500;
+    public static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private static final LongAdder TURNS_APPENDED = MetricsRegistry.shared().counter("conversation.turns.appended");
+    private static final LongAdder TURNS_PERSISTED = MetricsRegistry.shared().counter("conversation.turns.persisted");
+    private static final LongAdder TURNS_DROPPED = MetricsRegistry.shared().counter("conversation.turns.dropped");
+    private static final LongAdder PERSIST_FAILURES = MetricsRegistry.shared().counter("conversation.persistFailures");
+    private static final LatencyHistogram FLUSH_LATENCY = MetricsRegistry.shared().histogram("conversation.flush");
+
+    private final Storage storage;
+    private final int capacity;
+    private final int batchSize;
+    private final int maxUnsavedTurns;
+    private final int queueSize;
+
+    private final Map<String, SessionLog> sessions = new ConcurrentHashMap<>();
+    private final BlockingQueue<ConversationTurn> pending;
+    private final Object writeLock = new Object();
+    // Turns whose write failed for a transient reason, oldest first, and
+    // how often each was tried (guarded by writeLock)
+    private final Deque<ConversationTurn> retry = new ArrayDeque<>();
+    private final Map<ConversationTurn, Integer> attempts = new IdentityHashMap<>();
+    // Back-off after failed writes: the writer does not try again before
+    // retryAt (System.nanoTime), (guarded by writeLock)
+    private long retryDelayMillis;
+    private long retryAt;
+    private boolean closed;
+    private final ScheduledExecutorService writer;
+    private final MetricsRegistry.GaugeSet gauges = MetricsRegistry.shared().gaugeSet();
+
+    /**
+     * Conversation log with the default sizes and flush interval.
+     */
+    public ConversationLog(Storage storage) {
+        this(storage, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_MILLIS,
+             DEFAULT_MAX_UNSAVED_TURNS, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * @param storage Backend holding conversation_history
+     * @param capacity Turns kept in memory per session
+     * @param batchSize Most turns written per storage call
+     * @param flushMillis Longest a turn waits before being written (0 = only on flush())
+     * @param maxUnsavedTurns Turns held per session until the session is saved
+     * @param queueSize Turns waiting to be written before new ones are dropped
+     */
+    public ConversationLog(Storage storage, int capacity, int batchSize, long flushMillis,
+                           int maxUnsavedTurns, int queueSize) {
+        if (capacity < 1 || batchSize < 1 || queueSize < 1) {
+            throw new IllegalArgumentException("capacity, batchSize and queueSize must be at least 1");
+        }
+        this.storage = storage;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxUnsavedTurns = maxUnsavedTurns;
+        this.queueSize = queueSize;
+        this.pending = new ArrayBlockingQueue<>(queueSize);
+
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "conversation-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        if (flushMillis > 0) {
+            writer.scheduleWithFixedDelay(this::flushSafely, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        }
+        gauges.gauge("conversation.pending", pending::size)
+              .gauge("conversation.sessions", sessions::size);
+    }
+
+    /**
+     * Track a brand-new session: it has no stored history to load, and
+     * its turns are held until sessionSaved.
+     */
+    public void startSession(SessionID sessionId) {
+        sessions.put(sessionId.getValue(), new SessionLog(false));
+    }
+
+    /**
+     * The session's row now exists: queue the turns held for it, and
+     * queue later turns as they are appended.
+     */
+    public void sessionSaved(SessionID sessionId) {
+        SessionLog log = session(sessionId);
+        markSaved(log);
+    }
+
+    /**
+     * Continue a saved session: load its last capacity turns (unless it
+     * is already in memory) and write its new turns straight away.
+     */
+    public void resume(SessionID sessionId) {
+        SessionLog log = sessions.get(sessionId.getValue());
+        if (log == null) {
+            // Read outside the map, so other sessions never wait on the database
+            SessionLog loaded = new SessionLog(true);
+            loaded.recent.addAll(loadRecent(sessionId));
+            log = sessions.putIfAbsent(sessionId.getValue(), loaded);
+            if (log == null) {
+                log = loaded;
+            }
+        }
+        markSaved(log);
+    }
+
+    private void markSaved(SessionLog log) {
+        synchronized (log) {
+            if (log.saved) {
+                return;
+            }
+            log.saved = true;
+            for (ConversationTurn turn : log.unsaved) {
+                enqueue(turn);
+            }
+            log.unsaved.clear();
+        }
+    }
+
+    /**
+     * Record a turn. Returns without waiting for it to be stored.
+     *
+     * @param sessionId Session the turn belongs to
+     * @param role ConversationTurn.ROLE_USER or ROLE_ASSISTANT
+     * @param text Message text
+     * @param preferences Preferences in effect (copied), may be null
+     * @return The recorded turn
+     */
+    public ConversationTurn append(SessionID sessionId, String role, String text, Preferences preferences) {
+        ConversationTurn turn = new ConversationTurn(sessionId, Instant.now(), role, text, copy(preferences));
+        SessionLog log = session(sessionId);
+        synchronized (log) {
+            if (log.recent.size() == capacity) {
+                log.recent.removeFirst();
+            }
+            log.recent.addLast(turn);
+            if (log.saved) {
+                enqueue(turn);
+            } else {
+                log.unsaved.add(turn);
+                if (log.unsaved.size() > maxUnsavedTurns) {
+                    log.unsaved.remove(0);
+                    TURNS_DROPPED.increment();
+                }
+            }
+        }
+        TURNS_APPENDED.increment();
+        if (pending.size() >= batchSize) {
+            try {
+                writer.execute(this::flushSafely);
+            } catch (RejectedExecutionException e) {
+                // Closed; close() flushed what was queued
+            }
+        }
+        return turn;
+    }
+
+    /**
+     * The last n turns of a session (at most capacity), oldest first.
+     * Sessions not started or resumed here have none.
+     */
+    public List<ConversationTurn> recentTurns(SessionID sessionId, int n) {
+        SessionLog log = sessions.get(sessionId.getValue());
+        if (log == null) {
+            return new ArrayList<>();
+        }
+        synchronized (log) {
+            List<ConversationTurn> turns = new ArrayList<>(log.recent);
+            return turns.subList(Math.max(0, turns.size() - n), turns.size());
+        }
+    }
+
+    /**
+     * Stop keeping a session in memory. Turns already queued are still
+     * written; turns held for a session that was never saved are dropped.
+     */
+    public void release(SessionID sessionId) {
+        SessionLog log = sessions.remove(sessionId.getValue());
+        if (log != null) {
+            synchronized (log) {
+                TURNS_DROPPED.add(log.unsaved.size());
+                log.unsaved.clear();
+            }
+        }
+    }
+
+    /**
+     * Write every queued turn now, in batches of batchSize, starting with
+     * turns left over from failed writes. Stops early if a write fails
+     * for a transient reason; those turns are tried again next time.
+     * Unlike the background writer, this does not wait out the back-off.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            writeQueued();
+        }
+    }
+
+    private void writeQueued() {
+        List<ConversationTurn> batch = new ArrayList<>(batchSize);
+        while (true) {
+            while (batch.size() < batchSize && !retry.isEmpty()) {
+                batch.add(retry.pollFirst());
+            }
+            pending.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            List<ConversationTurn> failed;
+            try {
+                failed = write(batch);
+            } finally {
+                FLUSH_LATENCY.recordSince(start);
+            }
+            batch.clear();
+            if (!failed.isEmpty()) {
+                keepForRetry(failed);
+                return;
+            }
+            retryDelayMillis = 0;
+        }
+    }
+
+    /**
+     * Write a batch. If the database rejects it, write each session's
+     * turns separately; after any other failure keep the whole batch.
+     *
+     * @return Turns that failed for a transient reason
+     */
+    private List<ConversationTurn> write(List<ConversationTurn> batch) {
+        try {
+            storage.appendConversationTurns(batch);
+            persisted(batch);
+            return List.of();
+        } catch (RuntimeException e) {
+            PERSIST_FAILURES.increment();
+            if (!isRejected(e)) {
+                LOG.warn("⚠️ Warning: Failed to save " + batch.size() + " conversation turns: " + e.getMessage());
+                return new ArrayList<>(batch);
+            }
+            LOG.warn("⚠️ Warning: " + batch.size() + " conversation turns rejected, " +
+                     "retrying by session: " + e.getMessage());
+        }
+
+        Map<SessionID, List<ConversationTurn>> bySession = new LinkedHashMap<>();
+        for (ConversationTurn turn : batch) {
+            bySession.computeIfAbsent(turn.getSessionId(), id -> new ArrayList<>()).add(turn);
+        }
+        List<ConversationTurn> failed = new ArrayList<>();
+        for (Map.Entry<SessionID, List<ConversationTurn>> entry : bySession.entrySet()) {
+            List<ConversationTurn> turns = entry.getValue();
+            try {
+                storage.appendConversationTurns(turns);
+                persisted(turns);
+            } catch (RuntimeException e) {
+                PERSIST_FAILURES.increment();
+                if (isRejected(e)) {
+                    TURNS_DROPPED.add(turns.size());
+                    turns.forEach(attempts::remove);
+                    LOG.error("❌ Conversation turns rejected for session " + entry.getKey().getValue() +
+                              ", " + turns.size() + " dropped: " + e.getMessage());
+                } else {
+                    failed.addAll(turns);
+                }
+            }
+        }
+        return failed;
+    }
+
+    private void persisted(List<ConversationTurn> turns) {
+        TURNS_PERSISTED.add(turns.size());
+        if (!attempts.isEmpty()) {
+            turns.forEach(attempts::remove);
+        }
+    }
+
+    /**
+     * Put failed turns back at the front of the retry list, in order,
+     * dropping those out of attempts and the oldest beyond queueSize, and
+     * double the writer's back-off.
+     */
+    private void keepForRetry(List<ConversationTurn> failed) {
+        for (int i = failed.size() - 1; i >= 0; i--) {
+            ConversationTurn turn = failed.get(i);
+            int tried = attempts.merge(turn, 1, Integer::sum);
+            if (tried >= MAX_WRITE_ATTEMPTS) {
+                attempts.remove(turn);
+                TURNS_DROPPED.increment();
+            } else {
+                retry.addFirst(turn);
+            }
+        }
+        while (retry.size() > queueSize) {
+            attempts.remove(retry.pollFirst());
+            TURNS_DROPPED.increment();
+        }
+        retryDelayMillis = retryDelayMillis == 0 ? INITIAL_RETRY_DELAY_MILLIS
+                                                 : Math.min(retryDelayMillis * 2, MAX_RETRY_DELAY_MILLIS);
+        retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryDelayMillis);
+        if (!closed) {
+            LOG.error("❌ Failed to save conversation turns, " + retry.size() +
+                      " kept for a retry in " + retryDelayMillis + " ms");
+        }
+    }
+
+    /**
+     * Whether the database refused the rows themselves (SQLState class 22
+     * data exception or 23 integrity violation, e.g. the session is gone),
+     * so writing them again cannot succeed.
+     */
+    private static boolean isRejected(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                return state != null && (state.startsWith("22") || state.startsWith("23"));
+            }
+        }
+        return false;
+    }
+
+    public int getRetryCount() {
+        synchronized (writeLock) {
+            return retry.size();
+        }
+    }
+
+    /**
+     * How long the background writer waits after the last failed write
+     * (0 if the last write succeeded).
+     */
+    public long getRetryDelayMillis() {
+        synchronized (writeLock) {
+            return retryDelayMillis;
+        }
+    }
+
+    /**
+     * Stop the writer and write what is queued. Turns that still cannot
+     * be written are lost.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (writeLock) {
+            closed = true;
+            writeQueued();
+            int lost = retry.size() + pending.size();
+            if (lost > 0) {
+                TURNS_DROPPED.add(lost);
+                retry.clear();
+                attempts.clear();
+                pending.clear();
+                LOG.error("❌ Closed with " + lost + " conversation turns not saved; they are lost");
+            }
+        }
+        gauges.remove();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Background write, skipped while backing off after a failure.
+     */
+    private void flushSafely() {
+        try {
+            synchronized (writeLock) {
+                if (retryDelayMillis > 0 && System.nanoTime() - retryAt < 0) {
+                    return;
+                }
+                writeQueued();
+            }
+        } catch (RuntimeException e) {
+            LOG.error("❌ Conversation writer failed: " + e.getMessage());
+        }
+    }
+
+    private void enqueue(ConversationTurn turn) {
+        if (!pending.offer(turn)) {
+            TURNS_DROPPED.increment();
+            LOG.warn("⚠️ Warning: Conversation write queue full, turn not saved");
+        }
+    }
+
+    /**
+     * The session's log. A session first seen here (not started or
+     * resumed) starts empty, with its turns held until sessionSaved.
+     */
+    private SessionLog session(SessionID sessionId) {
+        SessionLog log = sessions.get(sessionId.getValue());
+        if (log != null) {
+            return log;
+        }
+        SessionLog created = new SessionLog(false);
+        log = sessions.putIfAbsent(sessionId.getValue(), created);
+        return log != null ? log : created;
+    }
+
+    private List<ConversationTurn> loadRecent(SessionID sessionId) {
+        try {
+            List<ConversationTurn> stored = storage.loadRecentTurns(sessionId, capacity);
+            LOG.debug(() -> "✓ Loaded " + stored.size() + " turns for session " + sessionId.getValue());
+            return stored;
+        } catch (RuntimeException e) {
+            LOG.warn("⚠️ Warning: Could not load conversation history: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static Preferences copy(Preferences prefs) {
+        if (prefs == null) {
+            return null;
+        }
+        return new Preferences(prefs.getInterests() != null ? new ArrayList<>(prefs.getInterests()) : null,
+                               prefs.getBudget(), prefs.getRadius(), prefs.getTransportMode(),
+                               prefs.isAccessibilityNeeds());
+    }
+
+    /**
+     * Per-session state, guarded by its own monitor.
+     */
+    private static final class SessionLog {
+        final Deque<ConversationTurn> recent = new ArrayDeque<>();
+        final List<ConversationTurn> unsaved = new ArrayList<>();
+        boolean saved;
+
+        SessionLog(boolean saved) {
+            this.saved = saved;
+        }
+    }
+}
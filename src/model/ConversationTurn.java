@@ -0,0 +1,69 @@
+package model;
+
+import domain.Preferences;
+import domain.SessionID;
+import java.time.Instant;
+
+/**
+ * One message of a planning conversation: what the user asked for or what
+ * the assistant answered, with the preferences in effect at the time.
+ * Stored in the conversation_history table.
+ *
+ * Traceability:
+ * - FR-4: Allow preference adjustments (conversational context)
+ * - FR-17: Store and retrieve session history
+ *
+ * @author CPS731 Team 20
+ */
+public class ConversationTurn {
+
+    public static final String ROLE_USER = "user";
+    public static final String ROLE_ASSISTANT = "assistant";
+
+    private final SessionID sessionId;
+    private final Instant timestamp;
+    private final String role;
+    private final String text;
+    private final Preferences preferences;
+
+    /**
+     * @param sessionId Session the turn belongs to
+     * @param timestamp When it was said
+     * @param role ROLE_USER or ROLE_ASSISTANT
+     * @param text Message text
+     * @param preferences Snapshot of the preferences at the time (may be null)
+     */
+    public ConversationTurn(SessionID sessionId, Instant timestamp, String role, String text,
+                            Preferences preferences) {
+        this.sessionId = sessionId;
+        this.timestamp = timestamp;
+        this.role = role;
+        this.text = text;
+        this.preferences = preferences;
+    }
+
+    public SessionID getSessionId() {
+        return sessionId;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Preferences getPreferences() {
+        return preferences;
+    }
+
+    @Override
+    public String toString() {
+        return role + ": " + text;
+    }
+}
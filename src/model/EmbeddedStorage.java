@@ -0,0 +1,690 @@
+package model;
+
+import domain.*;
+import service.LogStore;
+import service.Log;
+import service.MetricsRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Storage on an embedded LogStore: no database server, reads served from
+ * a local file through an in-memory index.
+ *
+ * Each profile, session, POI and event is one record in its own namespace,
+ * encoded with DataOutputStream. Sessions also have an in-memory
+ * user -> sessions index sorted by (createdAt, sessionId) descending,
+ * rebuilt when the store opens, so session history reads only the
+ * sessions it returns. Events are append-only
+ * and keyed by a sequence number; getEventsByUser scans them.
+ * Conversation turns are keyed by session ID and a per-session sequence
+ * number, so the last N turns of a session are N direct reads; archived
+ * turns keep counting in turn_archive.
+ *
+ * @author CPS731 Team 20
+ */
+public class EmbeddedStorage implements Storage {
+
+    private static final Log LOG = Log.get(EmbeddedStorage.class);
+
+    public static final long DEFAULT_COMPACTION_SECONDS = 60;
+
+    private static final String PROFILES = "profile";
+    private static final String SESSIONS = "session";
+    private static final String SESSION_ARCHIVE = "session_archive";
+    private static final String POIS = "poi";
+    private static final String EVENTS = "event";
+    private static final String TURNS = "turn";
+    private static final String TURN_ARCHIVE = "turn_archive";
+    private static final int SESSION_LOCK_STRIPES = 64;
+
+    private final LogStore store;
+
+    // userId -> that user's sessions, newest first; sessionId -> its index key
+    private final Map<String, NavigableSet<SessionKey>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, SessionKey> sessionKeys = new ConcurrentHashMap<>();
+    // sessionId -> last save time (epoch ms), for expiring idle sessions
+    private final Map<String, Long> lastActive = new ConcurrentHashMap<>();
+    private final AtomicLong nextEventId = new AtomicLong();
+    // sessionId -> number of turns stored for it (the next turn's sequence number)
+    private final Map<String, AtomicLong> turnCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> archivedTurnCounts = new ConcurrentHashMap<>();
+    // Striped by session ID: saving a session, appending its turns and
+    // archiving it never interleave
+    private final Object[] sessionLocks = new Object[SESSION_LOCK_STRIPES];
+    private final MetricsRegistry.GaugeSet gauges = MetricsRegistry.shared().gaugeSet();
+
+    /**
+     * Open (or create) a store in a directory, with periodic compaction.
+     *
+     * @param directory Directory holding the log
+     * @param syncWrites Force each write to disk before returning
+     * @throws IOException if the log cannot be opened
+     */
+    public EmbeddedStorage(Path directory, boolean syncWrites) throws IOException {
+        this.store = new LogStore(directory, syncWrites);
+        for (int i = 0; i < sessionLocks.length; i++) {
+            sessionLocks[i] = new Object();
+        }
+
+        for (String key : store.keys(SESSIONS)) {
+            byte[] value = store.get(SESSIONS, key);
+            Session session = value != null ? decodeSession(new SessionID(key), value) : null;
+            if (session != null) {
+                indexSession(session);
+                lastActive.put(key, decode(value, EmbeddedStorage::readLastActive));
+            }
+        }
+        long maxEventId = -1;
+        for (String key : store.keys(EVENTS)) {
+            maxEventId = Math.max(maxEventId, Long.parseLong(key));
+        }
+        nextEventId.set(maxEventId + 1);
+        countTurns(TURNS, turnCounts);
+        countTurns(TURN_ARCHIVE, archivedTurnCounts);
+
+        store.startCompaction(DEFAULT_COMPACTION_SECONDS);
+        gauges.gauge("storage.embedded.fileBytes", store::getFileBytes)
+              .gauge("storage.embedded.garbageBytes", store::getGarbageBytes);
+    }
+
+    /**
+     * Rebuild per-session turn counts from the keys of a namespace.
+     */
+    private void countTurns(String namespace, Map<String, AtomicLong> counts) {
+        for (String key : store.keys(namespace)) {
+            int split = key.lastIndexOf('#');
+            long next = Long.parseLong(key.substring(split + 1)) + 1;
+            counts.computeIfAbsent(key.substring(0, split), k -> new AtomicLong())
+                  .accumulateAndGet(next, Math::max);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "embedded";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    public LogStore getLogStore() {
+        return store;
+    }
+
+    // ========================================================================
+    // Profiles and Sessions
+    // ========================================================================
+
+    @Override
+    public boolean saveProfile(Profile profile) {
+        boolean created = !store.contains(PROFILES, profile.getUserId().getValue());
+        store.put(PROFILES, profile.getUserId().getValue(),
+                  encode(out -> writePreferences(out, profile.getPreferences())));
+        LOG.debug(() -> "✓ Profile saved: " + profile.getUserId().getValue());
+        return created;
+    }
+
+    @Override
+    public Profile loadProfile(UserID userId) {
+        byte[] value = store.get(PROFILES, userId.getValue());
+        if (value == null) {
+            return null;
+        }
+        return decode(value, in -> {
+            Profile profile = new Profile();
+            profile.setUserId(userId);
+            profile.setPreferences(readPreferences(in));
+            return profile;
+        });
+    }
+
+    @Override
+    public int getProfileCount() {
+        return store.size(PROFILES);
+    }
+
+    /**
+     * Keeps the first stored creation time, like the sessions table's
+     * created_at default.
+     */
+    @Override
+    public boolean saveSession(Session session) {
+        String id = session.getSessionId().getValue();
+        boolean created;
+        synchronized (sessionLock(id)) {
+            created = !store.contains(SESSIONS, id);
+            long createdMillis;
+            if (session.getCreatedAt() != null) {
+                createdMillis = session.getCreatedAt().toEpochMilli();
+            } else {
+                SessionKey existing = sessionKeys.get(id);
+                createdMillis = existing != null ? existing.createdMillis : System.currentTimeMillis();
+            }
+
+            long now = System.currentTimeMillis();
+            store.put(SESSIONS, id, encode(out -> {
+                writeString(out, session.getUserId() != null ? session.getUserId().getValue() : null);
+                out.writeLong(createdMillis);
+                out.writeInt(session.getRequestCount());
+                out.writeLong(now);
+            }));
+            indexSession(id, session.getUserId() != null ? session.getUserId().getValue() : null, createdMillis);
+            lastActive.put(id, now);
+        }
+        LOG.debug(() -> "✓ Session saved: " + id);
+        return created;
+    }
+
+    private Object sessionLock(String sessionId) {
+        return sessionLocks[(sessionId.hashCode() & 0x7fffffff) % sessionLocks.length];
+    }
+
+    @Override
+    public Session loadSession(SessionID sessionId) {
+        byte[] value = store.get(SESSIONS, sessionId.getValue());
+        return value != null ? decodeSession(sessionId, value) : null;
+    }
+
+    /**
+     * Session record: userId, createdAt, requestCount, lastActive.
+     */
+    private static Session decodeSession(SessionID sessionId, byte[] value) {
+        return decode(value, in -> {
+            Session session = new Session();
+            session.setSessionId(sessionId);
+            String userId = readString(in);
+            if (userId != null) {
+                session.setUserId(new UserID(userId));
+            }
+            session.setCreatedAt(Instant.ofEpochMilli(in.readLong()));
+            session.setRequestCount(in.readInt());
+            return session;
+        });
+    }
+
+    private static long readLastActive(DataInputStream in) throws IOException {
+        readString(in);
+        long createdMillis = in.readLong();
+        in.readInt();
+        // Records written before lastActive was stored end here
+        return in.available() >= Long.BYTES ? in.readLong() : createdMillis;
+    }
+
+    @Override
+    public List<Session> getSessionsByUser(UserID userId) {
+        List<Session> result = new ArrayList<>();
+        NavigableSet<SessionKey> keys = sessionsByUser.get(userId.getValue());
+        if (keys == null) {
+            return result;
+        }
+        for (SessionKey key : keys) {
+            Session session = loadSession(new SessionID(key.sessionId));
+            if (session != null) {
+                result.add(session);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public SessionPage getSessionHistory(UserID userId, SessionSummary after, int limit) {
+        List<SessionSummary> sessions = new ArrayList<>(limit);
+        NavigableSet<SessionKey> keys = sessionsByUser.get(userId.getValue());
+        if (keys == null) {
+            return new SessionPage(sessions, null);
+        }
+        if (after != null) {
+            SessionKey cursor = new SessionKey(after.getSessionId().getValue(), null,
+                                               after.getCreatedAt().toEpochMilli());
+            keys = keys.tailSet(cursor, false);
+        }
+
+        boolean more = false;
+        for (SessionKey key : keys) {
+            if (sessions.size() == limit) {
+                more = true;
+                break;
+            }
+            Session session = loadSession(new SessionID(key.sessionId));
+            if (session != null) {
+                sessions.add(new SessionSummary(session.getSessionId(), session.getCreatedAt(),
+                                                session.getRequestCount()));
+            }
+        }
+        return new SessionPage(sessions, more ? sessions.get(sessions.size() - 1) : null);
+    }
+
+    @Override
+    public int getSessionCount() {
+        return store.size(SESSIONS);
+    }
+
+    /**
+     * Sessions are picked from the in-memory lastActive map, so finding a
+     * batch reads no records; each archived session is copied to the
+     * session_archive namespace and its conversation turns to turn_archive,
+     * then both are deleted (as MySQL copies to the archive tables before
+     * the conversation_history foreign key cascades). Each session is
+     * archived under its lock, after checking that it was not saved since
+     * the scan.
+     */
+    @Override
+    public List<SessionID> archiveIdleSessions(Instant idleBefore, int limit) {
+        long cutoff = idleBefore.toEpochMilli();
+        List<Map.Entry<String, Long>> idle = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : lastActive.entrySet()) {
+            if (entry.getValue() < cutoff) {
+                idle.add(entry);
+            }
+        }
+        idle.sort(Map.Entry.comparingByValue());
+
+        List<SessionID> archived = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : idle.subList(0, Math.min(limit, idle.size()))) {
+            String id = entry.getKey();
+            synchronized (sessionLock(id)) {
+                byte[] value = store.get(SESSIONS, id);
+                // Skip sessions saved again (or removed) since the scan
+                if (value == null || !entry.getValue().equals(lastActive.get(id))) {
+                    continue;
+                }
+                store.put(SESSION_ARCHIVE, id, value);
+                store.delete(SESSIONS, id);
+                archiveTurns(id);
+                lastActive.remove(id);
+                SessionKey key = sessionKeys.remove(id);
+                if (key != null && key.userId != null) {
+                    NavigableSet<SessionKey> keys = sessionsByUser.get(key.userId);
+                    if (keys != null) {
+                        keys.remove(key);
+                    }
+                }
+            }
+            archived.add(new SessionID(id));
+        }
+        LOG.debug(() -> "✓ Archived " + archived.size() + " idle sessions");
+        return archived;
+    }
+
+    private void indexSession(Session session) {
+        indexSession(session.getSessionId().getValue(),
+                     session.getUserId() != null ? session.getUserId().getValue() : null,
+                     session.getCreatedAt().toEpochMilli());
+    }
+
+    private void indexSession(String sessionId, String userId, long createdMillis) {
+        SessionKey key = new SessionKey(sessionId, userId, createdMillis);
+        SessionKey previous = sessionKeys.put(sessionId, key);
+        if (previous != null && previous.userId != null && !previous.equals(key)) {
+            NavigableSet<SessionKey> keys = sessionsByUser.get(previous.userId);
+            if (keys != null) {
+                keys.remove(previous);
+            }
+        }
+        if (userId != null) {
+            sessionsByUser.computeIfAbsent(userId, u -> new ConcurrentSkipListSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Position of a session in its user's history: newest first, ties
+     * broken by session ID (descending), the same order as MySQL's
+     * ORDER BY created_at DESC, session_id DESC.
+     */
+    private static final class SessionKey implements Comparable<SessionKey> {
+        final String sessionId;
+        final String userId;
+        final long createdMillis;
+
+        SessionKey(String sessionId, String userId, long createdMillis) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+            this.createdMillis = createdMillis;
+        }
+
+        @Override
+        public int compareTo(SessionKey other) {
+            int byTime = Long.compare(other.createdMillis, createdMillis);
+            return byTime != 0 ? byTime : other.sessionId.compareTo(sessionId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SessionKey)) return false;
+            SessionKey other = (SessionKey) o;
+            return createdMillis == other.createdMillis && sessionId.equals(other.sessionId) &&
+                   java.util.Objects.equals(userId, other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return sessionId.hashCode();
+        }
+    }
+
+    // ========================================================================
+    // POIs
+    // ========================================================================
+
+    @Override
+    public List<POI> loadPOIs() {
+        List<POI> pois = new ArrayList<>();
+        for (String id : store.keys(POIS)) {
+            byte[] value = store.get(POIS, id);
+            if (value != null) {
+                pois.add(decode(value, in -> {
+                    POI poi = new POI();
+                    poi.setId(id);
+                    poi.setName(readString(in));
+                    poi.setCategory(readString(in));
+                    double latitude = in.readDouble();
+                    double longitude = in.readDouble();
+                    if (!Double.isNaN(latitude)) {
+                        poi.setLocation(new LatLng(latitude, longitude));
+                    }
+                    poi.setRating(in.readFloat());
+                    poi.setPriceLevel(readString(in));
+                    poi.setTags(readList(in));
+                    poi.setOpenNow(in.readBoolean());
+                    poi.setAddress(readString(in));
+                    return poi;
+                }));
+            }
+        }
+        pois.sort(Comparator.comparing(POI::getId));
+        return pois;
+    }
+
+    @Override
+    public void savePOIs(Collection<POI> pois) {
+        for (POI poi : pois) {
+            store.put(POIS, poi.getId(), encode(out -> {
+                writeString(out, poi.getName());
+                writeString(out, poi.getCategory());
+                // A POI without a location is stored as NaN, as SpatialGridIndex treats it
+                LatLng location = poi.getLocation();
+                out.writeDouble(location != null ? location.getLatitude() : Double.NaN);
+                out.writeDouble(location != null ? location.getLongitude() : Double.NaN);
+                out.writeFloat(poi.getRating());
+                writeString(out, poi.getPriceLevel());
+                writeList(out, poi.getTags());
+                out.writeBoolean(poi.isOpenNow());
+                writeString(out, poi.getAddress());
+            }));
+        }
+    }
+
+    @Override
+    public void deletePOIs(Collection<String> poiIds) {
+        for (String id : poiIds) {
+            store.delete(POIS, id);
+        }
+    }
+
+    // ========================================================================
+    // Conversation History
+    // ========================================================================
+
+    /**
+     * Like the conversation_history foreign key, rejects the whole batch
+     * (SQLState 23000) if any turn's session has no record, e.g. because
+     * it was archived.
+     */
+    @Override
+    public void appendConversationTurns(List<ConversationTurn> turns) {
+        for (ConversationTurn turn : turns) {
+            if (!store.contains(SESSIONS, turn.getSessionId().getValue())) {
+                throw new RuntimeException("Failed to save conversation history",
+                    new SQLException("No session " + turn.getSessionId().getValue() +
+                                     " for conversation turn", "23000"));
+            }
+        }
+        for (ConversationTurn turn : turns) {
+            String sessionId = turn.getSessionId().getValue();
+            synchronized (sessionLock(sessionId)) {
+                // Archived since the check: the turn would outlive its session
+                if (!store.contains(SESSIONS, sessionId)) {
+                    LOG.warn("⚠️ Warning: Session " + sessionId + " archived while saving its conversation turns");
+                    continue;
+                }
+                long seq = turnCounts.computeIfAbsent(sessionId, k -> new AtomicLong()).getAndIncrement();
+                store.put(TURNS, turnKey(sessionId, seq), encode(out -> {
+                    out.writeLong(turn.getTimestamp().toEpochMilli());
+                    writeString(out, turn.getRole());
+                    writeString(out, turn.getText());
+                    writePreferences(out, turn.getPreferences());
+                }));
+            }
+        }
+    }
+
+    @Override
+    public List<ConversationTurn> loadRecentTurns(SessionID sessionId, int limit) {
+        List<ConversationTurn> turns = new ArrayList<>(limit);
+        AtomicLong count = turnCounts.get(sessionId.getValue());
+        if (count == null) {
+            return turns;
+        }
+        long end = count.get();
+        for (long seq = Math.max(0, end - limit); seq < end; seq++) {
+            byte[] value = store.get(TURNS, turnKey(sessionId.getValue(), seq));
+            if (value != null) {
+                turns.add(decode(value, in -> new ConversationTurn(sessionId, Instant.ofEpochMilli(in.readLong()),
+                                                                   readString(in), readString(in),
+                                                                   readPreferences(in))));
+            }
+        }
+        return turns;
+    }
+
+    /**
+     * Move a session's turns to turn_archive, numbered after the turns
+     * archived for the same ID before, so a re-created session ID never
+     * overwrites them.
+     */
+    private void archiveTurns(String sessionId) {
+        AtomicLong count = turnCounts.remove(sessionId);
+        if (count != null) {
+            AtomicLong archivedCount = archivedTurnCounts.computeIfAbsent(sessionId, k -> new AtomicLong());
+            for (long seq = 0, end = count.get(); seq < end; seq++) {
+                String key = turnKey(sessionId, seq);
+                byte[] value = store.get(TURNS, key);
+                if (value != null) {
+                    store.put(TURN_ARCHIVE, turnKey(sessionId, archivedCount.getAndIncrement()), value);
+                    store.delete(TURNS, key);
+                }
+            }
+        }
+    }
+
+    private static String turnKey(String sessionId, long seq) {
+        return sessionId + "#" + String.format("%010d", seq);
+    }
+
+    // ========================================================================
+    // Events
+    // ========================================================================
+
+    @Override
+    public void appendEvent(Event event) {
+        Instant timestamp = event.getTimestamp() != null ? event.getTimestamp() : Instant.now();
+        store.put(EVENTS, Long.toString(nextEventId.getAndIncrement()), encode(out -> {
+            writeString(out, event.getEventType());
+            writeString(out, event.getUserId() != null ? event.getUserId().getValue() : null);
+            out.writeLong(timestamp.toEpochMilli());
+            writeString(out, event.getDetails());
+        }));
+    }
+
+    @Override
+    public List<Event> getEventsByUser(UserID userId, Instant since) {
+        List<Event> events = new ArrayList<>();
+        long sinceMillis = since != null ? since.toEpochMilli() : Long.MIN_VALUE;
+        for (String key : store.keys(EVENTS)) {
+            byte[] value = store.get(EVENTS, key);
+            if (value == null) {
+                continue;
+            }
+            Event event = decode(value, in -> {
+                String type = readString(in);
+                String user = readString(in);
+                long millis = in.readLong();
+                if (!userId.getValue().equals(user) || millis < sinceMillis) {
+                    return null;
+                }
+                return new Event(type, userId, Instant.ofEpochMilli(millis), readString(in));
+            });
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        events.sort(Comparator.comparing(Event::getTimestamp));
+        return events;
+    }
+
+    @Override
+    public void close() {
+        gauges.remove();
+        try {
+            store.close();
+        } catch (IOException e) {
+            LOG.error("❌ Error closing embedded store: " + e.getMessage());
+        }
+    }
+
+    // ========================================================================
+    // Encoding Helpers
+    // ========================================================================
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private static byte[] encode(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> T decode(byte[] value, Reader<T> reader) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            return reader.read(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Corrupt stored record", e);
+        }
+    }
+
+    // String tags: 0 = null, 1 = writeUTF (records written before long
+    // strings were supported; limited to 64 KB), 2 = int length + UTF-8 bytes
+    private static final byte STRING_NULL = 0;
+    private static final byte STRING_UTF = 1;
+    private static final byte STRING_BYTES = 2;
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeByte(STRING_NULL);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(STRING_BYTES);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case STRING_NULL:
+                return null;
+            case STRING_UTF:
+                return in.readUTF();
+            case STRING_BYTES:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            default:
+                throw new IOException("Unknown string tag " + tag);
+        }
+    }
+
+    private static void writePreferences(DataOutputStream out, Preferences prefs) throws IOException {
+        out.writeBoolean(prefs != null);
+        if (prefs != null) {
+            writeList(out, prefs.getInterests());
+            writeString(out, prefs.getBudget());
+            out.writeInt(prefs.getRadius());
+            writeString(out, prefs.getTransportMode());
+            out.writeBoolean(prefs.isAccessibilityNeeds());
+        }
+    }
+
+    private static Preferences readPreferences(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Preferences prefs = new Preferences();
+        prefs.setInterests(readList(in));
+        prefs.setBudget(readString(in));
+        prefs.setRadius(in.readInt());
+        prefs.setTransportMode(readString(in));
+        prefs.setAccessibilityNeeds(in.readBoolean());
+        return prefs;
+    }
+
+    // List header: -1 = null; n >= 0 = n writeUTF entries (records written
+    // before long entries were supported); -2 - n = n writeString entries
+    private static final int LIST_NULL = -1;
+
+    private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(LIST_NULL);
+            return;
+        }
+        out.writeInt(-2 - values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readList(DataInputStream in) throws IOException {
+        int header = in.readInt();
+        if (header == LIST_NULL) {
+            return null;
+        }
+        boolean tagged = header < LIST_NULL;
+        int size = tagged ? -2 - header : header;
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(tagged ? readString(in) : in.readUTF());
+        }
+        return values;
+    }
+}
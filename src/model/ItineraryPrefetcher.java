@@ -0,0 +1,217 @@
+package model;
+
+import domain.*;
+import service.Log;
+import service.MetricsRegistry;
+import service.Tracer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * «entity» per-session cache of speculatively built itineraries.
+ *
+ * After ranking, the itineraries for the top N cards are built on a
+ * low-priority background executor so that a card click is a cache hit
+ * instead of a synchronous buildMicroItinerary call. The executor is
+ * shared by every session and bounded: when its queue is full, cards are
+ * simply not prefetched, and a click that would wait longer than
+ * waitMillis for a prefetch builds the itinerary itself.
+ *
+ * Prefetched entries are only valid for the preferences they were built with;
+ * callers must cancel() whenever preferences change.
+ *
+ * Traceability:
+ * - FR-3: Build micro-itineraries
+ * - NFR-1: Responsiveness
+ *
+ * @author CPS731 Team 20
+ */
+public class ItineraryPrefetcher {
+
+    private static final Log LOG = Log.get(ItineraryPrefetcher.class);
+
+    private static final int DEFAULT_PREFETCH_COUNT = 3;
+    public static final long DEFAULT_WAIT_MILLIS = 1000;
+    private static final int PREFETCH_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int PREFETCH_QUEUE_SIZE = 256;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadPoolExecutor SHARED_EXECUTOR = createExecutor();
+
+    // placeId -> itinerary being built (or already built)
+    private final Map<String, Future<Itinerary>> cache;
+    private final ExecutorService executor;
+    private int prefetchCount;
+    private long waitMillis = DEFAULT_WAIT_MILLIS;
+    private volatile boolean closed;
+
+    // Statistics (for testing/demo)
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Prefetcher on the executor shared by all sessions.
+     */
+    public ItineraryPrefetcher() {
+        this(SHARED_EXECUTOR);
+    }
+
+    /**
+     * @param executor Executor the itineraries are built on (not shut down here)
+     */
+    public ItineraryPrefetcher(ExecutorService executor) {
+        this.cache = new ConcurrentHashMap<>();
+        this.prefetchCount = DEFAULT_PREFETCH_COUNT;
+        this.executor = executor;
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            PREFETCH_THREADS, PREFETCH_THREADS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(PREFETCH_QUEUE_SIZE), r -> {
+                Thread t = new Thread(r, "itinerary-prefetch-" + THREAD_COUNTER.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        MetricsRegistry.shared().gauge("prefetch.queued", () -> pool.getQueue().size());
+        return pool;
+    }
+
+    /**
+     * Start building itineraries for the top ranked cards in the background.
+     * Any previous prefetch is cancelled first.
+     *
+     * @param engine Recommendation engine used to build itineraries
+     * @param prefs Preferences the cards were ranked with
+     * @param rankedCards Cards in ranked order
+     */
+    public void prefetch(RecommendationEngine engine, Preferences prefs, List<RecommendationCard> rankedCards) {
+        cancel();
+
+        if (closed || engine == null || prefs == null || rankedCards == null || rankedCards.isEmpty()) {
+            return;
+        }
+
+        // Snapshot preferences: the controller mutates its copy in place
+        Preferences snapshot = copyOf(prefs);
+        int count = Math.min(prefetchCount, rankedCards.size());
+        for (int i = 0; i < count; i++) {
+            RecommendationCard card = rankedCards.get(i);
+            // Wrapped so the background build shows up in the caller's trace
+            cache.computeIfAbsent(card.getPlaceId(), id -> {
+                try {
+                    return executor.submit(Tracer.wrap(() -> engine.buildMicroItinerary(snapshot, card)));
+                } catch (RejectedExecutionException e) {
+                    // Queue full: the card is built on click instead
+                    return null;
+                }
+            });
+        }
+
+        LOG.debug(() -> "Prefetching " + count + " itineraries");
+    }
+
+    /**
+     * Get the itinerary for a card, building it synchronously on a cache miss.
+     * Waits up to waitMillis for an in-flight prefetch of the same card
+     * rather than duplicating it, then builds it here.
+     *
+     * @param engine Recommendation engine used on a cache miss
+     * @param prefs Current preferences
+     * @param card Selected card
+     * @return Itinerary for the card
+     */
+    public Itinerary getItinerary(RecommendationEngine engine, Preferences prefs, RecommendationCard card) {
+        Future<Itinerary> future = cache.get(card.getPlaceId());
+        if (future != null) {
+            try {
+                Itinerary itinerary = future.get(waitMillis, TimeUnit.MILLISECONDS);
+                hits.incrementAndGet();
+                return itinerary;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (TimeoutException e) {
+                // Still queued behind other sessions' prefetches
+                future.cancel(true);
+                cache.remove(card.getPlaceId(), future);
+            } catch (CancellationException | ExecutionException e) {
+                // Fall through and build synchronously
+                cache.remove(card.getPlaceId(), future);
+            }
+        }
+
+        misses.incrementAndGet();
+        Itinerary itinerary = engine.buildMicroItinerary(prefs, card);
+        cache.put(card.getPlaceId(), CompletableFuture.completedFuture(itinerary));
+        return itinerary;
+    }
+
+    /**
+     * Check whether an itinerary for this card is cached or being built.
+     */
+    public boolean isCached(String placeId) {
+        return cache.containsKey(placeId);
+    }
+
+    /**
+     * Cancel in-flight prefetches and drop all cached itineraries.
+     * Call this whenever preferences change.
+     */
+    public void cancel() {
+        List<Future<Itinerary>> pending = new ArrayList<>(cache.values());
+        cache.clear();
+        for (Future<Itinerary> future : pending) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Cancel this session's prefetches and stop prefetching (e.g., when the
+     * session ends). The shared executor keeps running for other sessions.
+     */
+    public void shutdown() {
+        closed = true;
+        cancel();
+    }
+
+    private Preferences copyOf(Preferences prefs) {
+        List<String> interests = prefs.getInterests() != null ? new ArrayList<>(prefs.getInterests()) : null;
+        return new Preferences(interests, prefs.getBudget(), prefs.getRadius(),
+                               prefs.getTransportMode(), prefs.isAccessibilityNeeds());
+    }
+
+    public void setPrefetchCount(int prefetchCount) {
+        this.prefetchCount = Math.max(0, prefetchCount);
+    }
+
+    public int getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    public void setWaitMillis(long waitMillis) {
+        this.waitMillis = Math.max(0, waitMillis);
+    }
+
+    public int getHitCount() {
+        return hits.get();
+    }
+
+    public int getMissCount() {
+        return misses.get();
+    }
+}
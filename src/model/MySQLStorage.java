@@ -0,0 +1,909 @@
+package model;
+
+import domain.*;
+import service.DatabaseConnection;
+import service.FlightEvents;
+import service.Log;
+import service.MetricsRegistry;
+import service.POIBulkImporter;
+import service.POILoader;
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Storage backed by the MySQL schema (docs/schema.sql, docs/schema_pois.sql).
+ *
+ * Each call checks a connection out of DatabaseConnection (normally a
+ * ConnectionPool, which also reuses the prepared statements), runs one
+ * statement and emits a FlightEvents.DbQuery JFR event.
+ *
+ * @author CPS731 Team 20
+ */
+public class MySQLStorage implements Storage {
+
+    private static final Log LOG = Log.get(MySQLStorage.class);
+
+    private static final LongAdder STORE_ERRORS = MetricsRegistry.shared().counter("store.errors");
+
+    private final DatabaseConnection dbConnection;
+
+    public MySQLStorage(DatabaseConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        try (Connection conn = dbConnection.getConnection()) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // ========================================================================
+    // Profiles and Sessions
+    // ========================================================================
+
+    /**
+     * Save profile to database (FR-6).
+     * Uses INSERT ... ON DUPLICATE KEY UPDATE for upsert behavior.
+     *
+     * @param p Profile to save (must have userId and preferences)
+     * @throws IllegalArgumentException if profile or userId is null
+     */
+    @Override
+    public boolean saveProfile(Profile p) {
+        if (p == null || p.getUserId() == null) {
+            throw new IllegalArgumentException("Profile and UserID cannot be null");
+        }
+
+        String sql = "INSERT INTO profiles (user_id, interests, budget, radius, transport_mode, accessibility_needs) " +
+                     "VALUES (?, ?, ?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE " +
+                     "interests = VALUES(interests), " +
+                     "budget = VALUES(budget), " +
+                     "radius = VALUES(radius), " +
+                     "transport_mode = VALUES(transport_mode), " +
+                     "accessibility_needs = VALUES(accessibility_needs)";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            Preferences prefs = p.getPreferences();
+
+            // Set parameters
+            stmt.setString(1, p.getUserId().getValue());
+
+            // Handle interests - convert List<String> to JSON array string
+            if (prefs != null && prefs.getInterests() != null) {
+                String interestsJson = convertListToJson(prefs.getInterests());
+                stmt.setString(2, interestsJson);
+                stmt.setString(3, prefs.getBudget());
+                stmt.setInt(4, prefs.getRadius());
+                stmt.setString(5, prefs.getTransportMode());
+                stmt.setBoolean(6, prefs.isAccessibilityNeeds());
+            } else {
+                // Handle null preferences
+                stmt.setNull(2, Types.VARCHAR);
+                stmt.setNull(3, Types.VARCHAR);
+                stmt.setNull(4, Types.INTEGER);
+                stmt.setNull(5, Types.VARCHAR);
+                stmt.setBoolean(6, false);
+            }
+
+            int rowsAffected = stmt.executeUpdate();
+            dbRows = rowsAffected;
+            LOG.debug(() -> "✓ Profile saved: " + p.getUserId().getValue() +
+                             " (" + rowsAffected + " row(s) affected)");
+            // With useAffectedRows: 1 = inserted, 2 = updated, 0 = unchanged
+            return rowsAffected == 1;
+
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error saving profile to database: " + e.getMessage());
+            throw new RuntimeException("Failed to save profile", e);
+        } finally {
+            dbEvent.finish("saveProfile", sql, dbRows, dbFailed);
+        }
+    }
+
+    /**
+     * Load profile from database (FR-6).
+     *
+     * @param userId User ID to load
+     * @return Profile object if found, null otherwise
+     */
+    @Override
+    public Profile loadProfile(UserID userId) {
+        if (userId == null) {
+            return null;
+        }
+
+        String sql = "SELECT user_id, interests, budget, radius, transport_mode, accessibility_needs " +
+                     "FROM profiles WHERE user_id = ?";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, userId.getValue());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    dbRows = 1;
+                    // Create Profile object
+                    Profile profile = new Profile();
+                    profile.setUserId(new UserID(rs.getString("user_id")));
+
+                    // Create Preferences object
+                    Preferences prefs = new Preferences();
+
+                    // Parse JSON interests back to List<String>
+                    String interestsJson = rs.getString("interests");
+                    if (interestsJson != null) {
+                        prefs.setInterests(convertJsonToList(interestsJson));
+                    }
+
+                    prefs.setBudget(rs.getString("budget"));
+                    prefs.setRadius(rs.getInt("radius"));
+                    prefs.setTransportMode(rs.getString("transport_mode"));
+                    prefs.setAccessibilityNeeds(rs.getBoolean("accessibility_needs"));
+
+                    profile.setPreferences(prefs);
+
+                    LOG.debug(() -> "✓ Profile loaded: " + userId.getValue());
+                    return profile;
+                } else {
+                    dbRows = 0;
+                    LOG.debug(() -> "⚠️ Profile not found: " + userId.getValue());
+                    return null;
+                }
+            }
+
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error loading profile from database: " + e.getMessage());
+            throw new RuntimeException("Failed to load profile", e);
+        } finally {
+            dbEvent.finish("loadProfile", sql, dbRows, dbFailed);
+        }
+    }
+
+    /**
+     * Save session to database (FR-5, FR-17).
+     * Uses INSERT ... ON DUPLICATE KEY UPDATE for upsert behavior.
+     *
+     * @param s Session to save
+     * @throws IllegalArgumentException if session or sessionId is null
+     */
+    @Override
+    public boolean saveSession(Session s) {
+        if (s == null || s.getSessionId() == null) {
+            throw new IllegalArgumentException("Session and SessionID cannot be null");
+        }
+
+        String sql = "INSERT INTO sessions (session_id, user_id, request_count) " +
+                     "VALUES (?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE " +
+                     "last_active = CURRENT_TIMESTAMP, " +
+                     "request_count = VALUES(request_count)";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, s.getSessionId().getValue());
+
+            // user_id can be null for guest sessions
+            if (s.getUserId() != null) {
+                stmt.setString(2, s.getUserId().getValue());
+            } else {
+                stmt.setNull(2, Types.VARCHAR);
+            }
+
+            stmt.setInt(3, s.getRequestCount());
+
+            int rowsAffected = stmt.executeUpdate();
+            dbRows = rowsAffected;
+            LOG.debug(() -> "✓ Session saved: " + s.getSessionId().getValue() +
+                             " (" + rowsAffected + " row(s) affected)");
+            return rowsAffected == 1;
+
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error saving session to database: " + e.getMessage());
+            throw new RuntimeException("Failed to save session", e);
+        } finally {
+            dbEvent.finish("saveSession", sql, dbRows, dbFailed);
+        }
+    }
+
+    /**
+     * Load session from database (FR-17).
+     *
+     * @param sessionId Session ID to load
+     * @return Session object if found, null otherwise
+     */
+    @Override
+    public Session loadSession(SessionID sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+
+        String sql = "SELECT session_id, user_id, created_at, request_count " +
+                     "FROM sessions WHERE session_id = ?";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, sessionId.getValue());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    dbRows = 1;
+                    // Create Session object
+                    Session session = new Session();
+                    session.setSessionId(new SessionID(rs.getString("session_id")));
+
+                    // user_id can be null for guest sessions
+                    String userIdStr = rs.getString("user_id");
+                    if (userIdStr != null) {
+                        session.setUserId(new UserID(userIdStr));
+                    }
+
+                    // Convert SQL Timestamp to Instant
+                    Timestamp timestamp = rs.getTimestamp("created_at");
+                    if (timestamp != null) {
+                        session.setCreatedAt(timestamp.toInstant());
+                    }
+
+                    session.setRequestCount(rs.getInt("request_count"));
+
+                    LOG.debug(() -> "✓ Session loaded: " + sessionId.getValue());
+                    return session;
+                } else {
+                    dbRows = 0;
+                    LOG.debug(() -> "⚠️ Session not found: " + sessionId.getValue());
+                    return null;
+                }
+            }
+
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error loading session from database: " + e.getMessage());
+            throw new RuntimeException("Failed to load session", e);
+        } finally {
+            dbEvent.finish("loadSession", sql, dbRows, dbFailed);
+        }
+    }
+
+    /**
+     * Get count of profiles in database (for testing/demo).
+     *
+     * @return Number of profiles
+     */
+    @Override
+    public int getProfileCount() {
+        String sql = "SELECT COUNT(*) as count FROM profiles";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getInt("count");
+            }
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error counting profiles: " + e.getMessage());
+            throw new RuntimeException("Failed to count profiles", e);
+        } finally {
+            dbEvent.finish("getProfileCount", sql, dbRows, dbFailed);
+        }
+        return 0;
+    }
+
+    /**
+     * Get count of sessions in database (for testing/demo).
+     *
+     * @return Number of sessions
+     */
+    @Override
+    public int getSessionCount() {
+        String sql = "SELECT COUNT(*) as count FROM sessions";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getInt("count");
+            }
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error counting sessions: " + e.getMessage());
+            throw new RuntimeException("Failed to count sessions", e);
+        } finally {
+            dbEvent.finish("getSessionCount", sql, dbRows, dbFailed);
+        }
+        return 0;
+    }
+
+    /**
+     * Get all sessions for a specific user (FR-17).
+     * Orders by most recent first.
+     *
+     * @param userId User ID to get sessions for
+     * @return List of sessions for this user
+     */
+    @Override
+    public List<Session> getSessionsByUser(UserID userId) {
+        List<Session> userSessions = new ArrayList<>();
+
+        if (userId == null) {
+            return userSessions;
+        }
+
+        String sql = "SELECT session_id, user_id, created_at, request_count " +
+                     "FROM sessions WHERE user_id = ? " +
+                     "ORDER BY created_at DESC";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, userId.getValue());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Session session = new Session();
+                    session.setSessionId(new SessionID(rs.getString("session_id")));
+                    session.setUserId(new UserID(rs.getString("user_id")));
+
+                    // Convert SQL Timestamp to Instant
+                    Timestamp timestamp = rs.getTimestamp("created_at");
+                    if (timestamp != null) {
+                        session.setCreatedAt(timestamp.toInstant());
+                    }
+
+                    session.setRequestCount(rs.getInt("request_count"));
+
+                    userSessions.add(session);
+                }
+
+                dbRows = userSessions.size();
+                LOG.debug(() -> "✓ Loaded " + userSessions.size() + " sessions for user: " + userId.getValue());
+            }
+
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error loading sessions for user: " + e.getMessage());
+        } finally {
+            dbEvent.finish("getSessionsByUser", sql, dbRows, dbFailed);
+        }
+
+        return userSessions;
+    }
+
+    /**
+     * One batch per transaction: lock the oldest idle rows (idx_last_active),
+     * copy them to sessions_archive and delete them. Their
+     * conversation_history rows go with them (ON DELETE CASCADE); events
+     * keep their rows with session_id set to NULL.
+     */
+    @Override
+    public List<SessionID> archiveIdleSessions(Instant idleBefore, int limit) {
+        String selectSql = "SELECT session_id FROM sessions WHERE last_active < ? " +
+                           "ORDER BY last_active LIMIT ? FOR UPDATE";
+        String copySql = "INSERT INTO sessions_archive (session_id, user_id, created_at, last_active, request_count) " +
+                         "SELECT session_id, user_id, created_at, last_active, request_count " +
+                         "FROM sessions WHERE session_id = ? " +
+                         "ON DUPLICATE KEY UPDATE last_active = VALUES(last_active), " +
+                         "request_count = VALUES(request_count), archived_at = CURRENT_TIMESTAMP";
+        // Keep the conversation: deleting the session cascades to conversation_history
+        String copyHistorySql = "INSERT IGNORE INTO conversation_history_archive " +
+                                "(message_id, session_id, timestamp, role, message_text, preferences_snapshot) " +
+                                "SELECT message_id, session_id, timestamp, role, message_text, preferences_snapshot " +
+                                "FROM conversation_history WHERE session_id = ?";
+        String deleteSql = "DELETE FROM sessions WHERE session_id = ?";
+
+        List<SessionID> archived = new ArrayList<>();
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                    stmt.setTimestamp(1, Timestamp.from(idleBefore));
+                    stmt.setInt(2, limit);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            archived.add(new SessionID(rs.getString("session_id")));
+                        }
+                    }
+                }
+                if (!archived.isEmpty()) {
+                    try (PreparedStatement copy = conn.prepareStatement(copySql);
+                         PreparedStatement copyHistory = conn.prepareStatement(copyHistorySql);
+                         PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                        for (SessionID id : archived) {
+                            copy.setString(1, id.getValue());
+                            copy.addBatch();
+                            copyHistory.setString(1, id.getValue());
+                            copyHistory.addBatch();
+                            delete.setString(1, id.getValue());
+                            delete.addBatch();
+                        }
+                        copy.executeBatch();
+                        copyHistory.executeBatch();
+                        delete.executeBatch();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            dbRows = archived.size();
+            LOG.debug(() -> "✓ Archived " + archived.size() + " idle sessions");
+            return archived;
+
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error archiving idle sessions: " + e.getMessage());
+            throw new RuntimeException("Failed to archive idle sessions", e);
+        } finally {
+            dbEvent.finish("archiveIdleSessions", selectSql, dbRows, dbFailed);
+        }
+    }
+
+    /**
+     * Keyset pagination over idx_user_created (user_id, created_at, session_id):
+     * the cursor's position is a range condition, so MySQL reads only
+     * limit + 1 index entries rather than skipping earlier pages.
+     */
+    @Override
+    public SessionPage getSessionHistory(UserID userId, SessionSummary after, int limit) {
+        String sql = "SELECT session_id, created_at, request_count FROM sessions WHERE user_id = ? " +
+                     (after != null ? "AND (created_at < ? OR (created_at = ? AND session_id < ?)) " : "") +
+                     "ORDER BY created_at DESC, session_id DESC LIMIT ?";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            stmt.setString(index++, userId.getValue());
+            if (after != null) {
+                Timestamp createdAt = Timestamp.from(after.getCreatedAt());
+                stmt.setTimestamp(index++, createdAt);
+                stmt.setTimestamp(index++, createdAt);
+                stmt.setString(index++, after.getSessionId().getValue());
+            }
+            // One extra row tells us whether there is a next page
+            stmt.setInt(index, limit + 1);
+
+            List<SessionSummary> sessions = new ArrayList<>(limit);
+            boolean more = false;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (sessions.size() == limit) {
+                        more = true;
+                        break;
+                    }
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    sessions.add(new SessionSummary(new SessionID(rs.getString("session_id")),
+                                                    createdAt != null ? createdAt.toInstant() : Instant.EPOCH,
+                                                    rs.getInt("request_count")));
+                }
+            }
+
+            dbRows = sessions.size();
+            return new SessionPage(sessions, more ? sessions.get(sessions.size() - 1) : null);
+
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error loading session history: " + e.getMessage());
+            throw new RuntimeException("Failed to load session history", e);
+        } finally {
+            dbEvent.finish("getSessionHistory", sql, dbRows, dbFailed);
+        }
+    }
+
+    // ========================================================================
+    // POIs
+    // ========================================================================
+
+    @Override
+    public List<POI> loadPOIs() {
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection()) {
+            List<POI> pois = new POILoader().loadAll(conn);
+            dbRows = pois.size();
+            return pois;
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error loading POIs from database: " + e.getMessage());
+            throw new RuntimeException("Failed to load POIs", e);
+        } finally {
+            dbEvent.finish("loadPOIs", "SELECT ... FROM pois WHERE deleted = FALSE", dbRows, dbFailed);
+        }
+    }
+
+    @Override
+    public void savePOIs(Collection<POI> pois) {
+        if (pois.isEmpty()) {
+            return;
+        }
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection()) {
+            dbRows = POIBulkImporter.upsert(conn, pois);
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error saving POIs to database: " + e.getMessage());
+            throw new RuntimeException("Failed to save POIs", e);
+        } finally {
+            dbEvent.finish("savePOIs", POIBulkImporter.UPSERT_SQL, dbRows, dbFailed);
+        }
+    }
+
+    /**
+     * Tombstones the rows (deleted = TRUE) so delta refreshes see the removal.
+     */
+    @Override
+    public void deletePOIs(Collection<String> poiIds) {
+        if (poiIds.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE pois SET deleted = TRUE WHERE poi_id = ?";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (String id : poiIds) {
+                stmt.setString(1, id);
+                stmt.addBatch();
+            }
+            int rows = 0;
+            for (int count : stmt.executeBatch()) {
+                rows += Math.max(0, count);
+            }
+            dbRows = rows;
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error deleting POIs: " + e.getMessage());
+            throw new RuntimeException("Failed to delete POIs", e);
+        } finally {
+            dbEvent.finish("deletePOIs", sql, dbRows, dbFailed);
+        }
+    }
+
+    // ========================================================================
+    // Conversation History
+    // ========================================================================
+
+    /**
+     * One multi-row INSERT (rewriteBatchedStatements) in one transaction.
+     */
+    @Override
+    public void appendConversationTurns(List<ConversationTurn> turns) {
+        if (turns.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO conversation_history (session_id, timestamp, role, message_text, " +
+                     "preferences_snapshot) VALUES (?, ?, ?, ?, ?)";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (ConversationTurn turn : turns) {
+                    stmt.setString(1, turn.getSessionId().getValue());
+                    stmt.setTimestamp(2, Timestamp.from(turn.getTimestamp()));
+                    stmt.setString(3, turn.getRole());
+                    stmt.setString(4, turn.getText());
+                    stmt.setString(5, convertPreferencesToJson(turn.getPreferences()));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            dbRows = turns.size();
+
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error saving conversation history: " + e.getMessage());
+            throw new RuntimeException("Failed to save conversation history", e);
+        } finally {
+            dbEvent.finish("appendConversationTurns", sql, dbRows, dbFailed);
+        }
+    }
+
+    /**
+     * Reads the newest rows backwards through idx_session_timestamp
+     * (message_id breaks ties within a second), then reverses them.
+     */
+    @Override
+    public List<ConversationTurn> loadRecentTurns(SessionID sessionId, int limit) {
+        String sql = "SELECT timestamp, role, message_text, preferences_snapshot FROM conversation_history " +
+                     "WHERE session_id = ? ORDER BY timestamp DESC, message_id DESC LIMIT ?";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, sessionId.getValue());
+            stmt.setInt(2, limit);
+            List<ConversationTurn> turns = new ArrayList<>(limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp timestamp = rs.getTimestamp("timestamp");
+                    turns.add(new ConversationTurn(sessionId,
+                                                   timestamp != null ? timestamp.toInstant() : Instant.EPOCH,
+                                                   rs.getString("role"), rs.getString("message_text"),
+                                                   convertJsonToPreferences(rs.getString("preferences_snapshot"))));
+                }
+            }
+            java.util.Collections.reverse(turns);
+            dbRows = turns.size();
+            return turns;
+
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error loading conversation history: " + e.getMessage());
+            throw new RuntimeException("Failed to load conversation history", e);
+        } finally {
+            dbEvent.finish("loadRecentTurns", sql, dbRows, dbFailed);
+        }
+    }
+
+    // ========================================================================
+    // Events
+    // ========================================================================
+
+    @Override
+    public void appendEvent(Event event) {
+        String sql = "INSERT INTO events (event_type, user_id, timestamp, details) VALUES (?, ?, ?, ?)";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, event.getEventType());
+            if (event.getUserId() != null) {
+                stmt.setString(2, event.getUserId().getValue());
+            } else {
+                stmt.setNull(2, Types.VARCHAR);
+            }
+            Instant timestamp = event.getTimestamp() != null ? event.getTimestamp() : Instant.now();
+            stmt.setTimestamp(3, Timestamp.from(timestamp));
+            // details is a JSON column; plain text is stored as a JSON string
+            stmt.setString(4, toJsonValue(event.getDetails()));
+            dbRows = stmt.executeUpdate();
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error saving event: " + e.getMessage());
+            throw new RuntimeException("Failed to save event", e);
+        } finally {
+            dbEvent.finish("appendEvent", sql, dbRows, dbFailed);
+        }
+    }
+
+    @Override
+    public List<Event> getEventsByUser(UserID userId, Instant since) {
+        List<Event> events = new ArrayList<>();
+        if (userId == null) {
+            return events;
+        }
+        String sql = "SELECT event_type, user_id, timestamp, details FROM events " +
+                     "WHERE user_id = ? AND timestamp >= ? ORDER BY timestamp";
+
+        FlightEvents.DbQuery dbEvent = new FlightEvents.DbQuery();
+        dbEvent.begin();
+        int dbRows = -1;
+        boolean dbFailed = false;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, userId.getValue());
+            stmt.setTimestamp(2, Timestamp.from(since != null ? since : Instant.EPOCH));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp timestamp = rs.getTimestamp("timestamp");
+                    events.add(new Event(rs.getString("event_type"), userId,
+                                         timestamp != null ? timestamp.toInstant() : null,
+                                         rs.getString("details")));
+                }
+            }
+            dbRows = events.size();
+        } catch (SQLException e) {
+            STORE_ERRORS.increment();
+            dbFailed = true;
+            LOG.error("❌ Error loading events for user: " + e.getMessage());
+        } finally {
+            dbEvent.finish("getEventsByUser", sql, dbRows, dbFailed);
+        }
+        return events;
+    }
+
+    @Override
+    public void close() {
+        // Connections are opened per call; nothing is held between calls
+    }
+
+    private static String toJsonValue(String details) {
+        if (details == null) {
+            return null;
+        }
+        String trimmed = details.trim();
+        if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+            return details;
+        }
+        return "\"" + details.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    // ========================================================================
+    // Helper Methods for JSON Conversion
+    // ========================================================================
+
+    /**
+     * Convert a preferences snapshot to a JSON object for
+     * conversation_history.preferences_snapshot.
+     */
+    private String convertPreferencesToJson(Preferences prefs) {
+        if (prefs == null) {
+            return null;
+        }
+        return "{\"interests\": " + convertListToJson(prefs.getInterests()) +
+               ", \"budget\": " + toJsonValue(prefs.getBudget() != null ? prefs.getBudget() : "") +
+               ", \"radius\": " + prefs.getRadius() +
+               ", \"transportMode\": " + toJsonValue(prefs.getTransportMode() != null ? prefs.getTransportMode() : "") +
+               ", \"accessibilityNeeds\": " + prefs.isAccessibilityNeeds() + "}";
+    }
+
+    private Preferences convertJsonToPreferences(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            Map<String, String> fields = POIBulkImporter.parseJsonObject(json);
+            Preferences prefs = new Preferences();
+            prefs.setInterests(convertJsonToList(fields.get("interests")));
+            prefs.setBudget(fields.get("budget"));
+            prefs.setRadius(fields.get("radius") != null ? Integer.parseInt(fields.get("radius")) : 0);
+            prefs.setTransportMode(fields.get("transportMode"));
+            prefs.setAccessibilityNeeds(Boolean.parseBoolean(fields.get("accessibilityNeeds")));
+            return prefs;
+        } catch (IllegalArgumentException e) {
+            LOG.warn("⚠️ Warning: Unreadable preferences snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Convert List<String> to JSON array format for MySQL.
+     * Example: ["restaurants", "museums", "parks"]
+     *
+     * @param list List of strings
+     * @return JSON array string
+     */
+    private String convertListToJson(List<String> list) {
+        if (list == null || list.isEmpty()) {
+            return "[]";
+        }
+
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < list.size(); i++) {
+            json.append("\"").append(list.get(i)).append("\"");
+            if (i < list.size() - 1) {
+                json.append(", ");
+            }
+        }
+        json.append("]");
+        return json.toString();
+    }
+
+    /**
+     * Convert JSON array string to List<String>.
+     * Example: ["restaurants", "museums"] -> List of 2 strings
+     *
+     * @param json JSON array string
+     * @return List of strings
+     */
+    private List<String> convertJsonToList(String json) {
+        List<String> list = new ArrayList<>();
+
+        if (json == null || json.trim().isEmpty() || json.equals("[]")) {
+            return list;
+        }
+
+        // Simple JSON parsing (remove brackets and quotes, split by comma)
+        String cleaned = json.replace("[", "").replace("]", "").replace("\"", "").trim();
+        if (!cleaned.isEmpty()) {
+            String[] items = cleaned.split(",\\s*");
+            for (String item : items) {
+                if (!item.trim().isEmpty()) {
+                    list.add(item.trim());
+                }
+            }
+        }
+
+        return list;
+    }
+}
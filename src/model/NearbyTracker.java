@@ -0,0 +1,212 @@
+package model;
+
+import domain.*;
+import service.IntegrationLayer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * «entity» keeps the set of nearby POIs current while the user moves.
+ *
+ * Instead of rerunning a full search per GPS fix, the tracker fetches a
+ * superset of candidates within (radius + margin) of an anchor point. As long
+ * as the user stays within margin of the anchor, every POI within radius of
+ * the user is in that superset, so fixes are resolved locally. A new fetch
+ * happens only when the user leaves the margin.
+ *
+ * Noise handling:
+ * - Throttling: fixes closer than minIntervalMillis or minMoveMeters to the
+ *   last processed fix are ignored
+ * - Hysteresis: a POI enters at radius but only leaves beyond radius + exitBuffer,
+ *   so results don't flicker when the user walks along the boundary
+ *
+ * Traceability:
+ * - FR-1: Generate personalized recommendations
+ * - UC-1: Discover Places
+ *
+ * @author CPS731 Team 20
+ */
+public class NearbyTracker {
+
+    private static final double EARTH_RADIUS_METERS = 6371000.0;
+
+    private IntegrationLayer integrationLayer;
+
+    // Tuning (meters / milliseconds)
+    private double marginMeters = 500;
+    private double exitBufferMeters = 100;
+    private double minMoveMeters = 20;
+    private long minIntervalMillis = 2000;
+
+    private Preferences preferences;
+    private LatLng anchor;
+    private List<POI> superset = new ArrayList<>();
+    private Set<String> supersetIds = new HashSet<>();
+    private final Map<String, POI> inRange = new LinkedHashMap<>();
+
+    private LatLng lastFix;
+    private long lastFixMillis = Long.MIN_VALUE;
+    private int fetchCount;
+
+    /**
+     * Result of processing one fix.
+     */
+    public static class Update {
+        private final List<POI> entered;
+        private final List<POI> left;
+        private final boolean throttled;
+
+        Update(List<POI> entered, List<POI> left, boolean throttled) {
+            this.entered = entered;
+            this.left = left;
+            this.throttled = throttled;
+        }
+
+        public List<POI> getEntered() {
+            return entered;
+        }
+
+        public List<POI> getLeft() {
+            return left;
+        }
+
+        public boolean isThrottled() {
+            return throttled;
+        }
+
+        public boolean hasChanges() {
+            return !entered.isEmpty() || !left.isEmpty();
+        }
+    }
+
+    /**
+     * Start tracking from an initial location.
+     *
+     * @param start Initial location
+     * @param prefs Preferences (radius, interests, budget)
+     * @param timestampMillis Time of the initial fix
+     * @return Update listing every POI initially in range
+     */
+    public Update start(LatLng start, Preferences prefs, long timestampMillis) {
+        this.preferences = prefs;
+        this.inRange.clear();
+        this.superset = new ArrayList<>();
+        this.supersetIds = new HashSet<>();
+        this.anchor = null;
+        this.lastFix = null;
+        this.lastFixMillis = Long.MIN_VALUE;
+        return onFix(start, timestampMillis);
+    }
+
+    /**
+     * Process a GPS fix.
+     *
+     * @param fix New user location
+     * @param timestampMillis Time of the fix
+     * @return POIs that entered or left the radius (throttled fixes change nothing)
+     */
+    public Update onFix(LatLng fix, long timestampMillis) {
+        if (fix == null || preferences == null) {
+            return new Update(Collections.emptyList(), Collections.emptyList(), true);
+        }
+
+        // Throttle: too soon or too small a move
+        if (lastFix != null &&
+            (timestampMillis - lastFixMillis < minIntervalMillis || distance(lastFix, fix) < minMoveMeters)) {
+            return new Update(Collections.emptyList(), Collections.emptyList(), true);
+        }
+        lastFix = fix;
+        lastFixMillis = timestampMillis;
+
+        // Refetch the superset only when leaving the anchor's margin
+        if (anchor == null || distance(anchor, fix) > marginMeters) {
+            fetchSuperset(fix);
+        }
+
+        double radius = preferences.getRadius();
+        List<POI> entered = new ArrayList<>();
+        List<POI> left = new ArrayList<>();
+
+        // POIs that dropped out of the superset are gone regardless of distance
+        inRange.values().removeIf(poi -> {
+            if (!supersetIds.contains(poi.getId()) || distance(fix, poi.getLocation()) > radius + exitBufferMeters) {
+                left.add(poi);
+                return true;
+            }
+            return false;
+        });
+
+        for (POI poi : superset) {
+            if (!inRange.containsKey(poi.getId()) && distance(fix, poi.getLocation()) <= radius) {
+                inRange.put(poi.getId(), poi);
+                entered.add(poi);
+            }
+        }
+
+        return new Update(entered, left, false);
+    }
+
+    private void fetchSuperset(LatLng center) {
+        Preferences widened = new Preferences(preferences.getInterests(), preferences.getBudget(),
+                                              (int) Math.ceil(preferences.getRadius() + exitBufferMeters + marginMeters),
+                                              preferences.getTransportMode(), preferences.isAccessibilityNeeds());
+        superset = integrationLayer != null ? integrationLayer.getNearbyPlaces(center, widened) : new ArrayList<>();
+        supersetIds = new HashSet<>();
+        for (POI poi : superset) {
+            supersetIds.add(poi.getId());
+        }
+        anchor = center;
+        fetchCount++;
+    }
+
+    private double distance(LatLng a, LatLng b) {
+        double lat1 = Math.toRadians(a.getLatitude());
+        double lat2 = Math.toRadians(b.getLatitude());
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(b.getLongitude() - a.getLongitude());
+
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                   Math.cos(lat1) * Math.cos(lat2) *
+                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_METERS * 2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
+    }
+
+    /**
+     * POIs currently considered in range (in the order they entered).
+     */
+    public List<POI> getInRange() {
+        return new ArrayList<>(inRange.values());
+    }
+
+    /**
+     * Number of candidate fetches so far (for testing/demo).
+     */
+    public int getFetchCount() {
+        return fetchCount;
+    }
+
+    public void setIntegrationLayer(IntegrationLayer integrationLayer) {
+        this.integrationLayer = integrationLayer;
+    }
+
+    public void setMarginMeters(double marginMeters) {
+        this.marginMeters = marginMeters;
+    }
+
+    public void setExitBufferMeters(double exitBufferMeters) {
+        this.exitBufferMeters = exitBufferMeters;
+    }
+
+    public void setMinMoveMeters(double minMoveMeters) {
+        this.minMoveMeters = minMoveMeters;
+    }
+
+    public void setMinIntervalMillis(long minIntervalMillis) {
+        this.minIntervalMillis = minIntervalMillis;
+    }
+}
@@ -1,19 +1,32 @@
 package model;
 
 import domain.*;
+import service.ConnectionPool;
 import service.DatabaseConnection;
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.HashMap;
+import service.LatencyHistogram;
+import service.MetricsRegistry;
+import service.Log;
+import service.Tracer;
 import java.util.List;
 import java.util.Map;
-import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * «entity» Information Expert for profiles and sessions.
  * GRASP: Information Expert - Manages profile/session persistence
  *
- * Implements persistence using MySQL database.
+ * Persists through a Storage backend: MySQL by default, or the embedded
+ * log store (EmbeddedStorage). Loaded profiles and sessions are cached.
+ *
+ * Profile and session counts are kept in memory: saves that create a row
+ * add to them, and a background recount (started by initialize()) corrects
+ * any drift, e.g. from rows written by another process. Reading a count
+ * never queries the backend once it is known.
  *
  * Traceability:
  * - FR-5: Store user sessions for returning users
@@ -25,39 +38,124 @@ import java.time.Instant;
  */
 public class ProfileContextStore {
 
+    private static final Log LOG = Log.get(ProfileContextStore.class);
+
+    public static final long DEFAULT_RECOUNT_SECONDS = 300;
+
+    // Session history page sizes (FR-17)
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 10;
+    public static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    // Query latencies ("store.<method>") in the shared MetricsRegistry
+    private static final LatencyHistogram SAVE_PROFILE_LATENCY = histogram("saveProfile");
+    private static final LatencyHistogram LOAD_PROFILE_LATENCY = histogram("loadProfile");
+    private static final LatencyHistogram SAVE_SESSION_LATENCY = histogram("saveSession");
+    private static final LatencyHistogram LOAD_SESSION_LATENCY = histogram("loadSession");
+    private static final LatencyHistogram PROFILE_COUNT_LATENCY = histogram("getProfileCount");
+    private static final LatencyHistogram SESSION_COUNT_LATENCY = histogram("getSessionCount");
+    private static final LatencyHistogram SESSIONS_BY_USER_LATENCY = histogram("getSessionsByUser");
+    private static final LatencyHistogram SESSION_HISTORY_LATENCY = histogram("getSessionHistory");
+    private static final LatencyHistogram ARCHIVE_LATENCY = histogram("archiveIdleSessions");
+    private static final LongAdder PROFILE_CACHE_HITS = MetricsRegistry.shared().counter("store.loadProfile.cacheHits");
+    private static final LongAdder SESSION_CACHE_HITS = MetricsRegistry.shared().counter("store.loadSession.cacheHits");
+    private static final LongAdder COUNT_CORRECTIONS = MetricsRegistry.shared().counter("store.counts.corrections");
+
     // In-memory caches (for performance - optional)
     private Map<UserID, Profile> profiles;      // aggregates Profile
     private Map<SessionID, Session> sessions;   // composes Session
 
-    // Database connection
-    private DatabaseConnection dbConnection;
+    // Persistence backend
+    private final Storage storage;
+
+    // Row counts kept from writes and corrected by recounts
+    private final RowCount profileCount = new RowCount("profiles");
+    private final RowCount sessionCount = new RowCount("sessions");
+    private ScheduledExecutorService recounter;
 
     /**
-     * Constructor - initializes database connection
+     * Constructor - uses the MySQL database through the shared connection pool
      */
     public ProfileContextStore() {
-        this.dbConnection = DatabaseConnection.getInstance();
-        this.profiles = new HashMap<>();
-        this.sessions = new HashMap<>();
+        this(ConnectionPool.shared());
+    }
+
+    /**
+     * Constructor with an explicit MySQL connection source.
+     *
+     * @param dbConnection Source of database connections
+     */
+    public ProfileContextStore(DatabaseConnection dbConnection) {
+        this(new MySQLStorage(dbConnection));
+    }
+
+    /**
+     * Constructor with an explicit storage backend.
+     * One store is shared by every user's ConversationEngine, so the
+     * caches are concurrent maps.
+     *
+     * @param storage Where profiles and sessions are persisted
+     */
+    public ProfileContextStore(Storage storage) {
+        this.storage = storage;
+        this.profiles = new ConcurrentHashMap<>();
+        this.sessions = new ConcurrentHashMap<>();
+        MetricsRegistry.shared().gauge("store.cachedProfiles", profiles::size);
+        MetricsRegistry.shared().gauge("store.cachedSessions", sessions::size);
+        MetricsRegistry.shared().gauge("store.profileCount", profileCount::get);
+        MetricsRegistry.shared().gauge("store.sessionCount", sessionCount::get);
     }
 
     /**
      * Initialize the store (for backward compatibility with HashMap version).
-     * Now connects to database.
+     * Checks that the storage backend can be reached, counts profiles and
+     * sessions, and schedules the periodic recount.
      */
     public void initialize() {
-        System.out.println("✓ ProfileContextStore initialized with MySQL persistence");
-        // Test connection
-        try (Connection conn = dbConnection.getConnection()) {
-            System.out.println("✓ Database connection verified");
-        } catch (SQLException e) {
-            System.err.println("⚠️ Warning: Could not verify database connection");
+        LOG.info("✓ ProfileContextStore initialized with " + storage.getName() + " persistence");
+        if (storage.isAvailable()) {
+            LOG.info("✓ " + storage.getName() + " storage verified");
+            recount();
+        } else {
+            LOG.warn("⚠️ Warning: Could not verify " + storage.getName() + " storage");
         }
+        startRecount(DEFAULT_RECOUNT_SECONDS);
     }
 
     /**
-     * Save profile to database (FR-6).
-     * Uses INSERT ... ON DUPLICATE KEY UPDATE for upsert behavior.
+     * Recount profiles and sessions in the backend every periodSeconds.
+     *
+     * @param periodSeconds Seconds between recounts
+     */
+    public synchronized void startRecount(long periodSeconds) {
+        if (recounter != null) {
+            return;
+        }
+        recounter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "store-recount");
+            t.setDaemon(true);
+            return t;
+        });
+        recounter.scheduleWithFixedDelay(this::recount, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopRecount() {
+        if (recounter != null) {
+            recounter.shutdownNow();
+            recounter = null;
+        }
+    }
+
+    /**
+     * Replace the in-memory counts with fresh counts from the backend.
+     * Runs on the recount thread, off the request path.
+     */
+    public void recount() {
+        profileCount.reconcile(storage::getProfileCount);
+        sessionCount.reconcile(storage::getSessionCount);
+    }
+
+    /**
+     * Save profile (FR-6). Inserts or replaces the stored profile.
      *
      * @param p Profile to save (must have userId and preferences)
      * @throws IllegalArgumentException if profile or userId is null
@@ -67,55 +165,26 @@ public class ProfileContextStore {
             throw new IllegalArgumentException("Profile and UserID cannot be null");
         }
 
-        String sql = "INSERT INTO profiles (user_id, interests, budget, radius, transport_mode, accessibility_needs) " +
-                     "VALUES (?, ?, ?, ?, ?, ?) " +
-                     "ON DUPLICATE KEY UPDATE " +
-                     "interests = VALUES(interests), " +
-                     "budget = VALUES(budget), " +
-                     "radius = VALUES(radius), " +
-                     "transport_mode = VALUES(transport_mode), " +
-                     "accessibility_needs = VALUES(accessibility_needs)";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            Preferences prefs = p.getPreferences();
-
-            // Set parameters
-            stmt.setString(1, p.getUserId().getValue());
-
-            // Handle interests - convert List<String> to JSON array string
-            if (prefs != null && prefs.getInterests() != null) {
-                String interestsJson = convertListToJson(prefs.getInterests());
-                stmt.setString(2, interestsJson);
-                stmt.setString(3, prefs.getBudget());
-                stmt.setInt(4, prefs.getRadius());
-                stmt.setString(5, prefs.getTransportMode());
-                stmt.setBoolean(6, prefs.isAccessibilityNeeds());
-            } else {
-                // Handle null preferences
-                stmt.setNull(2, Types.VARCHAR);
-                stmt.setNull(3, Types.VARCHAR);
-                stmt.setNull(4, Types.INTEGER);
-                stmt.setNull(5, Types.VARCHAR);
-                stmt.setBoolean(6, false);
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("ProfileContextStore.saveProfile");
+        try {
+            if (storage.saveProfile(p)) {
+                profileCount.added(1);
             }
 
-            int rowsAffected = stmt.executeUpdate();
-            System.out.println("✓ Profile saved: " + p.getUserId().getValue() +
-                             " (" + rowsAffected + " row(s) affected)");
-
             // Update in-memory cache
             profiles.put(p.getUserId(), p);
-
-        } catch (SQLException e) {
-            System.err.println("❌ Error saving profile to database: " + e.getMessage());
-            throw new RuntimeException("Failed to save profile", e);
+        } catch (RuntimeException e) {
+            span.setAttribute("error", e.getMessage());
+            throw e;
+        } finally {
+            span.end();
+            SAVE_PROFILE_LATENCY.recordSince(start);
         }
     }
 
     /**
-     * Load profile from database (FR-6).
+     * Load profile (FR-6).
      *
      * @param userId User ID to load
      * @return Profile object if found, null otherwise
@@ -126,59 +195,33 @@ public class ProfileContextStore {
         }
 
         // Check cache first
-        if (profiles.containsKey(userId)) {
-            return profiles.get(userId);
+        Profile cached = profiles.get(userId);
+        if (cached != null) {
+            PROFILE_CACHE_HITS.increment();
+            return cached;
         }
 
-        String sql = "SELECT user_id, interests, budget, radius, transport_mode, accessibility_needs " +
-                     "FROM profiles WHERE user_id = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, userId.getValue());
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                // Create Profile object
-                Profile profile = new Profile();
-                profile.setUserId(new UserID(rs.getString("user_id")));
-
-                // Create Preferences object
-                Preferences prefs = new Preferences();
-
-                // Parse JSON interests back to List<String>
-                String interestsJson = rs.getString("interests");
-                if (interestsJson != null) {
-                    prefs.setInterests(convertJsonToList(interestsJson));
-                }
-
-                prefs.setBudget(rs.getString("budget"));
-                prefs.setRadius(rs.getInt("radius"));
-                prefs.setTransportMode(rs.getString("transport_mode"));
-                prefs.setAccessibilityNeeds(rs.getBoolean("accessibility_needs"));
-
-                profile.setPreferences(prefs);
-
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("ProfileContextStore.loadProfile");
+        try {
+            Profile profile = storage.loadProfile(userId);
+            if (profile != null) {
                 // Cache it
                 profiles.put(userId, profile);
-
-                System.out.println("✓ Profile loaded: " + userId.getValue());
-                return profile;
-            } else {
-                System.out.println("⚠️ Profile not found: " + userId.getValue());
-                return null;
             }
-
-        } catch (SQLException e) {
-            System.err.println("❌ Error loading profile from database: " + e.getMessage());
-            throw new RuntimeException("Failed to load profile", e);
+            return profile;
+        } catch (RuntimeException e) {
+            span.setAttribute("error", e.getMessage());
+            throw e;
+        } finally {
+            span.end();
+            LOAD_PROFILE_LATENCY.recordSince(start);
         }
     }
 
     /**
-     * Save session to database (FR-5, FR-17).
-     * Uses INSERT ... ON DUPLICATE KEY UPDATE for upsert behavior.
+     * Save session (FR-5, FR-17). Inserts the session or updates its
+     * request count and last activity.
      *
      * @param s Session to save
      * @throws IllegalArgumentException if session or sessionId is null
@@ -188,41 +231,26 @@ public class ProfileContextStore {
             throw new IllegalArgumentException("Session and SessionID cannot be null");
         }
 
-        String sql = "INSERT INTO sessions (session_id, user_id, request_count) " +
-                     "VALUES (?, ?, ?) " +
-                     "ON DUPLICATE KEY UPDATE " +
-                     "last_active = CURRENT_TIMESTAMP, " +
-                     "request_count = VALUES(request_count)";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, s.getSessionId().getValue());
-
-            // user_id can be null for guest sessions
-            if (s.getUserId() != null) {
-                stmt.setString(2, s.getUserId().getValue());
-            } else {
-                stmt.setNull(2, Types.VARCHAR);
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("ProfileContextStore.saveSession");
+        try {
+            if (storage.saveSession(s)) {
+                sessionCount.added(1);
             }
 
-            stmt.setInt(3, s.getRequestCount());
-
-            int rowsAffected = stmt.executeUpdate();
-            System.out.println("✓ Session saved: " + s.getSessionId().getValue() +
-                             " (" + rowsAffected + " row(s) affected)");
-
             // Update in-memory cache
             sessions.put(s.getSessionId(), s);
-
-        } catch (SQLException e) {
-            System.err.println("❌ Error saving session to database: " + e.getMessage());
-            throw new RuntimeException("Failed to save session", e);
+        } catch (RuntimeException e) {
+            span.setAttribute("error", e.getMessage());
+            throw e;
+        } finally {
+            span.end();
+            SAVE_SESSION_LATENCY.recordSince(start);
         }
     }
 
     /**
-     * Load session from database (FR-17).
+     * Load session (FR-17).
      *
      * @param sessionId Session ID to load
      * @return Session object if found, null otherwise
@@ -233,98 +261,59 @@ public class ProfileContextStore {
         }
 
         // Check cache first
-        if (sessions.containsKey(sessionId)) {
-            return sessions.get(sessionId);
+        Session cachedSession = sessions.get(sessionId);
+        if (cachedSession != null) {
+            SESSION_CACHE_HITS.increment();
+            return cachedSession;
         }
 
-        String sql = "SELECT session_id, user_id, created_at, request_count " +
-                     "FROM sessions WHERE session_id = ?";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, sessionId.getValue());
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                // Create Session object
-                Session session = new Session();
-                session.setSessionId(new SessionID(rs.getString("session_id")));
-
-                // user_id can be null for guest sessions
-                String userIdStr = rs.getString("user_id");
-                if (userIdStr != null) {
-                    session.setUserId(new UserID(userIdStr));
-                }
-
-                // Convert SQL Timestamp to Instant
-                Timestamp timestamp = rs.getTimestamp("created_at");
-                if (timestamp != null) {
-                    session.setCreatedAt(timestamp.toInstant());
-                }
-
-                // Request count handling
-                session.incrementRequestCount(); // Reset to 0 first
-                for (int i = 0; i < rs.getInt("request_count"); i++) {
-                    session.incrementRequestCount();
-                }
-
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("ProfileContextStore.loadSession");
+        try {
+            Session session = storage.loadSession(sessionId);
+            if (session != null) {
                 // Cache it
                 sessions.put(sessionId, session);
-
-                System.out.println("✓ Session loaded: " + sessionId.getValue());
-                return session;
-            } else {
-                System.out.println("⚠️ Session not found: " + sessionId.getValue());
-                return null;
             }
-
-        } catch (SQLException e) {
-            System.err.println("❌ Error loading session from database: " + e.getMessage());
-            throw new RuntimeException("Failed to load session", e);
+            return session;
+        } catch (RuntimeException e) {
+            span.setAttribute("error", e.getMessage());
+            throw e;
+        } finally {
+            span.end();
+            LOAD_SESSION_LATENCY.recordSince(start);
         }
     }
 
     /**
-     * Get count of profiles in database (for testing/demo).
+     * Get count of stored profiles (for testing/demo).
+     * Served from memory; only the first call before initialize() counts
+     * in the backend.
      *
      * @return Number of profiles
      */
     public int getProfileCount() {
-        String sql = "SELECT COUNT(*) as count FROM profiles";
-
-        try (Connection conn = dbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt("count");
-            }
-        } catch (SQLException e) {
-            System.err.println("❌ Error counting profiles: " + e.getMessage());
+        long start = System.nanoTime();
+        try {
+            return profileCount.read(storage::getProfileCount);
+        } finally {
+            PROFILE_COUNT_LATENCY.recordSince(start);
         }
-        return 0;
     }
 
     /**
-     * Get count of sessions in database (for testing/demo).
+     * Get count of stored sessions (for testing/demo).
+     * Served from memory, like getProfileCount.
      *
      * @return Number of sessions
      */
     public int getSessionCount() {
-        String sql = "SELECT COUNT(*) as count FROM sessions";
-
-        try (Connection conn = dbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt("count");
-            }
-        } catch (SQLException e) {
-            System.err.println("❌ Error counting sessions: " + e.getMessage());
+        long start = System.nanoTime();
+        try {
+            return sessionCount.read(storage::getSessionCount);
+        } finally {
+            SESSION_COUNT_LATENCY.recordSince(start);
         }
-        return 0;
     }
 
     /**
@@ -334,104 +323,137 @@ public class ProfileContextStore {
      * @param userId User ID to get sessions for
      * @return List of sessions for this user
      */
-    public java.util.List<Session> getSessionsByUser(UserID userId) {
-        java.util.List<Session> userSessions = new java.util.ArrayList<>();
-
+    public List<Session> getSessionsByUser(UserID userId) {
         if (userId == null) {
-            return userSessions;
+            return new java.util.ArrayList<>();
         }
 
-        String sql = "SELECT session_id, user_id, created_at, request_count " +
-                     "FROM sessions WHERE user_id = ? " +
-                     "ORDER BY created_at DESC";
-
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, userId.getValue());
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                Session session = new Session();
-                session.setSessionId(new SessionID(rs.getString("session_id")));
-                session.setUserId(new UserID(rs.getString("user_id")));
-
-                // Convert SQL Timestamp to Instant
-                Timestamp timestamp = rs.getTimestamp("created_at");
-                if (timestamp != null) {
-                    session.setCreatedAt(timestamp.toInstant());
-                }
-
-                // Set request count
-                int count = rs.getInt("request_count");
-                for (int i = 0; i < count; i++) {
-                    session.incrementRequestCount();
-                }
-
-                userSessions.add(session);
-            }
-
-            System.out.println("✓ Loaded " + userSessions.size() + " sessions for user: " + userId.getValue());
-
-        } catch (SQLException e) {
-            System.err.println("❌ Error loading sessions for user: " + e.getMessage());
+        long start = System.nanoTime();
+        try {
+            return storage.getSessionsByUser(userId);
+        } finally {
+            SESSIONS_BY_USER_LATENCY.recordSince(start);
         }
-
-        return userSessions;
     }
 
-    // ========================================================================
-    // Helper Methods for JSON Conversion
-    // ========================================================================
-
     /**
-     * Convert List<String> to JSON array format for MySQL.
-     * Example: ["restaurants", "museums", "parks"]
+     * Get one page of a user's session history (FR-17), newest first.
+     * Cost depends on the page size, not on how many sessions the user has.
      *
-     * @param list List of strings
-     * @return JSON array string
+     * @param userId User ID to get sessions for
+     * @param after getNextCursor() of the previous page, or null for the first page
+     * @param limit Page size, capped at MAX_HISTORY_PAGE_SIZE
+     * @return Page of session summaries (empty for a null user)
+     * @throws IllegalArgumentException if limit is less than 1
      */
-    private String convertListToJson(List<String> list) {
-        if (list == null || list.isEmpty()) {
-            return "[]";
+    public SessionPage getSessionHistory(UserID userId, SessionSummary after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        if (userId == null) {
+            return new SessionPage(new java.util.ArrayList<>(), null);
         }
 
-        StringBuilder json = new StringBuilder("[");
-        for (int i = 0; i < list.size(); i++) {
-            json.append("\"").append(list.get(i)).append("\"");
-            if (i < list.size() - 1) {
-                json.append(", ");
-            }
+        long start = System.nanoTime();
+        try {
+            return storage.getSessionHistory(userId, after, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        } finally {
+            SESSION_HISTORY_LATENCY.recordSince(start);
         }
-        json.append("]");
-        return json.toString();
     }
 
     /**
-     * Convert JSON array string to List<String>.
-     * Example: ["restaurants", "museums"] -> List of 2 strings
+     * Archive one batch of sessions idle since before a time, and drop them
+     * from the session cache and the session count. Used by SessionExpiryJob.
      *
-     * @param json JSON array string
-     * @return List of strings
+     * @param idleBefore Sessions last active before this are archived
+     * @param batchSize Most sessions to archive in this call
+     * @return Number of sessions archived (less than batchSize when none are left)
+     */
+    public int archiveIdleSessions(java.time.Instant idleBefore, int batchSize) {
+        long start = System.nanoTime();
+        try {
+            List<SessionID> archived = storage.archiveIdleSessions(idleBefore, batchSize);
+            for (SessionID id : archived) {
+                sessions.remove(id);
+            }
+            if (!archived.isEmpty()) {
+                sessionCount.added(-archived.size());
+            }
+            return archived.size();
+        } finally {
+            ARCHIVE_LATENCY.recordSince(start);
+        }
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * A table's row count, maintained from writes and corrected by recounts.
      */
-    private List<String> convertJsonToList(String json) {
-        List<String> list = new ArrayList<>();
+    private static final class RowCount {
+        private final String table;
+        private long count = -1;    // -1 = not counted yet
+        private long changes;       // writes that moved the count
+
+        RowCount(String table) {
+            this.table = table;
+        }
 
-        if (json == null || json.trim().isEmpty() || json.equals("[]")) {
-            return list;
+        synchronized long get() {
+            return count;
         }
 
-        // Simple JSON parsing (remove brackets and quotes, split by comma)
-        String cleaned = json.replace("[", "").replace("]", "").replace("\"", "").trim();
-        if (!cleaned.isEmpty()) {
-            String[] items = cleaned.split(",\\s*");
-            for (String item : items) {
-                if (!item.trim().isEmpty()) {
-                    list.add(item.trim());
+        synchronized void added(long rows) {
+            changes++;
+            if (count >= 0) {
+                count += rows;
+            }
+        }
+
+        int read(IntSupplier backendCount) {
+            long known = get();
+            if (known >= 0) {
+                return (int) known;
+            }
+            reconcile(backendCount);
+            return (int) Math.max(get(), 0);
+        }
+
+        /**
+         * Count in the backend and keep the result unless a write moved the
+         * count meanwhile: the query may or may not have seen that write, so
+         * the incremental count is kept until the next recount.
+         */
+        void reconcile(IntSupplier backendCount) {
+            long changesBefore;
+            synchronized (this) {
+                changesBefore = changes;
+            }
+            int counted;
+            try {
+                counted = backendCount.getAsInt();
+            } catch (RuntimeException e) {
+                LOG.warn("⚠️ Warning: Could not recount " + table + ": " + e.getMessage());
+                return;
+            }
+            synchronized (this) {
+                if (changes != changesBefore && count >= 0) {
+                    return;
+                }
+                if (count >= 0 && count != counted) {
+                    COUNT_CORRECTIONS.increment();
+                    long was = count;
+                    LOG.debug(() -> "Corrected " + table + " count " + was + " -> " + counted);
                 }
+                count = counted;
             }
         }
+    }
 
-        return list;
+    private static LatencyHistogram histogram(String method) {
+        return MetricsRegistry.shared().histogram("store." + method);
     }
 }
@@ -9,6 +9,7 @@ public class RecommendationCard {
 
     private String placeId;
     private String name;
+    private String category;
     private float rating;
     private float distance;
     private String summary;
@@ -39,6 +40,14 @@ public class RecommendationCard {
         this.name = name;
     }
 
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
     public float getRating() {
         return rating;
     }
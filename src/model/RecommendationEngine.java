@@ -1,10 +1,21 @@
 package model;
 
 import domain.*;
+import service.FlightEvents;
 import service.IntegrationLayer;
+import service.LatencyHistogram;
+import service.MetricsRegistry;
+import service.Log;
+import service.Tracer;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -21,7 +32,23 @@ import java.util.stream.Collectors;
  */
 public class RecommendationEngine {
 
+    private static final Log LOG = Log.get(RecommendationEngine.class);
+
+    // Itinerary shape (FR-3: 2-4 stops)
+    private static final int MAX_EXTRA_STOPS = 3;
+    private static final int NEIGHBOUR_LOOKUP_LIMIT = 16;
+    private static final int MAIN_STOP_MINUTES = 60;
+    private static final int EXTRA_STOP_MINUTES = 30;
+
+    private static final LatencyHistogram RANK_LATENCY = MetricsRegistry.shared().histogram("recommendation.rank");
+    private static final LatencyHistogram ITINERARY_LATENCY =
+        MetricsRegistry.shared().histogram("recommendation.buildMicroItinerary");
+    private static final LongAdder RANK_CACHE_HITS = MetricsRegistry.shared().counter("recommendation.rank.cacheHits");
+    private static final LongAdder RANK_CACHE_MISSES =
+        MetricsRegistry.shared().counter("recommendation.rank.cacheMisses");
+
     private List<RecommendationCard> cachedResults;
+    private Map<String, POI> cachedCandidates;
     private IntegrationLayer integrationLayer;
 
     /**
@@ -33,16 +60,16 @@ public class RecommendationEngine {
      */
     public List<POI> fetchCandidates(Query query) {
         if (integrationLayer == null) {
-            System.err.println("❌ IntegrationLayer not initialized");
+            LOG.error("❌ IntegrationLayer not initialized");
             return new ArrayList<>();
         }
 
         if (query == null || query.getLocation() == null) {
-            System.err.println("❌ Invalid query");
+            LOG.error("❌ Invalid query");
             return new ArrayList<>();
         }
 
-        System.out.println("[RecommendationEngine] Fetching candidates...");
+        LOG.debug("Fetching candidates...");
 
         // Get POIs from integration layer
         List<POI> pois = integrationLayer.getNearbyPlaces(
@@ -50,7 +77,7 @@ public class RecommendationEngine {
             query.getPreferences()
         );
 
-        System.out.println("  Fetched " + pois.size() + " candidates");
+        LOG.debug(() -> "Fetched " + pois.size() + " candidates");
         return pois;
     }
 
@@ -69,10 +96,39 @@ public class RecommendationEngine {
      * @return Sorted list of recommendation cards
      */
     public List<RecommendationCard> rankPOIs(Preferences prefs, Context ctx) {
-        System.out.println("[RecommendationEngine] Ranking POIs...");
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("RecommendationEngine.rankPOIs");
+        FlightEvents.Rank event = new FlightEvents.Rank();
+        event.begin();
+        try {
+            boolean cacheHit = cachedResults != null && !cachedResults.isEmpty();
+            span.setAttribute("cacheHit", cacheHit);
+            List<RecommendationCard> cards = rank(prefs, ctx);
+            if (span.isSampled()) {
+                span.setAttribute("cards", cards.size());
+            }
+            if (event.shouldCommit()) {
+                event.traceId = Tracer.currentTraceId();
+                event.radius = prefs != null ? prefs.getRadius() : 0;
+                event.interests = prefs != null && prefs.getInterests() != null ? prefs.getInterests().size() : 0;
+                event.candidates = cachedResults != null ? cachedResults.size() : 0;
+                event.results = cards.size();
+                event.cacheHit = cacheHit;
+                event.commit();
+            }
+            return cards;
+        } finally {
+            span.end();
+            RANK_LATENCY.recordSince(start);
+        }
+    }
+
+    private List<RecommendationCard> rank(Preferences prefs, Context ctx) {
+        LOG.debug("Ranking POIs...");
 
         // First, fetch POIs if not cached
         if (cachedResults == null || cachedResults.isEmpty()) {
+            RANK_CACHE_MISSES.increment();
             // Create query from preferences and context
             Query query = new Query();
             query.setLocation(ctx.getCurrentLocation());
@@ -80,17 +136,54 @@ public class RecommendationEngine {
             query.setMaxResults(20);
 
             List<POI> pois = fetchCandidates(query);
+            Map<String, POI> byId = new HashMap<>();
+            for (POI poi : pois) {
+                byId.put(poi.getId(), poi);
+            }
+            cachedCandidates = byId;
 
             // Convert POIs to RecommendationCards
             cachedResults = pois.stream()
                 .map(poi -> convertToCard(poi, ctx))
                 .collect(Collectors.toList());
+        } else {
+            RANK_CACHE_HITS.increment();
         }
 
         // Apply ranking algorithm
         List<RecommendationCard> rankedCards = new ArrayList<>(cachedResults);
+        sortByScore(rankedCards, prefs, ctx);
+
+        LOG.debug(() -> "Ranked " + rankedCards.size() + " cards");
+        return rankedCards;
+    }
 
-        rankedCards.sort((card1, card2) -> {
+    /**
+     * Rank an explicit set of POIs (no fetch). They replace the cached
+     * candidates, so later rankPOIs calls and itinerary stops use this set
+     * and its distances rather than those of the last search.
+     * Used when the candidate set is maintained elsewhere, e.g. while the user moves.
+     *
+     * @param pois POIs to rank
+     * @param prefs User preferences
+     * @param ctx Current context (location used for distances)
+     * @return Sorted list of recommendation cards
+     */
+    public List<RecommendationCard> rankCandidates(List<POI> pois, Preferences prefs, Context ctx) {
+        List<RecommendationCard> cards = new ArrayList<>(pois.size());
+        Map<String, POI> byId = new HashMap<>();
+        for (POI poi : pois) {
+            cards.add(convertToCard(poi, ctx));
+            byId.put(poi.getId(), poi);
+        }
+        cachedCandidates = byId;
+        cachedResults = new ArrayList<>(cards);
+        sortByScore(cards, prefs, ctx);
+        return cards;
+    }
+
+    private void sortByScore(List<RecommendationCard> cards, Preferences prefs, Context ctx) {
+        cards.sort((card1, card2) -> {
             // Calculate scores for each card
             double score1 = calculateScore(card1, prefs, ctx);
             double score2 = calculateScore(card2, prefs, ctx);
@@ -98,9 +191,6 @@ public class RecommendationEngine {
             // Sort descending (higher score first)
             return Double.compare(score2, score1);
         });
-
-        System.out.println("  Ranked " + rankedCards.size() + " cards");
-        return rankedCards;
     }
 
     /**
@@ -109,7 +199,7 @@ public class RecommendationEngine {
      *
      * Strategy:
      * 1. Main POI (the selected card)
-     * 2. Find 1-3 nearby related POIs
+     * 2. Find 1-3 nearby related POIs (precomputed neighbour lists)
      * 3. Get ETAs between stops
      * 4. Generate step-by-step directions
      *
@@ -118,37 +208,128 @@ public class RecommendationEngine {
      * @return Itinerary with steps and total ETA
      */
     public Itinerary buildMicroItinerary(Preferences prefs, RecommendationCard card) {
-        System.out.println("[RecommendationEngine] Building micro-itinerary for: " + card.getName());
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("RecommendationEngine.buildMicroItinerary");
+        FlightEvents.ItineraryBuild event = new FlightEvents.ItineraryBuild();
+        event.begin();
+        try {
+            Itinerary itinerary = assembleItinerary(prefs, card);
+            if (event.shouldCommit()) {
+                event.traceId = Tracer.currentTraceId();
+                event.placeId = card.getPlaceId();
+                event.steps = itinerary.getSteps() != null ? itinerary.getSteps().size() : 0;
+                event.totalMinutes = itinerary.getTotalETA();
+                event.commit();
+            }
+            return itinerary;
+        } finally {
+            span.end();
+            ITINERARY_LATENCY.recordSince(start);
+        }
+    }
+
+    private Itinerary assembleItinerary(Preferences prefs, RecommendationCard card) {
+        LOG.debug(() -> "Building micro-itinerary for: " + card.getName());
 
         Itinerary itinerary = new Itinerary();
         List<String> steps = new ArrayList<>();
-        int totalETA = 0;
+        int totalETA = MAIN_STOP_MINUTES;
 
         // Step 1: Start at main POI
         steps.add("1. Visit " + card.getName() + " (main destination)");
         steps.add("   Rating: " + card.getRating() + "/5.0");
         steps.add("   Distance: " + String.format("%.0f", card.getDistance()) + "m from you");
 
-        // For now, simple itinerary with just the main POI
-        // In a full implementation, we would:
-        // - Find 1-3 nearby POIs from cachedResults
-        // - Calculate ETAs between stops
-        // - Generate walking/transit directions
+        // Steps 2-4: nearby stops of other categories
+        List<POI> stops = findRelatedStops(card, MAX_EXTRA_STOPS);
+        String mode = prefs != null && prefs.getTransportMode() != null ? prefs.getTransportMode() : "walking";
+        LatLng previous = null;
+        if (!stops.isEmpty()) {
+            previous = findStopLocation(card.getPlaceId());
+        }
 
-        steps.add("");
-        steps.add("2. Explore the area (30 min suggested)");
-        steps.add("");
-        steps.add("Total estimated time: 1-2 hours");
+        int stepNumber = 2;
+        for (POI stop : stops) {
+            int legMinutes = 0;
+            double legMeters = 0;
+            if (previous != null && stop.getLocation() != null) {
+                List<ETA> etas = integrationLayer.getETAs(
+                    new RouteRequest(previous, Collections.singletonList(stop.getLocation()), mode));
+                if (!etas.isEmpty()) {
+                    legMinutes = etas.get(0).getDurationMinutes();
+                    legMeters = etas.get(0).getDistanceMeters();
+                }
+            }
+
+            steps.add("");
+            steps.add(stepNumber + ". " + capitalize(mode) + " " + legMinutes + " min (" +
+                      String.format("%.0f", legMeters) + "m) to " + stop.getName() + " (" + stop.getCategory() + ")");
+            steps.add("   Rating: " + stop.getRating() + "/5.0 • " + EXTRA_STOP_MINUTES + " min suggested");
+            totalETA += legMinutes + EXTRA_STOP_MINUTES;
+            previous = stop.getLocation();
+            stepNumber++;
+        }
+
+        if (stops.isEmpty()) {
+            steps.add("");
+            steps.add("2. Explore the area (" + EXTRA_STOP_MINUTES + " min suggested)");
+            totalETA += EXTRA_STOP_MINUTES;
+        }
 
-        totalETA = 90; // 90 minutes estimate
+        steps.add("");
+        steps.add("Total estimated time: " + totalETA + " min");
 
         itinerary.setSteps(steps);
         itinerary.setTotalETA(totalETA);
 
-        System.out.println("  Built itinerary with " + steps.size() + " steps");
+        LOG.debug(() -> "Built itinerary with " + steps.size() + " steps");
         return itinerary;
     }
 
+    /**
+     * Pick up to maxStops open neighbours of the card's POI, one per category,
+     * skipping the card's own category so the stops complement each other.
+     */
+    private List<POI> findRelatedStops(RecommendationCard card, int maxStops) {
+        List<POI> stops = new ArrayList<>();
+        if (integrationLayer == null || card.getPlaceId() == null) {
+            return stops;
+        }
+
+        Set<String> usedCategories = new HashSet<>();
+        if (card.getCategory() != null) {
+            usedCategories.add(card.getCategory().toLowerCase());
+        }
+        for (POI neighbour : integrationLayer.getNeighbours(card.getPlaceId(), NEIGHBOUR_LOOKUP_LIMIT)) {
+            if (stops.size() >= maxStops) {
+                break;
+            }
+            String category = neighbour.getCategory() != null ? neighbour.getCategory().toLowerCase() : "";
+            if (neighbour.isOpenNow() && usedCategories.add(category)) {
+                stops.add(neighbour);
+            }
+        }
+        return stops;
+    }
+
+    /**
+     * Location of the card's POI: taken from the ranked candidates when the
+     * card was ranked here, otherwise looked up in the places catalog (the
+     * candidate cache may have been cleared or refreshed since).
+     */
+    private LatLng findStopLocation(String placeId) {
+        Map<String, POI> candidates = cachedCandidates;
+        POI poi = candidates != null ? candidates.get(placeId) : null;
+        if (poi == null) {
+            poi = integrationLayer.getPlace(placeId);
+        }
+        return poi != null ? poi.getLocation() : null;
+    }
+
+    private String capitalize(String s) {
+        return s.isEmpty() ? s : s.substring(0, 1).toUpperCase() + s.substring(1);
+    }
+
     /**
      * Convert POI to RecommendationCard.
      *
@@ -161,6 +342,7 @@ public class RecommendationEngine {
 
         card.setPlaceId(poi.getId());
         card.setName(poi.getName());
+        card.setCategory(poi.getCategory());
         card.setRating(poi.getRating());
 
         // Calculate distance from user location
@@ -171,16 +353,24 @@ public class RecommendationEngine {
             card.setDistance(0);
         }
 
-        // Generate summary
-        String summary = poi.getCategory().substring(0, 1).toUpperCase() +
-                        poi.getCategory().substring(1);
+        // Generate summary, e.g. "Restaurant • $$$ • japanese, sushi"
+        // (one builder: this runs for every candidate on a cache miss)
+        String category = poi.getCategory();
+        StringBuilder summary = new StringBuilder(64);
+        if (!category.isEmpty()) {
+            summary.append(Character.toUpperCase(category.charAt(0))).append(category, 1, category.length());
+        }
         if (poi.getPriceLevel() != null) {
-            summary += " • " + poi.getPriceLevel();
+            summary.append(" • ").append(poi.getPriceLevel());
         }
-        if (poi.getTags() != null && !poi.getTags().isEmpty()) {
-            summary += " • " + String.join(", ", poi.getTags().subList(0, Math.min(2, poi.getTags().size())));
+        List<String> tags = poi.getTags();
+        if (tags != null && !tags.isEmpty()) {
+            summary.append(" • ").append(tags.get(0));
+            if (tags.size() > 1) {
+                summary.append(", ").append(tags.get(1));
+            }
         }
-        card.setSummary(summary);
+        card.setSummary(summary.toString());
 
         return card;
     }
@@ -257,5 +447,6 @@ public class RecommendationEngine {
 
     public void clearCache() {
         this.cachedResults = null;
+        this.cachedCandidates = null;
     }
 }
@@ -44,4 +44,8 @@ public class Session {
     public void incrementRequestCount() {
         requestCount++;
     }
+
+    public void setRequestCount(int requestCount) {
+        this.requestCount = requestCount;
+    }
 }
@@ -0,0 +1,145 @@
+package model;
+
+import service.Log;
+import service.MetricsRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background job that archives sessions idle for longer than a TTL.
+ *
+ * Each run archives in batches of batchSize (ProfileContextStore
+ * archiveIdleSessions, one short transaction each on MySQL) and sleeps
+ * between batches, so a large backlog is worked off without holding locks
+ * on the sessions table for long or starving request traffic. A run stops
+ * after maxBatchesPerRun; the rest waits for the next run.
+ *
+ * Configured by system properties:
+ * - travelassistant.session.ttlHours (default 720 = 30 days; 0 disables)
+ * - travelassistant.session.archiveBatch (default 200)
+ * - travelassistant.session.archivePauseMillis (default 250)
+ *
+ * Traceability:
+ * - FR-17: Store and retrieve session history
+ * - NFR-8: Scalability
+ *
+ * @author CPS731 Team 20
+ */
+public class SessionExpiryJob {
+
+    private static final Log LOG = Log.get(SessionExpiryJob.class);
+
+    public static final long DEFAULT_TTL_HOURS = 720;
+    public static final int DEFAULT_BATCH_SIZE = 200;
+    public static final long DEFAULT_PAUSE_MILLIS = 250;
+    public static final int DEFAULT_MAX_BATCHES_PER_RUN = 500;
+    public static final long DEFAULT_PERIOD_MINUTES = 60;
+
+    private static final LongAdder SESSIONS_EXPIRED = MetricsRegistry.shared().counter("sessions.expired");
+    private static final LongAdder EXPIRY_FAILURES = MetricsRegistry.shared().counter("sessions.expiryFailures");
+
+    private final ProfileContextStore store;
+    private final Duration ttl;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final int maxBatchesPerRun;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param store Store whose sessions expire
+     * @param ttl Idle time after which a session is archived
+     * @param batchSize Sessions archived per batch
+     * @param pauseMillis Sleep between batches
+     * @param maxBatchesPerRun Batches before a run yields to the next one
+     */
+    public SessionExpiryJob(ProfileContextStore store, Duration ttl, int batchSize, long pauseMillis,
+                            int maxBatchesPerRun) {
+        if (batchSize < 1 || maxBatchesPerRun < 1) {
+            throw new IllegalArgumentException("batchSize and maxBatchesPerRun must be at least 1");
+        }
+        this.store = store;
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Job configured from system properties, or null if expiry is disabled.
+     */
+    public static SessionExpiryJob fromSystemProperties(ProfileContextStore store) {
+        long ttlHours = Long.getLong("travelassistant.session.ttlHours", DEFAULT_TTL_HOURS);
+        if (ttlHours <= 0) {
+            return null;
+        }
+        return new SessionExpiryJob(store, Duration.ofHours(ttlHours),
+                                    Integer.getInteger("travelassistant.session.archiveBatch", DEFAULT_BATCH_SIZE),
+                                    Long.getLong("travelassistant.session.archivePauseMillis", DEFAULT_PAUSE_MILLIS),
+                                    DEFAULT_MAX_BATCHES_PER_RUN);
+    }
+
+    /**
+     * Run every periodMinutes on a daemon thread, starting one period from now.
+     */
+    public synchronized void start(long periodMinutes) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-expiry");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSafely, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+        LOG.info("✓ Sessions idle for " + ttl.toHours() + "h are archived every " + periodMinutes + " min");
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Archive sessions idle past the TTL, batch by batch.
+     *
+     * @return Number of sessions archived
+     * @throws InterruptedException if interrupted while pausing between batches
+     */
+    public int runOnce() throws InterruptedException {
+        Instant idleBefore = Instant.now().minus(ttl);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int archived = store.archiveIdleSessions(idleBefore, batchSize);
+            total += archived;
+            SESSIONS_EXPIRED.add(archived);
+            if (archived < batchSize) {
+                break;
+            }
+            if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+        if (total > 0) {
+            LOG.info("✓ Archived " + total + " sessions idle since before " + idleBefore);
+        }
+        return total;
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            EXPIRY_FAILURES.increment();
+            LOG.error("❌ Session expiry failed: " + e.getMessage());
+        }
+    }
+}
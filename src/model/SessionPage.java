@@ -0,0 +1,34 @@
+package model;
+
+import java.util.List;
+
+/**
+ * One page of a user's session history, newest first.
+ *
+ * Pass getNextCursor() as the cursor of the next getSessionHistory call;
+ * it is null on the last page.
+ *
+ * @author CPS731 Team 20
+ */
+public class SessionPage {
+
+    private final List<SessionSummary> sessions;
+    private final SessionSummary nextCursor;
+
+    public SessionPage(List<SessionSummary> sessions, SessionSummary nextCursor) {
+        this.sessions = sessions;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<SessionSummary> getSessions() {
+        return sessions;
+    }
+
+    public SessionSummary getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
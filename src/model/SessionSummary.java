@@ -0,0 +1,41 @@
+package model;
+
+import domain.SessionID;
+import java.time.Instant;
+
+/**
+ * One row of a user's session history: just what the history list shows.
+ * Also serves as the keyset cursor for the next page, since pages are
+ * ordered by (createdAt, sessionId) descending.
+ *
+ * @author CPS731 Team 20
+ */
+public class SessionSummary {
+
+    private final SessionID sessionId;
+    private final Instant createdAt;
+    private final int requestCount;
+
+    public SessionSummary(SessionID sessionId, Instant createdAt, int requestCount) {
+        this.sessionId = sessionId;
+        this.createdAt = createdAt;
+        this.requestCount = requestCount;
+    }
+
+    public SessionID getSessionId() {
+        return sessionId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionSummary{" + sessionId.getValue() + ", " + createdAt + ", " + requestCount + " requests}";
+    }
+}
@@ -0,0 +1,138 @@
+package model;
+
+import domain.*;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage SPI for everything the application persists: profiles,
+ * sessions, POIs and analytics events.
+ *
+ * Implementations:
+ * - {@link MySQLStorage}: the MySQL schema in docs/schema.sql
+ * - {@link EmbeddedStorage}: a local append-only log (no server), for
+ *   single-node deployments and tests
+ *
+ * ProfileContextStore (caching, metrics, tracing) sits on top of a Storage,
+ * so callers do not change with the backend. Save, load and count methods
+ * throw RuntimeException when the backend fails; load methods return null
+ * (or an empty list) when nothing is stored.
+ *
+ * @author CPS731 Team 20
+ */
+public interface Storage extends AutoCloseable {
+
+    /**
+     * Short backend name for logs, e.g. "MySQL".
+     */
+    String getName();
+
+    /**
+     * Check that the backend can be reached.
+     */
+    boolean isAvailable();
+
+    // Profiles (FR-6)
+
+    /**
+     * Insert or replace a profile.
+     *
+     * @return true if the profile was new (ProfileContextStore keeps its
+     *         profile count from this)
+     */
+    boolean saveProfile(Profile profile);
+
+    Profile loadProfile(UserID userId);
+
+    /**
+     * Count stored profiles. May scan the table; ProfileContextStore only
+     * calls it to reconcile its in-memory count.
+     */
+    int getProfileCount();
+
+    // Sessions (FR-5, FR-17)
+
+    /**
+     * Insert a session or update its request count and last activity.
+     *
+     * @return true if the session was new
+     */
+    boolean saveSession(Session session);
+
+    Session loadSession(SessionID sessionId);
+
+    /**
+     * All sessions of a user, most recent first.
+     */
+    List<Session> getSessionsByUser(UserID userId);
+
+    /**
+     * One page of a user's sessions, ordered by (createdAt, sessionId)
+     * descending. Reads only the page, however many sessions the user has.
+     *
+     * @param userId User whose history to read
+     * @param after Last summary of the previous page, or null for the first page
+     * @param limit Page size (at least 1)
+     */
+    SessionPage getSessionHistory(UserID userId, SessionSummary after, int limit);
+
+    /**
+     * Count stored sessions. May scan the table, like getProfileCount.
+     */
+    int getSessionCount();
+
+    /**
+     * Move up to limit sessions last active before idleBefore, with their
+     * conversation history, into the archive and delete them, oldest
+     * first, as one short unit of work. Call repeatedly until it returns fewer than limit.
+     *
+     * @return IDs of the archived sessions
+     */
+    List<SessionID> archiveIdleSessions(Instant idleBefore, int limit);
+
+    // POIs
+
+    /**
+     * All POIs that are not deleted.
+     */
+    List<POI> loadPOIs();
+
+    /**
+     * Insert or replace POIs by ID.
+     */
+    void savePOIs(Collection<POI> pois);
+
+    /**
+     * Delete POIs by ID. Unknown IDs are ignored.
+     */
+    void deletePOIs(Collection<String> poiIds);
+
+    // Conversation history (FR-4, FR-17)
+
+    /**
+     * Append turns, in order, as one write. The sessions must already be
+     * saved (conversation_history references sessions).
+     */
+    void appendConversationTurns(List<ConversationTurn> turns);
+
+    /**
+     * The last limit turns of a session, oldest first.
+     */
+    List<ConversationTurn> loadRecentTurns(SessionID sessionId, int limit);
+
+    // Analytics events (FR-20, NFR-3)
+
+    void appendEvent(Event event);
+
+    /**
+     * Events of a user at or after a time, oldest first.
+     */
+    List<Event> getEventsByUser(UserID userId, Instant since);
+
+    /**
+     * Release connections and files. Runtime failures are logged, not thrown.
+     */
+    @Override
+    void close();
+}
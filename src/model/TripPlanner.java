@@ -0,0 +1,526 @@
+package model;
+
+import domain.*;
+import service.IntegrationLayer;
+import service.Log;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * «entity» time-budgeted multi-stop trip planner.
+ * GRASP: Information Expert - Knows how to pick and order stops within a time budget
+ *
+ * Solves the orienteering problem "visit the best set of POIs reachable from the
+ * user's location within N minutes": every stop earns a prize (its rating) and costs
+ * travel time plus a per-category dwell time.
+ *
+ * Strategy (parallel large-neighbourhood search):
+ * 1. Fetch candidates and build a travel-time matrix from IntegrationLayer ETAs
+ * 2. Each worker starts from a (randomized) greedy route; one worker runs on
+ *    the calling thread, the rest on an executor shared by all plans
+ * 3. Workers repeatedly remove a few stops and greedily re-insert others
+ * 4. Every strictly better route is published to the listener as an Itinerary
+ *
+ * The search stops when the wall-clock budget expires, so callers always get
+ * the best plan found so far.
+ *
+ * Traceability:
+ * - FR-3: Build itineraries
+ * - UC-1: Discover Places
+ *
+ * @author CPS731 Team 20
+ */
+public class TripPlanner {
+
+    private static final Log LOG = Log.get(TripPlanner.class);
+
+    // Default dwell time per category (minutes)
+    private static final int DEFAULT_DWELL_MINUTES = 45;
+
+    // Candidate cap keeps the travel-time matrix small (n^2 ETAs)
+    private static final int DEFAULT_MAX_CANDIDATES = 30;
+
+    // Travel time of a leg with no ETA; routes are summed in long, so any
+    // route using such a leg is over budget rather than overflowing
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 4;
+
+    private static final int PLANNER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int PLANNER_QUEUE_SIZE = 256;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadPoolExecutor SHARED_EXECUTOR = createExecutor();
+
+    private IntegrationLayer integrationLayer;
+    private final Map<String, Integer> dwellMinutesByCategory;
+    private final ExecutorService executor;
+    private int maxCandidates;
+    private int workerCount;
+
+    /**
+     * Planner on the executor shared by all planners.
+     */
+    public TripPlanner() {
+        this(SHARED_EXECUTOR);
+    }
+
+    /**
+     * @param executor Executor the extra search workers run on (not shut down here)
+     */
+    public TripPlanner(ExecutorService executor) {
+        this.executor = executor;
+        this.dwellMinutesByCategory = new HashMap<>();
+        dwellMinutesByCategory.put("restaurant", 60);
+        dwellMinutesByCategory.put("museum", 90);
+        dwellMinutesByCategory.put("park", 45);
+        dwellMinutesByCategory.put("cafe", 30);
+        dwellMinutesByCategory.put("shopping", 60);
+        dwellMinutesByCategory.put("entertainment", 90);
+        dwellMinutesByCategory.put("bar", 60);
+        this.maxCandidates = DEFAULT_MAX_CANDIDATES;
+        this.workerCount = PLANNER_THREADS;
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            PLANNER_THREADS, PLANNER_THREADS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(PLANNER_QUEUE_SIZE), r -> {
+                Thread t = new Thread(r, "trip-planner-" + THREAD_COUNTER.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Plan a trip from the user's location using nearby places that match preferences.
+     *
+     * @param start Starting location
+     * @param prefs User preferences (interests, budget, radius, transport mode)
+     * @param timeBudgetMinutes Total time available for the trip (travel + visits)
+     * @param wallClockMillis How long the solver may run
+     * @param listener Receives each strictly better itinerary as it is found (may be null)
+     * @return Best itinerary found within the wall-clock budget
+     */
+    public Itinerary planTrip(LatLng start, Preferences prefs, int timeBudgetMinutes,
+                              long wallClockMillis, Consumer<Itinerary> listener) {
+        if (integrationLayer == null) {
+            LOG.error("❌ IntegrationLayer not initialized");
+            return emptyItinerary();
+        }
+        if (start == null || prefs == null) {
+            LOG.error("❌ Invalid trip request");
+            return emptyItinerary();
+        }
+
+        List<POI> candidates = integrationLayer.getNearbyPlaces(start, prefs);
+        return planTrip(start, candidates, prefs.getTransportMode(), timeBudgetMinutes,
+                        wallClockMillis, listener);
+    }
+
+    /**
+     * Plan a trip over an explicit candidate set.
+     *
+     * @param start Starting location
+     * @param candidates Candidate POIs
+     * @param mode Transport mode ("walking", "driving", "transit")
+     * @param timeBudgetMinutes Total time available for the trip (travel + visits)
+     * @param wallClockMillis How long the solver may run
+     * @param listener Receives each strictly better itinerary as it is found (may be null)
+     * @return Best itinerary found within the wall-clock budget
+     */
+    public Itinerary planTrip(LatLng start, List<POI> candidates, String mode, int timeBudgetMinutes,
+                              long wallClockMillis, Consumer<Itinerary> listener) {
+        LOG.debug(() -> "Planning " + timeBudgetMinutes + " min trip...");
+
+        if (start == null || candidates == null || candidates.isEmpty() || timeBudgetMinutes <= 0) {
+            return emptyItinerary();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(1, wallClockMillis));
+
+        // Keep the best-rated open places; the matrix is quadratic in this count
+        List<POI> pois = new ArrayList<>();
+        for (POI poi : candidates) {
+            if (poi != null && poi.getLocation() != null && poi.isOpenNow()) {
+                pois.add(poi);
+            }
+        }
+        pois.sort(Comparator.comparingDouble((POI p) -> p.getRating()).reversed());
+        if (pois.size() > maxCandidates) {
+            pois = new ArrayList<>(pois.subList(0, maxCandidates));
+        }
+        if (pois.isEmpty()) {
+            return emptyItinerary();
+        }
+
+        Problem problem = buildProblem(start, pois, mode != null ? mode : "walking", timeBudgetMinutes);
+        int candidateCount = pois.size();
+        LOG.debug(() -> "Candidates: " + candidateCount + ", workers: " + workerCount);
+
+        BestRoute best = new BestRoute(problem, listener);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 1; w < workerCount; w++) {
+            final long seed = 31L * w + 7;
+            try {
+                workers.add(executor.submit(() -> search(problem, best, new Random(seed), true, deadline)));
+            } catch (RejectedExecutionException e) {
+                // Executor busy with other plans: search with fewer workers
+                break;
+            }
+        }
+
+        // The greedy worker runs here, so a plan is found even if the executor is busy
+        search(problem, best, new Random(7), false, deadline);
+        awaitWorkers(workers, deadline);
+
+        Itinerary itinerary = best.toItinerary();
+        LOG.debug(() -> "Planned " + best.stopCount() + " stops, " + itinerary.getTotalETA() + " min");
+        return itinerary;
+    }
+
+    /**
+     * Wait for the pooled workers until shortly after the deadline, then
+     * cancel any that have not finished (or started).
+     */
+    private void awaitWorkers(List<Future<?>> workers, long deadline) {
+        long graceNanos = TimeUnit.MILLISECONDS.toNanos(200);
+        for (Future<?> worker : workers) {
+            try {
+                worker.get(Math.max(0, deadline + graceNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                worker.cancel(true);
+            } catch (ExecutionException e) {
+                LOG.error("❌ Trip search worker failed: " + e.getCause());
+            } catch (InterruptedException e) {
+                workers.forEach(w -> w.cancel(true));
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Build the travel-time matrix. Node 0 is the start, node i (1..n) is pois[i-1].
+     */
+    private Problem buildProblem(LatLng start, List<POI> pois, String mode, int budget) {
+        int n = pois.size() + 1;
+        List<LatLng> nodes = new ArrayList<>(n);
+        nodes.add(start);
+        for (POI poi : pois) {
+            nodes.add(poi.getLocation());
+        }
+
+        int[][] travel = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            RouteRequest req = new RouteRequest(nodes.get(i), nodes, mode);
+            List<ETA> etas = integrationLayer.getETAs(req);
+            for (int j = 0; j < n; j++) {
+                travel[i][j] = (etas != null && j < etas.size()) ? etas.get(j).getDurationMinutes() : UNREACHABLE;
+            }
+            travel[i][i] = 0;
+        }
+
+        int[] dwell = new int[n];
+        double[] prize = new double[n];
+        for (int i = 1; i < n; i++) {
+            POI poi = pois.get(i - 1);
+            dwell[i] = getDwellMinutes(poi.getCategory());
+            prize[i] = poi.getRating();
+        }
+
+        return new Problem(pois, mode, budget, travel, dwell, prize);
+    }
+
+    /**
+     * One LNS worker: greedy start, then destroy/repair until the deadline.
+     */
+    private void search(Problem problem, BestRoute best, Random random, boolean randomizedStart, long deadline) {
+        List<Integer> current = new ArrayList<>();
+        repair(problem, current, random, randomizedStart ? 0.3 : 0.0);
+        improveOrder(problem, current);
+        best.offer(current);
+
+        double currentPrize = problem.prize(current);
+        long currentTime = problem.duration(current);
+        int idle = 0;
+
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            List<Integer> candidate = new ArrayList<>(current);
+
+            // Destroy: drop 1..size/3 random stops
+            int removals = candidate.isEmpty() ? 0 : 1 + random.nextInt(Math.max(1, candidate.size() / 3));
+            for (int r = 0; r < removals && !candidate.isEmpty(); r++) {
+                candidate.remove(random.nextInt(candidate.size()));
+            }
+
+            // Repair: greedy insertion with some noise to diversify
+            repair(problem, candidate, random, 0.2);
+            improveOrder(problem, candidate);
+
+            double prize = problem.prize(candidate);
+            long time = problem.duration(candidate);
+            if (prize > currentPrize + 1e-9 || (Math.abs(prize - currentPrize) <= 1e-9 && time < currentTime)) {
+                current = candidate;
+                currentPrize = prize;
+                currentTime = time;
+                best.offer(current);
+                idle = 0;
+            } else if (++idle > 200) {
+                // Restart from the shared best to avoid stalling in a local optimum
+                current = best.snapshot();
+                currentPrize = problem.prize(current);
+                currentTime = problem.duration(current);
+                idle = 0;
+            }
+        }
+    }
+
+    /**
+     * Greedily insert unvisited stops at their cheapest feasible position,
+     * preferring the best prize per extra minute.
+     */
+    private void repair(Problem problem, List<Integer> route, Random random, double noise) {
+        boolean[] used = new boolean[problem.size()];
+        for (int node : route) {
+            used[node] = true;
+        }
+
+        long time = problem.duration(route);
+        while (true) {
+            int bestNode = -1;
+            int bestPos = -1;
+            long bestDelta = 0;
+            double bestRatio = -1;
+
+            for (int node = 1; node < problem.size(); node++) {
+                if (used[node]) {
+                    continue;
+                }
+                for (int pos = 0; pos <= route.size(); pos++) {
+                    long delta = problem.insertionDelta(route, node, pos);
+                    if (time + delta > problem.budget) {
+                        continue;
+                    }
+                    double ratio = problem.prize[node] / Math.max(1, delta);
+                    if (noise > 0) {
+                        ratio *= 1 + noise * (random.nextDouble() - 0.5);
+                    }
+                    if (ratio > bestRatio) {
+                        bestRatio = ratio;
+                        bestNode = node;
+                        bestPos = pos;
+                        bestDelta = delta;
+                    }
+                }
+            }
+
+            if (bestNode < 0) {
+                return;
+            }
+            route.add(bestPos, bestNode);
+            used[bestNode] = true;
+            time += bestDelta;
+        }
+    }
+
+    /**
+     * 2-opt pass on the visiting order to shorten travel time.
+     */
+    private void improveOrder(Problem problem, List<Integer> route) {
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            long time = problem.duration(route);
+            for (int i = 0; i < route.size() - 1; i++) {
+                for (int j = i + 1; j < route.size(); j++) {
+                    Collections.reverse(route.subList(i, j + 1));
+                    long candidate = problem.duration(route);
+                    if (candidate < time) {
+                        time = candidate;
+                        improved = true;
+                    } else {
+                        Collections.reverse(route.subList(i, j + 1));
+                    }
+                }
+            }
+        }
+    }
+
+    private Itinerary emptyItinerary() {
+        Itinerary itinerary = new Itinerary();
+        itinerary.setSteps(new ArrayList<>());
+        itinerary.setTotalETA(0);
+        return itinerary;
+    }
+
+    /**
+     * Get dwell time for a category.
+     *
+     * @param category POI category
+     * @return Minutes spent at a stop of this category
+     */
+    public int getDwellMinutes(String category) {
+        if (category == null) {
+            return DEFAULT_DWELL_MINUTES;
+        }
+        return dwellMinutesByCategory.getOrDefault(category.toLowerCase(), DEFAULT_DWELL_MINUTES);
+    }
+
+    public void setDwellMinutes(String category, int minutes) {
+        dwellMinutesByCategory.put(category.toLowerCase(), minutes);
+    }
+
+    public void setIntegrationLayer(IntegrationLayer integrationLayer) {
+        this.integrationLayer = integrationLayer;
+    }
+
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = Math.max(1, maxCandidates);
+    }
+
+    public void setWorkerCount(int workerCount) {
+        this.workerCount = Math.max(1, workerCount);
+    }
+
+    // ========================================================================
+    // Solver state
+    // ========================================================================
+
+    /**
+     * Immutable problem instance shared by all workers.
+     */
+    private static final class Problem {
+        final List<POI> pois;
+        final String mode;
+        final int budget;
+        final int[][] travel;
+        final int[] dwell;
+        final double[] prize;
+
+        Problem(List<POI> pois, String mode, int budget, int[][] travel, int[] dwell, double[] prize) {
+            this.pois = pois;
+            this.mode = mode;
+            this.budget = budget;
+            this.travel = travel;
+            this.dwell = dwell;
+            this.prize = prize;
+        }
+
+        int size() {
+            return travel.length;
+        }
+
+        double prize(List<Integer> route) {
+            double total = 0;
+            for (int node : route) {
+                total += prize[node];
+            }
+            return total;
+        }
+
+        long duration(List<Integer> route) {
+            long total = 0;
+            int prev = 0;
+            for (int node : route) {
+                total += travel[prev][node] + dwell[node];
+                prev = node;
+            }
+            return total;
+        }
+
+        long insertionDelta(List<Integer> route, int node, int pos) {
+            int prev = pos == 0 ? 0 : route.get(pos - 1);
+            long delta = (long) travel[prev][node] + dwell[node];
+            if (pos < route.size()) {
+                int next = route.get(pos);
+                delta += travel[node][next] - travel[prev][next];
+            }
+            return delta;
+        }
+    }
+
+    /**
+     * Best route shared across workers; publishes strictly better routes in order.
+     */
+    private final class BestRoute {
+        private final Problem problem;
+        private final Consumer<Itinerary> listener;
+        private List<Integer> route = new ArrayList<>();
+        private double prize = -1;
+        private long duration = Long.MAX_VALUE;
+
+        BestRoute(Problem problem, Consumer<Itinerary> listener) {
+            this.problem = problem;
+            this.listener = listener;
+        }
+
+        synchronized void offer(List<Integer> candidate) {
+            double candidatePrize = problem.prize(candidate);
+            long candidateDuration = problem.duration(candidate);
+            boolean better = candidatePrize > prize + 1e-9 ||
+                             (Math.abs(candidatePrize - prize) <= 1e-9 && candidateDuration < duration);
+            if (!better) {
+                return;
+            }
+            route = new ArrayList<>(candidate);
+            prize = candidatePrize;
+            duration = candidateDuration;
+            if (listener != null) {
+                listener.accept(toItinerary());
+            }
+        }
+
+        synchronized List<Integer> snapshot() {
+            return new ArrayList<>(route);
+        }
+
+        synchronized int stopCount() {
+            return route.size();
+        }
+
+        synchronized Itinerary toItinerary() {
+            List<String> steps = new ArrayList<>();
+            int prev = 0;
+            int stepNumber = 1;
+            for (int node : route) {
+                POI poi = problem.pois.get(node - 1);
+                steps.add(stepNumber + ". " + capitalize(problem.mode) + " " + problem.travel[prev][node] +
+                          " min to " + poi.getName() + " (" + poi.getCategory() + ")");
+                steps.add("   Stay " + problem.dwell[node] + " min • Rating: " + poi.getRating() + "/5.0");
+                prev = node;
+                stepNumber++;
+            }
+            steps.add("");
+            steps.add("Total estimated time: " + duration(route) + " of " + problem.budget + " min");
+
+            Itinerary itinerary = new Itinerary();
+            itinerary.setSteps(steps);
+            itinerary.setTotalETA((int) duration(route));   // within the budget
+            return itinerary;
+        }
+
+        private long duration(List<Integer> r) {
+            return r.isEmpty() ? 0 : problem.duration(r);
+        }
+
+        private String capitalize(String s) {
+            return s.isEmpty() ? s : s.substring(0, 1).toUpperCase() + s.substring(1);
+        }
+    }
+}
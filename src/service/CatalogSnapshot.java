@@ -0,0 +1,348 @@
+package service;
+
+import domain.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * Immutable POI catalog plus every index derived from it.
+ *
+ * A snapshot is built completely before anyone can see it and never changes
+ * afterwards, so PlacesService can publish a refreshed catalog with a single
+ * volatile write: searches that started on the old snapshot finish on it,
+ * new searches see the new one, and nobody observes a half-built index.
+ *
+ * Refreshes are applied with {@link #withChanges} as an overlay on the
+ * base catalog: changed POIs keep their index, new ones are added after
+ * the base, and removed ones leave an empty index behind. Only the changed
+ * entries are indexed again, so a base mapped from a snapshot file is never
+ * decoded or copied; {@link #write} folds the overlay into a new snapshot.
+ *
+ * @author CPS731 Team 20
+ */
+public final class CatalogSnapshot {
+
+    private static final Log LOG = Log.get(CatalogSnapshot.class);
+
+    private final List<POI> base;
+    private final POISnapshotFile file;             // base, when it is a mapped snapshot
+    private final Map<String, Integer> baseIds;     // null when the file holds the ID index
+    private final SpatialGridIndex baseGrid;
+
+    // Overlay: the POI at overlayIndexes[k] (sorted) is overlayPOIs[k], or
+    // removed if null. Indexes from base.size() up were added by refreshes.
+    private final int[] overlayIndexes;
+    private final POI[] overlayPOIs;
+    private final Map<String, Integer> addedIds;
+    private final int size;
+
+    private final SpatialGridIndex spatialIndex;
+    private final POINeighbourIndex neighbourIndex;
+
+    private CatalogSnapshot(List<POI> base, Map<String, Integer> baseIds, SpatialGridIndex baseGrid,
+                            int[] overlayIndexes, POI[] overlayPOIs, Map<String, Integer> addedIds, int size,
+                            SpatialGridIndex spatialIndex, POINeighbourIndex neighbourIndex) {
+        this.base = base;
+        this.file = base instanceof POISnapshotFile ? (POISnapshotFile) base : null;
+        this.baseIds = baseIds;
+        this.baseGrid = baseGrid;
+        this.overlayIndexes = overlayIndexes;
+        this.overlayPOIs = overlayPOIs;
+        this.addedIds = addedIds;
+        this.size = size;
+        this.spatialIndex = spatialIndex;
+        this.neighbourIndex = neighbourIndex;
+    }
+
+    /**
+     * Build a snapshot and all of its indexes.
+     * A mapped snapshot file brings its own indexes, which are used as they
+     * are when its neighbour cap matches. Otherwise, when a previous snapshot
+     * with the same neighbour cap is given, neighbour lists are rebuilt
+     * incrementally from it.
+     *
+     * @param pois Catalog contents (copied, unless it is an immutable mapped snapshot)
+     * @param previous Previous snapshot (or null)
+     * @param neighbourCapMeters Maximum neighbour distance
+     * @return Fully built snapshot
+     */
+    public static CatalogSnapshot build(List<POI> pois, CatalogSnapshot previous, double neighbourCapMeters) {
+        long start = System.nanoTime();
+
+        List<POI> list;
+        Map<String, Integer> ids = null;
+        SpatialGridIndex grid;
+        POINeighbourIndex neighbours = null;
+        if (pois instanceof POISnapshotFile) {
+            // Mapped snapshot: indexes come from the file, POIs decode on demand
+            POISnapshotFile mapped = (POISnapshotFile) pois;
+            list = mapped;
+            grid = mapped.spatialIndex();
+            POINeighbourIndex stored = mapped.neighbourIndex();
+            if (previous == null && stored.getCapMeters() == neighbourCapMeters) {
+                neighbours = stored;
+            }
+        } else {
+            list = Collections.unmodifiableList(new ArrayList<>(pois));
+            ids = new HashMap<>(list.size() * 2);
+            for (int i = 0; i < list.size(); i++) {
+                ids.put(list.get(i).getId(), i);
+            }
+            grid = new SpatialGridIndex(list);
+        }
+
+        if (neighbours != null) {
+            // Stored with the file
+        } else if (previous != null && previous.neighbourIndex.getCapMeters() == neighbourCapMeters) {
+            neighbours = POINeighbourIndex.rebuild(previous.neighbourIndex, previous.slots(), list, grid);
+        } else {
+            neighbours = POINeighbourIndex.build(grid, neighbourCapMeters, POINeighbourIndex.DEFAULT_MAX_NEIGHBOURS);
+        }
+
+        POINeighbourIndex built = neighbours;
+        LOG.debug(() -> "Indexed " + list.size() + " POIs (" + grid.getCellCount() + " cells, " +
+                        built.getTotalEntries() + " neighbour entries) in " +
+                        (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        return new CatalogSnapshot(list, ids != null ? Collections.unmodifiableMap(ids) : null, grid,
+                                   new int[0], new POI[0], Collections.emptyMap(), list.size(), grid, neighbours);
+    }
+
+    /**
+     * Snapshot with POIs added, replaced or removed.
+     * Replaced POIs keep their index and new ones are added after the last
+     * index, so the base and its indexes are shared, not copied: only the
+     * changed entries go into the new grid overlay, and only neighbour lists
+     * within the cap of a changed location are recomputed.
+     *
+     * @param upserts New or replaced POIs (IDs must not also be in removedIds)
+     * @param removedIds IDs of POIs to remove (unknown IDs are ignored)
+     * @return New snapshot (this one is unchanged)
+     */
+    public CatalogSnapshot withChanges(Collection<POI> upserts, Collection<String> removedIds) {
+        long start = System.nanoTime();
+        TreeMap<Integer, POI> overlay = new TreeMap<>();
+        for (int k = 0; k < overlayIndexes.length; k++) {
+            overlay.put(overlayIndexes[k], overlayPOIs[k]);
+        }
+        Map<String, Integer> added = new HashMap<>(addedIds);
+        int next = base.size() + added.size();
+        int live = size;
+
+        int[] changed = new int[upserts.size() + removedIds.size()];
+        int count = 0;
+        for (POI poi : upserts) {
+            int index = slotOf(poi.getId(), added);
+            if (index < 0) {
+                index = next++;
+                added.put(poi.getId(), index);
+                live++;
+            } else if (!isLive(index, overlay)) {
+                live++;
+            }
+            overlay.put(index, poi);
+            changed[count++] = index;
+        }
+        for (String id : removedIds) {
+            int index = slotOf(id, added);
+            if (index >= 0 && isLive(index, overlay)) {
+                overlay.put(index, null);
+                live--;
+                changed[count++] = index;
+            }
+        }
+
+        int[] indexes = new int[overlay.size()];
+        POI[] overlaid = new POI[overlay.size()];
+        double[] latitudes = new double[overlay.size()];
+        double[] longitudes = new double[overlay.size()];
+        int k = 0;
+        for (Map.Entry<Integer, POI> entry : overlay.entrySet()) {
+            LatLng loc = entry.getValue() != null ? entry.getValue().getLocation() : null;
+            indexes[k] = entry.getKey();
+            overlaid[k] = entry.getValue();
+            latitudes[k] = loc != null ? loc.getLatitude() : Double.NaN;
+            longitudes[k] = loc != null ? loc.getLongitude() : Double.NaN;
+            k++;
+        }
+
+        SpatialGridIndex grid = baseGrid.overlay(indexes, latitudes, longitudes);
+        POINeighbourIndex neighbours = POINeighbourIndex.update(neighbourIndex, spatialIndex, grid,
+                                                                Arrays.copyOf(changed, count));
+        LOG.debug(() -> "Overlaid " + indexes.length + " POIs on " + base.size() + " in " +
+                        (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        return new CatalogSnapshot(base, baseIds, baseGrid, indexes, overlaid,
+                                   Collections.unmodifiableMap(added), live, grid, neighbours);
+    }
+
+    /**
+     * Index a POI ID was given, whether or not the POI has since been removed.
+     */
+    private int slotOf(String poiId, Map<String, Integer> added) {
+        if (poiId == null) {
+            return -1;
+        }
+        Integer addedIndex = added.get(poiId);
+        if (addedIndex != null) {
+            return addedIndex;
+        }
+        if (file != null) {
+            return file.indexOf(poiId);
+        }
+        Integer index = baseIds.get(poiId);
+        return index != null ? index : -1;
+    }
+
+    private boolean isLive(int index, Map<Integer, POI> overlay) {
+        if (overlay.containsKey(index)) {
+            return overlay.get(index) != null;
+        }
+        return index < base.size();
+    }
+
+    /**
+     * Whether a catalog index holds a POI, without decoding it.
+     */
+    private boolean isLive(int index) {
+        int k = Arrays.binarySearch(overlayIndexes, index);
+        return k >= 0 ? overlayPOIs[k] != null : index < base.size();
+    }
+
+    /**
+     * Write the catalog, overlay included, to a snapshot file.
+     * Removed POIs are dropped and the rest renumbered in index order;
+     * neighbour lists are carried over rather than recomputed.
+     *
+     * @param watermark Newest updated_at included (or null)
+     * @param snapshotFile Target file
+     * @throws IOException If the file cannot be written
+     */
+    public void write(Timestamp watermark, Path snapshotFile) throws IOException {
+        int total = spatialIndex.size();
+        int[] liveIndexes = new int[size];
+        int[] newIndexOf = new int[total];
+        int count = 0;
+        for (int i = 0; i < total; i++) {
+            if (isLive(i)) {
+                newIndexOf[i] = count;
+                liveIndexes[count++] = i;
+            } else {
+                newIndexOf[i] = -1;
+            }
+        }
+        POINeighbourIndex neighbours = overlayIndexes.length == 0 && count == total
+            ? neighbourIndex : neighbourIndex.renumber(newIndexOf, count);
+        POISnapshotFile.write(new IndexedView(liveIndexes, false), neighbours, watermark, snapshotFile);
+    }
+
+    /**
+     * Live POIs in index order (removed ones are skipped).
+     * POIs of a mapped base are decoded on access.
+     */
+    public List<POI> getPOIs() {
+        if (overlayIndexes.length == 0) {
+            return base;
+        }
+        int[] liveIndexes = new int[size];
+        int count = 0;
+        for (int i = 0; i < spatialIndex.size(); i++) {
+            if (isLive(i)) {
+                liveIndexes[count++] = i;
+            }
+        }
+        return new IndexedView(liveIndexes, true);
+    }
+
+    /**
+     * Every index, in order, with null for removed POIs.
+     */
+    private List<POI> slots() {
+        int[] all = new int[spatialIndex.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return new IndexedView(all, true);
+    }
+
+    /**
+     * Read-only list over some catalog indexes.
+     */
+    private final class IndexedView extends AbstractList<POI> implements RandomAccess {
+        private final int[] indexes;
+        private final boolean cache;
+
+        IndexedView(int[] indexes, boolean cache) {
+            this.indexes = indexes;
+            this.cache = cache;
+        }
+
+        @Override
+        public POI get(int i) {
+            return CatalogSnapshot.this.get(indexes[i], cache);
+        }
+
+        @Override
+        public int size() {
+            return indexes.length;
+        }
+    }
+
+    /**
+     * POI at a catalog index (null if it was removed).
+     */
+    public POI get(int index) {
+        return get(index, true);
+    }
+
+    private POI get(int index, boolean cache) {
+        if (overlayIndexes.length > 0) {
+            int k = Arrays.binarySearch(overlayIndexes, index);
+            if (k >= 0) {
+                return overlayPOIs[k];
+            }
+        }
+        return cache || file == null ? base.get(index) : file.read(index);
+    }
+
+    /**
+     * Catalog index of a POI, or -1 if the ID is unknown or was removed.
+     */
+    public int indexOf(String poiId) {
+        int index = slotOf(poiId, addedIds);
+        return index >= 0 && isLive(index) ? index : -1;
+    }
+
+    /**
+     * Number of POIs in the catalog (removed ones are not counted).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of POIs held in the overlay on the base catalog.
+     */
+    public int getOverlaySize() {
+        return overlayIndexes.length;
+    }
+
+    public SpatialGridIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    public POINeighbourIndex getNeighbourIndex() {
+        return neighbourIndex;
+    }
+}
@@ -0,0 +1,526 @@
+package service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of database connections, each with its own LRU cache of prepared
+ * statements.
+ *
+ * Callers keep the plain JDBC pattern:
+ *
+ *   try (Connection conn = pool.getConnection();
+ *        PreparedStatement stmt = conn.prepareStatement(sql)) { ... }
+ *
+ * but closing the connection returns it to the pool, and closing a
+ * statement prepared with prepareStatement(String) only clears its
+ * parameters. The next prepareStatement with the same SQL on that
+ * connection reuses it, so MySQL (useServerPrepStmts=true) parses each
+ * store and POI query once per connection instead of once per call.
+ * Other prepareStatement overloads and createStatement are not cached.
+ *
+ * At most maxConnections are open at once; getConnection waits for a free
+ * one, up to a timeout. Idle connections are reused most recent first (so
+ * their statement caches stay warm) and are checked with isValid after
+ * sitting idle. A connection that reported a connection-level error
+ * (SQLState 08xxx) is closed instead of being returned.
+ *
+ * Metrics: db.pool.opened / db.pool.reused connections,
+ * db.statements.cacheHits / cacheMisses / evictions, the gauge
+ * db.statements.reuseRate and the checkout wait histogram db.pool.checkout.
+ *
+ * @author CPS731 Team 20
+ */
+public class ConnectionPool extends DatabaseConnection {
+
+    private static final Log LOG = Log.get(ConnectionPool.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 10;
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    public static final long DEFAULT_CHECKOUT_TIMEOUT_MILLIS = 5000;
+
+    // Connections idle longer than this are validated before reuse
+    private static final long VALIDATE_AFTER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int VALIDATE_TIMEOUT_SECONDS = 2;
+
+    private static final LongAdder CONNECTIONS_OPENED = MetricsRegistry.shared().counter("db.pool.opened");
+    private static final LongAdder CONNECTIONS_REUSED = MetricsRegistry.shared().counter("db.pool.reused");
+    private static final LongAdder CONNECTIONS_DISCARDED = MetricsRegistry.shared().counter("db.pool.discarded");
+    private static final LongAdder STATEMENT_HITS = MetricsRegistry.shared().counter("db.statements.cacheHits");
+    private static final LongAdder STATEMENT_MISSES = MetricsRegistry.shared().counter("db.statements.cacheMisses");
+    private static final LongAdder STATEMENT_EVICTIONS = MetricsRegistry.shared().counter("db.statements.evictions");
+    private static final LatencyHistogram CHECKOUT_LATENCY = MetricsRegistry.shared().histogram("db.pool.checkout");
+
+    private static ConnectionPool shared;
+
+    private final DatabaseConnection source;
+    private final int maxConnections;
+    private final int statementCacheSize;
+    private final long checkoutTimeoutMillis;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();   // guarded by itself
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final MetricsRegistry.GaugeSet gauges = MetricsRegistry.shared().gaugeSet();
+    private volatile boolean closed;
+
+    /**
+     * Pool over a connection source with default sizes.
+     *
+     * @param source Where physical connections come from
+     */
+    public ConnectionPool(DatabaseConnection source) {
+        this(source, DEFAULT_MAX_CONNECTIONS, DEFAULT_STATEMENT_CACHE_SIZE, DEFAULT_CHECKOUT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param source Where physical connections come from
+     * @param maxConnections Connections open at once (checked out or idle)
+     * @param statementCacheSize Prepared statements cached per connection
+     * @param checkoutTimeoutMillis How long getConnection waits for a free connection
+     */
+    public ConnectionPool(DatabaseConnection source, int maxConnections, int statementCacheSize,
+                          long checkoutTimeoutMillis) {
+        super(false);
+        if (maxConnections < 1 || statementCacheSize < 0) {
+            throw new IllegalArgumentException("maxConnections must be >= 1 and statementCacheSize >= 0");
+        }
+        this.source = source;
+        this.maxConnections = maxConnections;
+        this.statementCacheSize = statementCacheSize;
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        this.permits = new Semaphore(maxConnections, true);
+
+        gauges.gauge("db.pool.open", openConnections::get)
+              .gauge("db.pool.idle", this::getIdleCount)
+              .gauge("db.statements.reuseRate", ConnectionPool::getStatementReuseRate);
+    }
+
+    /**
+     * The application's pool over the MySQL DatabaseConnection.
+     * Sized by -Dtravelassistant.db.poolSize and
+     * -Dtravelassistant.db.statementCacheSize.
+     *
+     * @return Shared ConnectionPool
+     */
+    public static synchronized ConnectionPool shared() {
+        if (shared == null) {
+            shared = new ConnectionPool(DatabaseConnection.getInstance(),
+                                        Integer.getInteger("travelassistant.db.poolSize", DEFAULT_MAX_CONNECTIONS),
+                                        Integer.getInteger("travelassistant.db.statementCacheSize",
+                                                           DEFAULT_STATEMENT_CACHE_SIZE),
+                                        DEFAULT_CHECKOUT_TIMEOUT_MILLIS);
+        }
+        return shared;
+    }
+
+    /**
+     * Check a connection out of the pool, opening one if none is idle.
+     * Close it to return it.
+     *
+     * @return Pooled connection
+     * @throws SQLException if the pool is closed, no connection frees up in time, or connecting fails
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed", "08003");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(checkoutTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + checkoutTimeoutMillis + " ms waiting for one of " +
+                                       maxConnections + " pooled connections", "08001");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a pooled connection", "08001", e);
+        } finally {
+            CHECKOUT_LATENCY.recordSince(start);
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled != null) {
+                CONNECTIONS_REUSED.increment();
+            } else {
+                pooled = new PooledConnection(source.getConnection());
+                openConnections.incrementAndGet();
+                CONNECTIONS_OPENED.increment();
+            }
+            return pooled.checkout();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Most recently returned valid idle connection, or null.
+     */
+    private PooledConnection takeIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                return null;
+            }
+            if (System.nanoTime() - pooled.idleSince < VALIDATE_AFTER_IDLE_NANOS || pooled.isValid()) {
+                return pooled;
+            }
+            LOG.debug("Discarding stale pooled connection");
+            discard(pooled);
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        try {
+            boolean returned = false;
+            if (!pooled.broken && pooled.reset()) {
+                synchronized (idle) {
+                    if (!closed) {
+                        pooled.idleSince = System.nanoTime();
+                        idle.addFirst(pooled);
+                        returned = true;
+                    }
+                }
+            }
+            if (!returned) {
+                discard(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        openConnections.decrementAndGet();
+        CONNECTIONS_DISCARDED.increment();
+        pooled.closePhysical();
+    }
+
+    /**
+     * Close idle connections and stop handing out new ones. Connections
+     * still checked out are closed when they are returned.
+     */
+    public void close() {
+        synchronized (idle) {
+            closed = true;
+        }
+        while (true) {
+            PooledConnection pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                break;
+            }
+            discard(pooled);
+        }
+        gauges.remove();
+        LOG.info("✓ Connection pool closed");
+    }
+
+    @Override
+    public String getDatabaseURL() {
+        return source.getDatabaseURL();
+    }
+
+    @Override
+    public String getDatabaseUser() {
+        return source.getDatabaseUser();
+    }
+
+    // Statistics
+    public int getOpenCount() {
+        return openConnections.get();
+    }
+
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Share of prepareStatement calls served from a statement cache,
+     * across all pools (0 before the first call).
+     */
+    public static double getStatementReuseRate() {
+        long hits = STATEMENT_HITS.sum();
+        long total = hits + STATEMENT_MISSES.sum();
+        return total > 0 ? (double) hits / total : 0;
+    }
+
+    // ========================================================================
+    // Pooled connections and cached statements
+    // ========================================================================
+
+    /**
+     * One physical connection and its statement cache. Used by one thread
+     * at a time (between checkout and close).
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final Map<String, CachedStatement> statements;
+        private long idleSince;
+        private boolean autoCommitChanged;
+        private volatile boolean broken;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        /**
+         * A handle for one checkout; closing it returns the connection.
+         */
+        Connection checkout() {
+            return proxy(Connection.class, new InvocationHandler() {
+                private boolean released;
+
+                @Override
+                public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+                    String name = method.getName();
+                    if (method.getDeclaringClass() == Object.class) {
+                        return objectMethod(p, name, args, "Connection");
+                    }
+                    if (name.equals("close")) {
+                        if (!released) {
+                            released = true;
+                            release(PooledConnection.this);
+                        }
+                        return null;
+                    }
+                    if (name.equals("isClosed")) {
+                        return released || physical.isClosed();
+                    }
+                    if (released) {
+                        throw new SQLException("Connection has been returned to the pool", "08003");
+                    }
+                    if (name.equals("prepareStatement") && args.length == 1) {
+                        return prepare((String) args[0]);
+                    }
+                    if (name.equals("setAutoCommit")) {
+                        autoCommitChanged = true;
+                    }
+                    return forward(PooledConnection.this, physical, method, args);
+                }
+            });
+        }
+
+        private PreparedStatement prepare(String sql) throws SQLException {
+            if (statementCacheSize == 0) {
+                STATEMENT_MISSES.increment();
+                return physical.prepareStatement(sql);
+            }
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse) {
+                STATEMENT_HITS.increment();
+            } else if (cached != null) {
+                // Same SQL prepared twice within one checkout: hand out an uncached one
+                STATEMENT_MISSES.increment();
+                return physical.prepareStatement(sql);
+            } else {
+                STATEMENT_MISSES.increment();
+                cached = new CachedStatement(this, physical.prepareStatement(sql));
+                statements.put(sql, cached);
+            }
+            cached.inUse = true;
+            evictIdle();
+            return cached.proxy;
+        }
+
+        /**
+         * Close least recently used statements until the cache fits again.
+         * Statements still in use are skipped; the cache stays over its size
+         * until they are closed.
+         */
+        private void evictIdle() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > statementCacheSize && it.hasNext()) {
+                CachedStatement cached = it.next();
+                if (!cached.inUse) {
+                    it.remove();
+                    STATEMENT_EVICTIONS.increment();
+                    cached.closePhysical();
+                }
+            }
+        }
+
+        /**
+         * Undo what the last user may have left behind.
+         *
+         * @return false if the connection cannot be reused
+         */
+        boolean reset() {
+            try {
+                if (autoCommitChanged) {
+                    if (!physical.getAutoCommit()) {
+                        physical.rollback();
+                        physical.setAutoCommit(true);
+                    }
+                    autoCommitChanged = false;
+                }
+                for (CachedStatement cached : statements.values()) {
+                    if (cached.inUse) {
+                        cached.closeResults();
+                        cached.inUse = false;
+                    }
+                }
+                evictIdle();
+                return !physical.isClosed();
+            } catch (SQLException e) {
+                LOG.warn("⚠️ Warning: Could not reset pooled connection: " + e.getMessage());
+                return false;
+            }
+        }
+
+        boolean isValid() {
+            try {
+                return physical.isValid(VALIDATE_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            // Closing the connection also closes its statements
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                LOG.warn("⚠️ Warning: Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A prepared statement kept open in a connection's cache. Closing the
+     * handed-out proxy closes its result sets and clears parameters (and
+     * batches) instead.
+     */
+    private final class CachedStatement {
+        private final PreparedStatement physical;
+        private final PreparedStatement proxy;
+        private final List<ResultSet> results = new ArrayList<>(1);
+        private boolean inUse;
+        private boolean batched;
+
+        CachedStatement(PooledConnection owner, PreparedStatement physical) {
+            this.physical = physical;
+            this.proxy = proxy(PreparedStatement.class, (p, method, args) -> {
+                String name = method.getName();
+                if (method.getDeclaringClass() == Object.class) {
+                    return objectMethod(p, name, args, "PreparedStatement");
+                }
+                switch (name) {
+                    case "close":
+                        if (inUse) {
+                            inUse = false;
+                            closeResults();
+                            if (batched) {
+                                batched = false;
+                                physical.clearBatch();
+                            }
+                            physical.clearParameters();
+                            owner.evictIdle();
+                        }
+                        return null;
+                    case "isClosed":
+                        return !inUse || physical.isClosed();
+                    case "getConnection":
+                        throw new SQLException("getConnection is not supported on cached statements");
+                    case "addBatch":
+                        batched = true;
+                        break;
+                    default:
+                        break;
+                }
+                Object result = forward(owner, physical, method, args);
+                if (result instanceof ResultSet) {
+                    results.add((ResultSet) result);
+                }
+                return result;
+            });
+        }
+
+        /**
+         * Close the result sets handed out since the statement was taken.
+         */
+        void closeResults() {
+            for (ResultSet rs : results) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    LOG.debug(() -> "Error closing result set: " + e.getMessage());
+                }
+            }
+            results.clear();
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                LOG.debug(() -> "Error closing evicted statement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Call through to the physical object, marking the connection broken
+     * on a connection-level error so it is not pooled again.
+     */
+    private static Object forward(PooledConnection owner, Object target, Method method, Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    owner.broken = true;
+                }
+            }
+            throw cause;
+        }
+    }
+
+    private static Object objectMethod(Object proxy, String name, Object[] args, String type) {
+        switch (name) {
+            case "hashCode": return System.identityHashCode(proxy);
+            case "equals": return proxy == args[0];
+            default: return type + "@pool";
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -18,11 +18,20 @@ import java.sql.SQLException;
  */
 public class DatabaseConnection {
 
+    private static final Log LOG = Log.get(DatabaseConnection.class);
+
     // Singleton instance
     private static DatabaseConnection instance;
 
     // Database connection parameters
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/travel_assistant_db";
+    // useCursorFetch lets statements with a fetch size stream rows instead of buffering the result;
+    // rewriteBatchedStatements sends a JDBC batch as multi-row statements;
+    // useServerPrepStmts prepares statements on the server, so the ones ConnectionPool
+    // keeps open are parsed once per connection; useAffectedRows makes an upsert report
+    // 1 only when it inserted (ProfileContextStore counts new rows from that)
+    private static final String DB_URL =
+        "jdbc:mysql://localhost:3306/travel_assistant_db?useCursorFetch=true&rewriteBatchedStatements=true" +
+        "&useServerPrepStmts=true&useAffectedRows=true";
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = ""; // Empty for local dev (no password)
 
@@ -37,14 +46,26 @@ public class DatabaseConnection {
         try {
             // Load MySQL JDBC Driver
             Class.forName(JDBC_DRIVER);
-            System.out.println("✓ MySQL JDBC Driver loaded successfully");
+            LOG.info("✓ MySQL JDBC Driver loaded successfully");
         } catch (ClassNotFoundException e) {
-            System.err.println("❌ ERROR: MySQL JDBC Driver not found!");
-            System.err.println("Please add mysql-connector-j jar to classpath");
+            LOG.error("❌ ERROR: MySQL JDBC Driver not found! Please add mysql-connector-j jar to classpath");
             throw new RuntimeException("MySQL JDBC Driver not found", e);
         }
     }
 
+    /**
+     * Constructor for subclasses that supply connections themselves
+     * (e.g. the in-memory stand-in used by the load tests).
+     * Does not load the MySQL driver.
+     *
+     * @param loadDriver Must be false; the public path is getInstance()
+     */
+    protected DatabaseConnection(boolean loadDriver) {
+        if (loadDriver) {
+            throw new IllegalArgumentException("Use DatabaseConnection.getInstance() for MySQL");
+        }
+    }
+
     /**
      * Get singleton instance of DatabaseConnection.
      * Thread-safe lazy initialization.
@@ -72,13 +93,11 @@ public class DatabaseConnection {
     public Connection getConnection() throws SQLException {
         try {
             Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            System.out.println("✓ Connected to MySQL database: travel_assistant_db");
+            LOG.debug("✓ Connected to MySQL database: travel_assistant_db");
             return conn;
         } catch (SQLException e) {
-            System.err.println("❌ ERROR: Failed to connect to database");
-            System.err.println("URL: " + DB_URL);
-            System.err.println("User: " + DB_USER);
-            System.err.println("Error: " + e.getMessage());
+            LOG.error("❌ ERROR: Failed to connect to database (URL: " + DB_URL + ", user: " + DB_USER + "): " +
+                      e.getMessage());
             throw e;
         }
     }
@@ -92,15 +111,14 @@ public class DatabaseConnection {
     public boolean testConnection() {
         try (Connection conn = getConnection()) {
             if (conn != null && !conn.isClosed()) {
-                System.out.println("✅ Database connection test: SUCCESS");
-                System.out.println("   Database: " + conn.getCatalog());
-                System.out.println("   Driver: " + conn.getMetaData().getDriverName());
-                System.out.println("   Version: " + conn.getMetaData().getDriverVersion());
+                LOG.info("✅ Database connection test: SUCCESS");
+                LOG.info("Database: " + conn.getCatalog());
+                LOG.info("Driver: " + conn.getMetaData().getDriverName());
+                LOG.info("Version: " + conn.getMetaData().getDriverVersion());
                 return true;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Database connection test: FAILED");
-            System.err.println("   Error: " + e.getMessage());
+            LOG.error("❌ Database connection test: FAILED: " + e.getMessage());
             return false;
         }
         return false;
@@ -116,9 +134,9 @@ public class DatabaseConnection {
         if (conn != null) {
             try {
                 conn.close();
-                System.out.println("✓ Database connection closed");
+                LOG.debug("✓ Database connection closed");
             } catch (SQLException e) {
-                System.err.println("⚠️ Warning: Error closing connection: " + e.getMessage());
+                LOG.warn("⚠️ Warning: Error closing connection: " + e.getMessage());
             }
         }
     }
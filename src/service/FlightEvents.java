@@ -0,0 +1,195 @@
+package service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the recommendation pipeline.
+ *
+ * Each stage (POI search, ranking, itinerary build, database query,
+ * external service call) emits a duration event carrying its inputs and
+ * outputs, so a JFR recording shows which search or query was slow next to
+ * the GC pauses, lock waits and CPU samples of the same thread and time.
+ * Events also carry the trace ID when the request is traced (see Tracer).
+ *
+ * Usage:
+ * <pre>
+ *   FlightEvents.Search event = new FlightEvents.Search();
+ *   event.begin();
+ *   ...
+ *   if (event.shouldCommit()) {
+ *       event.results = results.size();
+ *       event.commit();
+ *   }
+ * </pre>
+ * When no recording is running (or the event is disabled in the recording
+ * settings) begin() and shouldCommit() are no-ops that the JIT removes, and
+ * the event object does not escape, so the cost is close to zero. Fields are
+ * only filled in inside shouldCommit().
+ *
+ * Record with, e.g.:
+ *   java -XX:StartFlightRecording=filename=travel.jfr,settings=profile ... Main
+ *   jfr print --categories TravelAssistant travel.jfr
+ *
+ * @author CPS731 Team 20
+ */
+public final class FlightEvents {
+
+    private static final String CATEGORY = "TravelAssistant";
+
+    private FlightEvents() {
+    }
+
+    @Name("travelassistant.Search")
+    @Label("POI Search")
+    @Category({CATEGORY, "Recommendation"})
+    @Description("PlacesService.searchPlaces: radius and interest filtering over the catalog")
+    @StackTrace(false)
+    public static final class Search extends Event {
+        @Label("Trace ID")
+        public String traceId;
+
+        @Label("Radius (m)")
+        public int radius;
+
+        @Label("Interests")
+        @Description("Number of interests in the query")
+        public int interests;
+
+        @Label("Budget")
+        public String budget;
+
+        @Label("Catalog Size")
+        public int catalogSize;
+
+        @Label("Candidates")
+        @Description("POIs inside the radius, before interest and budget filters")
+        public int candidates;
+
+        @Label("Results")
+        public int results;
+    }
+
+    @Name("travelassistant.Rank")
+    @Label("Rank POIs")
+    @Category({CATEGORY, "Recommendation"})
+    @Description("RecommendationEngine.rankPOIs: candidate fetch (on a cache miss) and scoring")
+    @StackTrace(false)
+    public static final class Rank extends Event {
+        @Label("Trace ID")
+        public String traceId;
+
+        @Label("Radius (m)")
+        public int radius;
+
+        @Label("Interests")
+        public int interests;
+
+        @Label("Candidates")
+        public int candidates;
+
+        @Label("Results")
+        public int results;
+
+        @Label("Cache Hit")
+        @Description("Candidates came from the engine's cache instead of a search")
+        public boolean cacheHit;
+    }
+
+    @Name("travelassistant.ItineraryBuild")
+    @Label("Itinerary Build")
+    @Category({CATEGORY, "Recommendation"})
+    @Description("RecommendationEngine.buildMicroItinerary, on the caller or a prefetch thread")
+    @StackTrace(false)
+    public static final class ItineraryBuild extends Event {
+        @Label("Trace ID")
+        public String traceId;
+
+        @Label("Place ID")
+        public String placeId;
+
+        @Label("Steps")
+        public int steps;
+
+        @Label("Total Minutes")
+        public int totalMinutes;
+    }
+
+    @Name("travelassistant.DbQuery")
+    @Label("Database Query")
+    @Category({CATEGORY, "Database"})
+    @Description("One ProfileContextStore statement, including connection checkout")
+    public static final class DbQuery extends Event {
+        @Label("Trace ID")
+        public String traceId;
+
+        @Label("Operation")
+        public String operation;
+
+        @Label("SQL")
+        public String sql;
+
+        @Label("Rows")
+        @Description("Rows returned or affected, -1 if unknown")
+        public int rows = -1;
+
+        @Label("Failed")
+        public boolean failed;
+
+        /**
+         * Fill in the fields and commit, if the event is being recorded.
+         */
+        public void finish(String operation, String sql, int rows, boolean failed) {
+            if (shouldCommit()) {
+                this.traceId = Tracer.currentTraceId();
+                this.operation = operation;
+                this.sql = sql;
+                this.rows = rows;
+                this.failed = failed;
+                commit();
+            }
+        }
+    }
+
+    @Name("travelassistant.ExternalCall")
+    @Label("External Service Call")
+    @Category({CATEGORY, "Integration"})
+    @Description("One IntegrationLayer call to the places, transit or weather service")
+    @StackTrace(false)
+    public static final class ExternalCall extends Event {
+        @Label("Trace ID")
+        public String traceId;
+
+        @Label("Service")
+        public String service;
+
+        @Label("Operation")
+        public String operation;
+
+        @Label("Results")
+        @Description("Items returned, -1 for single-value calls")
+        public int results = -1;
+
+        @Label("Failed")
+        @Description("The call threw or the service returned nothing")
+        public boolean failed;
+
+        /**
+         * Fill in the fields and commit, if the event is being recorded.
+         */
+        public void finish(String service, String operation, int results, boolean failed) {
+            if (shouldCommit()) {
+                this.traceId = Tracer.currentTraceId();
+                this.service = service;
+                this.operation = operation;
+                this.results = results;
+                this.failed = failed;
+                commit();
+            }
+        }
+    }
+}
@@ -7,5 +7,11 @@ public interface IPlacesService extends IExternalService {
 
     List<POI> searchPlaces(LatLng coords, Preferences prefs);
 
+    List<POI> searchAlongRoute(LatLng origin, LatLng destination, Preferences prefs, double maxDetourMeters);
+
     LatLng geocode(String address);
+
+    List<POI> findNeighbours(String poiId, int maxResults);
+
+    POI getPlace(String poiId);
 }
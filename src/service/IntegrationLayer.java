@@ -5,43 +5,180 @@ import java.util.List;
 
 /**
  * «service/indirection» stable boundary to external services.
+ * Every call is timed into the shared MetricsRegistry
+ * ("integration.<method>"), is a span of the current trace, if any, and
+ * emits a FlightEvents.ExternalCall JFR event.
  */
 public class IntegrationLayer {
 
+    private static final Log LOG = Log.get(IntegrationLayer.class);
+
+    private static final LatencyHistogram NEARBY_LATENCY = histogram("getNearbyPlaces");
+    private static final LatencyHistogram ROUTE_LATENCY = histogram("getPlacesAlongRoute");
+    private static final LatencyHistogram NEIGHBOURS_LATENCY = histogram("getNeighbours");
+    private static final LatencyHistogram PLACE_LATENCY = histogram("getPlace");
+    private static final LatencyHistogram ETA_LATENCY = histogram("getETAs");
+    private static final LatencyHistogram GEOCODE_LATENCY = histogram("geocode");
+    private static final LatencyHistogram WEATHER_LATENCY = histogram("getWeather");
+
     private IPlacesService placesService;
     private ITransitService transitService;
     private IWeatherService weatherService;
 
     public List<POI> getNearbyPlaces(LatLng coords, Preferences prefs) {
         if (placesService == null) {
-            System.err.println("⚠️ PlacesService not initialized");
+            LOG.warn("⚠️ PlacesService not initialized");
+            return new java.util.ArrayList<>();
+        }
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("IntegrationLayer.getNearbyPlaces");
+        FlightEvents.ExternalCall event = new FlightEvents.ExternalCall();
+        event.begin();
+        List<POI> result = null;
+        try {
+            result = placesService.searchPlaces(coords, prefs);
+            return result;
+        } finally {
+            event.finish("places", "searchPlaces", result != null ? result.size() : -1, result == null);
+            span.end();
+            NEARBY_LATENCY.recordSince(start);
+        }
+    }
+
+    public List<POI> getPlacesAlongRoute(LatLng origin, LatLng destination, Preferences prefs,
+                                         double maxDetourMeters) {
+        if (placesService == null) {
+            LOG.warn("⚠️ PlacesService not initialized");
+            return new java.util.ArrayList<>();
+        }
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("IntegrationLayer.getPlacesAlongRoute");
+        FlightEvents.ExternalCall event = new FlightEvents.ExternalCall();
+        event.begin();
+        List<POI> result = null;
+        try {
+            result = placesService.searchAlongRoute(origin, destination, prefs, maxDetourMeters);
+            return result;
+        } finally {
+            event.finish("places", "searchAlongRoute", result != null ? result.size() : -1, result == null);
+            span.end();
+            ROUTE_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Corridor search with the detour limit given in minutes of travel
+     * (converted with the preferred transport mode's average speed).
+     */
+    public List<POI> getPlacesAlongRouteWithinMinutes(LatLng origin, LatLng destination, Preferences prefs,
+                                                      int maxDetourMinutes) {
+        String mode = prefs != null && prefs.getTransportMode() != null ? prefs.getTransportMode() : "walking";
+        double maxDetourMeters = maxDetourMinutes * TransitService.getSpeedForMode(mode);
+        return getPlacesAlongRoute(origin, destination, prefs, maxDetourMeters);
+    }
+
+    public List<POI> getNeighbours(String poiId, int maxResults) {
+        if (placesService == null) {
+            LOG.warn("⚠️ PlacesService not initialized");
             return new java.util.ArrayList<>();
         }
-        return placesService.searchPlaces(coords, prefs);
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("IntegrationLayer.getNeighbours");
+        FlightEvents.ExternalCall event = new FlightEvents.ExternalCall();
+        event.begin();
+        List<POI> result = null;
+        try {
+            result = placesService.findNeighbours(poiId, maxResults);
+            return result;
+        } finally {
+            event.finish("places", "findNeighbours", result != null ? result.size() : -1, result == null);
+            span.end();
+            NEIGHBOURS_LATENCY.recordSince(start);
+        }
+    }
+
+    public POI getPlace(String poiId) {
+        if (placesService == null) {
+            LOG.warn("⚠️ PlacesService not initialized");
+            return null;
+        }
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("IntegrationLayer.getPlace");
+        FlightEvents.ExternalCall event = new FlightEvents.ExternalCall();
+        event.begin();
+        POI result = null;
+        try {
+            result = placesService.getPlace(poiId);
+            return result;
+        } finally {
+            event.finish("places", "getPlace", -1, result == null);
+            span.end();
+            PLACE_LATENCY.recordSince(start);
+        }
     }
 
     public List<ETA> getETAs(RouteRequest req) {
         if (transitService == null) {
-            System.err.println("⚠️ TransitService not initialized");
+            LOG.warn("⚠️ TransitService not initialized");
             return new java.util.ArrayList<>();
         }
-        return transitService.getTransitETAs(req);
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("IntegrationLayer.getETAs");
+        FlightEvents.ExternalCall event = new FlightEvents.ExternalCall();
+        event.begin();
+        List<ETA> result = null;
+        try {
+            result = transitService.getTransitETAs(req);
+            return result;
+        } finally {
+            event.finish("transit", "getTransitETAs", result != null ? result.size() : -1, result == null);
+            span.end();
+            ETA_LATENCY.recordSince(start);
+        }
     }
 
     public LatLng geocode(String address) {
         if (placesService == null) {
-            System.err.println("⚠️ PlacesService not initialized");
+            LOG.warn("⚠️ PlacesService not initialized");
             return null;
         }
-        return placesService.geocode(address);
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("IntegrationLayer.geocode");
+        FlightEvents.ExternalCall event = new FlightEvents.ExternalCall();
+        event.begin();
+        LatLng result = null;
+        try {
+            result = placesService.geocode(address);
+            return result;
+        } finally {
+            event.finish("places", "geocode", -1, result == null);
+            span.end();
+            GEOCODE_LATENCY.recordSince(start);
+        }
     }
 
     public Weather getWeather(LatLng loc) {
         if (weatherService == null) {
-            System.err.println("⚠️ WeatherService not initialized");
+            LOG.warn("⚠️ WeatherService not initialized");
             return null;
         }
-        return weatherService.getWeather(loc);
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("IntegrationLayer.getWeather");
+        FlightEvents.ExternalCall event = new FlightEvents.ExternalCall();
+        event.begin();
+        Weather result = null;
+        try {
+            result = weatherService.getWeather(loc);
+            return result;
+        } finally {
+            event.finish("weather", "getWeather", -1, result == null);
+            span.end();
+            WEATHER_LATENCY.recordSince(start);
+        }
+    }
+
+    private static LatencyHistogram histogram(String method) {
+        return MetricsRegistry.shared().histogram("integration." + method);
     }
 
     // Wiring helpers (optional)
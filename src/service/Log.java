@@ -0,0 +1,268 @@
+package service;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous, levelled logger.
+ *
+ * Callers never touch the console: a log call builds one small record and
+ * puts it on a lock-free queue, and a single background thread formats
+ * records and writes them in batches. Concurrent requests therefore no longer
+ * take turns on System.out's lock.
+ *
+ * Messages that need string building should use the Supplier overloads,
+ * e.g. {@code LOG.debug(() -> "Found " + n + " POIs")}; the supplier only
+ * runs if the level is enabled, so a disabled level skips the string
+ * building. A lambda that captures locals is still allocated at the call
+ * site, so on the hottest paths guard the call with {@link #isDebugEnabled}.
+ *
+ * Output format (DEBUG/INFO to System.out, WARN/ERROR to System.err):
+ *   12:34:56.789 INFO  [main] PlacesService: ✓ PlacesService initialized with 50 POIs
+ *
+ * The level defaults to INFO and can be set with
+ * -Dtravelassistant.log.level=DEBUG or {@link #setLevel}. If the queue is
+ * full (the writer cannot keep up) records are dropped and counted in the
+ * "log.dropped" metric rather than blocking the caller.
+ *
+ * @author CPS731 Team 20
+ */
+public final class Log {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    public static final String LEVEL_PROPERTY = "travelassistant.log.level";
+    public static final int QUEUE_CAPACITY = 65_536;
+
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = 5_000_000;   // writer poll interval when idle
+    private static final DateTimeFormatter TIME =
+        DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static volatile Level threshold = initialLevel();
+
+    private static final ConcurrentLinkedQueue<Record> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger QUEUED = new AtomicInteger();
+    private static final AtomicLong ENQUEUED = new AtomicLong();
+    private static final AtomicLong WRITTEN = new AtomicLong();
+    private static final LongAdder DROPPED = MetricsRegistry.shared().counter("log.dropped");
+    private static final Thread WRITER = startWriter();
+
+    private final String name;
+
+    private Log(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Logger named after a class.
+     */
+    public static Log get(Class<?> type) {
+        return new Log(type.getSimpleName());
+    }
+
+    /**
+     * One log call, as handed to the writer thread.
+     */
+    private static final class Record {
+        final long timeMillis;
+        final Level level;
+        final String logger;
+        final String thread;
+        final String message;
+        final Throwable error;
+
+        Record(Level level, String logger, String message, Throwable error) {
+            this.timeMillis = System.currentTimeMillis();
+            this.level = level;
+            this.logger = logger;
+            this.thread = Thread.currentThread().getName();
+            this.message = message;
+            this.error = error;
+        }
+    }
+
+    // ========================================================================
+    // Configuration
+    // ========================================================================
+
+    private static Level initialLevel() {
+        String configured = System.getProperty(LEVEL_PROPERTY);
+        if (configured != null) {
+            try {
+                return Level.valueOf(configured.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️ Unknown log level '" + configured + "', using INFO");
+            }
+        }
+        return Level.INFO;
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    public static Level getLevel() {
+        return threshold;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level != Level.OFF && level.compareTo(threshold) >= 0;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    // ========================================================================
+    // Logging calls
+    // ========================================================================
+
+    public void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            enqueue(new Record(Level.DEBUG, name, message.get(), null));
+        }
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            enqueue(new Record(Level.INFO, name, message.get(), null));
+        }
+    }
+
+    public void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public void warn(Supplier<String> message) {
+        if (isEnabled(Level.WARN)) {
+            enqueue(new Record(Level.WARN, name, message.get(), null));
+        }
+    }
+
+    public void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    public void error(Supplier<String> message) {
+        if (isEnabled(Level.ERROR)) {
+            enqueue(new Record(Level.ERROR, name, message.get(), null));
+        }
+    }
+
+    private void log(Level level, String message, Throwable error) {
+        if (isEnabled(level)) {
+            enqueue(new Record(level, name, message, error));
+        }
+    }
+
+    private static void enqueue(Record record) {
+        if (QUEUED.incrementAndGet() > QUEUE_CAPACITY) {
+            QUEUED.decrementAndGet();
+            DROPPED.increment();
+            return;
+        }
+        ENQUEUED.incrementAndGet();
+        QUEUE.offer(record);
+    }
+
+    /**
+     * Wait (up to 5 seconds) until everything logged so far has been written.
+     * Useful before exit and in tests.
+     */
+    public static void flush() {
+        long target = ENQUEUED.get();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (WRITTEN.get() < target && System.nanoTime() < deadline && WRITER.isAlive()) {
+            LockSupport.unpark(WRITER);
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+
+    // ========================================================================
+    // Writer thread
+    // ========================================================================
+
+    private static Thread startWriter() {
+        Thread writer = new Thread(Log::writeLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+        return writer;
+    }
+
+    private static void writeLoop() {
+        StringBuilder out = new StringBuilder();
+        StringBuilder err = new StringBuilder();
+        while (true) {
+            Record record = QUEUE.poll();
+            if (record == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            // Format a batch, keeping stdout/stderr order by flushing at each switch
+            int written = 0;
+            while (record != null) {
+                boolean toErr = record.level.compareTo(Level.WARN) >= 0;
+                if (toErr && out.length() > 0) {
+                    write(System.out, out);
+                } else if (!toErr && err.length() > 0) {
+                    write(System.err, err);
+                }
+                format(record, toErr ? err : out);
+                written++;
+                record = written < MAX_BATCH ? QUEUE.poll() : null;
+            }
+            write(System.out, out);
+            write(System.err, err);
+            QUEUED.addAndGet(-written);
+            WRITTEN.addAndGet(written);
+        }
+    }
+
+    private static void format(Record record, StringBuilder line) {
+        TIME.formatTo(Instant.ofEpochMilli(record.timeMillis), line);
+        line.append(' ').append(record.level);
+        if (record.level.name().length() == 4) {
+            line.append(' ');
+        }
+        line.append(" [").append(record.thread).append("] ")
+            .append(record.logger).append(": ").append(record.message).append('\n');
+        if (record.error != null) {
+            StringWriter trace = new StringWriter();
+            record.error.printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+    }
+
+    private static void write(PrintStream stream, StringBuilder text) {
+        if (text.length() > 0) {
+            stream.print(text);
+            stream.flush();
+            text.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package service;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded key-value store: an append-only log file plus an in-memory hash
+ * index (Bitcask-style).
+ *
+ * Keys live in namespaces ("profile", "session", ...). Every put or delete
+ * appends one record to the log; the index maps each live key to the
+ * position of its newest record, so a read is one hash lookup and one
+ * positional file read (from the page cache once warm).
+ *
+ * Record layout (big-endian):
+ *   [int crc32 of the rest][int body length]
+ *   body: [byte op (1 put, 2 delete)][short namespace length][namespace UTF-8]
+ *         [short key length][key UTF-8][value bytes (rest of body)]
+ *
+ * Recovery: opening a store replays the log to rebuild the index. A record
+ * with a bad CRC or length, or one cut short by a crash mid-write, ends the
+ * replay; the log is truncated there, so every record before it survives.
+ * With syncWrites each put is forced to disk before it returns; without it
+ * a crash may lose the last writes the OS had not flushed, but never
+ * corrupts earlier ones.
+ *
+ * Compaction: overwritten and deleted records are garbage. {@link #compact}
+ * copies the live records to a new file and atomically renames it over the
+ * log. Readers are only blocked for the final swap. It can run on a
+ * schedule ({@link #startCompaction}) and only does work once garbage is
+ * over half the file.
+ *
+ * @author CPS731 Team 20
+ */
+public class LogStore implements Closeable {
+
+    private static final Log LOG = Log.get(LogStore.class);
+
+    public static final String LOG_FILE = "store.log";
+    private static final String COMPACT_FILE = "store.log.compact";
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_BODY = 64 * 1024 * 1024;
+    private static final long MIN_COMPACT_BYTES = 1024 * 1024;
+
+    /**
+     * Where a key's newest value sits in the log.
+     */
+    private static final class Location {
+        final long position;   // start of the record header
+        final int bodyLength;
+        final int valueOffset; // value start within the body
+
+        Location(long position, int bodyLength, int valueOffset) {
+            this.position = position;
+            this.bodyLength = bodyLength;
+            this.valueOffset = valueOffset;
+        }
+
+        int recordLength() {
+            return HEADER_SIZE + bodyLength;
+        }
+    }
+
+    private final Path directory;
+    private final Path logFile;
+    private final boolean syncWrites;
+
+    // namespace -> key -> location
+    private volatile Map<String, Map<String, Location>> index = new ConcurrentHashMap<>();
+    private volatile FileChannel channel;
+    private long endPosition;                      // guarded by writeLock
+    private final AtomicLong garbageBytes = new AtomicLong();
+
+    // Writers serialize on writeLock; the channel swap at the end of a
+    // compaction takes swapLock's write side so no read uses a closed channel
+    private final Object writeLock = new Object();
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private ScheduledExecutorService compactor;
+
+    /**
+     * Open (or create) a store in a directory and recover its index.
+     *
+     * @param directory Directory holding the log file
+     * @param syncWrites Force each write to disk before returning
+     * @throws IOException if the directory or log cannot be opened
+     */
+    public LogStore(Path directory, boolean syncWrites) throws IOException {
+        this.directory = directory;
+        this.logFile = directory.resolve(LOG_FILE);
+        this.syncWrites = syncWrites;
+
+        Files.createDirectories(directory);
+        // A compaction that crashed before its rename left only a temp file
+        Files.deleteIfExists(directory.resolve(COMPACT_FILE));
+
+        channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE);
+        recover();
+    }
+
+    // ========================================================================
+    // Recovery
+    // ========================================================================
+
+    private void recover() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        int records = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            long expectedCrc = header.getInt() & 0xFFFFFFFFL;
+            int bodyLength = header.getInt();
+            if (bodyLength <= 0 || bodyLength > MAX_BODY || position + HEADER_SIZE + bodyLength > size) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(bodyLength);
+            readFully(channel, body, position + HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(body.array());
+            if (crc.getValue() != expectedCrc) {
+                break;
+            }
+
+            apply(body.array(), position, bodyLength);
+            position += HEADER_SIZE + bodyLength;
+            records++;
+        }
+
+        if (position < size) {
+            LOG.warn("⚠️ Store log " + logFile + ": discarding " + (size - position) +
+                     " bytes of torn or corrupt records after " + records + " good records");
+            channel.truncate(position);
+            channel.force(true);
+        }
+        endPosition = position;
+        LOG.info("✓ LogStore opened " + logFile + " (" + records + " records, " + liveKeyCount() + " live keys)");
+    }
+
+    /**
+     * Replay one record into the index.
+     */
+    private void apply(byte[] body, long position, int bodyLength) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        byte op = buffer.get();
+        String namespace = readString(buffer);
+        String key = readString(buffer);
+        if (op == OP_PUT) {
+            Location previous = namespace(namespace).put(key, new Location(position, bodyLength, buffer.position()));
+            if (previous != null) {
+                garbageBytes.addAndGet(previous.recordLength());
+            }
+        } else {
+            Location previous = namespace(namespace).remove(key);
+            if (previous != null) {
+                garbageBytes.addAndGet(previous.recordLength());
+            }
+            garbageBytes.addAndGet(HEADER_SIZE + bodyLength);   // the tombstone itself
+        }
+    }
+
+    // ========================================================================
+    // Reads and writes
+    // ========================================================================
+
+    /**
+     * Value stored under a key.
+     *
+     * @return The value, or null if the key is absent or deleted
+     */
+    public byte[] get(String namespace, String key) {
+        swapLock.readLock().lock();
+        try {
+            Map<String, Location> keys = index.get(namespace);
+            Location location = keys != null ? keys.get(key) : null;
+            if (location == null) {
+                return null;
+            }
+            ByteBuffer value = ByteBuffer.allocate(location.bodyLength - location.valueOffset);
+            readFully(channel, value, location.position + HEADER_SIZE + location.valueOffset);
+            return value.array();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + namespace + "/" + key, e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String namespace, String key) {
+        Map<String, Location> keys = index.get(namespace);
+        return keys != null && keys.containsKey(key);
+    }
+
+    /**
+     * Store a value, replacing any previous one.
+     */
+    public void put(String namespace, String key, byte[] value) {
+        append(OP_PUT, namespace, key, value);
+    }
+
+    /**
+     * Delete a key (appends a tombstone). Deleting an absent key is a no-op.
+     */
+    public void delete(String namespace, String key) {
+        if (contains(namespace, key)) {
+            append(OP_DELETE, namespace, key, new byte[0]);
+        }
+    }
+
+    private void append(byte op, String namespace, String key, byte[] value) {
+        byte[] ns = namespace.getBytes(StandardCharsets.UTF_8);
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        int valueOffset = 1 + 2 + ns.length + 2 + k.length;
+        int bodyLength = valueOffset + value.length;
+        if (ns.length > Short.MAX_VALUE || k.length > Short.MAX_VALUE || bodyLength > MAX_BODY) {
+            throw new IllegalArgumentException("Record too large: " + namespace + "/" + key);
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+        record.position(HEADER_SIZE);
+        record.put(op).putShort((short) ns.length).put(ns).putShort((short) k.length).put(k).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_SIZE, bodyLength);
+        record.putInt(0, (int) crc.getValue()).putInt(4, bodyLength);
+        record.flip();
+
+        synchronized (writeLock) {
+            swapLock.readLock().lock();
+            try {
+                long position = endPosition;
+                while (record.hasRemaining()) {
+                    channel.write(record, position + record.position());
+                }
+                if (syncWrites) {
+                    channel.force(false);
+                }
+                endPosition = position + HEADER_SIZE + bodyLength;
+
+                Location previous;
+                if (op == OP_PUT) {
+                    previous = namespace(namespace).put(key, new Location(position, bodyLength, valueOffset));
+                } else {
+                    previous = namespace(namespace).remove(key);
+                    garbageBytes.addAndGet(HEADER_SIZE + bodyLength);
+                }
+                if (previous != null) {
+                    garbageBytes.addAndGet(previous.recordLength());
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write " + namespace + "/" + key, e);
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Snapshot of the live keys in a namespace.
+     */
+    public List<String> keys(String namespace) {
+        Map<String, Location> keys = index.get(namespace);
+        return keys != null ? new ArrayList<>(keys.keySet()) : new ArrayList<>();
+    }
+
+    /**
+     * Number of live keys in a namespace.
+     */
+    public int size(String namespace) {
+        Map<String, Location> keys = index.get(namespace);
+        return keys != null ? keys.size() : 0;
+    }
+
+    /**
+     * Force written records to disk.
+     */
+    public void sync() throws IOException {
+        synchronized (writeLock) {
+            channel.force(false);
+        }
+    }
+
+    // ========================================================================
+    // Compaction
+    // ========================================================================
+
+    /**
+     * Rewrite the log with only live records if at least half of it is garbage.
+     *
+     * @return true if the log was rewritten
+     */
+    public boolean compactIfNeeded() throws IOException {
+        long garbage = garbageBytes.get();
+        if (garbage < MIN_COMPACT_BYTES || garbage * 2 < getFileBytes()) {
+            return false;
+        }
+        compact();
+        return true;
+    }
+
+    /**
+     * Rewrite the log with only the live records. Writers wait while the
+     * records are copied; readers only wait for the final swap.
+     */
+    public void compact() throws IOException {
+        synchronized (writeLock) {
+            long before = endPosition;
+            Path compactFile = directory.resolve(COMPACT_FILE);
+            Map<String, Map<String, Location>> newIndex = new ConcurrentHashMap<>();
+            long position = 0;
+
+            try (FileChannel out = FileChannel.open(compactFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (Map.Entry<String, Map<String, Location>> namespace : index.entrySet()) {
+                    Map<String, Location> keys = new ConcurrentHashMap<>();
+                    for (Map.Entry<String, Location> entry : namespace.getValue().entrySet()) {
+                        Location location = entry.getValue();
+                        ByteBuffer record = ByteBuffer.allocate(location.recordLength());
+                        readFully(channel, record, location.position);
+                        record.flip();
+                        while (record.hasRemaining()) {
+                            out.write(record, position + record.position());
+                        }
+                        keys.put(entry.getKey(), new Location(position, location.bodyLength, location.valueOffset));
+                        position += location.recordLength();
+                    }
+                    newIndex.put(namespace.getKey(), keys);
+                }
+                out.force(true);
+            }
+
+            swapLock.writeLock().lock();
+            try {
+                channel.close();
+                Files.move(compactFile, logFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                channel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                index = newIndex;
+                endPosition = position;
+                garbageBytes.set(0);
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            long after = position;
+            LOG.info(() -> "✓ Compacted " + logFile + ": " + before + " -> " + after + " bytes");
+        }
+    }
+
+    /**
+     * Check for garbage periodically and compact when it passes half the log.
+     *
+     * @param periodSeconds Delay between checks
+     */
+    public synchronized void startCompaction(long periodSeconds) {
+        stopCompaction();
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "logstore-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                compactIfNeeded();
+            } catch (IOException | RuntimeException e) {
+                LOG.error("❌ Store compaction failed: " + e.getMessage());
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopCompaction() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+            compactor = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        stopCompaction();
+        synchronized (writeLock) {
+            swapLock.writeLock().lock();
+            try {
+                if (channel.isOpen()) {
+                    channel.force(true);
+                    channel.close();
+                }
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+    }
+
+    // ========================================================================
+    // Statistics
+    // ========================================================================
+
+    public long getFileBytes() {
+        synchronized (writeLock) {
+            return endPosition;
+        }
+    }
+
+    public long getGarbageBytes() {
+        return garbageBytes.get();
+    }
+
+    public int liveKeyCount() {
+        int total = 0;
+        for (Map<String, Location> keys : index.values()) {
+            total += keys.size();
+        }
+        return total;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // ========================================================================
+    // Helpers
+    // ========================================================================
+
+    private Map<String, Location> namespace(String namespace) {
+        return index.computeIfAbsent(namespace, ns -> new ConcurrentHashMap<>());
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of store log at " + offset);
+            }
+            offset += read;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal HTTP endpoint serving MetricsRegistry.renderText() at /metrics.
+ *
+ * Uses the JDK's built-in HTTP server on a single daemon thread, so it
+ * needs no extra dependencies and never keeps the JVM alive.
+ *
+ * The endpoint has no authentication, so it listens on the loopback
+ * interface only unless another bind address is given explicitly
+ * (Main reads it from -Dtravelassistant.metrics.bind).
+ *
+ * @author CPS731 Team 20
+ */
+public class MetricsEndpoint {
+
+    private static final Log LOG = Log.get(MetricsEndpoint.class);
+
+    public static final int DEFAULT_PORT = 9404;
+
+    private final MetricsRegistry registry;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MetricsEndpoint(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Start serving on a loopback port (0 picks a free port).
+     *
+     * @param port TCP port
+     * @throws IOException If the port cannot be bound
+     */
+    public void start(int port) throws IOException {
+        start(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Start serving on an address and port. Binding anything other than
+     * loopback exposes the metrics to the network.
+     *
+     * @param bindAddress Interface to listen on
+     * @param port TCP port (0 picks a free port)
+     * @throws IOException If the port cannot be bound
+     */
+    public synchronized void start(InetAddress bindAddress, int port) throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        server.createContext("/metrics", this::handle);
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+        if (bindAddress.isLoopbackAddress()) {
+            LOG.info("✓ Metrics available at http://localhost:" + getPort() + "/metrics");
+        } else {
+            LOG.warn("⚠️ Metrics endpoint listening on " + bindAddress.getHostAddress() + ":" + getPort() +
+                     " without authentication");
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = registry.renderText().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Port the endpoint is bound to (-1 if not started).
+     */
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    /**
+     * Address the endpoint is bound to (null if not started).
+     */
+    public synchronized InetAddress getBindAddress() {
+        return server != null ? server.getAddress().getAddress() : null;
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdown();
+            server = null;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Process-wide registry of counters, gauges and latency histograms.
+ *
+ * Components look their metrics up once (usually into static finals) and
+ * then update them lock-free on the hot path. Metric names are dotted,
+ * e.g. "places.search" or "store.loadProfile.cacheHits".
+ *
+ * The registry can be read three ways:
+ * - directly (getters), e.g. by tests and the load test report
+ * - over JMX, as attributes of travelassistant:type=Metrics
+ * - as text in the Prometheus exposition format (see MetricsEndpoint)
+ *
+ * @author CPS731 Team 20
+ */
+public final class MetricsRegistry {
+
+    public static final String MBEAN_NAME = "travelassistant:type=Metrics";
+
+    // Percentiles reported for every histogram
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+
+    private static final MetricsRegistry SHARED = new MetricsRegistry();
+
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Supplier<? extends Number>> gauges = new ConcurrentSkipListMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+    private boolean mbeanRegistered;   // guarded by this
+
+    /**
+     * The registry shared by all components.
+     */
+    public static MetricsRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Counter with the given name, created on first use.
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * Register (or replace) a gauge. The supplier is called whenever the
+     * gauge is read, so it must be cheap and thread-safe.
+     */
+    public void gauge(String name, Supplier<? extends Number> value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Remove a gauge, unless another supplier has replaced it since.
+     */
+    public void removeGauge(String name, Supplier<? extends Number> value) {
+        gauges.remove(name, value);
+    }
+
+    /**
+     * Empty set of gauges for an object that can be closed. Its gauges
+     * report the most recently created instance; closing the instance
+     * removes them, so it is no longer reported or kept reachable.
+     */
+    public GaugeSet gaugeSet() {
+        return new GaugeSet();
+    }
+
+    /**
+     * Gauges registered by one object, removed together when it closes.
+     */
+    public final class GaugeSet {
+        private final Map<String, Supplier<? extends Number>> registered = new ConcurrentSkipListMap<>();
+
+        private GaugeSet() {
+        }
+
+        /**
+         * Register (or replace) a gauge, as {@link MetricsRegistry#gauge}.
+         */
+        public GaugeSet gauge(String name, Supplier<? extends Number> value) {
+            registered.put(name, value);
+            MetricsRegistry.this.gauge(name, value);
+            return this;
+        }
+
+        /**
+         * Remove every gauge of this set that is still registered.
+         */
+        public void remove() {
+            registered.forEach(MetricsRegistry.this::removeGauge);
+            registered.clear();
+        }
+    }
+
+    /**
+     * Latency histogram with the given name, created on first use.
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public Map<String, LongAdder> getCounters() {
+        return counters;
+    }
+
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Current value of a gauge (null if not registered or it failed).
+     */
+    public Number getGaugeValue(String name) {
+        Supplier<? extends Number> gauge = gauges.get(name);
+        if (gauge == null) {
+            return null;
+        }
+        try {
+            return gauge.get();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Clear every counter and histogram (gauges are live values).
+     */
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    // ========================================================================
+    // Text exposition
+    // ========================================================================
+
+    /**
+     * Render all metrics in the Prometheus text format.
+     * Histograms are written as summaries in seconds:
+     *   places_search_seconds{quantile="0.99"} 0.0042
+     *   places_search_seconds_count 1234
+     *
+     * @return Text suitable for a /metrics endpoint
+     */
+    public String renderText() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+            String name = sanitize(counter.getKey()) + "_total";
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(counter.getValue().sum()).append('\n');
+        }
+        for (String gauge : gauges.keySet()) {
+            Number value = getGaugeValue(gauge);
+            if (value == null) {
+                continue;
+            }
+            String name = sanitize(gauge);
+            out.append("# TYPE ").append(name).append(" gauge\n");
+            out.append(name).append(' ').append(value).append('\n');
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            String name = sanitize(histogram.getName()) + "_seconds";
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double percentile : PERCENTILES) {
+                out.append(name).append("{quantile=\"").append(format(percentile / 100)).append("\"} ")
+                   .append(seconds(histogram.getValueAtPercentile(percentile))).append('\n');
+            }
+            out.append(name).append("_max ").append(seconds(histogram.getMaxNanos())).append('\n');
+            out.append(name).append("_sum ").append(seconds(histogram.getTotalNanos())).append('\n');
+            out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9_]", "_");
+    }
+
+    private static String seconds(long nanos) {
+        return format(nanos / 1e9);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.9g", value).replaceAll("\\.?0+$", "");
+    }
+
+    // ========================================================================
+    // JMX
+    // ========================================================================
+
+    /**
+     * Register the registry with the platform MBean server (idempotent).
+     * Counters and gauges appear as attributes under their own names;
+     * each histogram adds "<name>.count", "<name>.p50Millis",
+     * "<name>.p95Millis", "<name>.p99Millis", "<name>.p999Millis" and
+     * "<name>.maxMillis".
+     *
+     * @return true if the MBean is registered
+     */
+    public synchronized boolean registerMBean() {
+        if (mbeanRegistered) {
+            return true;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new MetricsMBean(), objectName);
+            }
+            mbeanRegistered = true;
+            Log.get(MetricsRegistry.class).info("✓ Metrics registered with JMX as " + MBEAN_NAME);
+            return true;
+        } catch (JMException e) {
+            Log.get(MetricsRegistry.class).warn("⚠️ Warning: Could not register metrics MBean: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Read-only dynamic MBean over the registry. The attribute list is
+     * rebuilt on every getMBeanInfo call, so metrics created later show up.
+     */
+    private class MetricsMBean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            LongAdder counter = counters.get(attribute);
+            if (counter != null) {
+                return counter.sum();
+            }
+            if (gauges.containsKey(attribute)) {
+                Number value = getGaugeValue(attribute);
+                return value != null ? value.doubleValue() : Double.NaN;
+            }
+            int dot = attribute.lastIndexOf('.');
+            LatencyHistogram histogram = dot > 0 ? histograms.get(attribute.substring(0, dot)) : null;
+            if (histogram != null) {
+                switch (attribute.substring(dot + 1)) {
+                    case "count": return histogram.getCount();
+                    case "p50Millis": return histogram.getValueAtPercentile(50) / 1e6;
+                    case "p95Millis": return histogram.getValueAtPercentile(95) / 1e6;
+                    case "p99Millis": return histogram.getValueAtPercentile(99) / 1e6;
+                    case "p999Millis": return histogram.getValueAtPercentile(99.9) / 1e6;
+                    case "maxMillis": return histogram.getMaxNanos() / 1e6;
+                    default: break;
+                }
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    // Skipped, as the DynamicMBean contract allows
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            if ("reset".equals(actionName)) {
+                reset();
+                return null;
+            }
+            throw new ReflectionException(new NoSuchMethodException(actionName), "Unknown operation " + actionName);
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (String counter : counters.keySet()) {
+                attributes.add(attribute(counter, "long", "Counter"));
+            }
+            for (String gauge : gauges.keySet()) {
+                attributes.add(attribute(gauge, "double", "Gauge"));
+            }
+            for (String histogram : histograms.keySet()) {
+                attributes.add(attribute(histogram + ".count", "long", "Calls recorded"));
+                for (String suffix : new String[]{"p50Millis", "p95Millis", "p99Millis", "p999Millis", "maxMillis"}) {
+                    attributes.add(attribute(histogram + "." + suffix, "double", "Latency (ms)"));
+                }
+            }
+            MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Clear counters and histograms",
+                null, "void", MBeanOperationInfo.ACTION);
+            return new MBeanInfo(MetricsRegistry.class.getName(), "TravelAssistant metrics",
+                                 attributes.toArray(new MBeanAttributeInfo[0]), null,
+                                 new MBeanOperationInfo[]{reset}, null);
+        }
+
+        private MBeanAttributeInfo attribute(String name, String type, String description) {
+            return new MBeanAttributeInfo(name, type, description, true, false, false);
+        }
+    }
+}
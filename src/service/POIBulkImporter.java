@@ -0,0 +1,600 @@
+package service;
+
+import domain.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk import of POIs from a CSV or NDJSON file into the pois table.
+ *
+ * Pipeline:
+ * - A reader thread streams the file and cuts it into chunks of chunkSize lines
+ * - A worker pool parses, validates and normalizes each chunk
+ * - The calling thread writes chunks in file order as one JDBC batch upsert
+ *   per chunk, commits, then records the last committed line in a checkpoint
+ *
+ * At most two chunks per worker are in flight, so memory is bounded by the
+ * chunk size rather than the file size. A rerun with the same checkpoint
+ * skips lines that were already committed; upserts make replaying a chunk
+ * harmless if the process died between commit and checkpoint.
+ *
+ * CSV files need a header row naming the columns (poi_id, name, category,
+ * latitude, longitude, rating, price_level, tags, open_now, address);
+ * tags are separated by ';' or '|'. NDJSON files hold one flat JSON object
+ * per line with the same keys, and tags may be a JSON array.
+ *
+ * Usage:
+ *   java -cp "lib/mysql-connector-j-9.5.0.jar:bin" service.POIBulkImporter
+ *        pois.csv [--chunk 1000] [--workers 4] [--checkpoint pois.csv.checkpoint]
+ *
+ * @author CPS731 Team 20
+ */
+public class POIBulkImporter {
+
+    private static final Log LOG = Log.get(POIBulkImporter.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    public static final String UPSERT_SQL =
+        "INSERT INTO pois (poi_id, name, category, latitude, longitude, rating, " +
+        "price_level, tags, open_now, address, deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE) " +
+        "ON DUPLICATE KEY UPDATE name = VALUES(name), category = VALUES(category), " +
+        "latitude = VALUES(latitude), longitude = VALUES(longitude), rating = VALUES(rating), " +
+        "price_level = VALUES(price_level), tags = VALUES(tags), open_now = VALUES(open_now), " +
+        "address = VALUES(address), deleted = FALSE";
+
+    private final int chunkSize;
+    private final int workerCount;
+
+    public POIBulkImporter() {
+        this(DEFAULT_CHUNK_SIZE, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public POIBulkImporter(int chunkSize, int workerCount) {
+        this.chunkSize = chunkSize;
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * Outcome of an import run.
+     */
+    public static class Result {
+        private final long rowsRead;
+        private final long imported;
+        private final long rejected;
+        private final long skipped;
+        private final double rowsPerSecond;
+
+        Result(long rowsRead, long imported, long rejected, long skipped, double rowsPerSecond) {
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.skipped = skipped;
+            this.rowsPerSecond = rowsPerSecond;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        /** Rows skipped because an earlier run already committed them. */
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public double getRowsPerSecond() {
+            return rowsPerSecond;
+        }
+    }
+
+    /**
+     * Raw lines of one chunk, then its validated POIs.
+     */
+    private static class Chunk {
+        final List<String> lines = new ArrayList<>();
+        final List<Long> lineNumbers = new ArrayList<>();
+        final List<POI> pois = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        long lastLine;
+    }
+
+    /**
+     * Import a file.
+     *
+     * @param input CSV (.csv) or NDJSON (any other extension) file
+     * @param checkpoint Checkpoint file (created, resumed from, and deleted on success)
+     * @param conn Database connection (auto-commit is turned off for the import)
+     * @return Import statistics
+     * @throws IOException If the input cannot be read
+     * @throws SQLException If a batch cannot be written
+     */
+    public Result importFile(Path input, Path checkpoint, Connection conn) throws IOException, SQLException {
+        long start = System.nanoTime();
+        boolean csv = input.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        long resumeAfter = readCheckpoint(checkpoint);
+        if (resumeAfter > 0) {
+            LOG.info("Resuming after line " + resumeAfter);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "poi-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Futures in file order; the bound keeps the reader from running ahead
+        BlockingQueue<Future<Chunk>> pending = new ArrayBlockingQueue<>(workerCount * 2);
+        IOException[] readError = new IOException[1];
+        long[] skipped = new long[1];
+
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                String[] header = null;
+                if (csv) {
+                    String first = in.readLine();
+                    header = first != null ? parseCsvLine(first).toArray(new String[0]) : new String[0];
+                }
+                final String[] columns = header;
+
+                long lineNumber = csv ? 1 : 0;
+                Chunk chunk = new Chunk();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    lineNumber++;
+                    if (lineNumber <= resumeAfter) {
+                        skipped[0]++;
+                        continue;
+                    }
+                    chunk.lastLine = lineNumber;
+                    if (!line.trim().isEmpty()) {
+                        chunk.lines.add(line);
+                        chunk.lineNumbers.add(lineNumber);
+                    }
+                    if (chunk.lines.size() == chunkSize) {
+                        Chunk full = chunk;
+                        pending.put(workers.submit(() -> validate(full, columns)));
+                        chunk = new Chunk();
+                    }
+                }
+                if (chunk.lastLine > 0) {
+                    Chunk last = chunk;
+                    pending.put(workers.submit(() -> validate(last, columns)));
+                }
+            } catch (IOException e) {
+                readError[0] = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // End of input marker
+                try {
+                    pending.put(CompletableFuture.completedFuture(null));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();   // writer has stopped
+                }
+            }
+        }, "poi-import-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        long rows = 0;
+        long imported = 0;
+        long rejected = 0;
+        int reportedErrors = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+            while (true) {
+                Chunk chunk = pending.take().get();
+                if (chunk == null) {
+                    break;
+                }
+
+                for (POI poi : chunk.pois) {
+                    bind(stmt, poi);
+                    stmt.addBatch();
+                }
+                if (!chunk.pois.isEmpty()) {
+                    stmt.executeBatch();
+                }
+                conn.commit();
+                writeCheckpoint(checkpoint, chunk.lastLine);
+
+                rows += chunk.pois.size() + chunk.errors.size();
+                imported += chunk.pois.size();
+                rejected += chunk.errors.size();
+                for (String error : chunk.errors) {
+                    if (reportedErrors++ < MAX_REPORTED_ERRORS) {
+                        LOG.warn("⚠️ Rejected " + error);
+                    }
+                }
+                LOG.info("" + rows + " rows (" + Math.round(rows * 1e9 / (System.nanoTime() - start)) +
+                         " rows/sec)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Error validating rows", e.getCause());
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            reader.interrupt();
+            workers.shutdownNow();
+            conn.setAutoCommit(autoCommit);
+        }
+
+        if (readError[0] != null) {
+            throw readError[0];
+        }
+        Files.deleteIfExists(checkpoint);
+
+        double rowsPerSecond = rows * 1e9 / Math.max(1, System.nanoTime() - start);
+        LOG.info("✓ Imported " + imported + " POIs (" + rejected + " rejected, " + skipped[0] +
+                 " already imported) at " + Math.round(rowsPerSecond) + " rows/sec");
+        return new Result(rows, imported, rejected, skipped[0], rowsPerSecond);
+    }
+
+    private Chunk validate(Chunk chunk, String[] header) {
+        for (int i = 0; i < chunk.lines.size(); i++) {
+            try {
+                Map<String, String> fields = header != null
+                    ? csvFields(header, parseCsvLine(chunk.lines.get(i)))
+                    : parseJsonObject(chunk.lines.get(i));
+                chunk.pois.add(normalize(fields));
+            } catch (IllegalArgumentException e) {
+                chunk.errors.add("line " + chunk.lineNumbers.get(i) + ": " + e.getMessage());
+            }
+        }
+        chunk.lines.clear();   // release the raw text once parsed
+        return chunk;
+    }
+
+    /**
+     * Validate and normalize one row.
+     * - poi_id, name and category are required; category and tags are lowercased
+     * - latitude/longitude must be valid coordinates; rating must be 0..5
+     * - price_level accepts "$".."$$$$" or 1..4
+     * - tags accept a JSON array or a ';'/'|' separated list; duplicates are dropped
+     *
+     * @param fields Column name to raw value
+     * @return Normalized POI
+     * @throws IllegalArgumentException If the row is invalid
+     */
+    public static POI normalize(Map<String, String> fields) {
+        POI poi = new POI();
+        poi.setId(required(fields, "poi_id"));
+        poi.setName(required(fields, "name"));
+        poi.setCategory(required(fields, "category").toLowerCase(Locale.ROOT));
+
+        double lat = number(fields, "latitude");
+        double lng = number(fields, "longitude");
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new IllegalArgumentException("coordinates out of range: " + lat + ", " + lng);
+        }
+        poi.setLocation(new LatLng(lat, lng));
+
+        String rating = value(fields, "rating");
+        float stars = rating != null ? (float) number(fields, "rating") : 0f;
+        if (stars < 0 || stars > 5) {
+            throw new IllegalArgumentException("rating out of range: " + stars);
+        }
+        poi.setRating(stars);
+
+        poi.setPriceLevel(priceLevel(value(fields, "price_level")));
+        poi.setAddress(value(fields, "address"));
+
+        String open = value(fields, "open_now");
+        poi.setOpenNow(open == null || open.equalsIgnoreCase("true") || open.equals("1"));
+
+        String tags = value(fields, "tags");
+        Set<String> normalizedTags = new LinkedHashSet<>();
+        if (tags != null) {
+            List<String> raw = tags.startsWith("[") ? POILoader.parseTags(tags) : List.of(tags.split("[;|]"));
+            for (String tag : raw) {
+                String cleaned = tag.trim().toLowerCase(Locale.ROOT);
+                if (!cleaned.isEmpty()) {
+                    normalizedTags.add(cleaned);
+                }
+            }
+        }
+        poi.setTags(new ArrayList<>(normalizedTags));
+        return poi;
+    }
+
+    private static String value(Map<String, String> fields, String column) {
+        String value = fields.get(column);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() || value.equalsIgnoreCase("null") ? null : value;
+    }
+
+    private static String required(Map<String, String> fields, String column) {
+        String value = value(fields, column);
+        if (value == null) {
+            throw new IllegalArgumentException("missing " + column);
+        }
+        return value;
+    }
+
+    private static double number(Map<String, String> fields, String column) {
+        String value = required(fields, column);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + column + ": " + value);
+        }
+    }
+
+    private static String priceLevel(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.matches("\\${1,4}")) {
+            return value;
+        }
+        if (value.matches("[1-4]")) {
+            return "$".repeat(Integer.parseInt(value));
+        }
+        throw new IllegalArgumentException("invalid price_level: " + value);
+    }
+
+    /**
+     * Upsert POIs in one batch and one transaction.
+     *
+     * @return Number of POIs written
+     */
+    public static int upsert(Connection conn, Collection<POI> pois) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+            for (POI poi : pois) {
+                bind(stmt, poi);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            conn.commit();
+            return pois.size();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, POI poi) throws SQLException {
+        stmt.setString(1, poi.getId());
+        stmt.setString(2, poi.getName());
+        stmt.setString(3, poi.getCategory());
+        stmt.setDouble(4, poi.getLocation().getLatitude());
+        stmt.setDouble(5, poi.getLocation().getLongitude());
+        stmt.setFloat(6, poi.getRating());
+        stmt.setString(7, poi.getPriceLevel());
+        stmt.setString(8, toJsonArray(poi.getTags()));
+        stmt.setBoolean(9, poi.isOpenNow());
+        stmt.setString(10, poi.getAddress());
+    }
+
+    /**
+     * Serialize tags for the JSON tags column.
+     */
+    static String toJsonArray(List<String> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            json.append('"');
+            for (char c : values.get(i).toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    json.append('\\');
+                }
+                json.append(c);
+            }
+            json.append('"');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Split one CSV line. Fields may be quoted; "" inside quotes is a quote.
+     */
+    public static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Map<String, String> csvFields(String[] header, List<String> values) {
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException("expected " + header.length + " columns, found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            fields.put(header[i].trim().toLowerCase(Locale.ROOT), values.get(i));
+        }
+        return fields;
+    }
+
+    /**
+     * Parse a flat JSON object. String values are unescaped; arrays are kept
+     * as raw JSON text; numbers, booleans and null are kept as written.
+     */
+    public static Map<String, String> parseJsonObject(String json) {
+        Map<String, String> fields = new HashMap<>();
+        int i = skipSpace(json, 0);
+        if (i >= json.length() || json.charAt(i) != '{') {
+            throw new IllegalArgumentException("not a JSON object");
+        }
+        i = skipSpace(json, i + 1);
+
+        while (i < json.length() && json.charAt(i) != '}') {
+            if (json.charAt(i) != '"') {
+                throw new IllegalArgumentException("expected key at column " + (i + 1));
+            }
+            StringBuilder key = new StringBuilder();
+            i = skipSpace(json, POILoader.scanString(json, i, key));
+            if (i >= json.length() || json.charAt(i) != ':') {
+                throw new IllegalArgumentException("expected ':' at column " + (i + 1));
+            }
+            i = skipSpace(json, i + 1);
+
+            int end;
+            String value;
+            if (i < json.length() && json.charAt(i) == '"') {
+                StringBuilder text = new StringBuilder();
+                end = POILoader.scanString(json, i, text);
+                value = text.toString();
+            } else if (i < json.length() && json.charAt(i) == '[') {
+                end = arrayEnd(json, i);
+                value = json.substring(i, end);
+            } else {
+                end = i;
+                while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') {
+                    end++;
+                }
+                value = json.substring(i, end).trim();
+            }
+            fields.put(key.toString().toLowerCase(Locale.ROOT), value);
+
+            i = skipSpace(json, end);
+            if (i < json.length() && json.charAt(i) == ',') {
+                i = skipSpace(json, i + 1);
+            }
+        }
+        if (i >= json.length()) {
+            throw new IllegalArgumentException("unterminated JSON object");
+        }
+        return fields;
+    }
+
+    private static int arrayEnd(String json, int open) {
+        int i = open + 1;
+        while (i < json.length() && json.charAt(i) != ']') {
+            i = json.charAt(i) == '"' ? POILoader.scanString(json, i, new StringBuilder()) : i + 1;
+        }
+        if (i >= json.length()) {
+            throw new IllegalArgumentException("unterminated JSON array");
+        }
+        return i + 1;
+    }
+
+    private static int skipSpace(String json, int i) {
+        while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        String text = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim();
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt checkpoint file " + checkpoint + ": " + text);
+        }
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long lastLine) throws SQLException {
+        try {
+            Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+            Files.write(temp, Long.toString(lastLine).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new SQLException("Could not write checkpoint " + checkpoint, e);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: POIBulkImporter <file.csv|file.ndjson> " +
+                               "[--chunk N] [--workers N] [--checkpoint FILE]");
+            System.exit(2);
+        }
+
+        Path input = Paths.get(args[0]);
+        Path checkpoint = Paths.get(args[0] + ".checkpoint");
+        int chunk = DEFAULT_CHUNK_SIZE;
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--chunk": chunk = Integer.parseInt(args[i + 1]); break;
+                case "--workers": workers = Integer.parseInt(args[i + 1]); break;
+                case "--checkpoint": checkpoint = Paths.get(args[i + 1]); break;
+                default:
+                    System.err.println("❌ Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        System.out.println("[POIBulkImporter] Importing " + input + " (chunk " + chunk + ", " + workers + " workers)");
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            new POIBulkImporter(chunk, workers).importFile(input, checkpoint, conn);
+        } catch (IOException | SQLException e) {
+            System.err.println("❌ Import failed: " + e.getMessage());
+            System.err.println("   Rerun the same command to resume from " + checkpoint);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package service;
+
+import domain.*;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming loader for the pois table.
+ *
+ * The calling thread walks a forward-only, read-only result set with a
+ * bounded fetch size and copies raw column values into fixed-size row
+ * buffers. Full buffers are handed to a worker pool that builds the POI
+ * objects and parses the tags JSON. Buffers are recycled through a small
+ * pool, so memory stays bounded no matter how many rows the table has and
+ * the reader waits whenever the workers fall behind.
+ *
+ * Note: MySQL Connector/J only honours the fetch size with
+ * useCursorFetch=true on the connection URL (see DatabaseConnection).
+ *
+ * @author CPS731 Team 20
+ */
+public class POILoader {
+
+    private static final Log LOG = Log.get(POILoader.class);
+
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private static final String SELECT_ALL =
+        "SELECT poi_id, name, category, latitude, longitude, rating, " +
+        "price_level, tags, open_now, address, updated_at FROM pois WHERE deleted = FALSE";
+
+    private final int fetchSize;
+    private final int batchSize;
+    private final int workerCount;
+
+    // Statistics from the last load
+    private Timestamp newestUpdate;
+    private int lastRowCount;
+    private double lastRowsPerSecond;
+
+    public POILoader() {
+        this(DEFAULT_FETCH_SIZE, DEFAULT_BATCH_SIZE, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public POILoader(int fetchSize, int batchSize, int workerCount) {
+        this.fetchSize = fetchSize;
+        this.batchSize = batchSize;
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * Raw column values for up to batchSize rows.
+     */
+    private static class RowBuffer {
+        final String[] ids;
+        final String[] names;
+        final String[] categories;
+        final double[] latitudes;
+        final double[] longitudes;
+        final float[] ratings;
+        final String[] priceLevels;
+        final String[] tags;
+        final boolean[] openNow;
+        final String[] addresses;
+        int size;
+
+        RowBuffer(int capacity) {
+            ids = new String[capacity];
+            names = new String[capacity];
+            categories = new String[capacity];
+            latitudes = new double[capacity];
+            longitudes = new double[capacity];
+            ratings = new float[capacity];
+            priceLevels = new String[capacity];
+            tags = new String[capacity];
+            openNow = new boolean[capacity];
+            addresses = new String[capacity];
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        void read(ResultSet rs) throws SQLException {
+            int row = size++;
+            ids[row] = rs.getString(1);
+            names[row] = rs.getString(2);
+            categories[row] = rs.getString(3);
+            latitudes[row] = rs.getDouble(4);
+            longitudes[row] = rs.getDouble(5);
+            ratings[row] = rs.getFloat(6);
+            priceLevels[row] = rs.getString(7);
+            tags[row] = rs.getString(8);
+            openNow[row] = rs.getBoolean(9);
+            addresses[row] = rs.getString(10);
+        }
+
+        POI[] decode() {
+            POI[] pois = new POI[size];
+            for (int row = 0; row < size; row++) {
+                POI poi = new POI();
+                poi.setId(ids[row]);
+                poi.setName(names[row]);
+                poi.setCategory(categories[row]);
+                poi.setLocation(new LatLng(latitudes[row], longitudes[row]));
+                poi.setRating(ratings[row]);
+                poi.setPriceLevel(priceLevels[row]);
+                poi.setOpenNow(openNow[row]);
+                poi.setAddress(addresses[row]);
+                if (tags[row] != null) {
+                    poi.setTags(parseStoredTags(ids[row], tags[row]));
+                }
+                pois[row] = poi;
+            }
+            size = 0;
+            return pois;
+        }
+    }
+
+    /**
+     * Load every live (non-deleted) POI.
+     *
+     * @param conn Open database connection
+     * @return POIs in result set order
+     * @throws SQLException If the query or decoding fails
+     */
+    public List<POI> loadAll(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "poi-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Two buffers per worker: one being decoded, one being filled
+        BlockingQueue<RowBuffer> freeBuffers = new ArrayBlockingQueue<>(workerCount * 2);
+        for (int i = 0; i < workerCount * 2; i++) {
+            freeBuffers.add(new RowBuffer(batchSize));
+        }
+
+        List<Future<POI[]>> batches = new ArrayList<>();
+        Timestamp newest = null;
+        int rows = 0;
+
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery(SELECT_ALL)) {
+                RowBuffer buffer = freeBuffers.take();
+                while (rs.next()) {
+                    buffer.read(rs);
+                    Timestamp updated = rs.getTimestamp(11);
+                    if (updated != null && (newest == null || updated.after(newest))) {
+                        newest = updated;
+                    }
+                    rows++;
+
+                    if (buffer.isFull()) {
+                        batches.add(submit(workers, freeBuffers, buffer));
+                        buffer = freeBuffers.take();
+                    }
+                }
+                if (buffer.size > 0) {
+                    batches.add(submit(workers, freeBuffers, buffer));
+                }
+            }
+
+            List<POI> pois = new ArrayList<>(rows);
+            for (Future<POI[]> batch : batches) {
+                Collections.addAll(pois, batch.get());
+            }
+
+            long elapsedNanos = Math.max(1, System.nanoTime() - start);
+            this.newestUpdate = newest;
+            this.lastRowCount = rows;
+            this.lastRowsPerSecond = rows * 1e9 / elapsedNanos;
+            LOG.info("✓ Loaded " + rows + " POIs in " + elapsedNanos / 1_000_000 + " ms (" +
+                     Math.round(lastRowsPerSecond) + " rows/sec)");
+            return pois;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("POI load interrupted", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Error decoding POI rows", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Future<POI[]> submit(ExecutorService workers, BlockingQueue<RowBuffer> freeBuffers, RowBuffer buffer) {
+        return workers.submit(() -> {
+            try {
+                return buffer.decode();
+            } finally {
+                freeBuffers.add(buffer);
+            }
+        });
+    }
+
+    /**
+     * Parse a JSON array of strings, e.g. ["italian", "pasta"].
+     * Scans the text once and only copies the string values themselves
+     * (no intermediate replace/split strings or regex): a value without
+     * escapes is a single substring, and only escaped values go through a
+     * StringBuilder. Non-string elements and empty strings are skipped.
+     *
+     * @param json JSON array text
+     * @return Parsed strings (empty if none)
+     * @throws IllegalArgumentException If a string holds a malformed escape
+     */
+    public static List<String> parseTags(String json) {
+        List<String> values = new ArrayList<>();
+        if (json == null) {
+            return values;
+        }
+
+        int n = json.length();
+        int i = 0;
+        while (i < n) {
+            if (json.charAt(i) != '"') {
+                i++;
+                continue;
+            }
+
+            int end = i + 1;
+            while (end < n && json.charAt(end) != '"' && json.charAt(end) != '\\') {
+                end++;
+            }
+            String value;
+            if (end < n && json.charAt(end) == '\\') {
+                StringBuilder escaped = new StringBuilder();
+                i = scanString(json, i, escaped);
+                value = escaped.toString();
+            } else {
+                value = json.substring(i + 1, end);
+                i = end + 1;
+            }
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Read the JSON string starting at the opening quote json[quote].
+     * Unescaped runs are appended in one copy each.
+     *
+     * @param json JSON text
+     * @param quote Index of the opening quote
+     * @param out Receives the unescaped string value
+     * @return Index just after the closing quote
+     * @throws IllegalArgumentException If the string holds a malformed escape
+     */
+    static int scanString(String json, int quote, StringBuilder out) {
+        int n = json.length();
+        int i = quote + 1;
+        int begin = i;
+        while (i < n && json.charAt(i) != '"') {
+            if (json.charAt(i) == '\\' && i + 1 < n) {
+                out.append(json, begin, i);
+                i = unescape(json, i + 1, out);
+                begin = i;
+            } else {
+                i++;
+            }
+        }
+        out.append(json, begin, Math.min(i, n));
+        return i + 1;
+    }
+
+    /**
+     * Append the escaped character at json[i] and return the index after it.
+     *
+     * @throws IllegalArgumentException If a \\u escape lacks four hex digits
+     */
+    private static int unescape(String json, int i, StringBuilder out) {
+        char c = json.charAt(i);
+        switch (c) {
+            case 'n': out.append('\n'); break;
+            case 't': out.append('\t'); break;
+            case 'r': out.append('\r'); break;
+            case 'b': out.append('\b'); break;
+            case 'f': out.append('\f'); break;
+            case 'u':
+                int code = 0;
+                for (int k = i + 1; k < i + 5; k++) {
+                    int digit = k < json.length() ? Character.digit(json.charAt(k), 16) : -1;
+                    if (digit < 0) {
+                        throw new IllegalArgumentException("invalid \\u escape at column " + i);
+                    }
+                    code = code * 16 + digit;
+                }
+                out.append((char) code);
+                return i + 5;
+            default: out.append(c);   // \" \\ \/
+        }
+        return i + 1;
+    }
+
+    /**
+     * Tags of a stored POI; malformed tags are logged and left out rather
+     * than failing the whole load.
+     */
+    static List<String> parseStoredTags(String poiId, String json) {
+        try {
+            return parseTags(json);
+        } catch (IllegalArgumentException e) {
+            LOG.warn("⚠️ Ignoring malformed tags of POI " + poiId + ": " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Newest updated_at seen by the last load (or null).
+     */
+    public Timestamp getNewestUpdate() {
+        return newestUpdate;
+    }
+
+    public int getLastRowCount() {
+        return lastRowCount;
+    }
+
+    public double getLastRowsPerSecond() {
+        return lastRowsPerSecond;
+    }
+}
@@ -0,0 +1,499 @@
+package service;
+
+import domain.*;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed nearest-neighbour lists for every POI in the catalog.
+ *
+ * For each POI the index stores up to maxNeighbours other POIs within
+ * capMeters, sorted by distance, together with the distance and walking ETA.
+ * Everything lives in flat primitive buffers (CSR layout): the neighbours of
+ * POI i are the entries in [offsets[i], offsets[i+1]). The buffers are
+ * either heap arrays or views of a mapped snapshot file.
+ *
+ * Built once at load time; {@link #rebuild} recomputes only the lists that
+ * can have changed after a catalog refresh. {@link #update} does the same
+ * for a catalog whose POIs keep their indexes, and keeps the recomputed
+ * lists as an overlay on the index below instead of copying it.
+ *
+ * @author CPS731 Team 20
+ */
+public class POINeighbourIndex {
+
+    private static final Log LOG = Log.get(POINeighbourIndex.class);
+
+    public static final double DEFAULT_CAP_METERS = 1500.0;
+    public static final int DEFAULT_MAX_NEIGHBOURS = 16;
+
+    private final double capMeters;
+    private final int maxNeighbours;
+    private final int size;
+
+    private final IntBuffer offsets;
+    private final IntBuffer neighbours;
+    private final FloatBuffer distances;
+    private final ShortBuffer walkEtaMinutes;
+
+    // Overlay: row r holds the list of POI rows[r] (sorted); every other POI
+    // is looked up in below. Both are null for a plain index, where row i is POI i.
+    private final POINeighbourIndex below;
+    private final int[] rows;
+
+    private POINeighbourIndex(double capMeters, int maxNeighbours, int size,
+                              IntBuffer offsets, IntBuffer neighbours, FloatBuffer distances,
+                              ShortBuffer walkEtaMinutes, POINeighbourIndex below, int[] rows) {
+        this.capMeters = capMeters;
+        this.maxNeighbours = maxNeighbours;
+        this.size = size;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.distances = distances;
+        this.walkEtaMinutes = walkEtaMinutes;
+        this.below = below;
+        this.rows = rows;
+    }
+
+    /**
+     * Build neighbour lists for every POI from scratch.
+     *
+     * @param grid Spatial index over the catalog
+     * @param capMeters Maximum neighbour distance
+     * @param maxNeighbours Maximum neighbours kept per POI
+     * @return Neighbour index
+     */
+    public static POINeighbourIndex build(SpatialGridIndex grid, double capMeters, int maxNeighbours) {
+        boolean[] dirty = new boolean[grid.size()];
+        Arrays.fill(dirty, true);
+        return compute(grid, capMeters, maxNeighbours, dirty, null, null);
+    }
+
+    /**
+     * Rebuild after a catalog refresh, recomputing only the lists that can differ.
+     *
+     * A list can only change if the POI itself is new or moved, or if some POI
+     * within capMeters of it was added, removed or moved. Every other list is
+     * copied from the previous index with its neighbour indexes remapped.
+     *
+     * @param previous Index built for the previous catalog
+     * @param previousPOIs Previous catalog (same order as previous index; null marks a removed POI)
+     * @param pois New catalog
+     * @param grid Spatial index over the new catalog
+     * @return Neighbour index for the new catalog
+     */
+    public static POINeighbourIndex rebuild(POINeighbourIndex previous, List<POI> previousPOIs,
+                                            List<POI> pois, SpatialGridIndex grid) {
+        double cap = previous.capMeters;
+        int n = pois.size();
+
+        Map<String, Integer> oldIndexById = new HashMap<>();
+        for (int i = 0; i < previousPOIs.size(); i++) {
+            POI poi = previousPOIs.get(i);
+            if (poi != null) {
+                oldIndexById.put(poi.getId(), i);
+            }
+        }
+
+        // Map new -> old index for unchanged POIs; flag changed locations
+        int[] oldIndexOf = new int[n];
+        int[] newIndexOf = new int[previousPOIs.size()];
+        Arrays.fill(newIndexOf, -1);
+        boolean[] dirty = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            POI poi = pois.get(i);
+            Integer old = oldIndexById.get(poi.getId());
+            if (old != null && sameLocation(previousPOIs.get(old).getLocation(), poi.getLocation())) {
+                oldIndexOf[i] = old;
+                newIndexOf[old] = i;
+            } else {
+                oldIndexOf[i] = -1;
+                dirty[i] = true;
+                markNearby(grid, poi.getLocation(), cap, dirty);
+            }
+        }
+        for (int old = 0; old < previousPOIs.size(); old++) {
+            POI poi = previousPOIs.get(old);
+            if (newIndexOf[old] < 0 && poi != null) {
+                // Removed or moved: everything near its old location is affected
+                markNearby(grid, poi.getLocation(), cap, dirty);
+            }
+        }
+
+        LOG.debug(() -> "Neighbour lists: recomputing " + countSet(dirty) + " of " + n);
+
+        return compute(grid, cap, previous.maxNeighbours, dirty, previous, new int[][]{oldIndexOf, newIndexOf});
+    }
+
+    private static int countSet(boolean[] flags) {
+        int count = 0;
+        for (boolean flag : flags) {
+            if (flag) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Update after the POIs at some indexes were added, moved or removed.
+     *
+     * Unlike {@link #rebuild}, every POI keeps its index (new POIs are
+     * appended, removed ones leave their index empty), so lists that did not
+     * change need no remapping and are not touched at all: the recomputed
+     * lists, together with the ones an earlier update recomputed, form an
+     * overlay over the index at the bottom. A catalog mapped from a snapshot
+     * therefore never copies the snapshot's lists onto the heap.
+     *
+     * @param previous Index for the catalog before the change
+     * @param previousGrid Spatial index over the catalog before the change
+     * @param grid Spatial index over the changed catalog (same indexes, possibly more)
+     * @param changed Indexes whose POI was added, replaced or removed
+     * @return Neighbour index for the changed catalog
+     */
+    public static POINeighbourIndex update(POINeighbourIndex previous, SpatialGridIndex previousGrid,
+                                           SpatialGridIndex grid, int[] changed) {
+        double cap = previous.capMeters;
+        BitSet dirty = new BitSet(grid.size());
+        for (int i : changed) {
+            dirty.set(i);
+            if (i < previousGrid.size()) {
+                // Everything near the old location may have lost a neighbour
+                markNearby(grid, previousGrid.latitude(i), previousGrid.longitude(i), cap, dirty);
+            }
+            markNearby(grid, grid.latitude(i), grid.longitude(i), cap, dirty);
+        }
+
+        BitSet overlaid = (BitSet) dirty.clone();
+        if (previous.rows != null) {
+            for (int i : previous.rows) {
+                overlaid.set(i);
+            }
+        }
+        int[] rows = overlaid.stream().toArray();
+        LOG.debug(() -> "Neighbour lists: recomputing " + dirty.cardinality() + ", " + rows.length +
+                        " overlaid on " + grid.size());
+
+        Lists lists = new Lists(rows.length, rows.length * 4);
+        for (int i : rows) {
+            if (dirty.get(i)) {
+                if (!Double.isNaN(grid.latitude(i))) {
+                    lists.addAll(nearest(grid, i, cap, previous.maxNeighbours));
+                }
+            } else {
+                lists.copy(previous, i, null);
+            }
+            lists.endRow();
+        }
+
+        POINeighbourIndex bottom = previous.below != null ? previous.below : previous;
+        return lists.finish(cap, previous.maxNeighbours, grid.size(), bottom, rows);
+    }
+
+    /**
+     * Compute dirty lists and copy clean ones from the previous index.
+     */
+    private static POINeighbourIndex compute(SpatialGridIndex grid, double capMeters, int maxNeighbours,
+                                             boolean[] dirty, POINeighbourIndex previous, int[][] remap) {
+        int n = grid.size();
+        Lists lists = new Lists(n, Math.max(16, n * 4));
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(grid.latitude(i))) {
+                // No location: no neighbours
+            } else if (dirty[i]) {
+                lists.addAll(nearest(grid, i, capMeters, maxNeighbours));
+            } else {
+                lists.copy(previous, remap[0][i], remap[1]);
+            }
+            lists.endRow();
+        }
+        return lists.finish(capMeters, maxNeighbours, n, null, null);
+    }
+
+    /**
+     * Up to maxNeighbours POIs within capMeters of POI i, nearest first.
+     * Each entry packs (distance float bits << 32 | index), so sorting the
+     * longs sorts by distance and breaks ties by index.
+     */
+    private static long[] nearest(SpatialGridIndex grid, int i, double capMeters, int maxNeighbours) {
+        int[] nearby = grid.withinRadius(grid.latitude(i), grid.longitude(i), capMeters);
+        long[] sortable = new long[nearby.length];
+        int count = 0;
+        for (int j : nearby) {
+            if (j != i) {
+                float d = (float) SpatialGridIndex.distanceMeters(
+                    grid.latitude(i), grid.longitude(i), grid.latitude(j), grid.longitude(j));
+                sortable[count++] = ((long) Float.floatToIntBits(d) << 32) | j;
+            }
+        }
+        Arrays.sort(sortable, 0, count);
+        return Arrays.copyOf(sortable, Math.min(count, maxNeighbours));
+    }
+
+    /**
+     * Growable CSR arrays, filled one list (row) at a time.
+     */
+    private static final class Lists {
+        private final double walkSpeed = TransitService.getSpeedForMode("walking");
+        private final int[] offsets;
+        private int[] neighbours;
+        private float[] distances;
+        private short[] walk;
+        private int row;
+        private int size;
+
+        Lists(int rows, int capacity) {
+            this.offsets = new int[rows + 1];
+            this.neighbours = new int[capacity];
+            this.distances = new float[capacity];
+            this.walk = new short[capacity];
+        }
+
+        void add(int neighbour, float distance) {
+            if (size == neighbours.length) {
+                int capacity = Math.max(16, size * 2);
+                neighbours = Arrays.copyOf(neighbours, capacity);
+                distances = Arrays.copyOf(distances, capacity);
+                walk = Arrays.copyOf(walk, capacity);
+            }
+            neighbours[size] = neighbour;
+            distances[size] = distance;
+            walk[size] = (short) Math.min(Short.MAX_VALUE, Math.ceil(distance / walkSpeed));
+            size++;
+        }
+
+        void addAll(long[] packed) {
+            for (long entry : packed) {
+                add((int) entry, Float.intBitsToFloat((int) (entry >>> 32)));
+            }
+        }
+
+        /**
+         * Copy the list of POI i from another index, mapping neighbour
+         * indexes through remap (or keeping them when remap is null).
+         */
+        void copy(POINeighbourIndex from, int i, int[] remap) {
+            int count = from.neighbourCount(i);
+            for (int k = 0; k < count; k++) {
+                int j = from.neighbour(i, k);
+                add(remap != null ? remap[j] : j, from.distance(i, k));
+            }
+        }
+
+        void endRow() {
+            offsets[++row] = size;
+        }
+
+        POINeighbourIndex finish(double capMeters, int maxNeighbours, int poiCount,
+                                 POINeighbourIndex below, int[] rows) {
+            return new POINeighbourIndex(capMeters, maxNeighbours, poiCount, IntBuffer.wrap(offsets),
+                                         IntBuffer.wrap(Arrays.copyOf(neighbours, size)),
+                                         FloatBuffer.wrap(Arrays.copyOf(distances, size)),
+                                         ShortBuffer.wrap(Arrays.copyOf(walk, size)), below, rows);
+        }
+    }
+
+    /**
+     * Copy into a plain index over a renumbered catalog.
+     * POI i becomes newIndexOf[i]; POIs mapped to -1 are dropped and must not
+     * appear in any other POI's list.
+     *
+     * @param newIndexOf New index of every POI (or -1)
+     * @param count Number of POIs in the renumbered catalog
+     * @return Plain neighbour index over the renumbered catalog
+     */
+    public POINeighbourIndex renumber(int[] newIndexOf, int count) {
+        int[] oldIndexOf = new int[count];
+        for (int i = 0; i < newIndexOf.length; i++) {
+            if (newIndexOf[i] >= 0) {
+                oldIndexOf[newIndexOf[i]] = i;
+            }
+        }
+        Lists lists = new Lists(count, Math.max(16, getTotalEntries()));
+        for (int i = 0; i < count; i++) {
+            lists.copy(this, oldIndexOf[i], newIndexOf);
+            lists.endRow();
+        }
+        return lists.finish(capMeters, maxNeighbours, count, null, null);
+    }
+
+    /**
+     * Write the index as a snapshot file section:
+     * cap (double), max neighbours, POI count, entry count (ints), then
+     * offsets[count + 1], neighbours, distances and walking ETAs.
+     *
+     * @param out Target stream
+     * @return Number of bytes written
+     */
+    public long writeTo(DataOutputStream out) throws IOException {
+        int entries = 0;
+        for (int i = 0; i < size; i++) {
+            entries += neighbourCount(i);
+        }
+        out.writeDouble(capMeters);
+        out.writeInt(maxNeighbours);
+        out.writeInt(size);
+        out.writeInt(entries);
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            out.writeInt(offset);
+            offset += neighbourCount(i);
+        }
+        out.writeInt(offset);
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < neighbourCount(i); k++) {
+                out.writeInt(neighbour(i, k));
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < neighbourCount(i); k++) {
+                out.writeFloat(distance(i, k));
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < neighbourCount(i); k++) {
+                out.writeShort(walkMinutes(i, k));
+            }
+        }
+        return 20 + (size + 1) * 4L + entries * 10L;
+    }
+
+    /**
+     * Read a section written by {@link #writeTo} without copying it:
+     * the lists stay in the given buffer (typically a mapped file).
+     *
+     * @param buffer Buffer holding the section
+     * @param position Offset of the section in the buffer
+     * @return Neighbour index backed by the buffer
+     */
+    public static POINeighbourIndex map(ByteBuffer buffer, int position) {
+        double capMeters = buffer.getDouble(position);
+        int maxNeighbours = buffer.getInt(position + 8);
+        int count = buffer.getInt(position + 12);
+        int entries = buffer.getInt(position + 16);
+        int offsetsAt = position + 20;
+        int neighboursAt = offsetsAt + (count + 1) * 4;
+        int distancesAt = neighboursAt + entries * 4;
+        int walkAt = distancesAt + entries * 4;
+        return new POINeighbourIndex(capMeters, maxNeighbours, count,
+                                     slice(buffer, offsetsAt, (count + 1) * 4).asIntBuffer(),
+                                     slice(buffer, neighboursAt, entries * 4).asIntBuffer(),
+                                     slice(buffer, distancesAt, entries * 4).asFloatBuffer(),
+                                     slice(buffer, walkAt, entries * 2).asShortBuffer(), null, null);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position).limit(position + length);
+        return view.slice();
+    }
+
+    private static void markNearby(SpatialGridIndex grid, LatLng loc, double cap, boolean[] dirty) {
+        if (loc == null) {
+            return;
+        }
+        for (int j : grid.withinRadius(loc.getLatitude(), loc.getLongitude(), cap)) {
+            dirty[j] = true;
+        }
+    }
+
+    private static void markNearby(SpatialGridIndex grid, double lat, double lng, double cap, BitSet dirty) {
+        if (Double.isNaN(lat)) {
+            return;
+        }
+        for (int j : grid.withinRadius(lat, lng, cap)) {
+            dirty.set(j);
+        }
+    }
+
+    private static boolean sameLocation(LatLng a, LatLng b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getLatitude() == b.getLatitude() && a.getLongitude() == b.getLongitude();
+    }
+
+    /**
+     * Row holding the list of a POI, or -1 if it comes from the index below.
+     */
+    private int row(int poiIndex) {
+        if (rows == null) {
+            return poiIndex;
+        }
+        int row = Arrays.binarySearch(rows, poiIndex);
+        return row >= 0 ? row : -1;
+    }
+
+    /**
+     * Number of neighbours stored for a POI.
+     */
+    public int neighbourCount(int poiIndex) {
+        int row = row(poiIndex);
+        if (row < 0) {
+            return poiIndex < below.size ? below.neighbourCount(poiIndex) : 0;
+        }
+        return offsets.get(row + 1) - offsets.get(row);
+    }
+
+    /**
+     * Catalog index of the k-th nearest neighbour of a POI.
+     */
+    public int neighbour(int poiIndex, int k) {
+        int row = row(poiIndex);
+        return row < 0 ? below.neighbour(poiIndex, k) : neighbours.get(offsets.get(row) + k);
+    }
+
+    /**
+     * Distance in meters to the k-th nearest neighbour of a POI.
+     */
+    public float distance(int poiIndex, int k) {
+        int row = row(poiIndex);
+        return row < 0 ? below.distance(poiIndex, k) : distances.get(offsets.get(row) + k);
+    }
+
+    /**
+     * Walking ETA in minutes to the k-th nearest neighbour of a POI.
+     */
+    public int walkMinutes(int poiIndex, int k) {
+        int row = row(poiIndex);
+        return row < 0 ? below.walkMinutes(poiIndex, k) : walkEtaMinutes.get(offsets.get(row) + k);
+    }
+
+    public double getCapMeters() {
+        return capMeters;
+    }
+
+    public int getMaxNeighbours() {
+        return maxNeighbours;
+    }
+
+    /**
+     * Number of POIs the index covers.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of stored neighbour entries, including the index below an overlay.
+     */
+    public int getTotalEntries() {
+        return neighbours.limit() + (below != null ? below.getTotalEntries() : 0);
+    }
+
+    /**
+     * Number of lists held as an overlay (0 for a plain index).
+     */
+    public int getOverlaidCount() {
+        return rows != null ? rows.length : 0;
+    }
+}
@@ -0,0 +1,399 @@
+package service;
+
+import domain.*;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compact binary POI catalog, opened with a read-only memory map.
+ *
+ * Layout (big-endian):
+ * - Header (64 bytes): magic, version, POI count, tag reference count,
+ *   watermark millis (-1 if unknown), then the offsets of the string
+ *   table, spatial grid, neighbour lists and ID index
+ * - Records: one fixed-width 48-byte record per POI
+ *   (lat, lng, rating, id/name/category/price/address string refs,
+ *   first tag ref, tag count, flags)
+ * - Tag references: one int string ref per tag
+ * - String table: deduplicated [int length][UTF-8 bytes] entries;
+ *   refs are byte offsets into the table, -1 for null
+ * - Spatial grid: see {@link SpatialGridIndex#writeTo}
+ * - Neighbour lists: see {@link POINeighbourIndex#writeTo}
+ * - ID index: capacity (power of two) and padding, then an open-addressing
+ *   table of (id hashCode, POI index) int pairs, index -1 when empty
+ *
+ * Opening a snapshot only maps the file. The indexes are stored with the
+ * catalog, so nothing is recomputed at startup: neighbour lists and IDs
+ * are read straight from the mapping, the grid is bulk-copied out of it,
+ * and a full POI object is decoded the first time {@link #get} asks for it.
+ *
+ * @author CPS731 Team 20
+ */
+public final class POISnapshotFile extends AbstractList<POI> implements RandomAccess {
+
+    private static final int MAGIC = 0x504F4931;   // "POI1"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 48;
+
+    private static final int FLAG_OPEN_NOW = 1;
+    private static final int FLAG_HAS_LOCATION = 2;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int tagRefsOffset;
+    private final int stringTableOffset;
+    private final int gridOffset;
+    private final int neighboursOffset;
+    private final int idIndexOffset;
+    private final int idCapacity;
+    private final long watermarkMillis;
+    private final AtomicReferenceArray<POI> decoded;
+
+    private POISnapshotFile(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a POI snapshot file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported POI snapshot version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.watermarkMillis = buffer.getLong(16);
+        this.stringTableOffset = (int) buffer.getLong(24);
+        this.gridOffset = (int) buffer.getLong(32);
+        this.neighboursOffset = (int) buffer.getLong(40);
+        this.idIndexOffset = (int) buffer.getLong(48);
+        this.idCapacity = buffer.getInt(idIndexOffset);
+        this.tagRefsOffset = HEADER_SIZE + count * RECORD_SIZE;
+        this.decoded = new AtomicReferenceArray<>(count);
+    }
+
+    /**
+     * Map a snapshot file for reading.
+     *
+     * @param file Snapshot written by {@link #write}
+     * @return Mapped catalog
+     * @throws IOException If the file is missing or not a valid snapshot
+     */
+    public static POISnapshotFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new POISnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write a catalog to a snapshot file, building its indexes with the
+     * default neighbour settings.
+     *
+     * @param pois Catalog contents
+     * @param watermark Newest updated_at included (or null)
+     * @param file Target file
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(List<POI> pois, Timestamp watermark, Path file) throws IOException {
+        POINeighbourIndex neighbours = POINeighbourIndex.build(new SpatialGridIndex(pois),
+            POINeighbourIndex.DEFAULT_CAP_METERS, POINeighbourIndex.DEFAULT_MAX_NEIGHBOURS);
+        write(pois, neighbours, watermark, file);
+    }
+
+    /**
+     * Write a catalog and its neighbour lists to a snapshot file.
+     * The file is written next to the target and moved into place, so a
+     * reader never maps a partially written snapshot.
+     *
+     * @param pois Catalog contents
+     * @param neighbours Neighbour lists for the catalog, in the same order
+     * @param watermark Newest updated_at included (or null)
+     * @param file Target file
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(List<POI> pois, POINeighbourIndex neighbours, Timestamp watermark, Path file)
+            throws IOException {
+        int n = pois.size();
+        if (neighbours.size() != n) {
+            throw new IllegalArgumentException("Neighbour lists cover " + neighbours.size() + " POIs, not " + n);
+        }
+        Map<String, Integer> stringRefs = new HashMap<>();
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        DataOutputStream strings = new DataOutputStream(stringBytes);
+        List<Integer> tagRefs = new ArrayList<>();
+        Map<String, Integer> indexById = new HashMap<>(n * 2);
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+
+        ByteBuffer records = ByteBuffer.allocate(n * RECORD_SIZE);
+        for (int i = 0; i < n; i++) {
+            POI poi = pois.get(i);
+            LatLng loc = poi.getLocation();
+            int flags = (poi.isOpenNow() ? FLAG_OPEN_NOW : 0) | (loc != null ? FLAG_HAS_LOCATION : 0);
+            List<String> tags = poi.getTags() != null ? poi.getTags() : new ArrayList<>();
+            latitudes[i] = loc != null ? loc.getLatitude() : Double.NaN;
+            longitudes[i] = loc != null ? loc.getLongitude() : Double.NaN;
+            indexById.put(poi.getId(), i);
+
+            records.putDouble(latitudes[i]);
+            records.putDouble(longitudes[i]);
+            records.putFloat(poi.getRating());
+            records.putInt(stringRef(poi.getId(), stringRefs, strings));
+            records.putInt(stringRef(poi.getName(), stringRefs, strings));
+            records.putInt(stringRef(poi.getCategory(), stringRefs, strings));
+            records.putInt(stringRef(poi.getPriceLevel(), stringRefs, strings));
+            records.putInt(stringRef(poi.getAddress(), stringRefs, strings));
+            records.putInt(tagRefs.size());
+            records.putShort((short) Math.min(tags.size(), Short.MAX_VALUE));
+            records.put((byte) flags);
+            records.put((byte) 0);
+            for (int t = 0; t < Math.min(tags.size(), Short.MAX_VALUE); t++) {
+                tagRefs.add(stringRef(tags.get(t), stringRefs, strings));
+            }
+        }
+        strings.flush();
+        SpatialGridIndex grid = new SpatialGridIndex(latitudes, longitudes, SpatialGridIndex.DEFAULT_CELL_SIZE_METERS);
+
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            // Header last, once the section offsets are known
+            out.write(new byte[HEADER_SIZE]);
+            out.write(records.array());
+            for (int ref : tagRefs) {
+                out.writeInt(ref);
+            }
+            long stringTableOffset = out.size();
+            stringBytes.writeTo(out);
+            long gridOffset = align(out);
+            grid.writeTo(out);
+            long neighboursOffset = align(out);
+            neighbours.writeTo(out);
+            long idIndexOffset = align(out);
+            writeIdIndex(indexById, out);
+            out.flush();
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IOException("Catalog too large for a single mapped snapshot");
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(n);
+            header.putInt(tagRefs.size());
+            header.putLong(watermark != null ? watermark.getTime() : -1);
+            header.putLong(stringTableOffset);
+            header.putLong(gridOffset);
+            header.putLong(neighboursOffset);
+            header.putLong(idIndexOffset);
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Pad the stream to a multiple of 8 bytes.
+     *
+     * @return Offset of the next section
+     */
+    private static long align(DataOutputStream out) throws IOException {
+        while (out.size() % 8 != 0) {
+            out.writeByte(0);
+        }
+        return out.size();
+    }
+
+    private static void writeIdIndex(Map<String, Integer> indexById, DataOutputStream out) throws IOException {
+        int capacity = 2;
+        while (capacity < indexById.size() * 2) {
+            capacity <<= 1;
+        }
+        int[] table = new int[capacity * 2];
+        for (int slot = 0; slot < capacity; slot++) {
+            table[slot * 2 + 1] = -1;
+        }
+        for (Map.Entry<String, Integer> entry : indexById.entrySet()) {
+            int hash = entry.getKey() != null ? entry.getKey().hashCode() : 0;
+            int slot = spread(hash) & (capacity - 1);
+            while (table[slot * 2 + 1] >= 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot * 2] = hash;
+            table[slot * 2 + 1] = entry.getValue();
+        }
+        out.writeInt(capacity);
+        out.writeInt(0);
+        for (int value : table) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int stringRef(String value, Map<String, Integer> refs, DataOutputStream out) throws IOException {
+        if (value == null) {
+            return -1;
+        }
+        Integer ref = refs.get(value);
+        if (ref == null) {
+            ref = out.size();
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            refs.put(value, ref);
+        }
+        return ref;
+    }
+
+    /**
+     * POI at an index, decoded from the mapping on first access.
+     */
+    @Override
+    public POI get(int index) {
+        POI poi = decoded.get(index);
+        if (poi == null) {
+            decoded.compareAndSet(index, null, decode(index));
+            poi = decoded.get(index);
+        }
+        return poi;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * POI at an index, decoded without caching it (unless it already is).
+     * For one pass over the whole catalog, such as rewriting the snapshot,
+     * so the pass does not leave every POI on the heap.
+     */
+    public POI read(int index) {
+        POI poi = decoded.get(index);
+        return poi != null ? poi : decode(index);
+    }
+
+    private POI decode(int index) {
+        int record = recordOffset(index);
+        int flags = buffer.get(record + 46);
+
+        POI poi = new POI();
+        poi.setId(string(buffer.getInt(record + 20)));
+        poi.setName(string(buffer.getInt(record + 24)));
+        poi.setCategory(string(buffer.getInt(record + 28)));
+        if ((flags & FLAG_HAS_LOCATION) != 0) {
+            poi.setLocation(new LatLng(buffer.getDouble(record), buffer.getDouble(record + 8)));
+        }
+        poi.setRating(buffer.getFloat(record + 16));
+        poi.setPriceLevel(string(buffer.getInt(record + 32)));
+        poi.setAddress(string(buffer.getInt(record + 36)));
+        poi.setOpenNow((flags & FLAG_OPEN_NOW) != 0);
+
+        int firstTag = buffer.getInt(record + 40);
+        int tagCount = buffer.getShort(record + 44);
+        List<String> tags = new ArrayList<>(tagCount);
+        for (int t = 0; t < tagCount; t++) {
+            tags.add(string(buffer.getInt(tagRefsOffset + (firstTag + t) * 4)));
+        }
+        poi.setTags(tags);
+        return poi;
+    }
+
+    private String string(int ref) {
+        if (ref < 0) {
+            return null;
+        }
+        int offset = stringTableOffset + ref;
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int recordOffset(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("POI index " + index + " of " + count);
+        }
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    /**
+     * ID of the POI at an index, without decoding the rest of the record.
+     */
+    public String id(int index) {
+        return string(buffer.getInt(recordOffset(index) + 20));
+    }
+
+    /**
+     * Index of the POI with an ID, or -1 if there is none.
+     * Probes the stored ID index; only candidates whose hash matches are decoded.
+     */
+    public int indexOf(String poiId) {
+        if (poiId == null) {
+            return -1;
+        }
+        int hash = poiId.hashCode();
+        int mask = idCapacity - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = idIndexOffset + 8 + slot * 8;
+            int index = buffer.getInt(entry + 4);
+            if (index < 0) {
+                return -1;
+            }
+            if (buffer.getInt(entry) == hash && poiId.equals(id(index))) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Spatial grid stored with the catalog.
+     */
+    public SpatialGridIndex spatialIndex() {
+        return SpatialGridIndex.read(buffer, gridOffset);
+    }
+
+    /**
+     * Neighbour lists stored with the catalog, read in place from the mapping.
+     */
+    public POINeighbourIndex neighbourIndex() {
+        return POINeighbourIndex.map(buffer, neighboursOffset);
+    }
+
+    /**
+     * Newest updated_at included in the snapshot (or null if unknown).
+     * Delta refreshes continue from here.
+     */
+    public Timestamp getWatermark() {
+        return watermarkMillis >= 0 ? new Timestamp(watermarkMillis) : null;
+    }
+}
@@ -1,9 +1,24 @@
 package service;
 
 import domain.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Real implementation of Places Service using MySQL database.
@@ -15,15 +30,98 @@ import java.util.List;
  */
 public class PlacesService implements IPlacesService {
 
-    private List<POI> allPOIs;
+    private static final Log LOG = Log.get(PlacesService.class);
+
+    private static final LatencyHistogram SEARCH_LATENCY = MetricsRegistry.shared().histogram("places.search");
+    private static final LatencyHistogram ROUTE_SEARCH_LATENCY =
+        MetricsRegistry.shared().histogram("places.searchAlongRoute");
+    private static final LongAdder SEARCH_RESULTS = MetricsRegistry.shared().counter("places.search.results");
+
+    // Current catalog and its indexes; replaced wholesale on refresh
+    private volatile CatalogSnapshot catalog;
     private DatabaseConnection dbConnection;
+    private double neighbourCapMeters = POINeighbourIndex.DEFAULT_CAP_METERS;
+
+    // updated_at is TIMESTAMP(3), but a row can commit after a newer one was
+    // read, so each delta refresh re-reads this far behind the watermark
+    public static final long WATERMARK_OVERLAP_MILLIS = 5000;
+
+    // Newest updated_at seen so far; delta refreshes fetch only rows after it
+    private Timestamp watermark;
+    // Rows applied within the overlap window (poi_id -> updated_at and content
+    // hash), so re-reads are skipped but a second change in the same
+    // millisecond is not
+    private final Map<String, RowVersion> recentlyApplied = new HashMap<>();
+    private ScheduledExecutorService refresher;
+
+    // Snapshot the service started from; rewritten once refreshes have changed the catalog
+    public static final long DEFAULT_SNAPSHOT_REWRITE_MILLIS = 10 * 60 * 1000;
+    private Path snapshotFile;
+    private long snapshotRewriteMillis = DEFAULT_SNAPSHOT_REWRITE_MILLIS;
+    private long snapshotWrittenAt;
+    private int changesSinceSnapshot;
 
     public PlacesService() {
-        this.dbConnection = DatabaseConnection.getInstance();
+        this.dbConnection = ConnectionPool.shared();
 
         // Load POIs from database
-        this.allPOIs = loadPOIsFromDatabase();
-        System.out.println("✓ PlacesService initialized with " + allPOIs.size() + " POIs from database");
+        this.catalog = CatalogSnapshot.build(loadPOIsFromDatabase(), null, neighbourCapMeters);
+        LOG.info("✓ PlacesService initialized with " + catalog.size() + " POIs from database");
+        registerGauges();
+    }
+
+    /**
+     * Start from a memory-mapped snapshot file, using the database only for deltas.
+     * The file holds the catalog's indexes too, so startup only maps it.
+     * If the snapshot is missing or unreadable, loads from the database and
+     * writes a new snapshot for the next start. Delta refreshes rewrite the
+     * file once they have changed the catalog (see {@link #setSnapshotRewriteMillis}).
+     *
+     * @param snapshotFile Binary catalog written by {@link #writeSnapshot}
+     */
+    public PlacesService(Path snapshotFile) {
+        this.dbConnection = ConnectionPool.shared();
+        this.snapshotFile = snapshotFile;
+
+        POISnapshotFile mapped = null;
+        if (Files.isReadable(snapshotFile)) {
+            try {
+                mapped = POISnapshotFile.open(snapshotFile);
+            } catch (IOException e) {
+                LOG.warn("⚠️ Could not open POI snapshot: " + e.getMessage());
+            }
+        }
+
+        if (mapped != null) {
+            this.catalog = CatalogSnapshot.build(mapped, null, neighbourCapMeters);
+            this.watermark = mapped.getWatermark();
+            LOG.info("✓ PlacesService mapped " + catalog.size() + " POIs from " + snapshotFile);
+        } else {
+            this.catalog = CatalogSnapshot.build(loadPOIsFromDatabase(), null, neighbourCapMeters);
+            LOG.info("✓ PlacesService initialized with " + catalog.size() + " POIs from database");
+            writeSnapshot(snapshotFile);
+        }
+        this.snapshotWrittenAt = System.currentTimeMillis();
+        registerGauges();
+    }
+
+    /**
+     * Create a service over an in-memory catalog (no database).
+     * Useful for tests, demos and generated catalogs.
+     *
+     * @param pois POI catalog
+     */
+    public PlacesService(List<POI> pois) {
+        this.catalog = CatalogSnapshot.build(pois, null, neighbourCapMeters);
+        LOG.info("✓ PlacesService initialized with " + catalog.size() + " POIs");
+        registerGauges();
+    }
+
+    /**
+     * Publish catalog gauges (the most recently created service wins).
+     */
+    private void registerGauges() {
+        MetricsRegistry.shared().gauge("places.catalog.size", () -> catalog.size());
     }
 
     /**
@@ -34,77 +132,94 @@ public class PlacesService implements IPlacesService {
     private List<POI> loadPOIsFromDatabase() {
         List<POI> pois = new ArrayList<>();
 
-        String sql = "SELECT poi_id, name, category, latitude, longitude, rating, " +
-                     "price_level, tags, open_now, address FROM pois";
-
-        try (Connection conn = dbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                POI poi = new POI();
-                poi.setId(rs.getString("poi_id"));
-                poi.setName(rs.getString("name"));
-                poi.setCategory(rs.getString("category"));
-
-                // Create LatLng
-                double lat = rs.getDouble("latitude");
-                double lng = rs.getDouble("longitude");
-                poi.setLocation(new LatLng(lat, lng));
-
-                poi.setRating(rs.getFloat("rating"));
-                poi.setPriceLevel(rs.getString("price_level"));
-                poi.setOpenNow(rs.getBoolean("open_now"));
-                poi.setAddress(rs.getString("address"));
-
-                // Parse tags JSON array
-                String tagsJson = rs.getString("tags");
-                if (tagsJson != null) {
-                    List<String> tags = parseJsonArray(tagsJson);
-                    poi.setTags(tags);
-                }
-
-                pois.add(poi);
-            }
-
+        try (Connection conn = dbConnection.getConnection()) {
+            POILoader loader = new POILoader();
+            pois = loader.loadAll(conn);
+            this.watermark = loader.getNewestUpdate();
         } catch (SQLException e) {
-            System.err.println("❌ Error loading POIs from database: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("❌ Error loading POIs from database: " + e.getMessage(), e);
         }
 
         return pois;
     }
 
     /**
-     * Parse JSON array string to List<String>.
-     * Simple parser for format: ["tag1", "tag2", "tag3"]
+     * Map the current result set row to a POI.
      */
-    private List<String> parseJsonArray(String json) {
-        List<String> list = new ArrayList<>();
+    private POI readPOI(ResultSet rs) throws SQLException {
+        POI poi = new POI();
+        poi.setId(rs.getString("poi_id"));
+        poi.setName(rs.getString("name"));
+        poi.setCategory(rs.getString("category"));
+
+        // Create LatLng
+        double lat = rs.getDouble("latitude");
+        double lng = rs.getDouble("longitude");
+        poi.setLocation(new LatLng(lat, lng));
+
+        poi.setRating(rs.getFloat("rating"));
+        poi.setPriceLevel(rs.getString("price_level"));
+        poi.setOpenNow(rs.getBoolean("open_now"));
+        poi.setAddress(rs.getString("address"));
+
+        // Parse tags JSON array
+        String tagsJson = rs.getString("tags");
+        if (tagsJson != null) {
+            List<String> tags = POILoader.parseStoredTags(poi.getId(), tagsJson);
+            poi.setTags(tags);
+        }
+
+        return poi;
+    }
+
+    /**
+     * Hash of a changed row's contents.
+     */
+    private static int rowHash(ResultSet rs) throws SQLException {
+        return Objects.hash(rs.getString("name"), rs.getString("category"), rs.getDouble("latitude"),
+                            rs.getDouble("longitude"), rs.getFloat("rating"), rs.getString("price_level"),
+                            rs.getString("tags"), rs.getBoolean("open_now"), rs.getString("address"),
+                            rs.getBoolean("deleted"));
+    }
 
-        if (json == null || json.trim().isEmpty() || json.equals("[]")) {
-            return list;
+    /**
+     * A version of a POI row as read by a delta refresh.
+     */
+    private static final class RowVersion {
+        final Timestamp updatedAt;
+        final int contentHash;
+
+        RowVersion(Timestamp updatedAt, int contentHash) {
+            this.updatedAt = updatedAt;
+            this.contentHash = contentHash;
         }
 
-        // Remove brackets and quotes, split by comma
-        String cleaned = json.replace("[", "").replace("]", "").replace("\"", "").trim();
-        if (!cleaned.isEmpty()) {
-            String[] items = cleaned.split(",\\s*");
-            for (String item : items) {
-                if (!item.trim().isEmpty()) {
-                    list.add(item.trim());
-                }
-            }
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RowVersion)) return false;
+            RowVersion other = (RowVersion) o;
+            return contentHash == other.contentHash && Objects.equals(updatedAt, other.updatedAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(updatedAt, contentHash);
         }
+    }
 
-        return list;
+    private static Timestamp later(Timestamp a, Timestamp b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.after(a) ? b : a;
     }
 
     /**
      * Search for places near coordinates matching user preferences.
      * Filters by:
+     * - Radius (distance from user location, via the spatial index)
      * - Interests (category matching)
-     * - Radius (distance from user location)
+     * - Budget (price level)
      *
      * @param coords User location
      * @param prefs User preferences (interests, radius)
@@ -112,95 +227,240 @@ public class PlacesService implements IPlacesService {
      */
     @Override
     public List<POI> searchPlaces(LatLng coords, Preferences prefs) {
+        long start = System.nanoTime();
+        Tracer.Span span = Tracer.startSpan("PlacesService.searchPlaces");
+        FlightEvents.Search event = new FlightEvents.Search();
+        event.begin();
+        try {
+            // Read the catalog once: a concurrent refresh must not change it mid-search
+            CatalogSnapshot snapshot = catalog;
+            int[] nearby = findNearby(snapshot, coords, prefs);
+            List<POI> results = filterPlaces(snapshot, nearby, prefs);
+            SEARCH_RESULTS.add(results.size());
+            if (event.shouldCommit()) {
+                event.traceId = Tracer.currentTraceId();
+                event.catalogSize = snapshot.size();
+                event.candidates = nearby.length;
+                event.radius = prefs != null ? prefs.getRadius() : 0;
+                event.interests = prefs != null && prefs.getInterests() != null ? prefs.getInterests().size() : 0;
+                event.budget = prefs != null ? prefs.getBudget() : null;
+                event.results = results.size();
+                event.commit();
+            }
+            if (span.isSampled()) {
+                span.setAttribute("catalogSize", snapshot.size())
+                    .setAttribute("radius", prefs != null ? prefs.getRadius() : 0)
+                    .setAttribute("results", results.size());
+            }
+            return results;
+        } finally {
+            span.end();
+            SEARCH_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Filter 1: Radius - only POIs in grid cells near the user are examined.
+     *
+     * @return Catalog indexes within the radius, in catalog order
+     */
+    private static int[] findNearby(CatalogSnapshot snapshot, LatLng coords, Preferences prefs) {
         if (coords == null || prefs == null) {
-            return new ArrayList<>();
+            return new int[0];
         }
+        int radiusMeters = prefs.getRadius();
+        LOG.debug(() -> "Searching for POIs near " + coords + " (interests: " + prefs.getInterests() +
+                        ", budget: " + prefs.getBudget() + ", radius: " + radiusMeters + "m)");
 
+        int[] nearby = snapshot.getSpatialIndex().withinRadius(coords.getLatitude(), coords.getLongitude(), radiusMeters);
+        Arrays.sort(nearby); // keep catalog order
+        return nearby;
+    }
+
+    private List<POI> filterPlaces(CatalogSnapshot snapshot, int[] nearby, Preferences prefs) {
         List<POI> results = new ArrayList<>();
+        if (prefs == null) {
+            return results;
+        }
 
         // Get user interests (e.g., ["restaurants", "museums"])
         List<String> interests = prefs.getInterests();
-        int radiusMeters = prefs.getRadius();
         String budget = prefs.getBudget(); // "low", "medium", "high"
+        InterestMatcher matcher = new InterestMatcher(interests);
+
+        for (int index : nearby) {
+            POI poi = snapshot.get(index);
+
+            // Filter 2: Check if POI category matches any user interest
+            if (!matcher.matches(poi)) {
+                continue; // Skip this POI
+            }
+
+            // Filter 3: Check budget match (if specified)
+            if (!matchesBudget(poi, budget)) {
+                continue; // Doesn't match budget
+            }
+
+            // POI matches all filters - add to results
+            results.add(poi);
+        }
+
+        LOG.debug(() -> "Found " + results.size() + " matching POIs");
+        return results;
+    }
+
+    /**
+     * Search for places along the straight path between two points.
+     * Only the spatial-index cells covering the corridor are visited; results
+     * are ranked by the detour they add to the direct trip.
+     *
+     * A POI P qualifies if d(origin, P) + d(P, destination) - d(origin, destination)
+     * is at most maxDetourMeters. Such points lie in an ellipse around the path,
+     * so the corridor is the path buffered by the ellipse's semi-minor axis.
+     *
+     * @param origin Start of the trip
+     * @param destination End of the trip
+     * @param prefs User preferences (interests, budget; radius is ignored)
+     * @param maxDetourMeters Maximum added distance
+     * @return Matching POIs, smallest detour first
+     */
+    @Override
+    public List<POI> searchAlongRoute(LatLng origin, LatLng destination, Preferences prefs, double maxDetourMeters) {
+        long start = System.nanoTime();
+        try {
+            return findAlongRoute(origin, destination, prefs, maxDetourMeters);
+        } finally {
+            ROUTE_SEARCH_LATENCY.recordSince(start);
+        }
+    }
 
-        System.out.println("Searching for POIs near " + coords);
-        System.out.println("  Interests: " + interests);
-        System.out.println("  Budget: " + budget);
-        System.out.println("  Radius: " + radiusMeters + "m");
+    private List<POI> findAlongRoute(LatLng origin, LatLng destination, Preferences prefs, double maxDetourMeters) {
+        if (origin == null || destination == null || prefs == null || maxDetourMeters < 0) {
+            return new ArrayList<>();
+        }
+
+        List<String> interests = prefs.getInterests();
+        String budget = prefs.getBudget();
+
+        double directMeters = calculateDistance(origin, destination);
+        double bufferMeters = Math.sqrt((2 * directMeters * maxDetourMeters + maxDetourMeters * maxDetourMeters) / 4);
+
+        LOG.debug(() -> "Searching for POIs between " + origin + " and " + destination + " (interests: " +
+                        interests + ", max detour: " + String.format("%.0f", maxDetourMeters) + "m)");
+
+        CatalogSnapshot snapshot = catalog;
+        SpatialGridIndex grid = snapshot.getSpatialIndex();
+        List<POI> results = new ArrayList<>();
+        Map<POI, Double> detours = new HashMap<>();
+        InterestMatcher matcher = new InterestMatcher(interests);
+
+        grid.forEachInCorridor(origin.getLatitude(), origin.getLongitude(),
+                               destination.getLatitude(), destination.getLongitude(), bufferMeters, i -> {
+            POI poi = snapshot.get(i);
+            double detour = calculateDistance(origin, poi.getLocation()) +
+                            calculateDistance(poi.getLocation(), destination) - directMeters;
+            if (detour <= maxDetourMeters && matcher.matches(poi) && matchesBudget(poi, budget)) {
+                results.add(poi);
+                detours.put(poi, detour);
+            }
+        });
+
+        results.sort((a, b) -> Double.compare(detours.get(a), detours.get(b)));
+        LOG.debug(() -> "Found " + results.size() + " matching POIs along the route");
+        return results;
+    }
+
+    /**
+     * Check if POI category or tags match any user interest.
+     * No interests means everything matches.
+     *
+     * Categories and tags are symbol ids, so the string comparison is done
+     * once per distinct symbol per search and remembered, instead of once
+     * per POI.
+     */
+    private static final class InterestMatcher {
+        private static final byte UNKNOWN = 0;
+        private static final byte MATCH = 1;
+        private static final byte NO_MATCH = 2;
+
+        private final List<String> normalized = new ArrayList<>();
+        private final byte[] memo = new byte[SymbolTable.shared().size()];
 
-        for (POI poi : allPOIs) {
-            // Filter 1: Check if POI category matches any user interest
-            boolean matchesInterest = false;
-            if (interests != null && !interests.isEmpty()) {
+        InterestMatcher(List<String> interests) {
+            if (interests != null) {
                 for (String interest : interests) {
                     // Normalize: "restaurants" -> "restaurant", "museums" -> "museum"
-                    String normalized = interest.toLowerCase().replaceAll("s$", "");
-                    String poiCategory = poi.getCategory().toLowerCase();
+                    normalized.add(interest.toLowerCase().replaceAll("s$", ""));
+                }
+            }
+        }
 
-                    if (poiCategory.contains(normalized) || normalized.contains(poiCategory)) {
-                        matchesInterest = true;
-                        break;
-                    }
+        boolean matches(POI poi) {
+            if (normalized.isEmpty()) {
+                return true;
+            }
+            if (symbolMatches(poi.getCategoryId())) {
+                return true;
+            }
 
-                    // Also check tags
-                    if (poi.getTags() != null) {
-                        for (String tag : poi.getTags()) {
-                            if (tag.toLowerCase().contains(normalized) ||
-                                normalized.contains(tag.toLowerCase())) {
-                                matchesInterest = true;
-                                break;
-                            }
-                        }
+            // Also check tags
+            int[] tags = poi.getTagIds();
+            if (tags != null) {
+                for (int tag : tags) {
+                    if (symbolMatches(tag)) {
+                        return true;
                     }
                 }
-            } else {
-                // No interests specified - include all
-                matchesInterest = true;
             }
+            return false;
+        }
 
-            if (!matchesInterest) {
-                continue; // Skip this POI
+        private boolean symbolMatches(int symbol) {
+            if (symbol < 0) {
+                return false;
             }
-
-            // Filter 2: Check if POI is within radius
-            double distance = calculateDistance(coords, poi.getLocation());
-            if (distance > radiusMeters) {
-                continue; // Too far away
+            // Symbols added after this search started are not memoized
+            if (symbol < memo.length && memo[symbol] != UNKNOWN) {
+                return memo[symbol] == MATCH;
             }
 
-            // Filter 3: Check budget match (if specified)
-            if (budget != null && !budget.isEmpty() && poi.getPriceLevel() != null) {
-                boolean matchesBudget = false;
-
-                switch (budget.toLowerCase()) {
-                    case "low":
-                        // Low budget: $ only
-                        matchesBudget = poi.getPriceLevel().equals("$");
-                        break;
-                    case "medium":
-                        // Medium budget: $ or $$
-                        matchesBudget = poi.getPriceLevel().equals("$") ||
-                                       poi.getPriceLevel().equals("$$");
-                        break;
-                    case "high":
-                        // High budget: any price level ($, $$, $$$, $$$$)
-                        matchesBudget = true;
-                        break;
-                    default:
-                        matchesBudget = true; // Unknown budget, don't filter
-                }
-
-                if (!matchesBudget) {
-                    continue; // Doesn't match budget
+            String value = SymbolTable.shared().name(symbol).toLowerCase();
+            boolean match = false;
+            for (String interest : normalized) {
+                if (value.contains(interest) || interest.contains(value)) {
+                    match = true;
+                    break;
                 }
             }
+            if (symbol < memo.length) {
+                memo[symbol] = match ? MATCH : NO_MATCH;
+            }
+            return match;
+        }
+    }
 
-            // POI matches all filters - add to results
-            results.add(poi);
+    /**
+     * Check if POI price level fits the user's budget (if specified).
+     */
+    private boolean matchesBudget(POI poi, String budget) {
+        if (budget == null || budget.isEmpty() || poi.getPriceLevel() == null) {
+            return true;
         }
 
-        System.out.println("  Found " + results.size() + " matching POIs");
-        return results;
+        switch (budget.toLowerCase()) {
+            case "low":
+                // Low budget: $ only
+                return poi.getPriceLevel().equals("$");
+            case "medium":
+                // Medium budget: $ or $$
+                return poi.getPriceLevel().equals("$") ||
+                       poi.getPriceLevel().equals("$$");
+            case "high":
+                // High budget: any price level ($, $$, $$$, $$$$)
+                return true;
+            default:
+                return true; // Unknown budget, don't filter
+        }
     }
 
     /**
@@ -212,10 +472,10 @@ public class PlacesService implements IPlacesService {
      */
     @Override
     public LatLng geocode(String address) {
-        System.out.println("Geocoding address: " + address);
+        LOG.debug(() -> "Geocoding address: " + address);
         // Toronto downtown
         LatLng coords = new LatLng(43.6532, -79.3832);
-        System.out.println("  Returning Toronto downtown: " + coords);
+        LOG.debug(() -> "Returning Toronto downtown: " + coords);
         return coords;
     }
 
@@ -244,12 +504,277 @@ public class PlacesService implements IPlacesService {
         return distanceKm * 1000; // Convert to meters
     }
 
+    /**
+     * Find the POIs closest to a given POI (precomputed, within the neighbour cap).
+     *
+     * @param poiId ID of the POI to search around
+     * @param maxResults Maximum number of neighbours
+     * @return Neighbours sorted by distance (nearest first)
+     */
+    @Override
+    public List<POI> findNeighbours(String poiId, int maxResults) {
+        List<POI> results = new ArrayList<>();
+        CatalogSnapshot snapshot = catalog;
+        int index = snapshot.indexOf(poiId);
+        if (index < 0) {
+            return results;
+        }
+
+        POINeighbourIndex neighbours = snapshot.getNeighbourIndex();
+        int count = Math.min(maxResults, neighbours.neighbourCount(index));
+        for (int k = 0; k < count; k++) {
+            results.add(snapshot.get(neighbours.neighbour(index, k)));
+        }
+        return results;
+    }
+
+    /**
+     * Look up a POI in the current catalog by ID.
+     *
+     * @param poiId ID of the POI
+     * @return The POI, or null if it is not in the catalog
+     */
+    @Override
+    public POI getPlace(String poiId) {
+        CatalogSnapshot snapshot = catalog;
+        int index = snapshot.indexOf(poiId);
+        return index >= 0 ? snapshot.get(index) : null;
+    }
+
+    /**
+     * Set the maximum neighbour distance and rebuild the neighbour lists.
+     *
+     * @param capMeters Maximum distance between a POI and its neighbours
+     */
+    public synchronized void setNeighbourCapMeters(double capMeters) {
+        this.neighbourCapMeters = capMeters;
+        this.catalog = CatalogSnapshot.build(catalog.getPOIs(), null, capMeters);
+    }
+
+    public POINeighbourIndex getNeighbourIndex() {
+        return catalog.getNeighbourIndex();
+    }
+
+    /**
+     * Get the current catalog snapshot (immutable).
+     */
+    public CatalogSnapshot getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Replace the catalog with new contents.
+     * The new snapshot and its indexes are built off to the side and then
+     * published with a single volatile write, so in-flight searches keep
+     * using the old snapshot and readers never block.
+     *
+     * @param pois New catalog contents
+     */
+    public synchronized void replaceCatalog(List<POI> pois) {
+        CatalogSnapshot next = CatalogSnapshot.build(pois, catalog, neighbourCapMeters);
+        this.catalog = next;
+    }
+
     /**
      * Reload POIs from database.
      * Call this to refresh data if database is updated.
+     * Prefer {@link #refreshChangedPOIs()}, which only fetches changed rows.
      */
-    public void refreshPOIs() {
-        this.allPOIs = loadPOIsFromDatabase();
-        System.out.println("✓ POIs refreshed from database: " + allPOIs.size() + " total");
+    public synchronized void refreshPOIs() {
+        if (dbConnection == null) {
+            LOG.warn("⚠️ In-memory catalog: nothing to refresh");
+            return;
+        }
+        replaceCatalog(loadPOIsFromDatabase());
+        LOG.info("✓ POIs refreshed from database: " + catalog.size() + " total");
+    }
+
+    /**
+     * Fetch only the rows changed since the last watermark and apply them.
+     * Deleted POIs are tombstoned (deleted = TRUE) rather than removed, so
+     * they show up here like any other change.
+     *
+     * The query starts WATERMARK_OVERLAP_MILLIS before the watermark, so a
+     * row committed late with an updated_at at or before it is still
+     * picked up; rows already applied with the same updated_at and the same
+     * contents are skipped.
+     *
+     * @return Number of catalog entries added, replaced or removed
+     */
+    public synchronized int refreshChangedPOIs() {
+        if (dbConnection == null) {
+            return 0;
+        }
+
+        Timestamp newest = watermark != null ? watermark : new Timestamp(0);
+        Timestamp since = new Timestamp(Math.max(0, newest.getTime() - WATERMARK_OVERLAP_MILLIS));
+        Map<String, RowVersion> applied = new HashMap<>();
+        Map<String, POI> upserts = new LinkedHashMap<>();
+        Set<String> deletedIds = new HashSet<>();
+
+        String sql = "SELECT poi_id, name, category, latitude, longitude, rating, " +
+                     "price_level, tags, open_now, address, updated_at, deleted " +
+                     "FROM pois WHERE updated_at >= ? ORDER BY updated_at";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, since);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // Rows arrive oldest first, so a later change to the same POI wins
+                    String id = rs.getString("poi_id");
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    RowVersion version = new RowVersion(updatedAt, rowHash(rs));
+                    applied.put(id, version);
+                    if (updatedAt != null && version.equals(recentlyApplied.get(id))) {
+                        // Already applied by an earlier refresh (overlap re-read)
+                        continue;
+                    }
+                    if (rs.getBoolean("deleted")) {
+                        upserts.remove(id);
+                        deletedIds.add(id);
+                    } else {
+                        upserts.put(id, readPOI(rs));
+                        deletedIds.remove(id);
+                    }
+                    newest = later(newest, updatedAt);
+                }
+            }
+
+        } catch (SQLException e) {
+            LOG.error("❌ Error loading POI changes: " + e.getMessage());
+            return 0;
+        }
+
+        int changes = applyChanges(upserts.values(), deletedIds);
+        this.watermark = newest;
+        // Only rows still inside the next refresh's overlap window can be re-read
+        long keepFrom = newest.getTime() - WATERMARK_OVERLAP_MILLIS;
+        recentlyApplied.clear();
+        applied.forEach((id, version) -> {
+            if (version.updatedAt != null && version.updatedAt.getTime() >= keepFrom) {
+                recentlyApplied.put(id, version);
+            }
+        });
+        if (snapshotFile != null && changesSinceSnapshot > 0 &&
+                System.currentTimeMillis() - snapshotWrittenAt >= snapshotRewriteMillis) {
+            rewriteSnapshot();
+        }
+        return changes;
+    }
+
+    /**
+     * Apply added/updated and deleted POIs to the catalog.
+     * The changes are layered over the current catalog: unchanged POIs are
+     * not touched (nor decoded, for a mapped snapshot), changed ones keep
+     * their position, and the neighbour index only recomputes lists around
+     * the changed locations.
+     *
+     * @param upserts New or replaced POIs
+     * @param deletedIds IDs of POIs to remove
+     * @return Number of catalog entries added, replaced or removed
+     */
+    public synchronized int applyChanges(Collection<POI> upserts, Collection<String> deletedIds) {
+        CatalogSnapshot current = catalog;
+        Set<String> removed = new HashSet<>();
+        for (String id : deletedIds) {
+            if (current.indexOf(id) >= 0) {
+                removed.add(id);
+            }
+        }
+        Map<String, POI> pending = new LinkedHashMap<>();
+        for (POI poi : upserts) {
+            if (!deletedIds.contains(poi.getId())) {
+                pending.put(poi.getId(), poi);
+            }
+        }
+
+        int changes = removed.size() + pending.size();
+        if (changes > 0) {
+            this.catalog = current.withChanges(pending.values(), removed);
+            this.changesSinceSnapshot += changes;
+            LOG.info("✓ Applied " + changes + " POI changes: " + catalog.size() + " total");
+        }
+        return changes;
+    }
+
+    /**
+     * Write the current catalog and watermark to a snapshot file.
+     * A later start can map it and fetch only the rows changed since.
+     *
+     * @param snapshotFile Target file
+     * @return true if written
+     */
+    public synchronized boolean writeSnapshot(Path snapshotFile) {
+        try {
+            catalog.write(watermark, snapshotFile);
+            LOG.info("✓ POI snapshot written: " + snapshotFile);
+            return true;
+        } catch (IOException e) {
+            LOG.error("❌ Error writing POI snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Fold the changes applied since startup into the snapshot file and
+     * serve from the new mapping. The file is replaced atomically, so the
+     * next start maps it and only replays the rows changed after it; the
+     * overlay of applied changes is dropped with the old catalog.
+     */
+    private void rewriteSnapshot() {
+        snapshotWrittenAt = System.currentTimeMillis();
+        if (!writeSnapshot(snapshotFile)) {
+            // Keep serving the overlay; the next refresh after the interval tries again
+            return;
+        }
+        try {
+            catalog = CatalogSnapshot.build(POISnapshotFile.open(snapshotFile), null, neighbourCapMeters);
+            changesSinceSnapshot = 0;
+        } catch (IOException e) {
+            LOG.warn("⚠️ Could not map the rewritten POI snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Set how long after the last snapshot write a refresh that changed the
+     * catalog rewrites the snapshot file (0 = after every such refresh).
+     *
+     * @param millis Minimum time between rewrites
+     */
+    public synchronized void setSnapshotRewriteMillis(long millis) {
+        this.snapshotRewriteMillis = millis;
+    }
+
+    /**
+     * Run delta refreshes in the background.
+     * The first refresh runs immediately, so a catalog started from an older
+     * snapshot catches up without delaying startup.
+     *
+     * @param periodSeconds Delay between refreshes
+     */
+    public synchronized void startAutoRefresh(long periodSeconds) {
+        stopAutoRefresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "poi-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refreshChangedPOIs();
+            } catch (RuntimeException e) {
+                // Keep the schedule alive; the next run retries from the same watermark
+                LOG.error("❌ POI refresh failed: " + e.getMessage());
+            }
+        }, 0, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopAutoRefresh() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
     }
 }
@@ -0,0 +1,460 @@
+package service;
+
+import domain.*;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable uniform-grid spatial index over a POI catalog.
+ *
+ * POIs are bucketed into square cells (cellSizeMeters on a side) and stored
+ * in primitive arrays sorted by cell key, so a radius query only touches the
+ * cells overlapping the search circle instead of scanning every POI.
+ * Results are POI indexes into the list the index was built from.
+ *
+ * An index can also be layered over another one with {@link #overlay}: a
+ * few catalog entries are replaced, removed or added without rebuilding
+ * the (possibly much larger) index below.
+ *
+ * @author CPS731 Team 20
+ */
+public class SpatialGridIndex {
+
+    public static final double DEFAULT_CELL_SIZE_METERS = 250.0;
+
+    private static final double EARTH_RADIUS_METERS = 6371000.0;
+    private static final double METERS_PER_DEGREE_LAT = 111320.0;
+
+    private final double cellSizeMeters;
+    private final double cellLatDegrees;
+    private final double cellLngDegrees;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    // Cell k covers entries[cellStart[k] .. cellStart[k+1]) and has key cellKeys[k]
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] entries;
+
+    // Layered index: own entry r is catalog index slots[r] and hides that
+    // index in below. All null for a plain index, where entry i is index i.
+    private final SpatialGridIndex below;
+    private final BitSet hidden;
+    private final int[] slots;
+    private final int size;
+
+    public SpatialGridIndex(List<POI> pois) {
+        this(pois, DEFAULT_CELL_SIZE_METERS);
+    }
+
+    public SpatialGridIndex(List<POI> pois, double cellSizeMeters) {
+        this(coordinates(pois, true), coordinates(pois, false), cellSizeMeters);
+    }
+
+    /**
+     * Build from coordinate arrays (NaN marks a POI without a location).
+     * Lets catalogs that already hold coordinates, such as a mapped snapshot
+     * file, be indexed without materializing POI objects.
+     *
+     * @param latitudes Latitude per POI index (not copied)
+     * @param longitudes Longitude per POI index (not copied)
+     * @param cellSizeMeters Grid cell size
+     */
+    public SpatialGridIndex(double[] latitudes, double[] longitudes, double cellSizeMeters) {
+        this(latitudes, longitudes, cellSizeMeters, cellLngDegrees(latitudes, cellSizeMeters), null, null, null);
+    }
+
+    private SpatialGridIndex(double[] latitudes, double[] longitudes, double cellSizeMeters, double cellLngDegrees,
+                             SpatialGridIndex below, BitSet hidden, int[] slots) {
+        int n = latitudes.length;
+        this.cellSizeMeters = cellSizeMeters;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.cellLatDegrees = cellSizeMeters / METERS_PER_DEGREE_LAT;
+        this.cellLngDegrees = cellLngDegrees;
+        this.below = below;
+        this.hidden = hidden;
+        this.slots = slots;
+        this.size = below == null ? n : Math.max(below.size(), n > 0 ? slots[n - 1] + 1 : 0);
+
+        int located = 0;
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(latitudes[i])) {
+                located++;
+            }
+        }
+
+        // Bucket located POIs by cell key (counting sort over the sorted distinct keys)
+        long[] pointKeys = new long[n];
+        long[] sortedKeys = new long[located];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(latitudes[i])) {
+                pointKeys[i] = key(cellX(longitudes[i]), cellY(latitudes[i]));
+                sortedKeys[k++] = pointKeys[i];
+            }
+        }
+        Arrays.sort(sortedKeys);
+
+        int cells = 0;
+        for (int i = 0; i < located; i++) {
+            if (i == 0 || sortedKeys[i] != sortedKeys[i - 1]) {
+                sortedKeys[cells++] = sortedKeys[i];
+            }
+        }
+        this.cellKeys = Arrays.copyOf(sortedKeys, cells);
+
+        int[] starts = new int[cells + 1];
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(latitudes[i])) {
+                starts[Arrays.binarySearch(cellKeys, pointKeys[i]) + 1]++;
+            }
+        }
+        for (int c = 0; c < cells; c++) {
+            starts[c + 1] += starts[c];
+        }
+        this.cellStart = starts;
+
+        this.entries = new int[located];
+        int[] fill = Arrays.copyOf(starts, cells);
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(latitudes[i])) {
+                entries[fill[Arrays.binarySearch(cellKeys, pointKeys[i])]++] = i;
+            }
+        }
+    }
+
+    private SpatialGridIndex(double cellSizeMeters, double cellLatDegrees, double cellLngDegrees,
+                             double[] latitudes, double[] longitudes,
+                             long[] cellKeys, int[] cellStart, int[] entries) {
+        this.cellSizeMeters = cellSizeMeters;
+        this.cellLatDegrees = cellLatDegrees;
+        this.cellLngDegrees = cellLngDegrees;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.cellKeys = cellKeys;
+        this.cellStart = cellStart;
+        this.entries = entries;
+        this.below = null;
+        this.hidden = null;
+        this.slots = null;
+        this.size = latitudes.length;
+    }
+
+    /**
+     * Cell width in longitude degrees, fixed at the catalog's mean latitude.
+     */
+    private static double cellLngDegrees(double[] latitudes, double cellSizeMeters) {
+        double latSum = 0;
+        int located = 0;
+        for (double lat : latitudes) {
+            if (!Double.isNaN(lat)) {
+                latSum += lat;
+                located++;
+            }
+        }
+        double refLat = located > 0 ? latSum / located : 0;
+        return cellSizeMeters / (METERS_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(refLat))));
+    }
+
+    /**
+     * Layer changed entries over this index without rebuilding it.
+     * The entries at the given catalog indexes replace the ones below (NaN
+     * coordinates remove them); indexes at or past size() are added. Only
+     * the changed entries are bucketed, on the same cells as this index.
+     *
+     * @param slots Changed catalog indexes, sorted ascending
+     * @param latitudes New latitude per changed index (NaN if removed or unlocated)
+     * @param longitudes New longitude per changed index
+     * @return Layered index
+     */
+    public SpatialGridIndex overlay(int[] slots, double[] latitudes, double[] longitudes) {
+        if (below != null) {
+            throw new IllegalStateException("Overlay a plain index, not a layered one");
+        }
+        BitSet hidden = new BitSet(size);
+        for (int slot : slots) {
+            if (slot < size) {
+                hidden.set(slot);
+            }
+        }
+        return new SpatialGridIndex(latitudes, longitudes, cellSizeMeters, cellLngDegrees, this, hidden, slots);
+    }
+
+    /**
+     * Write a plain index as a snapshot file section: cell size and cell
+     * degrees (doubles), POI, cell and entry counts (ints), then latitudes,
+     * longitudes, cell keys, cell starts and entries.
+     *
+     * @param out Target stream
+     * @return Number of bytes written
+     */
+    public long writeTo(DataOutputStream out) throws IOException {
+        if (below != null) {
+            throw new IllegalStateException("Only a plain index can be written");
+        }
+        int n = latitudes.length;
+        out.writeDouble(cellSizeMeters);
+        out.writeDouble(cellLatDegrees);
+        out.writeDouble(cellLngDegrees);
+        out.writeInt(n);
+        out.writeInt(cellKeys.length);
+        out.writeInt(entries.length);
+        for (double lat : latitudes) {
+            out.writeDouble(lat);
+        }
+        for (double lng : longitudes) {
+            out.writeDouble(lng);
+        }
+        for (long key : cellKeys) {
+            out.writeLong(key);
+        }
+        for (int start : cellStart) {
+            out.writeInt(start);
+        }
+        for (int entry : entries) {
+            out.writeInt(entry);
+        }
+        return 36 + n * 16L + cellKeys.length * 8L + (cellStart.length + entries.length) * 4L;
+    }
+
+    /**
+     * Read a section written by {@link #writeTo}. The arrays are bulk-copied
+     * out of the buffer, which costs about as much as reading the bytes.
+     *
+     * @param buffer Buffer holding the section (typically a mapped file)
+     * @param position Offset of the section in the buffer
+     * @return Plain index
+     */
+    public static SpatialGridIndex read(ByteBuffer buffer, int position) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(position);
+        double cellSizeMeters = in.getDouble();
+        double cellLatDegrees = in.getDouble();
+        double cellLngDegrees = in.getDouble();
+        int n = in.getInt();
+        int cells = in.getInt();
+        int located = in.getInt();
+
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        long[] cellKeys = new long[cells];
+        int[] cellStart = new int[cells + 1];
+        int[] entries = new int[located];
+        in.asDoubleBuffer().get(latitudes);
+        in.position(in.position() + n * 8);
+        in.asDoubleBuffer().get(longitudes);
+        in.position(in.position() + n * 8);
+        in.asLongBuffer().get(cellKeys);
+        in.position(in.position() + cells * 8);
+        in.asIntBuffer().get(cellStart);
+        in.position(in.position() + (cells + 1) * 4);
+        in.asIntBuffer().get(entries);
+        return new SpatialGridIndex(cellSizeMeters, cellLatDegrees, cellLngDegrees,
+                                    latitudes, longitudes, cellKeys, cellStart, entries);
+    }
+
+    private static double[] coordinates(List<POI> pois, boolean latitude) {
+        double[] values = new double[pois.size()];
+        for (int i = 0; i < values.length; i++) {
+            LatLng loc = pois.get(i).getLocation();
+            if (loc == null) {
+                values[i] = Double.NaN;
+            } else {
+                values[i] = latitude ? loc.getLatitude() : loc.getLongitude();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Find all POIs within a radius of a point.
+     *
+     * @param lat Latitude of the centre
+     * @param lng Longitude of the centre
+     * @param radiusMeters Search radius
+     * @return Indexes of POIs within the radius (unordered)
+     */
+    public int[] withinRadius(double lat, double lng, double radiusMeters) {
+        int[] result = ownWithinRadius(lat, lng, radiusMeters);
+        if (below == null) {
+            return result;
+        }
+        int[] under = below.withinRadius(lat, lng, radiusMeters);
+        int[] merged = Arrays.copyOf(result, result.length + under.length);
+        for (int r = 0; r < result.length; r++) {
+            merged[r] = slots[result[r]];
+        }
+        int count = result.length;
+        for (int j : under) {
+            if (!hidden.get(j)) {
+                merged[count++] = j;
+            }
+        }
+        return Arrays.copyOf(merged, count);
+    }
+
+    private int[] ownWithinRadius(double lat, double lng, double radiusMeters) {
+        int[] result = new int[16];
+        int count = 0;
+
+        double dLat = radiusMeters / METERS_PER_DEGREE_LAT;
+        double dLng = longitudeSpan(lat, dLat, radiusMeters);
+        int minX = cellX(lng - dLng);
+        int maxX = cellX(lng + dLng);
+        for (int cy = cellY(lat - dLat); cy <= cellY(lat + dLat); cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                int cell = Arrays.binarySearch(cellKeys, key(cx, cy));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int e = cellStart[cell]; e < cellStart[cell + 1]; e++) {
+                    int i = entries[e];
+                    if (distanceMeters(lat, lng, latitudes[i], longitudes[i]) <= radiusMeters) {
+                        if (count == result.length) {
+                            result = Arrays.copyOf(result, count * 2);
+                        }
+                        result[count++] = i;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Visit every POI in the cells covering a path segment buffered by bufferMeters.
+     * Each cell is visited at most once; candidates may lie outside the buffer,
+     * so callers filter by exact distance.
+     */
+    public void forEachInCorridor(double lat1, double lng1, double lat2, double lng2,
+                                  double bufferMeters, IntConsumer consumer) {
+        double lengthMeters = distanceMeters(lat1, lng1, lat2, lng2);
+        double step = cellSizeMeters / 2;
+        int samples = Math.max(1, (int) Math.ceil(lengthMeters / step));
+
+        // Pad by half a step so the boxes around consecutive samples overlap
+        double padded = bufferMeters + step / 2;
+        double dLat = padded / METERS_PER_DEGREE_LAT;
+
+        Set<Long> visited = new HashSet<>();
+        for (int s = 0; s <= samples; s++) {
+            double t = (double) s / samples;
+            double lat = lat1 + (lat2 - lat1) * t;
+            double lng = lng1 + (lng2 - lng1) * t;
+            double dLng = longitudeSpan(lat, dLat, padded);
+            int minX = cellX(lng - dLng);
+            int maxX = cellX(lng + dLng);
+            for (int cy = cellY(lat - dLat); cy <= cellY(lat + dLat); cy++) {
+                for (int cx = minX; cx <= maxX; cx++) {
+                    if (visited.add(key(cx, cy))) {
+                        forEachInCell(cx, cy, consumer);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit every POI stored in one cell.
+     */
+    public void forEachInCell(int cx, int cy, IntConsumer consumer) {
+        int cell = Arrays.binarySearch(cellKeys, key(cx, cy));
+        if (cell >= 0) {
+            for (int e = cellStart[cell]; e < cellStart[cell + 1]; e++) {
+                consumer.accept(slots != null ? slots[entries[e]] : entries[e]);
+            }
+        }
+        if (below != null) {
+            below.forEachInCell(cx, cy, j -> {
+                if (!hidden.get(j)) {
+                    consumer.accept(j);
+                }
+            });
+        }
+    }
+
+    public int cellX(double lng) {
+        return (int) Math.floor(lng / cellLngDegrees);
+    }
+
+    public int cellY(double lat) {
+        return (int) Math.floor(lat / cellLatDegrees);
+    }
+
+    public double getCellSizeMeters() {
+        return cellSizeMeters;
+    }
+
+    /**
+     * Latitude of a POI (NaN if it has no location or was removed).
+     */
+    public double latitude(int poiIndex) {
+        if (slots == null) {
+            return latitudes[poiIndex];
+        }
+        if (poiIndex < below.size() && !hidden.get(poiIndex)) {
+            return below.latitude(poiIndex);
+        }
+        int r = Arrays.binarySearch(slots, poiIndex);
+        return r >= 0 ? latitudes[r] : below.latitude(poiIndex);
+    }
+
+    public double longitude(int poiIndex) {
+        if (slots == null) {
+            return longitudes[poiIndex];
+        }
+        if (poiIndex < below.size() && !hidden.get(poiIndex)) {
+            return below.longitude(poiIndex);
+        }
+        int r = Arrays.binarySearch(slots, poiIndex);
+        return r >= 0 ? longitudes[r] : below.longitude(poiIndex);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCellCount() {
+        return cellKeys.length + (below != null ? below.getCellCount() : 0);
+    }
+
+    /**
+     * Longitude half-width of a circle, measured at its widest latitude.
+     */
+    private static double longitudeSpan(double lat, double dLat, double radiusMeters) {
+        double maxAbsLat = Math.min(89.9, Math.abs(lat) + dLat);
+        return radiusMeters / (METERS_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(maxAbsLat))));
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cy << 32) | (cx & 0xffffffffL);
+    }
+
+    /**
+     * Calculate distance between two coordinates using Haversine formula.
+     *
+     * @return Distance in meters
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dLat = phi2 - phi1;
+        double dLon = Math.toRadians(lng2 - lng1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                   Math.cos(phi1) * Math.cos(phi2) *
+                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_METERS * c;
+    }
+}
@@ -0,0 +1,286 @@
+package service;
+
+import domain.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic generator of city-scale synthetic POI catalogs.
+ *
+ * The same seed and count always produce the same catalog, so scaling runs
+ * are repeatable. Distributions are chosen to look like a real city:
+ * - Location: most POIs sit in Gaussian clusters (neighbourhoods) whose sizes
+ *   follow a Zipf-like curve and whose centres thin out away from downtown;
+ *   the rest are spread evenly over the city disk
+ * - Category: restaurant-heavy mix, few museums
+ * - Rating: roughly normal around 4.0, clipped to 1.0..5.0
+ * - Price level: per-category weights (parks are cheap, bars skew pricier)
+ * - Tags: 2-4 per POI from a per-category vocabulary plus shared tags,
+ *   with common tags picked more often
+ *
+ * Output can go straight into PlacesService ({@link #generate}) or into a
+ * CSV file for POIBulkImporter ({@link #writeCsv}), which streams and never
+ * holds the catalog in memory.
+ *
+ * Usage:
+ *   java -cp bin service.SyntheticPOIGenerator 1000000 pois.csv [--seed 42]
+ *
+ * @author CPS731 Team 20
+ */
+public class SyntheticPOIGenerator {
+
+    // Toronto downtown coordinates (approximate)
+    private static final double TORONTO_LAT = 43.6532;
+    private static final double TORONTO_LNG = -79.3832;
+    private static final double DEFAULT_CITY_RADIUS_METERS = 15000;
+    private static final double METERS_PER_DEGREE_LAT = 111320.0;
+
+    private static final int POIS_PER_CLUSTER = 2000;
+    private static final int MAX_CLUSTERS = 400;
+    private static final double BACKGROUND_SHARE = 0.15;
+
+    private static final String[] CATEGORIES =
+        {"restaurant", "cafe", "bar", "shopping", "park", "museum", "entertainment"};
+    private static final double[] CATEGORY_WEIGHTS = {35, 15, 10, 15, 8, 5, 12};
+
+    private static final String[] PRICE_LEVELS = {"$", "$$", "$$$", "$$$$"};
+    private static final double[][] PRICE_WEIGHTS = {
+        {30, 40, 22, 8},    // restaurant
+        {55, 40, 5, 0},     // cafe
+        {20, 45, 30, 5},    // bar
+        {30, 40, 20, 10},   // shopping
+        {95, 5, 0, 0},      // park
+        {20, 55, 25, 0},    // museum
+        {10, 40, 40, 10}    // entertainment
+    };
+
+    private static final String[][] TAGS = {
+        {"dinner", "lunch", "casual", "italian", "japanese", "chinese", "indian", "mexican", "vegetarian",
+         "bbq", "fine-dining", "brunch", "seafood", "thai", "korean"},
+        {"coffee", "pastries", "breakfast", "wifi", "cozy", "tea", "bakery", "specialty", "quiet", "vegan"},
+        {"nightlife", "beer", "cocktails", "pub", "rooftop", "sports", "live-music", "wine", "brewery"},
+        {"mall", "market", "vintage", "boutique", "local", "books", "fashion", "food", "gifts"},
+        {"outdoor", "nature", "walking", "scenic", "picnic", "playground", "waterfront", "trails", "dog-friendly"},
+        {"history", "art", "culture", "educational", "science", "architecture", "exhibits"},
+        {"shows", "theatre", "comedy", "concerts", "landmark", "tourist", "games", "cinema", "events"}
+    };
+    private static final String[] SHARED_TAGS = {"family-friendly", "indoor", "accessible", "popular", "hidden-gem"};
+
+    private static final String[] ADJECTIVES = {"Golden", "Little", "Blue", "Old", "Royal", "Urban", "Maple",
+        "Harbour", "Union", "Lakeside", "Red", "Green", "Northern", "Corner", "Grand", "Hidden"};
+    private static final String[][] NOUNS = {
+        {"Kitchen", "Bistro", "Grill", "Table", "Diner", "Eatery", "Noodle House", "Trattoria"},
+        {"Cafe", "Roastery", "Coffee Bar", "Bakery", "Tea House"},
+        {"Tavern", "Pub", "Lounge", "Taproom", "Bar"},
+        {"Market", "Emporium", "Boutique", "Shops", "Arcade"},
+        {"Park", "Gardens", "Green", "Commons", "Ravine"},
+        {"Museum", "Gallery", "Heritage Centre", "Collection"},
+        {"Theatre", "Hall", "Arena", "Playhouse", "Studios"}
+    };
+    private static final String[] STREETS = {"Queen St W", "King St W", "Yonge St", "Bloor St W", "Dundas St W",
+        "College St", "Spadina Ave", "Front St E", "Bathurst St", "Danforth Ave", "Ossington Ave", "Bay St"};
+
+    private final long seed;
+    private final double centerLat;
+    private final double centerLng;
+    private final double cityRadiusMeters;
+
+    public SyntheticPOIGenerator(long seed) {
+        this(seed, new LatLng(TORONTO_LAT, TORONTO_LNG), DEFAULT_CITY_RADIUS_METERS);
+    }
+
+    public SyntheticPOIGenerator(long seed, LatLng center, double cityRadiusMeters) {
+        this.seed = seed;
+        this.centerLat = center.getLatitude();
+        this.centerLng = center.getLongitude();
+        this.cityRadiusMeters = cityRadiusMeters;
+    }
+
+    /**
+     * Generate a catalog in memory.
+     *
+     * @param count Number of POIs
+     * @return POIs with IDs syn_0 .. syn_(count-1)
+     */
+    public List<POI> generate(int count) {
+        List<POI> pois = new ArrayList<>(count);
+        forEach(count, pois::add);
+        return pois;
+    }
+
+    /**
+     * Generate a catalog one POI at a time.
+     *
+     * @param count Number of POIs
+     * @param sink Receives each POI in ID order
+     */
+    public void forEach(int count, Consumer<POI> sink) {
+        Random random = new Random(seed);
+
+        // Neighbourhood clusters: centres thin out with distance from downtown,
+        // sizes follow a Zipf-like curve, spreads vary from tight strips to districts
+        int clusters = Math.max(1, Math.min(MAX_CLUSTERS, count / POIS_PER_CLUSTER));
+        double[] clusterLat = new double[clusters];
+        double[] clusterLng = new double[clusters];
+        double[] clusterSpread = new double[clusters];
+        double[] clusterWeight = new double[clusters];
+        for (int c = 0; c < clusters; c++) {
+            double distance = Math.min(cityRadiusMeters, -Math.log(1 - random.nextDouble()) * cityRadiusMeters / 3);
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double[] point = offset(centerLat, centerLng, distance * Math.cos(bearing), distance * Math.sin(bearing));
+            clusterLat[c] = point[0];
+            clusterLng[c] = point[1];
+            clusterSpread[c] = 150 + random.nextDouble() * 650;
+            clusterWeight[c] = 1.0 / Math.pow(c + 1, 1.1);
+        }
+        double[] clusterCumulative = cumulative(clusterWeight);
+        double[] categoryCumulative = cumulative(CATEGORY_WEIGHTS);
+        double[][] priceCumulative = new double[PRICE_WEIGHTS.length][];
+        for (int k = 0; k < PRICE_WEIGHTS.length; k++) {
+            priceCumulative[k] = cumulative(PRICE_WEIGHTS[k]);
+        }
+
+        for (int i = 0; i < count; i++) {
+            double[] location;
+            if (random.nextDouble() < BACKGROUND_SHARE) {
+                // Uniform over the city disk
+                double distance = cityRadiusMeters * Math.sqrt(random.nextDouble());
+                double bearing = random.nextDouble() * 2 * Math.PI;
+                location = offset(centerLat, centerLng, distance * Math.cos(bearing), distance * Math.sin(bearing));
+            } else {
+                int c = pick(clusterCumulative, random);
+                location = offset(clusterLat[c], clusterLng[c],
+                                  random.nextGaussian() * clusterSpread[c], random.nextGaussian() * clusterSpread[c]);
+            }
+
+            int category = pick(categoryCumulative, random);
+            POI poi = new POI();
+            poi.setId("syn_" + i);
+            poi.setName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " +
+                        NOUNS[category][random.nextInt(NOUNS[category].length)]);
+            poi.setLocation(new LatLng(round(location[0], 6), round(location[1], 6)));
+            poi.setCategory(CATEGORIES[category]);
+            poi.setRating((float) round(Math.max(1.0, Math.min(5.0, 4.0 + random.nextGaussian() * 0.45)), 1));
+            poi.setPriceLevel(PRICE_LEVELS[pick(priceCumulative[category], random)]);
+            poi.setTags(tags(category, random));
+            poi.setOpenNow(random.nextDouble() < 0.85);
+            poi.setAddress((100 + random.nextInt(900)) + " " + STREETS[random.nextInt(STREETS.length)] + ", Toronto");
+            sink.accept(poi);
+        }
+    }
+
+    /**
+     * Stream a catalog to a CSV file in the format POIBulkImporter reads.
+     *
+     * @param count Number of POIs
+     * @param file Output file
+     * @throws IOException If the file cannot be written
+     */
+    public void writeCsv(int count, Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("poi_id,name,category,latitude,longitude,rating,price_level,tags,open_now,address");
+            out.newLine();
+            IOException[] error = new IOException[1];
+            forEach(count, poi -> {
+                if (error[0] != null) {
+                    return;
+                }
+                try {
+                    out.write(poi.getId() + "," + csv(poi.getName()) + "," + poi.getCategory() + "," +
+                              poi.getLocation().getLatitude() + "," + poi.getLocation().getLongitude() + "," +
+                              poi.getRating() + "," + poi.getPriceLevel() + "," + String.join(";", poi.getTags()) +
+                              "," + poi.isOpenNow() + "," + csv(poi.getAddress()));
+                    out.newLine();
+                } catch (IOException e) {
+                    error[0] = e;
+                }
+            });
+            if (error[0] != null) {
+                throw error[0];
+            }
+        }
+    }
+
+    private List<String> tags(int category, Random random) {
+        String[] vocabulary = TAGS[category];
+        int wanted = 2 + random.nextInt(3);
+        Set<String> tags = new LinkedHashSet<>();
+        while (tags.size() < wanted) {
+            if (random.nextDouble() < 0.2) {
+                tags.add(SHARED_TAGS[random.nextInt(SHARED_TAGS.length)]);
+            } else {
+                // Squaring skews picks towards the front of the vocabulary (common tags)
+                double u = random.nextDouble();
+                tags.add(vocabulary[(int) (u * u * vocabulary.length)]);
+            }
+        }
+        return new ArrayList<>(tags);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] result = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            result[i] = sum;
+        }
+        for (int i = 0; i < result.length; i++) {
+            result[i] /= sum;
+        }
+        return result;
+    }
+
+    private static int pick(double[] cumulative, Random random) {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static double[] offset(double lat, double lng, double northMeters, double eastMeters) {
+        double newLat = lat + northMeters / METERS_PER_DEGREE_LAT;
+        double newLng = lng + eastMeters / (METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(lat)));
+        return new double[]{newLat, newLng};
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    private static String csv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SyntheticPOIGenerator <count> <file.csv> [--seed N]");
+            System.exit(2);
+        }
+        int count = Integer.parseInt(args[0]);
+        long seed = args.length >= 4 && args[2].equals("--seed") ? Long.parseLong(args[3]) : 42;
+
+        long start = System.nanoTime();
+        new SyntheticPOIGenerator(seed).writeCsv(count, Paths.get(args[1]));
+        System.out.println("✓ Wrote " + count + " synthetic POIs (seed " + seed + ") to " + args[1] + " in " +
+                           (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,448 @@
+package service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Minimal in-process request tracing.
+ *
+ * A trace is one user request (e.g. ConversationEngine.startPlanning); each
+ * stage it passes through (geocode, weather, search, ranking, DB) is a span
+ * with a parent, so a slow request can be broken down stage by stage.
+ *
+ * Usage mirrors the latency timers:
+ * <pre>
+ *   Tracer.Span span = Tracer.startSpan("PlacesService.searchPlaces");
+ *   try {
+ *       ...
+ *   } finally {
+ *       span.end();
+ *   }
+ * </pre>
+ *
+ * Only entry points call {@link #startTrace}, which decides whether the
+ * request is sampled (-Dtravelassistant.trace.sample=0.05 traces 5% of
+ * requests; the default 0 disables tracing). {@link #startSpan} joins the
+ * current thread's trace, and is a no-op returning {@link Span#NOOP} when
+ * the request is not sampled, so untraced requests pay one ThreadLocal read
+ * per stage. Work handed to another thread keeps its trace when the task is
+ * wrapped with {@link #wrap(Callable)}.
+ *
+ * Finished spans are written by a background thread, one JSON object per
+ * line, to traces.ndjson (or -Dtravelassistant.trace.file):
+ *   {"traceId":"…","spanId":"…","parentId":"…","name":"RecommendationEngine.rankPOIs",
+ *    "thread":"main","start":"2026-10-19T14:02:11.412Z","durationMicros":8412,
+ *    "attributes":{"cacheHit":false}}
+ * Spans of one request share a traceId; group by it to rebuild the tree.
+ *
+ * @author CPS731 Team 20
+ */
+public final class Tracer {
+
+    private static final Log LOG = Log.get(Tracer.class);
+
+    public static final String SAMPLE_RATE_PROPERTY = "travelassistant.trace.sample";
+    public static final String FILE_PROPERTY = "travelassistant.trace.file";
+    public static final String DEFAULT_FILE = "traces.ndjson";
+    public static final int QUEUE_CAPACITY = 65_536;
+
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = 20_000_000;   // writer poll interval when idle
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private static volatile double sampleRate = initialSampleRate();
+    private static volatile Path output = Paths.get(System.getProperty(FILE_PROPERTY, DEFAULT_FILE));
+
+    // Export queue, drained by a writer thread started on the first sampled span
+    private static final ConcurrentLinkedQueue<Span> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger QUEUED = new AtomicInteger();
+    private static final AtomicLong ENQUEUED = new AtomicLong();
+    private static final AtomicLong WRITTEN = new AtomicLong();
+    private static final LongAdder SAMPLED = MetricsRegistry.shared().counter("trace.sampled");
+    private static final LongAdder DROPPED = MetricsRegistry.shared().counter("trace.dropped");
+    private static volatile Thread writer;
+
+    private Tracer() {
+    }
+
+    /**
+     * One timed stage of a traced request.
+     */
+    public static final class Span {
+
+        /** Returned for requests that are not sampled; every method is a no-op. */
+        public static final Span NOOP = new Span();
+
+        private final long traceId;
+        private final long spanId;
+        private final long parentId;
+        private final String name;
+        private final String thread;
+        private final long startEpochMillis;
+        private final long startNanos;
+        private final Span previous;
+        private long durationNanos = -1;
+        private Map<String, Object> attributes;
+
+        private Span() {
+            this(0, 0, null, null);
+        }
+
+        private Span(long traceId, long parentId, String name, Span previous) {
+            this.traceId = traceId;
+            this.spanId = traceId == 0 ? 0 : newId();
+            this.parentId = parentId;
+            this.name = name;
+            this.thread = traceId == 0 ? null : Thread.currentThread().getName();
+            this.startEpochMillis = traceId == 0 ? 0 : System.currentTimeMillis();
+            this.startNanos = traceId == 0 ? 0 : System.nanoTime();
+            this.previous = previous;
+        }
+
+        /**
+         * Attach a value (count, flag, id) to the span.
+         */
+        public Span setAttribute(String key, Object value) {
+            if (this != NOOP) {
+                if (attributes == null) {
+                    attributes = new LinkedHashMap<>();
+                }
+                attributes.put(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * Stop the clock, restore the caller's span and queue this one for export.
+         * Calling end() more than once has no further effect.
+         */
+        public void end() {
+            if (this == NOOP || durationNanos >= 0) {
+                return;
+            }
+            durationNanos = System.nanoTime() - startNanos;
+            if (CURRENT.get() == this) {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+            export(this);
+        }
+
+        public boolean isSampled() {
+            return this != NOOP;
+        }
+
+        public String getTraceId() {
+            return this == NOOP ? null : hex(traceId);
+        }
+
+        public String getSpanId() {
+            return this == NOOP ? null : hex(spanId);
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    // ========================================================================
+    // Starting spans
+    // ========================================================================
+
+    /**
+     * Start the span for a request entry point. Begins a new trace if the
+     * request is sampled, or joins the current trace when called from inside
+     * one (e.g. an entry point calling another).
+     *
+     * @param name Stage name, "Class.method"
+     * @return The new span, or {@link Span#NOOP} if the request is not sampled
+     */
+    public static Span startTrace(String name) {
+        Span parent = CURRENT.get();
+        if (parent != null) {
+            return startChild(parent, name);
+        }
+        double rate = sampleRate;
+        if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return Span.NOOP;
+        }
+        SAMPLED.increment();
+        Span root = new Span(newId(), 0, name, null);
+        CURRENT.set(root);
+        return root;
+    }
+
+    /**
+     * Start a span for a stage inside the current trace.
+     *
+     * @param name Stage name, "Class.method"
+     * @return The new span, or {@link Span#NOOP} outside a sampled trace
+     */
+    public static Span startSpan(String name) {
+        Span parent = CURRENT.get();
+        return parent != null ? startChild(parent, name) : Span.NOOP;
+    }
+
+    private static Span startChild(Span parent, String name) {
+        Span span = new Span(parent.traceId, parent.spanId, name, parent);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * Trace ID of the current thread's request, or null if it is not traced.
+     */
+    public static String currentTraceId() {
+        Span current = CURRENT.get();
+        return current != null ? hex(current.traceId) : null;
+    }
+
+    // ========================================================================
+    // Async propagation
+    // ========================================================================
+
+    /**
+     * Bind a task to the caller's trace, so spans it starts on an executor
+     * thread become children of the caller's current span.
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Span captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            Span outer = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.call();
+            } finally {
+                restore(outer);
+            }
+        };
+    }
+
+    /**
+     * Runnable variant of {@link #wrap(Callable)}.
+     */
+    public static Runnable wrap(Runnable task) {
+        Span captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            Span outer = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                task.run();
+            } finally {
+                restore(outer);
+            }
+        };
+    }
+
+    private static void restore(Span outer) {
+        if (outer != null) {
+            CURRENT.set(outer);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    // ========================================================================
+    // Configuration
+    // ========================================================================
+
+    private static double initialSampleRate() {
+        String configured = System.getProperty(SAMPLE_RATE_PROPERTY);
+        if (configured != null) {
+            try {
+                return clamp(Double.parseDouble(configured.trim()));
+            } catch (NumberFormatException e) {
+                LOG.warn("⚠️ Invalid trace sample rate '" + configured + "', tracing disabled");
+            }
+        }
+        return 0;
+    }
+
+    private static double clamp(double rate) {
+        return Math.max(0, Math.min(1, rate));
+    }
+
+    /**
+     * Fraction of requests to trace, 0 (off) to 1 (every request).
+     */
+    public static void setSampleRate(double rate) {
+        sampleRate = clamp(rate);
+    }
+
+    public static double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * File that finished spans are appended to. Takes effect for the next
+     * batch written.
+     */
+    public static void setOutput(Path file) {
+        output = file;
+    }
+
+    public static Path getOutput() {
+        return output;
+    }
+
+    // ========================================================================
+    // Export
+    // ========================================================================
+
+    private static void export(Span span) {
+        if (QUEUED.incrementAndGet() > QUEUE_CAPACITY) {
+            QUEUED.decrementAndGet();
+            DROPPED.increment();
+            return;
+        }
+        ENQUEUED.incrementAndGet();
+        QUEUE.offer(span);
+        if (writer == null) {
+            startWriter();
+        }
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        Thread thread = new Thread(Tracer::writeLoop, "trace-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Tracer::flush, "trace-flush"));
+        writer = thread;
+    }
+
+    /**
+     * Wait (up to 5 seconds) until every finished span has been written.
+     */
+    public static void flush() {
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        long target = ENQUEUED.get();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (WRITTEN.get() < target && System.nanoTime() < deadline && thread.isAlive()) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+
+    private static void writeLoop() {
+        StringBuilder batch = new StringBuilder();
+        while (true) {
+            Span span = QUEUE.poll();
+            if (span == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            int count = 0;
+            while (span != null) {
+                appendJson(span, batch);
+                count++;
+                span = count < MAX_BATCH ? QUEUE.poll() : null;
+            }
+
+            Path file = output;
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.append(batch);
+            } catch (IOException e) {
+                DROPPED.add(count);
+                LOG.error("❌ Could not write traces to " + file + ": " + e.getMessage());
+            }
+            batch.setLength(0);
+            QUEUED.addAndGet(-count);
+            WRITTEN.addAndGet(count);
+        }
+    }
+
+    private static void appendJson(Span span, StringBuilder out) {
+        out.append("{\"traceId\":\"").append(hex(span.traceId))
+           .append("\",\"spanId\":\"").append(hex(span.spanId)).append('"');
+        if (span.parentId != 0) {
+            out.append(",\"parentId\":\"").append(hex(span.parentId)).append('"');
+        }
+        out.append(",\"name\":");
+        appendString(span.name, out);
+        out.append(",\"thread\":");
+        appendString(span.thread, out);
+        out.append(",\"start\":\"").append(Instant.ofEpochMilli(span.startEpochMillis))
+           .append("\",\"durationMicros\":").append(span.durationNanos / 1000);
+        if (span.attributes != null) {
+            out.append(",\"attributes\":{");
+            boolean first = true;
+            for (Map.Entry<String, Object> attribute : span.attributes.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                appendString(attribute.getKey(), out);
+                out.append(':');
+                Object value = attribute.getValue();
+                if (value instanceof Number || value instanceof Boolean) {
+                    out.append(value);
+                } else {
+                    appendString(String.valueOf(value), out);
+                }
+            }
+            out.append('}');
+        }
+        out.append("}\n");
+    }
+
+    private static void appendString(String value, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static long newId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    private static String hex(long id) {
+        String digits = Long.toHexString(id);
+        return "0000000000000000".substring(digits.length()) + digits;
+    }
+}
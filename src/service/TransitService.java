@@ -14,13 +14,15 @@ import java.util.List;
  */
 public class TransitService implements ITransitService {
 
+    private static final Log LOG = Log.get(TransitService.class);
+
     // Average speeds for different transport modes (meters per minute)
     private static final double WALKING_SPEED_M_PER_MIN = 83.3;    // ~5 km/h
     private static final double DRIVING_SPEED_M_PER_MIN = 666.7;   // ~40 km/h
     private static final double TRANSIT_SPEED_M_PER_MIN = 333.3;   // ~20 km/h
 
     public TransitService() {
-        System.out.println("✓ TransitService initialized");
+        LOG.info("✓ TransitService initialized");
     }
 
     /**
@@ -38,13 +40,12 @@ public class TransitService implements ITransitService {
             return new ArrayList<>();
         }
 
-        List<ETA> etas = new ArrayList<>();
+        List<ETA> etas = new ArrayList<>(req.getDestinations().size());
         LatLng origin = req.getOrigin();
         String mode = req.getMode() != null ? req.getMode() : "walking";
 
-        System.out.println("Calculating ETAs from " + origin);
-        System.out.println("  Mode: " + mode);
-        System.out.println("  Destinations: " + req.getDestinations().size());
+        LOG.debug(() -> "Calculating ETAs from " + origin + " (mode: " + mode + ", destinations: " +
+                        req.getDestinations().size() + ")");
 
         // Get speed based on mode
         double speedMPerMin = getSpeedForMode(mode);
@@ -60,17 +61,19 @@ public class TransitService implements ITransitService {
             ETA eta = new ETA(durationMinutes, distanceMeters, mode);
             etas.add(eta);
 
-            System.out.println("  -> " + destination + ": " + durationMinutes + " min (" +
-                             String.format("%.0f", distanceMeters) + "m)");
+            if (LOG.isDebugEnabled()) {   // skip the capturing lambda per destination
+                LOG.debug(() -> "-> " + destination + ": " + durationMinutes + " min (" +
+                                String.format("%.0f", distanceMeters) + "m)");
+            }
         }
 
         return etas;
     }
 
     /**
-     * Get speed for transport mode.
+     * Get speed for transport mode (meters per minute).
      */
-    private double getSpeedForMode(String mode) {
+    static double getSpeedForMode(String mode) {
         switch (mode.toLowerCase()) {
             case "walking":
                 return WALKING_SPEED_M_PER_MIN;
@@ -12,8 +12,10 @@ import domain.*;
  */
 public class WeatherService implements IWeatherService {
 
+    private static final Log LOG = Log.get(WeatherService.class);
+
     public WeatherService() {
-        System.out.println("✓ WeatherService initialized");
+        LOG.info("✓ WeatherService initialized");
     }
 
     /**
@@ -25,7 +27,7 @@ public class WeatherService implements IWeatherService {
      */
     @Override
     public Weather getWeather(LatLng loc) {
-        System.out.println("Getting weather for " + loc);
+        LOG.debug(() -> "Getting weather for " + loc);
 
         // Create pleasant weather object
         Weather weather = new Weather();
@@ -34,7 +36,7 @@ public class WeatherService implements IWeatherService {
         weather.setHumidity(60);             // 60% humidity
         weather.setWindSpeed(10.0);          // 10 km/h light breeze
 
-        System.out.println("  Weather: " + weather);
+        LOG.debug(() -> "Weather: " + weather);
 
         return weather;
     }
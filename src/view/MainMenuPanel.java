@@ -14,12 +14,16 @@ import java.util.List;
  * Features:
  * - Load user profile from database
  * - View previous sessions
+ * - Resume a previous session
  * - Start new session with saved preferences
  *
  * @author CPS731 Team 20
  */
 public class MainMenuPanel extends JPanel {
 
+    // Turns read back when a session is resumed
+    private static final int RESUME_TURNS = 10;
+
     private ConversationEngine conversationEngine;
     private MobileAppUI parentUI;
 
@@ -37,6 +41,10 @@ public class MainMenuPanel extends JPanel {
     private JButton startNewSessionButton;
     private JButton signOutButton;
     private JButton refreshDataButton;
+    private JButton loadMoreSessionsButton;
+
+    // Last session shown; the next history page starts after it
+    private SessionSummary sessionCursor;
 
     public MainMenuPanel(MobileAppUI parent, ConversationEngine engine) {
         this.parentUI = parent;
@@ -258,35 +266,65 @@ public class MainMenuPanel extends JPanel {
     }
 
     /**
-     * Load previous sessions from database.
+     * Load the newest page of previous sessions from database.
      */
     private void loadPreviousSessions(UserID userId) {
         sessionsPanel.removeAll();
+        loadMoreSessionsButton = null;
+        sessionCursor = null;
 
         // Query sessions from database
         ProfileContextStore store = conversationEngine.getProfileContextStore();
         if (store == null) {
-            JLabel errorLabel = new JLabel("Unable to load sessions");
-            errorLabel.setFont(new Font("Arial", Font.ITALIC, 12));
-            sessionsPanel.add(errorLabel);
-            sessionsPanel.setVisible(true);
+            showSessionsError();
             return;
         }
 
-        java.util.List<Session> sessions = store.getSessionsByUser(userId);
+        SessionPage page;
+        try {
+            page = store.getSessionHistory(userId, null, ProfileContextStore.DEFAULT_HISTORY_PAGE_SIZE);
+        } catch (RuntimeException e) {
+            showSessionsError();
+            return;
+        }
 
-        if (sessions.isEmpty()) {
+        if (page.getSessions().isEmpty()) {
             JLabel noSessionsLabel = new JLabel("No previous sessions found. Start your first session!");
             noSessionsLabel.setFont(new Font("Arial", Font.ITALIC, 12));
             noSessionsLabel.setForeground(Color.GRAY);
             sessionsPanel.add(noSessionsLabel);
+            sessionsPanel.setVisible(true);
+            sessionsPanel.revalidate();
+            sessionsPanel.repaint();
         } else {
-            // Display each session
-            for (Session session : sessions) {
-                JPanel sessionPanel = createSessionPanel(session);
-                sessionsPanel.add(sessionPanel);
-                sessionsPanel.add(Box.createVerticalStrut(5));
-            }
+            appendSessionPage(page);
+        }
+    }
+
+    /**
+     * Add a page of sessions to the list, with a "Load More" button if
+     * there are older ones.
+     */
+    private void appendSessionPage(SessionPage page) {
+        if (loadMoreSessionsButton != null) {
+            sessionsPanel.remove(loadMoreSessionsButton);
+        }
+
+        // Display each session
+        for (SessionSummary session : page.getSessions()) {
+            JPanel sessionPanel = createSessionPanel(session);
+            sessionsPanel.add(sessionPanel);
+            sessionsPanel.add(Box.createVerticalStrut(5));
+        }
+
+        sessionCursor = page.getNextCursor();
+        if (page.hasMore()) {
+            loadMoreSessionsButton = new JButton("Load More");
+            loadMoreSessionsButton.setFont(new Font("Arial", Font.PLAIN, 12));
+            loadMoreSessionsButton.addActionListener(e -> loadMoreSessions());
+            sessionsPanel.add(loadMoreSessionsButton);
+        } else {
+            loadMoreSessionsButton = null;
         }
 
         sessionsPanel.setVisible(true);
@@ -294,10 +332,36 @@ public class MainMenuPanel extends JPanel {
         sessionsPanel.repaint();
     }
 
+    /**
+     * Load the next page of older sessions.
+     */
+    private void loadMoreSessions() {
+        ProfileContextStore store = conversationEngine.getProfileContextStore();
+        if (store == null || currentUserId == null || sessionCursor == null) {
+            return;
+        }
+        try {
+            appendSessionPage(store.getSessionHistory(currentUserId, sessionCursor,
+                                                      ProfileContextStore.DEFAULT_HISTORY_PAGE_SIZE));
+        } catch (RuntimeException e) {
+            JOptionPane.showMessageDialog(this,
+                "Unable to load more sessions",
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void showSessionsError() {
+        JLabel errorLabel = new JLabel("Unable to load sessions");
+        errorLabel.setFont(new Font("Arial", Font.ITALIC, 12));
+        sessionsPanel.add(errorLabel);
+        sessionsPanel.setVisible(true);
+    }
+
     /**
      * Create a panel displaying session info.
      */
-    private JPanel createSessionPanel(Session session) {
+    private JPanel createSessionPanel(SessionSummary session) {
         JPanel panel = new JPanel();
         panel.setLayout(new FlowLayout(FlowLayout.LEFT));
         panel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY, 1));
@@ -328,9 +392,39 @@ public class MainMenuPanel extends JPanel {
 
         panel.add(sessionLabel);
 
+        JButton resumeButton = new JButton("Resume");
+        resumeButton.setFont(new Font("Arial", Font.PLAIN, 11));
+        resumeButton.addActionListener(e -> resumeSession(session));
+        panel.add(resumeButton);
+
         return panel;
     }
 
+    /**
+     * Continue a previous session, planning with the preferences from its
+     * last recorded turn (or the profile's if it has none).
+     */
+    private void resumeSession(SessionSummary session) {
+        System.out.println("[MainMenu] Resuming session: " + session.getSessionId().getValue());
+
+        if (!conversationEngine.resumeSession(session.getSessionId())) {
+            JOptionPane.showMessageDialog(this,
+                "Session could not be loaded",
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        Preferences prefs = currentProfile != null ? currentProfile.getPreferences() : null;
+        List<ConversationTurn> turns = conversationEngine.getRecentTurns(RESUME_TURNS);
+        for (ConversationTurn turn : turns) {
+            if (turn.getPreferences() != null) {
+                prefs = turn.getPreferences();
+            }
+        }
+        parentUI.switchToPlanningPanel(prefs);
+    }
+
     /**
      * Start new session with user's saved preferences.
      */
@@ -301,12 +301,17 @@ public class PlanningPanel extends JPanel {
             return;
         }
 
-        // Capture console output for itinerary
+        // Select card (itinerary is usually prefetched already)
         conversationEngine.handleSelectCard(card.getPlaceId());
-
-        // Build itinerary
-        Itinerary itinerary = conversationEngine.getRecommendationEngine()
-            .buildMicroItinerary(conversationEngine.getCurrentPreferences(), card);
+        Itinerary itinerary = conversationEngine.getCurrentItinerary();
+        if (itinerary == null) {
+            // The card is gone from the current results (e.g., after a re-rank)
+            JOptionPane.showMessageDialog(this,
+                "This place is no longer in the results. Please select another card.",
+                "Itinerary Unavailable",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
         // Show in dialog
         showSteps(itinerary);
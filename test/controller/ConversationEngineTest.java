@@ -64,6 +64,9 @@ public class ConversationEngineTest {
 
     @AfterEach
     public void tearDown() {
+        if (engine != null) {
+            engine.close();
+        }
         engine = null;
     }
 
@@ -252,6 +255,25 @@ public class ConversationEngineTest {
         assertNotNull(engine);
     }
 
+    @Test
+    @DisplayName("Test a location update refreshes the candidates and the prefetched itineraries")
+    public void testUpdateLocationRefreshesPrefetch() {
+        // Arrange
+        engine.startPlanning(testPreferences);
+
+        // Act - walk to the waterfront
+        engine.updateLocation(new LatLng(43.6387, -79.3816), 0);
+        RecommendationCard top = engine.getCurrentRecommendations().get(0);
+        Itinerary itinerary = engine.getItineraryPrefetcher().getItinerary(recommendationEngine, testPreferences, top);
+
+        // Assert - the in-range POIs replace the cached candidates, and the
+        // itinerary was built for the new location, not the old one
+        assertEquals(engine.getCurrentRecommendations().size(), recommendationEngine.getCachedResults().size());
+        assertEquals(1, engine.getItineraryPrefetcher().getHitCount());
+        assertTrue(itinerary.getSteps().contains(
+            "   Distance: " + String.format("%.0f", top.getDistance()) + "m from you"));
+    }
+
     @Test
     @DisplayName("Test multiple sessions for same user")
     public void testMultipleSessions() {
@@ -275,6 +297,7 @@ public class ConversationEngineTest {
         // Assert
         assertNotNull(engine);
         assertNotNull(engine2);
+        engine2.close();
     }
 
     @Test
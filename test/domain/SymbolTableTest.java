@@ -0,0 +1,84 @@
+package test.domain;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import domain.LatLng;
+import domain.POI;
+import domain.SymbolTable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for SymbolTable and POI symbol storage.
+ * Tests interning and that POI accessors keep returning strings.
+ */
+public class SymbolTableTest {
+
+    private SymbolTable table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new SymbolTable();
+    }
+
+    @Test
+    @DisplayName("Test equal strings intern to the same dense id")
+    public void testIntern() {
+        // Act
+        int restaurant = table.intern("restaurant");
+        int museum = table.intern("museum");
+
+        // Assert
+        assertEquals(0, restaurant);
+        assertEquals(1, museum);
+        assertEquals(restaurant, table.intern(new String("restaurant")));
+        assertEquals("museum", table.name(museum));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    @DisplayName("Test null and unknown values")
+    public void testNullAndUnknown() {
+        assertEquals(SymbolTable.NONE, table.intern(null));
+        assertNull(table.name(SymbolTable.NONE));
+        assertEquals(SymbolTable.NONE, table.lookup("never-added"));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    @DisplayName("Test POI accessors return the original strings")
+    public void testPOIAccessors() {
+        // Arrange
+        POI poi = new POI("poi_x", "Test", new LatLng(43.65, -79.38), "cafe", 4.0f);
+
+        // Act
+        poi.setPriceLevel("$$");
+        poi.setTags(new ArrayList<>(Arrays.asList("coffee", "cozy")));
+
+        // Assert
+        assertEquals("cafe", poi.getCategory());
+        assertEquals("$$", poi.getPriceLevel());
+        assertEquals(List.of("coffee", "cozy"), poi.getTags());
+        assertEquals(SymbolTable.shared().lookup("cafe"), poi.getCategoryId());
+        assertNull(new POI().getTags());
+        assertNull(new POI().getCategory());
+    }
+
+    @Test
+    @DisplayName("Test POIs share one instance per distinct value")
+    public void testPOIsShareStrings() {
+        // Arrange
+        POI a = new POI();
+        POI b = new POI();
+
+        // Act
+        a.setCategory(new String("restaurant"));
+        b.setCategory(new String("restaurant"));
+
+        // Assert
+        assertSame(a.getCategory(), b.getCategory());
+        assertEquals(a.getCategoryId(), b.getCategoryId());
+    }
+}
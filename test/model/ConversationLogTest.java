@@ -0,0 +1,256 @@
+package test.model;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.ConversationLog;
+import model.ConversationTurn;
+import model.EmbeddedStorage;
+import model.Session;
+import model.Storage;
+import domain.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for ConversationLog.
+ * Tests the per-session ring of recent turns, holding turns until the
+ * session is saved, batched writes, splitting a rejected batch by session,
+ * keeping and backing off on a batch that failed for a transient reason,
+ * and loading only the last turns of a resumed session, on EmbeddedStorage.
+ * The writer never runs on its own here (no timed flush, large batches),
+ * so the tests do not depend on its timing.
+ */
+public class ConversationLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private EmbeddedStorage storage;
+    private SessionID sessionId;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        storage = new EmbeddedStorage(tempDir, false);
+        sessionId = new SessionID("s-1");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    @DisplayName("Test the ring keeps only the most recent turns")
+    public void testRingKeepsLastTurns() {
+        // Arrange - writes only on flush()
+        ConversationLog log = new ConversationLog(storage, 3, 100, 0, 100, 100);
+        log.startSession(sessionId);
+
+        // Act
+        for (int i = 1; i <= 5; i++) {
+            log.append(sessionId, ConversationTurn.ROLE_USER, "turn " + i, null);
+        }
+
+        // Assert
+        assertEquals(Arrays.asList("turn 3", "turn 4", "turn 5"), texts(log.recentTurns(sessionId, 10)));
+        assertEquals(Arrays.asList("turn 4", "turn 5"), texts(log.recentTurns(sessionId, 2)));
+        log.close();
+    }
+
+    @Test
+    @DisplayName("Test turns are held until the session is saved, then written in batches")
+    public void testTurnsWaitForSessionSave() {
+        // Arrange - no timed flush and a batch larger than the turns queued,
+        // so nothing is written until flush()
+        ConversationLog log = new ConversationLog(storage, 20, 100, 0, 100, 100);
+        log.startSession(sessionId);
+        Preferences prefs = new Preferences(new ArrayList<>(Arrays.asList("museums")), "low", 800, "walking", false);
+        log.append(sessionId, ConversationTurn.ROLE_USER, "Plan: museums", prefs);
+        log.append(sessionId, ConversationTurn.ROLE_ASSISTANT, "Found 4 recommendations", prefs);
+        prefs.setBudget("high");
+
+        // Act & Assert - nothing is written for an unsaved session
+        log.flush();
+        assertTrue(storage.loadRecentTurns(sessionId, 10).isEmpty());
+        assertEquals(0, log.getPendingCount());
+
+        storage.saveSession(session(sessionId));
+        log.sessionSaved(sessionId);
+        log.append(sessionId, ConversationTurn.ROLE_USER, "Adjust: parks", prefs);
+        assertEquals(3, log.getPendingCount());
+        log.flush();
+
+        List<ConversationTurn> stored = storage.loadRecentTurns(sessionId, 10);
+        assertEquals(Arrays.asList("Plan: museums", "Found 4 recommendations", "Adjust: parks"), texts(stored));
+        assertEquals(ConversationTurn.ROLE_ASSISTANT, stored.get(1).getRole());
+        assertEquals("low", stored.get(0).getPreferences().getBudget(), "preferences are copied when appended");
+        assertEquals("high", stored.get(2).getPreferences().getBudget());
+        assertEquals(0, log.getPendingCount());
+        log.close();
+    }
+
+    @Test
+    @DisplayName("Test a resumed session loads only its last turns and keeps appending after them")
+    public void testResumeLoadsLastTurns() throws Exception {
+        // Arrange - a saved session with 30 turns, then a restart
+        storage.saveSession(session(sessionId));
+        ConversationLog log = new ConversationLog(storage, 20, 100, 0, 100, 100);
+        log.sessionSaved(sessionId);
+        for (int i = 1; i <= 30; i++) {
+            log.append(sessionId, ConversationTurn.ROLE_USER, "turn " + i, null);
+        }
+        log.close();
+        storage.close();
+        storage = new EmbeddedStorage(tempDir, false);
+
+        // Act
+        ConversationLog resumed = new ConversationLog(storage, 5, 100, 0, 100, 100);
+        assertTrue(resumed.recentTurns(sessionId, 10).isEmpty(), "nothing is read before resume");
+        resumed.resume(sessionId);
+        List<ConversationTurn> recent = resumed.recentTurns(sessionId, 10);
+        resumed.append(sessionId, ConversationTurn.ROLE_USER, "turn 31", null);
+        resumed.flush();
+
+        // Assert
+        assertEquals(Arrays.asList("turn 26", "turn 27", "turn 28", "turn 29", "turn 30"), texts(recent));
+        assertEquals(Arrays.asList("turn 28", "turn 29", "turn 30", "turn 31"),
+                     texts(storage.loadRecentTurns(sessionId, 4)));
+        resumed.close();
+    }
+
+    @Test
+    @DisplayName("Test a failed batch drops only a rejected session's turns and retries transient failures")
+    public void testFailedBatchIsSplitBySession() {
+        // Arrange - "gone" violates the foreign key; "flaky" loses the connection once
+        SessionID ok = new SessionID("ok");
+        SessionID gone = new SessionID("gone");
+        SessionID flaky = new SessionID("flaky");
+        storage.saveSession(session(ok));
+        storage.saveSession(session(flaky));
+        int[] flakyFailures = {1};
+        Storage failing = failingStorage(storage, turns -> {
+            if (turns.stream().anyMatch(t -> t.getSessionId().equals(gone))) {
+                throw new RuntimeException(new SQLException("foreign key constraint fails", "23000", 1452));
+            }
+            if (turns.stream().anyMatch(t -> t.getSessionId().equals(flaky)) && flakyFailures[0]-- > 0) {
+                throw new RuntimeException(new SQLException("Communications link failure", "08S01"));
+            }
+        });
+        ConversationLog log = new ConversationLog(failing, 20, 100, 0, 100, 100);
+        for (SessionID id : List.of(ok, gone, flaky)) {
+            log.resume(id);
+        }
+        log.append(ok, ConversationTurn.ROLE_USER, "ok 1", null);
+        log.append(gone, ConversationTurn.ROLE_USER, "gone 1", null);
+        log.append(flaky, ConversationTurn.ROLE_USER, "flaky 1", null);
+        log.append(ok, ConversationTurn.ROLE_USER, "ok 2", null);
+
+        // Act
+        log.flush();
+
+        // Assert
+        assertEquals(Arrays.asList("ok 1", "ok 2"), texts(storage.loadRecentTurns(ok, 10)));
+        assertTrue(storage.loadRecentTurns(flaky, 10).isEmpty());
+        assertEquals(1, log.getRetryCount());
+
+        log.flush();
+        assertEquals(Arrays.asList("flaky 1"), texts(storage.loadRecentTurns(flaky, 10)));
+        assertTrue(storage.loadRecentTurns(gone, 10).isEmpty());
+        assertEquals(0, log.getRetryCount());
+        log.close();
+    }
+
+    @Test
+    @DisplayName("Test a transient failure keeps the whole batch and backs off, and close reports lost turns")
+    public void testTransientFailureKeepsBatch() {
+        // Arrange - the connection is lost on every write until "up" is set
+        SessionID other = new SessionID("other");
+        storage.saveSession(session(sessionId));
+        storage.saveSession(session(other));
+        boolean[] up = {false};
+        List<Integer> writes = new ArrayList<>();
+        Storage failing = failingStorage(storage, turns -> {
+            writes.add(turns.size());
+            if (!up[0]) {
+                throw new RuntimeException(new SQLException("Communications link failure", "08S01"));
+            }
+        });
+        ConversationLog log = new ConversationLog(failing, 20, 100, 0, 100, 100);
+        log.resume(sessionId);
+        log.resume(other);
+        log.append(sessionId, ConversationTurn.ROLE_USER, "one", null);
+        log.append(other, ConversationTurn.ROLE_USER, "two", null);
+
+        // Act
+        log.flush();
+        long firstDelay = log.getRetryDelayMillis();
+        log.flush();
+
+        // Assert - one write per flush, never split by session, and a longer wait each time
+        assertEquals(Arrays.asList(2, 2), writes);
+        assertEquals(2, log.getRetryCount());
+        assertEquals(ConversationLog.INITIAL_RETRY_DELAY_MILLIS, firstDelay);
+        assertEquals(2 * firstDelay, log.getRetryDelayMillis());
+
+        up[0] = true;
+        log.flush();
+        assertEquals(Arrays.asList("one"), texts(storage.loadRecentTurns(sessionId, 10)));
+        assertEquals(Arrays.asList("two"), texts(storage.loadRecentTurns(other, 10)));
+        assertEquals(0, log.getRetryDelayMillis());
+
+        // Act - turns that still fail on close are dropped, not kept
+        up[0] = false;
+        log.append(sessionId, ConversationTurn.ROLE_USER, "three", null);
+        log.close();
+
+        // Assert
+        assertEquals(0, log.getRetryCount());
+        assertEquals(0, log.getPendingCount());
+    }
+
+    private interface TurnCheck {
+        void check(List<ConversationTurn> turns);
+    }
+
+    /**
+     * Storage that runs a check before each appendConversationTurns and
+     * otherwise delegates to the real one.
+     */
+    private static Storage failingStorage(Storage delegate, TurnCheck check) {
+        return (Storage) Proxy.newProxyInstance(Storage.class.getClassLoader(), new Class<?>[]{Storage.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("appendConversationTurns")) {
+                    @SuppressWarnings("unchecked")
+                    List<ConversationTurn> turns = (List<ConversationTurn>) args[0];
+                    check.check(turns);
+                }
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    private static List<String> texts(List<ConversationTurn> turns) {
+        List<String> texts = new ArrayList<>();
+        turns.forEach(t -> texts.add(t.getText()));
+        return texts;
+    }
+
+    private static Session session(SessionID id) {
+        Session session = new Session();
+        session.setSessionId(id);
+        session.setUserId(new UserID("conversation_user"));
+        session.setCreatedAt(Instant.ofEpochMilli(1000));
+        return session;
+    }
+}
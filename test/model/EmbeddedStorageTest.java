@@ -0,0 +1,290 @@
+package test.model;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.EmbeddedStorage;
+import model.ProfileContextStore;
+import model.Profile;
+import model.Session;
+import model.SessionPage;
+import model.SessionSummary;
+import domain.*;
+import service.TorontoPOIData;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for EmbeddedStorage.
+ * Tests profiles, sessions, POIs and events on the local log store,
+ * including reopening it, so ProfileContextStore can run without MySQL.
+ */
+public class EmbeddedStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private EmbeddedStorage storage;
+    private UserID userId;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        storage = new EmbeddedStorage(tempDir, false);
+        userId = new UserID("embedded_user");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    @DisplayName("Test profile round trip through ProfileContextStore and a reopen")
+    public void testProfileRoundTrip() throws Exception {
+        // Arrange
+        ProfileContextStore store = new ProfileContextStore(storage);
+        Profile profile = new Profile();
+        profile.setUserId(userId);
+        profile.setPreferences(new Preferences(new ArrayList<>(Arrays.asList("museums", "cafes")),
+                                               "medium", 1500, "transit", true));
+
+        // Act
+        store.saveProfile(profile);
+        storage.close();
+        storage = new EmbeddedStorage(tempDir, false);
+        Profile loaded = new ProfileContextStore(storage).loadProfile(userId);
+
+        // Assert
+        assertNotNull(loaded);
+        Preferences prefs = loaded.getPreferences();
+        assertEquals(Arrays.asList("museums", "cafes"), prefs.getInterests());
+        assertEquals("medium", prefs.getBudget());
+        assertEquals(1500, prefs.getRadius());
+        assertEquals("transit", prefs.getTransportMode());
+        assertTrue(prefs.isAccessibilityNeeds());
+        assertEquals(1, storage.getProfileCount());
+    }
+
+    @Test
+    @DisplayName("Test sessions by user are newest first and survive a reopen")
+    public void testSessionsByUser() throws Exception {
+        // Arrange
+        storage.saveSession(session("s-old", userId, 1000));
+        storage.saveSession(session("s-new", userId, 3000));
+        storage.saveSession(session("s-mid", userId, 2000));
+        storage.saveSession(session("s-other", new UserID("someone_else"), 4000));
+
+        // Act
+        storage.close();
+        storage = new EmbeddedStorage(tempDir, false);
+        List<Session> sessions = storage.getSessionsByUser(userId);
+
+        // Assert
+        assertEquals(3, sessions.size());
+        assertEquals("s-new", sessions.get(0).getSessionId().getValue());
+        assertEquals("s-mid", sessions.get(1).getSessionId().getValue());
+        assertEquals("s-old", sessions.get(2).getSessionId().getValue());
+        assertEquals(4, storage.getSessionCount());
+    }
+
+    @Test
+    @DisplayName("Test session history pages follow the cursor without gaps or repeats")
+    public void testSessionHistoryPages() {
+        // Arrange - 7 sessions, two pairs created in the same millisecond
+        long[] created = {1000, 2000, 2000, 3000, 4000, 4000, 5000};
+        for (int i = 0; i < created.length; i++) {
+            Session session = session("s-" + i, userId, created[i]);
+            session.setRequestCount(i);
+            storage.saveSession(session);
+        }
+        ProfileContextStore store = new ProfileContextStore(storage);
+
+        // Act
+        List<String> seen = new ArrayList<>();
+        SessionPage page = store.getSessionHistory(userId, null, 3);
+        int pages = 1;
+        page.getSessions().forEach(s -> seen.add(s.getSessionId().getValue()));
+        while (page.hasMore()) {
+            page = store.getSessionHistory(userId, page.getNextCursor(), 3);
+            page.getSessions().forEach(s -> seen.add(s.getSessionId().getValue()));
+            pages++;
+        }
+
+        // Assert - newest first, ties by session ID descending
+        assertEquals(Arrays.asList("s-6", "s-5", "s-4", "s-3", "s-2", "s-1", "s-0"), seen);
+        assertEquals(3, pages);
+        SessionSummary first = store.getSessionHistory(userId, null, 1).getSessions().get(0);
+        assertEquals(6, first.getRequestCount());
+        assertEquals(Instant.ofEpochMilli(5000), first.getCreatedAt());
+        assertTrue(store.getSessionHistory(new UserID("nobody"), null, 3).getSessions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test counts are kept in memory from saves and corrected by a recount")
+    public void testCachedCounts() {
+        // Arrange
+        ProfileContextStore store = new ProfileContextStore(storage);
+        store.saveProfile(profile("counted_1"));
+        assertEquals(1, store.getProfileCount());
+
+        // Act - new rows through the store are counted, re-saves are not
+        store.saveProfile(profile("counted_2"));
+        store.saveProfile(profile("counted_2"));
+        store.saveSession(session("s-1", userId, 1000));
+        store.saveSession(session("s-1", userId, 1000));
+        // a row written behind the store's back is only seen by a recount
+        storage.saveProfile(profile("uncounted"));
+        int beforeRecount = store.getProfileCount();
+        store.recount();
+
+        // Assert
+        assertEquals(2, beforeRecount);
+        assertEquals(3, store.getProfileCount());
+        assertEquals(1, store.getSessionCount());
+    }
+
+    @Test
+    @DisplayName("Test saving a session again updates its request count")
+    public void testSessionUpdate() {
+        // Arrange
+        Session session = session("s-1", userId, 1000);
+        storage.saveSession(session);
+
+        // Act
+        session.incrementRequestCount();
+        session.incrementRequestCount();
+        storage.saveSession(session);
+
+        // Assert
+        Session loaded = storage.loadSession(new SessionID("s-1"));
+        assertEquals(2, loaded.getRequestCount());
+        assertEquals(Instant.ofEpochMilli(1000), loaded.getCreatedAt());
+        assertEquals(1, storage.getSessionCount());
+    }
+
+    @Test
+    @DisplayName("Test POIs can be saved, loaded and deleted")
+    public void testPOIs() {
+        // Arrange
+        List<POI> pois = TorontoPOIData.getSamplePOIs();
+
+        // Act
+        storage.savePOIs(pois);
+        storage.deletePOIs(Arrays.asList(pois.get(0).getId(), "no-such-poi"));
+        List<POI> loaded = storage.loadPOIs();
+
+        // Assert
+        assertEquals(pois.size() - 1, loaded.size());
+        POI expected = pois.get(1);
+        POI actual = loaded.stream().filter(p -> p.getId().equals(expected.getId())).findFirst().orElse(null);
+        assertNotNull(actual);
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getCategory(), actual.getCategory());
+        assertEquals(expected.getLocation().getLatitude(), actual.getLocation().getLatitude());
+        assertEquals(expected.getRating(), actual.getRating());
+        assertFalse(loaded.stream().anyMatch(p -> p.getId().equals(pois.get(0).getId())));
+    }
+
+    @Test
+    @DisplayName("Test events are filtered by user and time")
+    public void testEvents() throws Exception {
+        // Arrange
+        storage.appendEvent(new Event("search", userId, Instant.ofEpochMilli(1000), "{}"));
+        storage.appendEvent(new Event("select_card", userId, Instant.ofEpochMilli(3000), "{\"poi\":\"p1\"}"));
+        storage.appendEvent(new Event("search", new UserID("someone_else"), Instant.ofEpochMilli(2000), "{}"));
+
+        // Act - reopening must not reuse event keys
+        storage.close();
+        storage = new EmbeddedStorage(tempDir, false);
+        storage.appendEvent(new Event("view_itinerary", userId, Instant.ofEpochMilli(4000), null));
+        List<Event> events = storage.getEventsByUser(userId, Instant.ofEpochMilli(2000));
+
+        // Assert
+        assertEquals(2, events.size());
+        assertEquals("select_card", events.get(0).getEventType());
+        assertEquals("{\"poi\":\"p1\"}", events.get(0).getDetails());
+        assertEquals("view_itinerary", events.get(1).getEventType());
+        assertEquals(3, storage.getEventsByUser(userId, null).size());
+    }
+
+    @Test
+    @DisplayName("Test strings over 64 KB and POIs without a location are stored")
+    public void testLongStringsAndMissingLocation() throws Exception {
+        // Arrange
+        String details = "{\"note\": \"" + "é".repeat(40000) + "\"}";
+        POI unlocated = new POI("poi_nowhere", "Pop-up Market", null, "shopping", 4.1f);
+
+        // Act
+        storage.appendEvent(new Event("search", userId, Instant.ofEpochMilli(1000), details));
+        storage.savePOIs(List.of(unlocated));
+        storage.close();
+        storage = new EmbeddedStorage(tempDir, false);
+
+        // Assert
+        assertEquals(details, storage.getEventsByUser(userId, null).get(0).getDetails());
+        POI loaded = storage.loadPOIs().get(0);
+        assertEquals("Pop-up Market", loaded.getName());
+        assertNull(loaded.getLocation());
+    }
+
+    @Test
+    @DisplayName("Test list entries over 64 KB, null entries and lists in the old format are read")
+    public void testLongAndNullListEntries() throws Exception {
+        // Arrange - a POI saved before long list entries, written as it was then
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(1);
+            out.writeUTF("Old Market");
+            out.writeByte(0);
+            out.writeDouble(43.65);
+            out.writeDouble(-79.38);
+            out.writeFloat(4.0f);
+            out.writeByte(0);
+            out.writeInt(2);
+            out.writeUTF("market");
+            out.writeUTF("outdoor");
+            out.writeBoolean(true);
+            out.writeByte(0);
+        }
+        storage.getLogStore().put("poi", "poi_old", bytes.toByteArray());
+        String longTag = "ü".repeat(40000);
+        POI tagged = new POI("poi_tagged", "Long Tags", new LatLng(43.66, -79.39), "shopping", 4.2f);
+        tagged.setTags(new ArrayList<>(Arrays.asList(longTag, null, "short")));
+        Profile profile = profile("long_interest_user");
+        profile.getPreferences().setInterests(new ArrayList<>(Arrays.asList(longTag, null)));
+
+        // Act
+        storage.savePOIs(List.of(tagged));
+        storage.saveProfile(profile);
+        storage.close();
+        storage = new EmbeddedStorage(tempDir, false);
+
+        // Assert
+        List<POI> pois = storage.loadPOIs();
+        assertEquals(Arrays.asList("market", "outdoor"), pois.get(0).getTags());
+        assertEquals(Arrays.asList(longTag, null, "short"), pois.get(1).getTags());
+        assertEquals(Arrays.asList(longTag, null),
+                     storage.loadProfile(new UserID("long_interest_user")).getPreferences().getInterests());
+    }
+
+    private static Profile profile(String id) {
+        Profile profile = new Profile();
+        profile.setUserId(new UserID(id));
+        profile.setPreferences(new Preferences(new ArrayList<>(Arrays.asList("parks")), "low", 1000, "walking", false));
+        return profile;
+    }
+
+    private static Session session(String id, UserID user, long createdMillis) {
+        Session session = new Session();
+        session.setSessionId(new SessionID(id));
+        session.setUserId(user);
+        session.setCreatedAt(Instant.ofEpochMilli(createdMillis));
+        return session;
+    }
+}
@@ -0,0 +1,136 @@
+package test.model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Itinerary;
+import model.ItineraryPrefetcher;
+import model.RecommendationCard;
+import model.RecommendationEngine;
+import domain.Preferences;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JUnit 5 tests for ItineraryPrefetcher.
+ * Tests speculative itinerary building for top-ranked cards, on the
+ * shared executor and on a full one.
+ */
+public class ItineraryPrefetcherTest {
+
+    private ItineraryPrefetcher prefetcher;
+    private RecommendationEngine engine;
+    private Preferences prefs;
+    private List<RecommendationCard> cards;
+
+    @BeforeEach
+    public void setUp() {
+        prefetcher = new ItineraryPrefetcher();
+        engine = new RecommendationEngine();
+        prefs = new Preferences(Arrays.asList("museums"), "medium", 5000, "walking", false);
+
+        cards = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            RecommendationCard card = new RecommendationCard();
+            card.setPlaceId("poi_00" + i);
+            card.setName("Place " + i);
+            card.setRating(4.0f);
+            card.setDistance(100 * i);
+            cards.add(card);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        prefetcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test top cards are prefetched and served as cache hits")
+    public void testPrefetchTopCards() {
+        // Act
+        prefetcher.prefetch(engine, prefs, cards);
+        Itinerary itinerary = prefetcher.getItinerary(engine, prefs, cards.get(0));
+
+        // Assert
+        assertNotNull(itinerary);
+        assertTrue(prefetcher.isCached("poi_003"), "Top 3 cards should be prefetched");
+        assertFalse(prefetcher.isCached("poi_004"), "Cards beyond top N should not be prefetched");
+        assertEquals(1, prefetcher.getHitCount());
+        assertEquals(0, prefetcher.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Test cache miss builds itinerary synchronously")
+    public void testCacheMiss() {
+        // Act
+        prefetcher.prefetch(engine, prefs, cards);
+        Itinerary itinerary = prefetcher.getItinerary(engine, prefs, cards.get(4));
+
+        // Assert
+        assertNotNull(itinerary);
+        assertEquals(1, prefetcher.getMissCount());
+        assertTrue(prefetcher.isCached("poi_005"), "Built itinerary should be cached");
+    }
+
+    @Test
+    @DisplayName("Test cancel drops prefetched itineraries")
+    public void testCancel() {
+        // Act
+        prefetcher.prefetch(engine, prefs, cards);
+        prefetcher.cancel();
+
+        // Assert
+        assertFalse(prefetcher.isCached("poi_001"));
+    }
+
+    @Test
+    @DisplayName("Test a full executor skips prefetches and a slow prefetch is built inline")
+    public void testBusyExecutor() throws Exception {
+        // Arrange - one worker, held busy, and room for one queued task
+        ThreadPoolExecutor busy = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        busy.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ItineraryPrefetcher bounded = new ItineraryPrefetcher(busy);
+        bounded.setWaitMillis(20);
+
+        try {
+            // Act
+            bounded.prefetch(engine, prefs, cards);
+            boolean secondQueued = bounded.isCached("poi_002");
+            Itinerary itinerary = bounded.getItinerary(engine, prefs, cards.get(0));
+
+            // Assert - only the first card fit in the queue, and nobody waited for it
+            assertFalse(secondQueued, "Cards that do not fit in the queue are not prefetched");
+            assertNotNull(itinerary);
+            assertEquals(0, bounded.getHitCount());
+            assertEquals(1, bounded.getMissCount());
+        } finally {
+            release.countDown();
+            busy.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a shut down prefetcher starts no new prefetches")
+    public void testShutdown() {
+        // Act
+        prefetcher.shutdown();
+        prefetcher.prefetch(engine, prefs, cards);
+
+        // Assert
+        assertFalse(prefetcher.isCached("poi_001"));
+        assertNotNull(prefetcher.getItinerary(engine, prefs, cards.get(0)));
+    }
+}
@@ -0,0 +1,112 @@
+package test.model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.NearbyTracker;
+import service.IntegrationLayer;
+import service.PlacesService;
+import service.TorontoPOIData;
+import domain.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JUnit 5 tests for NearbyTracker.
+ * Tests incremental nearby results for a moving user.
+ */
+public class NearbyTrackerTest {
+
+    private NearbyTracker tracker;
+    private IntegrationLayer integrationLayer;
+    private Preferences testPreferences;
+
+    @BeforeEach
+    public void setUp() {
+        integrationLayer = new IntegrationLayer();
+        integrationLayer.setPlacesService(new PlacesService(TorontoPOIData.getSamplePOIs()));
+
+        tracker = new NearbyTracker();
+        tracker.setIntegrationLayer(integrationLayer);
+
+        testPreferences = new Preferences();
+        testPreferences.setInterests(new ArrayList<>());
+        testPreferences.setBudget("high");
+        testPreferences.setRadius(600);
+    }
+
+    @Test
+    @DisplayName("Test initial fix reports everything in range")
+    public void testStart() {
+        // Act
+        NearbyTracker.Update update = tracker.start(new LatLng(43.6532, -79.3832), testPreferences, 0);
+
+        // Assert
+        assertFalse(update.isThrottled());
+        assertEquals(ids(integrationLayer.getNearbyPlaces(new LatLng(43.6532, -79.3832), testPreferences)),
+                     ids(tracker.getInRange()));
+    }
+
+    @Test
+    @DisplayName("Test fixes close in time or space are throttled")
+    public void testThrottling() {
+        // Arrange
+        tracker.start(new LatLng(43.6532, -79.3832), testPreferences, 0);
+
+        // Act
+        NearbyTracker.Update tooSoon = tracker.onFix(new LatLng(43.6500, -79.3832), 500);
+        NearbyTracker.Update tooClose = tracker.onFix(new LatLng(43.6533, -79.3832), 5000);
+
+        // Assert
+        assertTrue(tooSoon.isThrottled());
+        assertTrue(tooClose.isThrottled());
+    }
+
+    @Test
+    @DisplayName("Test walking south updates results without refetching every fix")
+    public void testWalkingUpdates() {
+        // Arrange
+        tracker.start(new LatLng(43.6532, -79.3832), testPreferences, 0);
+
+        // Act - walk ~100m per fix towards the CN Tower
+        Set<String> entered = new HashSet<>();
+        long time = 0;
+        for (double lat = 43.6522; lat >= 43.6430; lat -= 0.0009) {
+            time += 5000;
+            NearbyTracker.Update update = tracker.onFix(new LatLng(lat, -79.3860), time);
+            entered.addAll(ids(update.getEntered()));
+        }
+
+        // Assert
+        assertTrue(entered.contains("poi_012"), "CN Tower should enter range");
+        assertTrue(tracker.getFetchCount() < 5, "Should refetch only when leaving the margin");
+    }
+
+    @Test
+    @DisplayName("Test hysteresis keeps POIs just outside the radius")
+    public void testHysteresis() {
+        // Arrange
+        tracker.setExitBufferMeters(200);
+        tracker.setMinMoveMeters(0);
+        LatLng start = new LatLng(43.6520, -79.3810);    // Coffee Culture
+        tracker.start(start, testPreferences, 0);
+        assertTrue(ids(tracker.getInRange()).contains("poi_009"));
+
+        // Act - move ~650m away (past radius, within exit buffer)
+        NearbyTracker.Update update = tracker.onFix(new LatLng(43.6520 + 0.00585, -79.3810), 5000);
+
+        // Assert
+        assertFalse(ids(update.getLeft()).contains("poi_009"), "Should not leave inside the exit buffer");
+        assertTrue(ids(tracker.getInRange()).contains("poi_009"));
+    }
+
+    private Set<String> ids(List<POI> pois) {
+        Set<String> ids = new HashSet<>();
+        for (POI poi : pois) {
+            ids.add(poi.getId());
+        }
+        return ids;
+    }
+}
@@ -5,8 +5,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import model.RecommendationEngine;
 import model.RecommendationCard;
+import model.Itinerary;
 import service.IntegrationLayer;
 import service.PlacesService;
+import service.TorontoPOIData;
+import service.TransitService;
 import domain.*;
 import java.util.Arrays;
 import java.util.List;
@@ -227,6 +230,33 @@ public class RecommendationEngineTest {
         assertNotNull(cards);
     }
 
+    @Test
+    @DisplayName("Test itinerary legs are timed after the candidate cache is cleared")
+    public void testItineraryAfterCacheCleared() {
+        // Arrange - a catalog without the database, and transit for the legs
+        RecommendationEngine itineraryEngine = new RecommendationEngine();
+        IntegrationLayer layer = new IntegrationLayer();
+        layer.setPlacesService(new PlacesService(TorontoPOIData.getSamplePOIs()));
+        layer.setTransitService(new TransitService());
+        itineraryEngine.setIntegrationLayer(layer);
+        RecommendationCard card = new RecommendationCard();
+        card.setPlaceId("poi_012");
+        card.setName("CN Tower");
+        card.setCategory("entertainment");
+        itineraryEngine.rankPOIs(testPreferences, testContext);
+        itineraryEngine.clearCache();
+
+        // Act
+        Itinerary itinerary = itineraryEngine.buildMicroItinerary(testPreferences, card);
+
+        // Assert - the first leg starts at the card's POI, so it takes time
+        String firstLeg = itinerary.getSteps().stream()
+            .filter(step -> step.startsWith("2. "))
+            .findFirst().orElseThrow();
+        assertTrue(firstLeg.startsWith("2. Walking"), firstLeg);
+        assertFalse(firstLeg.contains(" 0 min (0m)"), firstLeg);
+    }
+
     // ========== Edge Cases ==========
 
     @Test
@@ -0,0 +1,147 @@
+package test.model;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.ConversationTurn;
+import model.EmbeddedStorage;
+import model.ProfileContextStore;
+import model.Session;
+import model.SessionExpiryJob;
+import domain.*;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for SessionExpiryJob.
+ * Tests archiving idle sessions (and their conversation history) in
+ * batches on the embedded store, refusing turns of archived sessions,
+ * and evicting them from the ProfileContextStore cache and count.
+ */
+public class SessionExpiryJobTest {
+
+    @TempDir
+    Path tempDir;
+
+    private EmbeddedStorage storage;
+    private ProfileContextStore store;
+    private UserID userId;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        storage = new EmbeddedStorage(tempDir, false);
+        store = new ProfileContextStore(storage);
+        userId = new UserID("expiry_user");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    @DisplayName("Test idle sessions are archived in batches and evicted from the cache")
+    public void testExpireIdleSessions() throws Exception {
+        // Arrange - 5 sessions, all loaded into the cache
+        for (int i = 0; i < 5; i++) {
+            store.saveSession(session("idle-" + i));
+            assertNotNull(store.loadSession(new SessionID("idle-" + i)));
+        }
+        assertEquals(5, store.getSessionCount());
+        storage.appendConversationTurns(List.of(new ConversationTurn(new SessionID("idle-0"), Instant.now(),
+                                                                     ConversationTurn.ROLE_USER, "Plan: parks", null)));
+        Thread.sleep(5);
+
+        // Act - TTL of zero: everything saved before now is idle
+        int archived = new SessionExpiryJob(store, Duration.ZERO, 2, 0, 10).runOnce();
+
+        // Assert
+        assertEquals(5, archived);
+        assertTrue(storage.loadRecentTurns(new SessionID("idle-0"), 10).isEmpty());
+        assertEquals(1, storage.getLogStore().size("turn_archive"), "conversation history is archived, not deleted");
+        assertEquals(0, store.getSessionCount());
+        assertNull(store.loadSession(new SessionID("idle-0")));
+        assertTrue(store.getSessionHistory(userId, null, 10).getSessions().isEmpty());
+        assertEquals(0, new SessionExpiryJob(store, Duration.ZERO, 2, 0, 10).runOnce());
+    }
+
+    @Test
+    @DisplayName("Test active sessions are kept and a run stops after its batch limit")
+    public void testKeepsActiveSessions() throws Exception {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            store.saveSession(session("old-" + i));
+        }
+        Thread.sleep(5);
+        Instant cutoff = Instant.now();
+        Thread.sleep(5);
+        store.saveSession(session("active"));
+        Thread.sleep(5);
+
+        // Act - one batch of 2 per run, with 6 idle sessions
+        int firstRun = new SessionExpiryJob(store, Duration.ZERO, 2, 0, 1).runOnce();
+        int secondRun = store.archiveIdleSessions(cutoff, 1);
+        int longTtl = new SessionExpiryJob(store, Duration.ofHours(1), 2, 0, 1).runOnce();
+
+        // Assert - the oldest go first, and "active" outlives the cutoff
+        assertEquals(2, firstRun);
+        assertEquals(1, secondRun);
+        assertEquals(0, longTtl);
+        assertEquals(3, store.getSessionCount());
+        assertEquals(2, store.archiveIdleSessions(cutoff, 10));
+        assertNotNull(store.loadSession(new SessionID("active")));
+
+        // Archived sessions stay gone after a reopen
+        storage.close();
+        storage = new EmbeddedStorage(tempDir, false);
+        assertEquals(1, storage.getSessionCount());
+    }
+
+    @Test
+    @DisplayName("Test turns of an archived session are rejected and a re-created ID keeps its archived turns")
+    public void testArchivedTurnsKept() throws Exception {
+        // Arrange - archive "reused" with one turn, then create it again with another
+        SessionID reused = new SessionID("reused");
+        store.saveSession(session("reused"));
+        storage.appendConversationTurns(List.of(turn(reused, "first life")));
+        Thread.sleep(5);
+        new SessionExpiryJob(store, Duration.ZERO, 10, 0, 10).runOnce();
+
+        // Act & Assert - like the foreign key, a turn without a session is refused
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> storage.appendConversationTurns(List.of(turn(reused, "orphan"))));
+        assertEquals("23000", ((SQLException) e.getCause()).getSQLState());
+
+        store.saveSession(session("reused"));
+        storage.appendConversationTurns(List.of(turn(reused, "second life")));
+        Thread.sleep(5);
+        new SessionExpiryJob(store, Duration.ZERO, 10, 0, 10).runOnce();
+
+        // Assert - both lives are archived, also after a reopen
+        assertEquals(2, storage.getLogStore().size("turn_archive"));
+        storage.close();
+        storage = new EmbeddedStorage(tempDir, false);
+        store = new ProfileContextStore(storage);
+        store.saveSession(session("reused"));
+        storage.appendConversationTurns(List.of(turn(reused, "third life")));
+        Thread.sleep(5);
+        new SessionExpiryJob(store, Duration.ZERO, 10, 0, 10).runOnce();
+        assertEquals(3, storage.getLogStore().size("turn_archive"));
+    }
+
+    private static ConversationTurn turn(SessionID id, String text) {
+        return new ConversationTurn(id, Instant.now(), ConversationTurn.ROLE_USER, text, null);
+    }
+
+    private Session session(String id) {
+        Session session = new Session();
+        session.setSessionId(new SessionID(id));
+        session.setUserId(userId);
+        session.setCreatedAt(Instant.now());
+        return session;
+    }
+}
@@ -0,0 +1,219 @@
+package test.model;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Itinerary;
+import model.TripPlanner;
+import service.IntegrationLayer;
+import service.TorontoPOIData;
+import service.TransitService;
+import domain.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JUnit 5 tests for TripPlanner.
+ * Tests time-budgeted multi-stop planning with anytime results.
+ */
+public class TripPlannerTest {
+
+    private TripPlanner planner;
+    private List<POI> candidates;
+    private LatLng start;
+
+    @BeforeEach
+    public void setUp() {
+        IntegrationLayer integrationLayer = new IntegrationLayer();
+        integrationLayer.setTransitService(new TransitService());
+
+        planner = new TripPlanner();
+        planner.setIntegrationLayer(integrationLayer);
+        planner.setWorkerCount(2);
+
+        candidates = TorontoPOIData.getSamplePOIs();
+        start = TorontoPOIData.getTorontoDowntown();
+    }
+
+    @Test
+    @DisplayName("Test planned trip fits in the time budget")
+    public void testPlanFitsBudget() {
+        // Act
+        Itinerary itinerary = planner.planTrip(start, candidates, "walking", 240, 300, null);
+
+        // Assert
+        assertNotNull(itinerary);
+        assertTrue(itinerary.getTotalETA() > 0, "Should plan at least one stop");
+        assertTrue(itinerary.getTotalETA() <= 240, "Trip should fit in 240 minutes");
+    }
+
+    @Test
+    @DisplayName("Test listener receives progressively better plans")
+    public void testAnytimeResults() {
+        // Arrange
+        List<Itinerary> updates = new ArrayList<>();
+
+        // Act
+        Itinerary best = planner.planTrip(start, candidates, "walking", 240, 300, updates::add);
+
+        // Assert
+        assertFalse(updates.isEmpty(), "Listener should receive at least one plan");
+        assertEquals(best.getSteps(), updates.get(updates.size() - 1).getSteps(),
+            "Last streamed plan should be the returned plan");
+    }
+
+    @Test
+    @DisplayName("Test plan visits stops in a shorter order than given")
+    public void testImprovesOnInputOrder() {
+        // Arrange - stops 1..5 on a line, 10 min apart, listed out of order
+        int[] inputOrder = {4, 1, 5, 2, 3};
+        List<POI> line = new ArrayList<>();
+        for (int k : inputOrder) {
+            line.add(linePOI(k, 4.0f));
+        }
+        int inputOrderMinutes = 0;
+        int prev = 0;
+        for (int k : inputOrder) {
+            inputOrderMinutes += 10 * Math.abs(k - prev) + 10;
+            prev = k;
+        }
+
+        // Act
+        Itinerary itinerary = linePlanner(0).planTrip(lineStart(), line, "walking", 240, 300, null);
+
+        // Assert - all five stops, visited 1, 2, 3, 4, 5
+        assertEquals(200, inputOrderMinutes);
+        assertEquals(100, itinerary.getTotalETA(), "Plan should visit the stops in line order");
+        assertTrue(itinerary.getTotalETA() < inputOrderMinutes);
+        assertTrue(itinerary.getSteps().get(0).contains("Stop 1"));
+        assertTrue(itinerary.getSteps().get(8).contains("Stop 5"));
+    }
+
+    @Test
+    @DisplayName("Test stops without an ETA are never planned")
+    public void testUnreachableStops() {
+        // Arrange - the two lowest rated stops (last in the matrix) get no ETA
+        List<POI> line = new ArrayList<>();
+        for (int k = 1; k <= 5; k++) {
+            line.add(linePOI(k, k <= 3 ? 4.0f : 1.0f));
+        }
+
+        // Act
+        Itinerary itinerary = linePlanner(2).planTrip(lineStart(), line, "walking", 240, 300, null);
+
+        // Assert
+        assertEquals(60, itinerary.getTotalETA());
+        assertTrue(itinerary.getSteps().stream().noneMatch(step -> step.contains("Stop 4") || step.contains("Stop 5")));
+    }
+
+    @Test
+    @DisplayName("Test planning still works when the shared executor is busy")
+    public void testBusyExecutor() throws Exception {
+        // Arrange - the executor's only thread is blocked and it queues nothing
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor busy = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+        busy.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        TripPlanner busyPlanner = new TripPlanner(busy);
+        busyPlanner.setIntegrationLayer(lineIntegrationLayer(0));
+        busyPlanner.setDwellMinutes("stop", 10);
+        busyPlanner.setWorkerCount(4);
+
+        try {
+            // Act
+            Itinerary itinerary = busyPlanner.planTrip(lineStart(), List.of(linePOI(1, 4.0f), linePOI(2, 4.0f)),
+                                                       "walking", 240, 100, null);
+
+            // Assert
+            assertEquals(40, itinerary.getTotalETA());
+        } finally {
+            release.countDown();
+            busy.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test budget too small for any stop")
+    public void testBudgetTooSmall() {
+        // Act
+        Itinerary itinerary = planner.planTrip(start, candidates, "walking", 5, 100, null);
+
+        // Assert
+        assertNotNull(itinerary);
+        assertEquals(0, itinerary.getTotalETA());
+    }
+
+    @Test
+    @DisplayName("Test empty candidates")
+    public void testEmptyCandidates() {
+        // Act
+        Itinerary itinerary = planner.planTrip(start, new ArrayList<>(), "walking", 240, 100, null);
+
+        // Assert
+        assertNotNull(itinerary);
+        assertTrue(itinerary.getSteps().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test planner without integration layer")
+    public void testNoIntegrationLayer() {
+        // Arrange
+        TripPlanner newPlanner = new TripPlanner();
+        Preferences prefs = new Preferences();
+
+        // Act
+        Itinerary itinerary = newPlanner.planTrip(start, prefs, 240, 100, null);
+
+        // Assert
+        assertNotNull(itinerary);
+        assertEquals(0, itinerary.getTotalETA());
+    }
+
+    // ========================================================================
+    // Line fixture: node k sits at latitude 43.0 + 0.01k, 10 min per step
+    // ========================================================================
+
+    private static LatLng lineStart() {
+        return new LatLng(43.0, -79.0);
+    }
+
+    private static POI linePOI(int k, float rating) {
+        POI poi = new POI("line-" + k, "Stop " + k, new LatLng(43.0 + 0.01 * k, -79.0), "stop", rating);
+        poi.setOpenNow(true);
+        return poi;
+    }
+
+    private static TripPlanner linePlanner(int unreachableAtEnd) {
+        TripPlanner linePlanner = new TripPlanner();
+        linePlanner.setIntegrationLayer(lineIntegrationLayer(unreachableAtEnd));
+        linePlanner.setDwellMinutes("stop", 10);
+        linePlanner.setWorkerCount(2);
+        return linePlanner;
+    }
+
+    /**
+     * Transit on the line; the last unreachableAtEnd destinations get no ETA.
+     */
+    private static IntegrationLayer lineIntegrationLayer(int unreachableAtEnd) {
+        IntegrationLayer integrationLayer = new IntegrationLayer();
+        integrationLayer.setTransitService(req -> {
+            List<ETA> etas = new ArrayList<>();
+            int reachable = req.getDestinations().size() - unreachableAtEnd;
+            for (int j = 0; j < reachable; j++) {
+                double steps = Math.abs(req.getDestinations().get(j).getLatitude() - req.getOrigin().getLatitude()) / 0.01;
+                etas.add(new ETA(10 * (int) Math.round(steps), 0, req.getMode()));
+            }
+            return etas;
+        });
+        return integrationLayer;
+    }
+}
@@ -0,0 +1,134 @@
+package test.perf;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import domain.*;
+import model.RecommendationEngine;
+import service.IntegrationLayer;
+import service.PlacesService;
+import service.SyntheticPOIGenerator;
+import service.TransitService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Allocation budgets for the request hot paths.
+ *
+ * Each test measures the bytes one call allocates (see AllocationMeter) on a
+ * fixed synthetic catalog and fails if it exceeds the budget, so a change
+ * that makes search, ranking or ETAs allocate much more shows up as a test
+ * failure rather than as GC pressure under load. Measured values are
+ * published as report entries next to the JUnit results.
+ *
+ * Budgets are about 1.4x the bytes measured when they were set (10,000 POIs,
+ * 2 km radius, 3 interests: 779 matches). If a change legitimately needs
+ * more, raise the budget in the same commit and say why.
+ */
+public class AllocationBudgetTest {
+
+    private static final int CATALOG_SIZE = 10_000;
+    private static final int ETA_DESTINATIONS = 20;
+
+    // Bytes per call
+    private static final long SEARCH_BUDGET = 48_000;          // measured ~35 KB
+    private static final long RANK_BUDGET = 600_000;           // measured ~441 KB (cards for 779 POIs)
+    private static final long RERANK_CACHED_BUDGET = 10_000;   // measured ~6 KB
+    private static final long ETA_BUDGET = 1_200;              // measured ~816 B for 20 destinations
+
+    private static PlacesService placesService;
+    private static RecommendationEngine engine;
+    private static TransitService transitService;
+    private static Preferences prefs;
+    private static Context ctx;
+
+    private final AllocationMeter meter = new AllocationMeter(300, 100, 3);
+
+    @BeforeAll
+    public static void setUpCatalog() {
+        placesService = new PlacesService(new SyntheticPOIGenerator(42).generate(CATALOG_SIZE));
+        transitService = new TransitService();
+
+        IntegrationLayer integrationLayer = new IntegrationLayer();
+        integrationLayer.setPlacesService(placesService);
+        integrationLayer.setTransitService(transitService);
+        engine = new RecommendationEngine();
+        engine.setIntegrationLayer(integrationLayer);
+
+        prefs = new Preferences(new ArrayList<>(Arrays.asList("restaurants", "cafes", "museums")),
+                                "high", 2000, "walking", false);
+        ctx = new Context(new LatLng(43.6532, -79.3832), LocalDateTime.of(2025, 6, 1, 14, 0), null, "afternoon");
+    }
+
+    @BeforeEach
+    public void requireAllocationCounter() {
+        assumeTrue(AllocationMeter.isSupported(), "JVM does not count per-thread allocations");
+    }
+
+    @Test
+    @DisplayName("Test searchPlaces stays within its allocation budget")
+    public void testSearchPlacesBudget(TestReporter reporter) {
+        // Arrange
+        int matches = placesService.searchPlaces(ctx.getCurrentLocation(), prefs).size();
+        assertTrue(matches > 500, "Catalog should give a realistic result set, got " + matches);
+
+        // Act
+        long bytes = meter.bytesPerCall(() -> placesService.searchPlaces(ctx.getCurrentLocation(), prefs));
+        reporter.publishEntry("searchPlaces.bytesPerCall", String.valueOf(bytes));
+
+        // Assert
+        assertTrue(bytes <= SEARCH_BUDGET, "searchPlaces allocated " + bytes + " B, budget " + SEARCH_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Test rankPOIs (cache miss) stays within its allocation budget")
+    public void testRankPOIsBudget(TestReporter reporter) {
+        // Act
+        long bytes = meter.bytesPerCall(() -> {
+            engine.clearCache();
+            return engine.rankPOIs(prefs, ctx);
+        });
+        reporter.publishEntry("rankPOIs.bytesPerCall", String.valueOf(bytes));
+
+        // Assert
+        assertTrue(bytes <= RANK_BUDGET, "rankPOIs allocated " + bytes + " B, budget " + RANK_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Test re-ranking cached cards stays within its allocation budget")
+    public void testRerankCachedBudget(TestReporter reporter) {
+        // Arrange - fill the candidate cache
+        engine.clearCache();
+        engine.rankPOIs(prefs, ctx);
+
+        // Act
+        long bytes = meter.bytesPerCall(() -> engine.rankPOIs(prefs, ctx));
+        reporter.publishEntry("rankPOIs.cached.bytesPerCall", String.valueOf(bytes));
+
+        // Assert
+        assertTrue(bytes <= RERANK_CACHED_BUDGET,
+                   "cached rankPOIs allocated " + bytes + " B, budget " + RERANK_CACHED_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Test getTransitETAs stays within its allocation budget")
+    public void testTransitETAsBudget(TestReporter reporter) {
+        // Arrange
+        List<POI> pois = placesService.searchPlaces(ctx.getCurrentLocation(), prefs);
+        List<LatLng> destinations = new ArrayList<>();
+        for (int i = 0; i < ETA_DESTINATIONS; i++) {
+            destinations.add(pois.get(i).getLocation());
+        }
+        RouteRequest request = new RouteRequest(ctx.getCurrentLocation(), destinations, "walking");
+
+        // Act
+        long bytes = meter.bytesPerCall(() -> transitService.getTransitETAs(request));
+        reporter.publishEntry("getTransitETAs.bytesPerCall", String.valueOf(bytes));
+
+        // Assert
+        assertTrue(bytes <= ETA_BUDGET, "getTransitETAs allocated " + bytes + " B, budget " + ETA_BUDGET);
+    }
+}
@@ -0,0 +1,72 @@
+package test.perf;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap bytes allocated per call of an operation on the current
+ * thread, using the HotSpot per-thread allocation counter
+ * (com.sun.management.ThreadMXBean.getThreadAllocatedBytes).
+ *
+ * The operation is warmed up first so the JIT has compiled it (and applied
+ * escape analysis) before measuring. Several rounds are measured and the
+ * lowest is kept: a stray allocation by the JIT or a TLAB refill only ever
+ * adds bytes, so the minimum is the steady-state cost.
+ */
+public final class AllocationMeter {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int warmupCalls;
+    private final int callsPerRound;
+    private final int rounds;
+
+    public AllocationMeter(int warmupCalls, int callsPerRound, int rounds) {
+        this.warmupCalls = warmupCalls;
+        this.callsPerRound = callsPerRound;
+        this.rounds = rounds;
+    }
+
+    /**
+     * Whether this JVM can count allocated bytes per thread.
+     */
+    public static boolean isSupported() {
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        if (!THREADS.isThreadAllocatedMemoryEnabled()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+
+    /**
+     * Bytes allocated by one call of the operation, in the steady state.
+     *
+     * @param operation Called repeatedly; its result is kept live so the JIT
+     *                  cannot drop the work
+     */
+    public long bytesPerCall(java.util.function.Supplier<?> operation) {
+        for (int i = 0; i < warmupCalls; i++) {
+            sink(operation.get());
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long before = THREADS.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < callsPerRound; i++) {
+                sink(operation.get());
+            }
+            long allocated = THREADS.getThreadAllocatedBytes(threadId) - before;
+            best = Math.min(best, allocated / callsPerRound);
+        }
+        return best;
+    }
+
+    private Object last;
+
+    private void sink(Object value) {
+        last = value;
+    }
+}
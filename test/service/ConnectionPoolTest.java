@@ -0,0 +1,256 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.ConnectionPool;
+import service.DatabaseConnection;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for ConnectionPool.
+ * Tests connection reuse, the per-connection prepared statement cache and
+ * its LRU eviction (skipping statements in use), result set cleanup, the
+ * connection limit, and dropping broken connections.
+ */
+public class ConnectionPoolTest {
+
+    private FakeDatabase database;
+
+    @BeforeEach
+    public void setUp() {
+        database = new FakeDatabase();
+    }
+
+    @Test
+    @DisplayName("Test a returned connection and its prepared statements are reused")
+    public void testStatementReuse() throws SQLException {
+        // Arrange
+        ConnectionPool pool = new ConnectionPool(database, 2, 8, 1000);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT * FROM profiles WHERE user_id = ?")) {
+                stmt.setString(1, "user_" + i);
+                stmt.executeQuery();
+            }
+        }
+
+        // Assert
+        assertEquals(1, database.connects);
+        assertEquals(1, database.prepares.size());
+        assertEquals(0, database.statementCloses);
+        assertEquals(3, database.parameterClears, "closing a cached statement should only clear its parameters");
+        assertEquals(1, pool.getIdleCount());
+        pool.close();
+        assertEquals(1, database.connectionCloses);
+    }
+
+    @Test
+    @DisplayName("Test the least recently used statement is evicted and closed")
+    public void testStatementEviction() throws SQLException {
+        // Arrange
+        ConnectionPool pool = new ConnectionPool(database, 1, 2, 1000);
+
+        // Act
+        try (Connection conn = pool.getConnection()) {
+            for (String sql : new String[] {"A", "B", "A", "C", "A", "B"}) {
+                conn.prepareStatement(sql).close();
+            }
+        }
+
+        // Assert - C evicts B (A was used more recently), then B evicts C
+        assertEquals(List.of("A", "B", "C", "B"), database.prepares);
+        assertEquals(2, database.statementCloses);
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Test a statement still in use is not evicted")
+    public void testInUseStatementNotEvicted() throws SQLException {
+        // Arrange
+        ConnectionPool pool = new ConnectionPool(database, 1, 1, 1000);
+
+        // Act
+        try (Connection conn = pool.getConnection()) {
+            PreparedStatement first = conn.prepareStatement("A");
+            conn.prepareStatement("B").close();
+
+            // Assert - A is older but still open, so B is the one closed
+            assertEquals(1, database.statementCloses);
+            assertFalse(first.isClosed());
+            first.executeQuery();
+            first.close();
+            conn.prepareStatement("C").close();
+        }
+
+        // Assert - once A was returned it could be evicted for C
+        assertEquals(List.of("A", "B", "C"), database.prepares);
+        assertEquals(2, database.statementCloses);
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Test closing a cached statement closes its result set")
+    public void testResultSetClosed() throws SQLException {
+        // Arrange
+        ConnectionPool pool = new ConnectionPool(database, 1, 8, 1000);
+
+        // Act
+        try (Connection conn = pool.getConnection()) {
+            PreparedStatement stmt = conn.prepareStatement("SELECT 1");
+            ResultSet rs = stmt.executeQuery();
+            stmt.close();
+
+            // Assert
+            assertTrue(rs.isClosed());
+        }
+        try (Connection conn = pool.getConnection()) {
+            conn.prepareStatement("SELECT 1").executeQuery();
+        }
+
+        // Assert - returning the connection closes result sets left open
+        assertEquals(2, database.resultSetCloses);
+        assertEquals(0, database.statementCloses);
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Test getConnection waits for a free connection and times out")
+    public void testConnectionLimit() throws SQLException {
+        // Arrange
+        ConnectionPool pool = new ConnectionPool(database, 1, 8, 50);
+        Connection first = pool.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLException.class, pool::getConnection);
+        first.close();
+        assertTrue(first.isClosed());
+        assertThrows(SQLException.class, () -> first.prepareStatement("A"));
+        try (Connection second = pool.getConnection()) {
+            assertFalse(second.isClosed());
+        }
+        assertEquals(1, database.connects);
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Test a connection that failed with a connection error is not reused")
+    public void testBrokenConnectionDiscarded() throws SQLException {
+        // Arrange
+        ConnectionPool pool = new ConnectionPool(database, 2, 8, 1000);
+        database.failNextQuery = true;
+
+        // Act
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT 1")) {
+            assertThrows(SQLException.class, stmt::executeQuery);
+        }
+        try (Connection conn = pool.getConnection()) {
+            conn.prepareStatement("SELECT 1").close();
+        }
+
+        // Assert
+        assertEquals(2, database.connects);
+        assertEquals(1, database.connectionCloses);
+        pool.close();
+    }
+
+    /**
+     * Connection source whose connections and statements only count calls.
+     */
+    private static class FakeDatabase extends DatabaseConnection {
+        int connects;
+        int connectionCloses;
+        int statementCloses;
+        int parameterClears;
+        int resultSetCloses;
+        boolean failNextQuery;
+        final List<String> prepares = new ArrayList<>();
+
+        FakeDatabase() {
+            super(false);
+        }
+
+        @Override
+        public Connection getConnection() {
+            connects++;
+            boolean[] closed = {false};
+            return proxy(Connection.class, (method, args) -> {
+                switch (method) {
+                    case "prepareStatement":
+                        prepares.add((String) args[0]);
+                        return statement();
+                    case "close":
+                        closed[0] = true;
+                        connectionCloses++;
+                        return null;
+                    case "isClosed":
+                        return closed[0];
+                    case "getAutoCommit":
+                        return true;
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        private PreparedStatement statement() {
+            return proxy(PreparedStatement.class, (method, args) -> {
+                switch (method) {
+                    case "executeQuery":
+                        if (failNextQuery) {
+                            failNextQuery = false;
+                            throw new SQLException("Communications link failure", "08S01");
+                        }
+                        return resultSet();
+                    case "clearParameters":
+                        parameterClears++;
+                        return null;
+                    case "close":
+                        statementCloses++;
+                        return null;
+                    case "isClosed":
+                        return false;
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        private ResultSet resultSet() {
+            boolean[] closed = {false};
+            return proxy(ResultSet.class, (method, args) -> {
+                switch (method) {
+                    case "close":
+                        if (!closed[0]) {
+                            closed[0] = true;
+                            resultSetCloses++;
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed[0];
+                    default:
+                        return null;
+                }
+            });
+        }
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (p, method, args) -> handler.handle(method.getName(), args));
+    }
+}
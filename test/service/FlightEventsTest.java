@@ -0,0 +1,110 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.IntegrationLayer;
+import service.PlacesService;
+import service.TorontoPOIData;
+import service.TransitService;
+import domain.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for the FlightEvents JFR events.
+ * Records a short JFR session around real calls and checks the event fields.
+ */
+public class FlightEventsTest {
+
+    private PlacesService placesService;
+    private Preferences prefs;
+    private Path recordingFile;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        placesService = new PlacesService(TorontoPOIData.getSamplePOIs());
+        prefs = new Preferences();
+        prefs.setInterests(new ArrayList<>(Arrays.asList("restaurants", "museums")));
+        prefs.setBudget("high");
+        prefs.setRadius(5000);
+        recordingFile = Files.createTempFile("travel", ".jfr");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(recordingFile);
+    }
+
+    @Test
+    @DisplayName("Test search and external call events carry their fields")
+    public void testSearchEvents() throws Exception {
+        // Arrange
+        IntegrationLayer integration = new IntegrationLayer();
+        integration.setPlacesService(placesService);
+        integration.setTransitService(new TransitService());
+        LatLng downtown = new LatLng(43.6532, -79.3832);
+
+        // Act
+        List<POI> results;
+        try (Recording recording = new Recording()) {
+            recording.enable("travelassistant.Search").withoutThreshold();
+            recording.enable("travelassistant.ExternalCall").withoutThreshold();
+            recording.start();
+            results = integration.getNearbyPlaces(downtown, prefs);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+
+        // Assert
+        RecordedEvent search = only(events, "travelassistant.Search");
+        assertEquals(5000, search.getInt("radius"));
+        assertEquals(2, search.getInt("interests"));
+        assertEquals("high", search.getString("budget"));
+        assertEquals(TorontoPOIData.getSamplePOIs().size(), search.getInt("catalogSize"));
+        assertEquals(results.size(), search.getInt("results"));
+        assertTrue(search.getInt("candidates") >= results.size());
+
+        RecordedEvent call = only(events, "travelassistant.ExternalCall");
+        assertEquals("places", call.getString("service"));
+        assertEquals("searchPlaces", call.getString("operation"));
+        assertEquals(results.size(), call.getInt("results"));
+        assertFalse(call.getBoolean("failed"));
+    }
+
+    @Test
+    @DisplayName("Test no events are recorded when the event is disabled")
+    public void testDisabled() throws Exception {
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.disable("travelassistant.Search");
+            recording.start();
+            placesService.searchPlaces(new LatLng(43.6532, -79.3832), prefs);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // Assert
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+            assertNotEquals("travelassistant.Search", event.getEventType().getName());
+        }
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                matching.add(event);
+            }
+        }
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
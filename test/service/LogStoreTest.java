@@ -0,0 +1,131 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.LogStore;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * JUnit 5 tests for LogStore.
+ * Tests reads and writes, recovery after reopening or a torn write, and compaction.
+ */
+public class LogStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LogStore store;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        store = new LogStore(tempDir, false);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Test put, overwrite and delete by namespace")
+    public void testPutGetDelete() {
+        // Act
+        store.put("profile", "u1", bytes("first"));
+        store.put("profile", "u1", bytes("second"));
+        store.put("session", "u1", bytes("other namespace"));
+        store.put("profile", "u2", bytes("gone"));
+        store.delete("profile", "u2");
+
+        // Assert
+        assertEquals("second", text(store.get("profile", "u1")));
+        assertEquals("other namespace", text(store.get("session", "u1")));
+        assertNull(store.get("profile", "u2"));
+        assertFalse(store.contains("profile", "u2"));
+        assertEquals(1, store.size("profile"));
+        assertEquals(2, store.liveKeyCount());
+    }
+
+    @Test
+    @DisplayName("Test reopening rebuilds the index from the log")
+    public void testReopen() throws IOException {
+        // Arrange
+        store.put("profile", "u1", bytes("kept"));
+        store.put("profile", "u2", bytes("deleted"));
+        store.delete("profile", "u2");
+        store.close();
+
+        // Act
+        store = new LogStore(tempDir, false);
+
+        // Assert
+        assertEquals("kept", text(store.get("profile", "u1")));
+        assertNull(store.get("profile", "u2"));
+        assertEquals(1, store.size("profile"));
+    }
+
+    @Test
+    @DisplayName("Test a torn record at the end of the log is truncated on open")
+    public void testTornTailRecovery() throws IOException {
+        // Arrange - a crash in the middle of an append leaves a partial record
+        store.put("profile", "u1", bytes("complete"));
+        store.close();
+        Path log = tempDir.resolve(LogStore.LOG_FILE);
+        long goodLength = Files.size(log);
+        Files.write(log, new byte[] {0x12, 0x34, 0x56, 0x78, 0, 0, 0, 40, 1, 0}, StandardOpenOption.APPEND);
+
+        // Act
+        store = new LogStore(tempDir, false);
+        store.put("profile", "u2", bytes("after recovery"));
+        store.close();
+        store = new LogStore(tempDir, false);
+
+        // Assert
+        assertEquals("complete", text(store.get("profile", "u1")));
+        assertEquals("after recovery", text(store.get("profile", "u2")));
+        assertTrue(Files.size(log) > goodLength);
+    }
+
+    @Test
+    @DisplayName("Test compaction drops overwritten records and keeps live values")
+    public void testCompaction() throws IOException {
+        // Arrange
+        for (int i = 0; i < 200; i++) {
+            store.put("poi", "p" + (i % 10), bytes("value " + i));
+        }
+        store.delete("poi", "p9");
+        long before = store.getFileBytes();
+        assertTrue(store.getGarbageBytes() > 0);
+
+        // Act
+        store.compact();
+
+        // Assert
+        assertTrue(store.getFileBytes() < before / 5, "compacted " + before + " -> " + store.getFileBytes());
+        assertEquals(0, store.getGarbageBytes());
+        assertEquals(9, store.size("poi"));
+        assertEquals("value 190", text(store.get("poi", "p0")));
+        assertNull(store.get("poi", "p9"));
+
+        // Writes after the swap land in the new file
+        store.put("poi", "p10", bytes("new"));
+        store.close();
+        store = new LogStore(tempDir, false);
+        assertEquals("value 198", text(store.get("poi", "p8")));
+        assertEquals("new", text(store.get("poi", "p10")));
+        assertNull(store.get("poi", "p9"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+}
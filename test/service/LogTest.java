@@ -0,0 +1,112 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.Log;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JUnit 5 tests for Log.
+ * Tests level filtering, lazy messages, output format and stream routing.
+ */
+public class LogTest {
+
+    private static final Log LOG = Log.get(LogTest.class);
+
+    private Log.Level originalLevel;
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @BeforeEach
+    public void setUp() {
+        Log.flush();
+        originalLevel = Log.getLevel();
+        originalOut = System.out;
+        originalErr = System.err;
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Log.flush();
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        Log.setLevel(originalLevel);
+    }
+
+    @Test
+    @DisplayName("Test disabled level does not build the message")
+    public void testSupplierNotCalledWhenDisabled() {
+        // Arrange
+        Log.setLevel(Log.Level.INFO);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        LOG.debug(() -> "expensive " + calls.incrementAndGet());
+        Log.flush();
+
+        // Assert
+        assertEquals(0, calls.get());
+        assertFalse(LOG.isDebugEnabled());
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test enabled messages are written in the expected format")
+    public void testFormat() {
+        // Arrange
+        Log.setLevel(Log.Level.DEBUG);
+
+        // Act
+        LOG.info("✓ Catalog loaded");
+        LOG.debug(() -> "Found " + 3 + " POIs");
+        Log.flush();
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        String thread = Thread.currentThread().getName();
+        assertTrue(lines[0].matches("\\d{2}:\\d{2}:\\d{2}\\.\\d{3} INFO  \\[.*\\] LogTest: ✓ Catalog loaded"),
+                   lines[0]);
+        assertTrue(lines[0].contains("[" + thread + "]"));
+        assertTrue(lines[1].endsWith("DEBUG [" + thread + "] LogTest: Found 3 POIs"), lines[1]);
+    }
+
+    @Test
+    @DisplayName("Test warnings and errors go to System.err")
+    public void testErrorStream() {
+        // Arrange
+        Log.setLevel(Log.Level.INFO);
+
+        // Act
+        LOG.warn("⚠️ Slow query");
+        LOG.error("❌ Query failed", new IllegalStateException("boom"));
+        Log.flush();
+
+        // Assert
+        String errText = err.toString(StandardCharsets.UTF_8);
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+        assertTrue(errText.contains("WARN  ["));
+        assertTrue(errText.contains("LogTest: ❌ Query failed"));
+        assertTrue(errText.contains("java.lang.IllegalStateException: boom"));
+    }
+
+    @Test
+    @DisplayName("Test OFF silences every level")
+    public void testOff() {
+        Log.setLevel(Log.Level.OFF);
+        LOG.error("❌ should not appear");
+        Log.flush();
+        assertFalse(Log.isEnabled(Log.Level.ERROR));
+        assertEquals("", err.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,178 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.LatencyHistogram;
+import service.MetricsEndpoint;
+import service.MetricsRegistry;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * JUnit 5 tests for MetricsRegistry and LatencyHistogram.
+ * Tests percentile accuracy, text exposition, JMX and the HTTP endpoint.
+ */
+public class MetricsRegistryTest {
+
+    private MetricsRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    @DisplayName("Test histogram percentiles are within 2% of exact values")
+    public void testHistogramPercentiles() {
+        // Arrange - 100k latencies spread from 1 microsecond to ~1 second
+        LatencyHistogram histogram = registry.histogram("test.latency");
+        Random random = new Random(42);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.pow(10, 3 + random.nextDouble() * 6);
+            histogram.record(values[i]);
+        }
+        java.util.Arrays.sort(values);
+
+        // Act & Assert
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMaxNanos());
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(Math.abs(reported - exact) <= exact * 0.02,
+                       "p" + percentile + " reported " + reported + ", exact " + exact);
+        }
+    }
+
+    @Test
+    @DisplayName("Test small values are recorded exactly")
+    public void testSmallValuesExact() {
+        LatencyHistogram histogram = registry.histogram("test.small");
+        for (long v = 0; v < 100; v++) {
+            histogram.record(v);
+        }
+        assertEquals(49, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(100));
+        assertEquals(0, registry.histogram("test.empty").getValueAtPercentile(99));
+    }
+
+    @Test
+    @DisplayName("Test same name returns the same metric")
+    public void testLookupByName() {
+        assertSame(registry.counter("a"), registry.counter("a"));
+        assertSame(registry.histogram("h"), registry.histogram("h"));
+    }
+
+    @Test
+    @DisplayName("Test text exposition format")
+    public void testRenderText() {
+        // Arrange
+        registry.counter("store.errors").add(3);
+        registry.gauge("places.catalog.size", () -> 1234);
+        registry.histogram("places.search").record(2_000_000);   // 2 ms
+
+        // Act
+        String text = registry.renderText();
+
+        // Assert
+        assertTrue(text.contains("store_errors_total 3"));
+        assertTrue(text.contains("places_catalog_size 1234"));
+        assertTrue(text.contains("# TYPE places_search_seconds summary"));
+        assertTrue(text.contains("places_search_seconds_count 1"));
+        assertTrue(text.contains("places_search_seconds{quantile=\"0.99\"} 0.002"));
+    }
+
+    @Test
+    @DisplayName("Test reset clears counters and histograms")
+    public void testReset() {
+        registry.counter("c").increment();
+        registry.histogram("h").record(10);
+        registry.reset();
+        assertEquals(0, registry.counter("c").sum());
+        assertEquals(0, registry.histogram("h").getCount());
+    }
+
+    @Test
+    @DisplayName("Test metrics readable over JMX")
+    public void testJmx() throws Exception {
+        // Arrange
+        MetricsRegistry shared = MetricsRegistry.shared();
+        shared.histogram("test.jmx").record(5_000_000);
+        shared.counter("test.jmx.calls").increment();
+
+        // Act
+        assertTrue(shared.registerMBean());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsRegistry.MBEAN_NAME);
+
+        // Assert
+        assertTrue((Long) server.getAttribute(name, "test.jmx.count") >= 1);
+        assertTrue((Long) server.getAttribute(name, "test.jmx.calls") >= 1);
+        assertTrue((Double) server.getAttribute(name, "test.jmx.maxMillis") >= 5.0);
+    }
+
+    @Test
+    @DisplayName("Test unknown JMX operation is reported as a ReflectionException")
+    public void testJmxUnknownOperation() throws Exception {
+        // Arrange
+        MetricsRegistry shared = MetricsRegistry.shared();
+        shared.registerMBean();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsRegistry.MBEAN_NAME);
+
+        // Act / Assert
+        ReflectionException e = assertThrows(ReflectionException.class,
+            () -> server.invoke(name, "compact", new Object[0], new String[0]));
+        assertInstanceOf(NoSuchMethodException.class, e.getTargetException());
+    }
+
+    @Test
+    @DisplayName("Test closing an instance removes only its own gauges")
+    public void testGaugeSetRemove() {
+        // Arrange
+        MetricsRegistry.GaugeSet first = registry.gaugeSet().gauge("pool.open", () -> 1);
+        MetricsRegistry.GaugeSet second = registry.gaugeSet().gauge("pool.open", () -> 2);
+
+        // Act
+        first.remove();
+
+        // Assert
+        assertEquals(2, registry.getGaugeValue("pool.open").intValue());
+
+        second.remove();
+        assertNull(registry.getGaugeValue("pool.open"));
+        assertFalse(registry.renderText().contains("pool_open"));
+    }
+
+    @Test
+    @DisplayName("Test HTTP endpoint serves the text format")
+    public void testEndpoint() throws Exception {
+        // Arrange
+        registry.counter("test.requests").add(7);
+        MetricsEndpoint endpoint = new MetricsEndpoint(registry);
+        endpoint.start(0);
+
+        try {
+            // Act
+            URL url = new URL("http", endpoint.getBindAddress().getHostAddress(), endpoint.getPort(), "/metrics");
+            String body;
+            try (InputStream in = url.openStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            // Assert
+            assertTrue(body.contains("test_requests_total 7"));
+            assertTrue(endpoint.getBindAddress().isLoopbackAddress(), "should not listen on every interface");
+        } finally {
+            endpoint.stop();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.POIBulkImporter;
+import domain.*;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JUnit 5 tests for POIBulkImporter.
+ * Tests row validation, batched writes and resuming from a checkpoint.
+ */
+public class POIBulkImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    // poi_id of every row bound to the fake statement, per executed batch
+    private final List<List<String>> batches = new ArrayList<>();
+    private int failOnBatch = -1;
+
+    @Test
+    @DisplayName("Test rows are normalized")
+    public void testNormalize() {
+        // Arrange
+        Map<String, String> fields = new HashMap<>();
+        fields.put("poi_id", "p1");
+        fields.put("name", "Cafe");
+        fields.put("category", " CAFE ");
+        fields.put("latitude", "43.65");
+        fields.put("longitude", "-79.38");
+        fields.put("price_level", "2");
+        fields.put("tags", "Coffee; cozy;coffee");
+
+        // Act
+        POI poi = POIBulkImporter.normalize(fields);
+
+        // Assert
+        assertEquals("cafe", poi.getCategory());
+        assertEquals("$$", poi.getPriceLevel());
+        assertEquals(List.of("coffee", "cozy"), poi.getTags());
+        assertTrue(poi.isOpenNow());
+    }
+
+    @Test
+    @DisplayName("Test invalid rows are rejected")
+    public void testNormalizeRejects() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("poi_id", "p1");
+        fields.put("name", "Cafe");
+        fields.put("category", "cafe");
+        fields.put("latitude", "95");
+        fields.put("longitude", "-79.38");
+        assertThrows(IllegalArgumentException.class, () -> POIBulkImporter.normalize(fields));
+
+        fields.put("latitude", "43.65");
+        fields.put("rating", "7");
+        assertThrows(IllegalArgumentException.class, () -> POIBulkImporter.normalize(fields));
+    }
+
+    @Test
+    @DisplayName("Test NDJSON objects are parsed")
+    public void testParseJsonObject() {
+        // Act
+        Map<String, String> fields = POIBulkImporter.parseJsonObject(
+            "{\"poi_id\": \"p1\", \"name\": \"Joe's \\\"Diner\\\"\", \"latitude\": 43.6, \"tags\": [\"a\", \"b]\"]}");
+
+        // Assert
+        assertEquals("p1", fields.get("poi_id"));
+        assertEquals("Joe's \"Diner\"", fields.get("name"));
+        assertEquals("43.6", fields.get("latitude"));
+        assertEquals("[\"a\", \"b]\"]", fields.get("tags"));
+    }
+
+    @Test
+    @DisplayName("Test CSV import writes valid rows in chunked batches")
+    public void testImportCsv() throws Exception {
+        // Arrange - 25 rows, one invalid
+        Path input = writeCsv(25, 7);
+        Path checkpoint = tempDir.resolve("pois.checkpoint");
+
+        // Act
+        POIBulkImporter.Result result = new POIBulkImporter(10, 2).importFile(input, checkpoint, fakeConnection());
+
+        // Assert
+        assertEquals(25, result.getRowsRead());
+        assertEquals(24, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(3, batches.size());
+        assertEquals("poi_0", batches.get(0).get(0));
+        assertFalse(Files.exists(checkpoint), "Checkpoint is removed after a complete import");
+    }
+
+    @Test
+    @DisplayName("Test a failed import resumes after the last committed chunk")
+    public void testResumeFromCheckpoint() throws Exception {
+        // Arrange
+        Path input = writeCsv(30, -1);
+        Path checkpoint = tempDir.resolve("pois.checkpoint");
+        failOnBatch = 1;
+
+        // Act - second chunk fails, then rerun
+        assertThrows(SQLException.class,
+                     () -> new POIBulkImporter(10, 2).importFile(input, checkpoint, fakeConnection()));
+        failOnBatch = -1;
+        batches.clear();
+        POIBulkImporter.Result result = new POIBulkImporter(10, 2).importFile(input, checkpoint, fakeConnection());
+
+        // Assert
+        assertEquals(10, result.getSkipped());
+        assertEquals(20, result.getImported());
+        assertEquals("poi_10", batches.get(0).get(0));
+    }
+
+    private Path writeCsv(int rows, int invalidRow) throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("poi_id,name,category,latitude,longitude,rating,price_level,tags,open_now,address");
+        for (int i = 0; i < rows; i++) {
+            String lat = i == invalidRow ? "not-a-number" : "43.65";
+            lines.add("poi_" + i + ",\"Place, " + i + "\",cafe," + lat + ",-79.38,4.5,$$,coffee;cozy,true,1 King St");
+        }
+        Path input = tempDir.resolve("pois.csv");
+        Files.write(input, lines);
+        return input;
+    }
+
+    private Connection fakeConnection() {
+        List<String> current = new ArrayList<>();
+        PreparedStatement stmt = proxy(PreparedStatement.class, (method, args) -> {
+            switch (method) {
+                case "setString":
+                    if ((Integer) args[0] == 1) {
+                        current.add((String) args[1]);
+                    }
+                    return null;
+                case "executeBatch":
+                    if (batches.size() == failOnBatch) {
+                        current.clear();
+                        throw new SQLException("simulated failure");
+                    }
+                    batches.add(new ArrayList<>(current));
+                    int[] counts = new int[current.size()];
+                    current.clear();
+                    return counts;
+                default:
+                    return null;
+            }
+        });
+        return proxy(Connection.class, (method, args) -> {
+            switch (method) {
+                case "prepareStatement": return stmt;
+                case "getAutoCommit": return true;
+                default: return null;
+            }
+        });
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (p, method, args) -> handler.handle(method.getName(), args));
+    }
+}
@@ -0,0 +1,101 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.POILoader;
+import domain.*;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for POILoader.
+ * Tests the tags scanner and the batched decode pipeline.
+ */
+public class POILoaderTest {
+
+    @Test
+    @DisplayName("Test tags scanner parses JSON string arrays")
+    public void testParseTags() {
+        assertEquals(List.of("italian", "pasta", "dinner"), POILoader.parseTags("[\"italian\", \"pasta\", \"dinner\"]"));
+        assertEquals(List.of("a,b", "say \"hi\"", "é"), POILoader.parseTags("[\"a,b\",\"say \\\"hi\\\"\",\"\\u00e9\"]"));
+        assertTrue(POILoader.parseTags("[]").isEmpty());
+        assertTrue(POILoader.parseTags("[\"\"]").isEmpty());
+        assertTrue(POILoader.parseTags(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test malformed unicode escapes are reported with their column")
+    public void testMalformedUnicodeEscape() {
+        // Act
+        IllegalArgumentException badDigits = assertThrows(IllegalArgumentException.class,
+            () -> POILoader.parseTags("[\"ok\",\"\\u00zz\"]"));
+        IllegalArgumentException truncated = assertThrows(IllegalArgumentException.class,
+            () -> POILoader.parseTags("[\"\\u00"));
+
+        // Assert
+        assertEquals("invalid \\u escape at column 8", badDigits.getMessage());
+        assertEquals("invalid \\u escape at column 3", truncated.getMessage());
+        assertEquals(List.of("\u00e9t\u00e9"), POILoader.parseTags("[\"\\u00E9t\\u00e9\"]"));
+    }
+
+    @Test
+    @DisplayName("Test streaming load keeps row order across batches")
+    public void testLoadAllOrder() throws Exception {
+        // Arrange - 2,500 rows decoded in batches of 100 by 3 workers
+        int rows = 2500;
+        POILoader loader = new POILoader(500, 100, 3);
+
+        // Act
+        List<POI> pois = loader.loadAll(fakeConnection(rows));
+
+        // Assert
+        assertEquals(rows, pois.size());
+        for (int i = 0; i < rows; i++) {
+            assertEquals("poi_" + i, pois.get(i).getId());
+            assertEquals(List.of("tag" + i, "common"), pois.get(i).getTags());
+        }
+        assertEquals(rows, loader.getLastRowCount());
+        assertEquals(new Timestamp(rows - 1), loader.getNewestUpdate());
+        assertTrue(loader.getLastRowsPerSecond() > 0);
+    }
+
+    /**
+     * Connection whose statements return a result set of generated rows.
+     */
+    private Connection fakeConnection(int rows) {
+        int[] row = {-1};
+        ResultSet rs = proxy(ResultSet.class, (method, args) -> {
+            switch (method) {
+                case "next": return ++row[0] < rows;
+                case "getString":
+                    switch ((Integer) args[0]) {
+                        case 1: return "poi_" + row[0];
+                        case 8: return "[\"tag" + row[0] + "\", \"common\"]";
+                        default: return "value";
+                    }
+                case "getDouble": return 43.65;
+                case "getFloat": return 4.5f;
+                case "getBoolean": return true;
+                case "getTimestamp": return new Timestamp(row[0]);
+                default: return null;
+            }
+        });
+        Statement stmt = proxy(Statement.class, (method, args) -> method.equals("executeQuery") ? rs : null);
+        return proxy(Connection.class, (method, args) -> method.equals("createStatement") ? stmt : null);
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (p, method, args) -> handler.handle(method.getName(), args));
+    }
+}
@@ -0,0 +1,110 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.POINeighbourIndex;
+import service.PlacesService;
+import service.SpatialGridIndex;
+import service.TorontoPOIData;
+import domain.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for POINeighbourIndex.
+ * Tests precomputed neighbour lists and incremental rebuilds.
+ */
+public class POINeighbourIndexTest {
+
+    private List<POI> pois;
+    private SpatialGridIndex grid;
+
+    @BeforeEach
+    public void setUp() {
+        pois = TorontoPOIData.getSamplePOIs();
+        grid = new SpatialGridIndex(pois);
+    }
+
+    @Test
+    @DisplayName("Test neighbour lists are sorted and within the cap")
+    public void testNeighboursSortedWithinCap() {
+        // Act
+        POINeighbourIndex index = POINeighbourIndex.build(grid, 1000, 8);
+
+        // Assert
+        for (int i = 0; i < pois.size(); i++) {
+            float previous = 0;
+            for (int k = 0; k < index.neighbourCount(i); k++) {
+                assertNotEquals(i, index.neighbour(i, k), "A POI is not its own neighbour");
+                assertTrue(index.distance(i, k) <= 1000, "Neighbour should be within cap");
+                assertTrue(index.distance(i, k) >= previous, "Neighbours should be sorted by distance");
+                assertTrue(index.walkMinutes(i, k) >= 0);
+                previous = index.distance(i, k);
+            }
+            assertTrue(index.neighbourCount(i) <= 8);
+        }
+    }
+
+    @Test
+    @DisplayName("Test neighbour lists match a brute-force scan")
+    public void testMatchesBruteForce() {
+        // Act
+        POINeighbourIndex index = POINeighbourIndex.build(grid, 1500, 100);
+
+        // Assert
+        for (int i = 0; i < pois.size(); i++) {
+            int expected = 0;
+            for (int j = 0; j < pois.size(); j++) {
+                double d = SpatialGridIndex.distanceMeters(grid.latitude(i), grid.longitude(i),
+                                                           grid.latitude(j), grid.longitude(j));
+                if (j != i && d <= 1500) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, index.neighbourCount(i), "Neighbour count for POI " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Test incremental rebuild equals a full rebuild")
+    public void testIncrementalRebuild() {
+        // Arrange
+        POINeighbourIndex original = POINeighbourIndex.build(grid, 1500, 8);
+
+        List<POI> changed = new ArrayList<>(TorontoPOIData.getSamplePOIs());
+        changed.remove(2);                                              // removed
+        changed.get(0).setLocation(new LatLng(43.6600, -79.3900));      // moved
+        POI added = new POI("poi_new", "New Cafe", new LatLng(43.6535, -79.3830), "cafe", 4.0f);
+        changed.add(added);                                             // added
+        SpatialGridIndex newGrid = new SpatialGridIndex(changed);
+
+        // Act
+        POINeighbourIndex incremental = POINeighbourIndex.rebuild(original, pois, changed, newGrid);
+        POINeighbourIndex full = POINeighbourIndex.build(newGrid, 1500, 8);
+
+        // Assert
+        for (int i = 0; i < changed.size(); i++) {
+            assertEquals(full.neighbourCount(i), incremental.neighbourCount(i));
+            for (int k = 0; k < full.neighbourCount(i); k++) {
+                assertEquals(full.neighbour(i, k), incremental.neighbour(i, k));
+                assertEquals(full.distance(i, k), incremental.distance(i, k), 0.01);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test PlacesService finds neighbours by POI id")
+    public void testFindNeighbours() {
+        // Arrange
+        PlacesService service = new PlacesService(pois);
+
+        // Act
+        List<POI> neighbours = service.findNeighbours("poi_012", 3);   // CN Tower
+
+        // Assert
+        assertFalse(neighbours.isEmpty());
+        assertEquals("poi_013", neighbours.get(0).getId(), "Aquarium is next to the CN Tower");
+        assertTrue(service.findNeighbours("unknown", 3).isEmpty());
+    }
+}
@@ -0,0 +1,189 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.CatalogSnapshot;
+import service.POINeighbourIndex;
+import service.POISnapshotFile;
+import service.PlacesService;
+import service.SpatialGridIndex;
+import service.TorontoPOIData;
+import domain.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for POISnapshotFile.
+ * Tests the binary catalog round trip, the indexes stored with it, serving
+ * queries from a mapped file, and applying changes over a mapped catalog.
+ */
+public class POISnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<POI> pois;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        pois = TorontoPOIData.getSamplePOIs();
+        file = tempDir.resolve("pois.snapshot");
+        POISnapshotFile.write(pois, new Timestamp(1700000000123L), file);
+    }
+
+    @Test
+    @DisplayName("Test snapshot round trip preserves every field")
+    public void testRoundTrip() throws Exception {
+        // Act
+        POISnapshotFile snapshot = POISnapshotFile.open(file);
+
+        // Assert
+        assertEquals(pois.size(), snapshot.size());
+        assertEquals(1700000000123L, snapshot.getWatermark().getTime());
+        for (int i = 0; i < pois.size(); i++) {
+            POI expected = pois.get(i);
+            POI actual = snapshot.get(i);
+            assertEquals(expected.getId(), snapshot.id(i));
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.getLocation().getLatitude(), actual.getLocation().getLatitude());
+            assertEquals(expected.getLocation().getLongitude(), actual.getLocation().getLongitude());
+            assertEquals(expected.getRating(), actual.getRating());
+            assertEquals(expected.getPriceLevel(), actual.getPriceLevel());
+            assertEquals(expected.getAddress(), actual.getAddress());
+            assertEquals(expected.isOpenNow(), actual.isOpenNow());
+            assertEquals(expected.getTags() != null ? expected.getTags() : new ArrayList<>(), actual.getTags());
+        }
+    }
+
+    @Test
+    @DisplayName("Test decoded POIs are cached")
+    public void testDecodedOnce() throws Exception {
+        // Arrange
+        POISnapshotFile snapshot = POISnapshotFile.open(file);
+
+        // Act & Assert
+        assertSame(snapshot.get(3), snapshot.get(3));
+    }
+
+    @Test
+    @DisplayName("Test searches over a mapped snapshot match the in-memory catalog")
+    public void testSearchFromSnapshot() throws Exception {
+        // Arrange
+        PlacesService mapped = new PlacesService(POISnapshotFile.open(file));
+        PlacesService inMemory = new PlacesService(pois);
+        Preferences prefs = new Preferences();
+        prefs.setInterests(new ArrayList<>());
+        prefs.setBudget("high");
+        prefs.setRadius(1500);
+        LatLng center = new LatLng(43.6532, -79.3832);
+
+        // Act
+        List<POI> fromSnapshot = mapped.searchPlaces(center, prefs);
+        List<POI> fromMemory = inMemory.searchPlaces(center, prefs);
+
+        // Assert
+        assertEquals(fromMemory.size(), fromSnapshot.size());
+        for (int i = 0; i < fromMemory.size(); i++) {
+            assertEquals(fromMemory.get(i).getId(), fromSnapshot.get(i).getId());
+        }
+        assertEquals(ids(inMemory.findNeighbours("poi_012", 5)), ids(mapped.findNeighbours("poi_012", 5)));
+    }
+
+    @Test
+    @DisplayName("Test the ID index and neighbour lists are stored with the catalog")
+    public void testIndexesStored() throws Exception {
+        // Arrange
+        POINeighbourIndex built = POINeighbourIndex.build(new SpatialGridIndex(pois),
+            POINeighbourIndex.DEFAULT_CAP_METERS, POINeighbourIndex.DEFAULT_MAX_NEIGHBOURS);
+
+        // Act
+        POISnapshotFile snapshot = POISnapshotFile.open(file);
+        POINeighbourIndex stored = snapshot.neighbourIndex();
+
+        // Assert
+        for (int i = 0; i < pois.size(); i++) {
+            assertEquals(i, snapshot.indexOf(pois.get(i).getId()));
+            assertEquals(built.neighbourCount(i), stored.neighbourCount(i), "Neighbour count for POI " + i);
+            for (int k = 0; k < built.neighbourCount(i); k++) {
+                assertEquals(built.neighbour(i, k), stored.neighbour(i, k));
+                assertEquals(built.distance(i, k), stored.distance(i, k));
+                assertEquals(built.walkMinutes(i, k), stored.walkMinutes(i, k));
+            }
+        }
+        assertEquals(-1, snapshot.indexOf("unknown"));
+        assertEquals(pois.size(), snapshot.spatialIndex().size());
+    }
+
+    @Test
+    @DisplayName("Test changes are layered over a mapped snapshot and folded into a rewrite")
+    public void testChangesOverMappedSnapshot() throws Exception {
+        // Arrange
+        POI moved = new POI("poi_012", "CN Tower", new LatLng(43.6600, -79.3900), "entertainment", 4.8f);
+        POI added = new POI("poi_new", "New Cafe", new LatLng(43.6426, -79.3868), "cafe", 4.0f);
+        List<POI> expected = new ArrayList<>();
+        for (POI poi : pois) {
+            if (poi.getId().equals("poi_012")) {
+                expected.add(moved);
+            } else if (!poi.getId().equals("poi_013")) {
+                expected.add(poi);
+            }
+        }
+        expected.add(added);
+        PlacesService fresh = new PlacesService(expected);
+        PlacesService mapped = new PlacesService(POISnapshotFile.open(file));
+
+        // Act
+        int changes = mapped.applyChanges(List.of(moved, added), List.of("poi_013"));
+        Path rewritten = tempDir.resolve("rewritten.snapshot");
+        assertTrue(mapped.writeSnapshot(rewritten));
+        PlacesService reopened = new PlacesService(POISnapshotFile.open(rewritten));
+
+        // Assert
+        assertEquals(3, changes);
+        CatalogSnapshot catalog = mapped.getCatalog();
+        assertEquals(3, catalog.getOverlaySize(), "only the changed POIs are held outside the mapping");
+        assertEquals(expected.size(), catalog.size());
+        assertEquals(-1, catalog.indexOf("poi_013"));
+        assertEquals(0, reopened.getCatalog().getOverlaySize());
+        assertEquals(expected.size(), reopened.getCatalog().size());
+        Preferences prefs = new Preferences();
+        prefs.setInterests(new ArrayList<>());
+        prefs.setBudget("high");
+        prefs.setRadius(3000);
+        LatLng center = new LatLng(43.6532, -79.3832);
+        assertEquals(ids(fresh.searchPlaces(center, prefs)), ids(mapped.searchPlaces(center, prefs)));
+        assertEquals(ids(fresh.searchPlaces(center, prefs)), ids(reopened.searchPlaces(center, prefs)));
+        for (POI poi : expected) {
+            List<String> neighbours = ids(fresh.findNeighbours(poi.getId(), 5));
+            assertEquals(neighbours, ids(mapped.findNeighbours(poi.getId(), 5)), "Neighbours of " + poi.getId());
+            assertEquals(neighbours, ids(reopened.findNeighbours(poi.getId(), 5)), "Neighbours of " + poi.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Test opening a file that is not a snapshot fails")
+    public void testInvalidFile() throws Exception {
+        // Arrange
+        Path bogus = tempDir.resolve("bogus.snapshot");
+        Files.write(bogus, new byte[64]);
+
+        // Act & Assert
+        assertThrows(java.io.IOException.class, () -> POISnapshotFile.open(bogus));
+    }
+
+    private List<String> ids(List<POI> list) {
+        List<String> ids = new ArrayList<>();
+        for (POI poi : list) {
+            ids.add(poi.getId());
+        }
+        return ids;
+    }
+}
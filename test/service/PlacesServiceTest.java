@@ -0,0 +1,190 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.CatalogSnapshot;
+import service.PlacesService;
+import service.SpatialGridIndex;
+import service.TorontoPOIData;
+import domain.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit 5 tests for PlacesService over an in-memory catalog.
+ * Tests corridor search along a route.
+ */
+public class PlacesServiceTest {
+
+    private PlacesService placesService;
+    private Preferences testPreferences;
+
+    // Union Station area -> Royal Ontario Museum
+    private final LatLng origin = new LatLng(43.6453, -79.3806);
+    private final LatLng destination = new LatLng(43.6677, -79.3948);
+
+    @BeforeEach
+    public void setUp() {
+        placesService = new PlacesService(TorontoPOIData.getSamplePOIs());
+
+        testPreferences = new Preferences();
+        testPreferences.setBudget("high");
+        testPreferences.setInterests(new ArrayList<>());
+    }
+
+    @Test
+    @DisplayName("Test corridor search respects the detour limit")
+    public void testSearchAlongRouteDetourLimit() {
+        // Act
+        List<POI> results = placesService.searchAlongRoute(origin, destination, testPreferences, 500);
+
+        // Assert
+        assertFalse(results.isEmpty(), "Should find places along the route");
+        double direct = distance(origin, destination);
+        for (POI poi : results) {
+            double detour = distance(origin, poi.getLocation()) + distance(poi.getLocation(), destination) - direct;
+            assertTrue(detour <= 500, poi.getName() + " adds " + detour + "m");
+        }
+    }
+
+    @Test
+    @DisplayName("Test corridor search ranks by added detour")
+    public void testSearchAlongRouteRanking() {
+        // Act
+        List<POI> results = placesService.searchAlongRoute(origin, destination, testPreferences, 2000);
+
+        // Assert
+        double direct = distance(origin, destination);
+        double previous = -1;
+        for (POI poi : results) {
+            double detour = distance(origin, poi.getLocation()) + distance(poi.getLocation(), destination) - direct;
+            assertTrue(detour >= previous - 1e-6, "Results should be sorted by detour");
+            previous = detour;
+        }
+    }
+
+    @Test
+    @DisplayName("Test corridor search matches a brute-force scan")
+    public void testSearchAlongRouteMatchesScan() {
+        // Arrange
+        int expected = 0;
+        double direct = distance(origin, destination);
+        for (POI poi : TorontoPOIData.getSamplePOIs()) {
+            if (distance(origin, poi.getLocation()) + distance(poi.getLocation(), destination) - direct <= 1000) {
+                expected++;
+            }
+        }
+
+        // Act
+        List<POI> results = placesService.searchAlongRoute(origin, destination, testPreferences, 1000);
+
+        // Assert
+        assertEquals(expected, results.size());
+    }
+
+    @Test
+    @DisplayName("Test corridor search filters by interests")
+    public void testSearchAlongRouteInterests() {
+        // Arrange
+        testPreferences.setInterests(List.of("cafes"));
+
+        // Act
+        List<POI> results = placesService.searchAlongRoute(origin, destination, testPreferences, 2000);
+
+        // Assert
+        for (POI poi : results) {
+            assertEquals("cafe", poi.getCategory());
+        }
+    }
+
+    @Test
+    @DisplayName("Test corridor search with null endpoints")
+    public void testSearchAlongRouteNull() {
+        assertTrue(placesService.searchAlongRoute(null, destination, testPreferences, 500).isEmpty());
+        assertTrue(placesService.searchAlongRoute(origin, null, testPreferences, 500).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test searches stay consistent while the catalog is replaced")
+    public void testReplaceCatalogWhileSearching() throws Exception {
+        // Arrange - alternate between the full catalog and a catalog without cafes
+        List<POI> full = TorontoPOIData.getSamplePOIs();
+        List<POI> noCafes = new ArrayList<>();
+        for (POI poi : full) {
+            if (!"cafe".equals(poi.getCategory())) {
+                noCafes.add(poi);
+            }
+        }
+        testPreferences.setRadius(5000);
+        int expectedFull = placesService.searchPlaces(origin, testPreferences).size();
+        placesService.replaceCatalog(noCafes);
+        int expectedNoCafes = placesService.searchPlaces(origin, testPreferences).size();
+        assertTrue(expectedNoCafes < expectedFull);
+
+        // Act - search from another thread while swapping snapshots
+        List<Integer> observed = new java.util.concurrent.CopyOnWriteArrayList<>();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                observed.add(placesService.searchPlaces(origin, testPreferences).size());
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 20; i++) {
+            placesService.replaceCatalog(i % 2 == 0 ? full : noCafes);
+        }
+        reader.join();
+
+        // Assert - every search saw exactly one whole snapshot
+        for (int count : observed) {
+            assertTrue(count == expectedFull || count == expectedNoCafes, "Mixed snapshot: " + count);
+        }
+    }
+
+    @Test
+    @DisplayName("Test applying changes matches a service built from scratch")
+    public void testApplyChanges() {
+        // Arrange
+        POI moved = new POI("poi_012", "CN Tower", new LatLng(43.6600, -79.3900), "entertainment", 4.8f);
+        POI added = new POI("poi_new", "New Cafe", new LatLng(43.6426, -79.3868), "cafe", 4.0f);
+
+        List<POI> expected = new ArrayList<>();
+        for (POI poi : TorontoPOIData.getSamplePOIs()) {
+            if (poi.getId().equals("poi_012")) {
+                expected.add(moved);
+            } else if (!poi.getId().equals("poi_013")) {
+                expected.add(poi);
+            }
+        }
+        expected.add(added);
+        PlacesService fresh = new PlacesService(expected);
+
+        // Act
+        int changes = placesService.applyChanges(List.of(moved, added), List.of("poi_013"));
+
+        // Assert
+        assertEquals(3, changes);
+        assertEquals(expected.size(), placesService.getCatalog().size());
+        assertEquals(-1, placesService.getCatalog().indexOf("poi_013"));
+        for (POI poi : expected) {
+            assertEquals(ids(fresh.findNeighbours(poi.getId(), 5)), ids(placesService.findNeighbours(poi.getId(), 5)),
+                         "Neighbours of " + poi.getId());
+        }
+        assertEquals(0, placesService.applyChanges(List.of(), List.of("unknown")));
+        CatalogSnapshot unchanged = placesService.getCatalog();
+        assertEquals(0, placesService.applyChanges(List.of(), List.of()));
+        assertSame(unchanged, placesService.getCatalog(), "an empty delta should not rebuild the catalog");
+    }
+
+    private List<String> ids(List<POI> pois) {
+        List<String> ids = new ArrayList<>();
+        for (POI poi : pois) {
+            ids.add(poi.getId());
+        }
+        return ids;
+    }
+
+    private double distance(LatLng a, LatLng b) {
+        return SpatialGridIndex.distanceMeters(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+    }
+}
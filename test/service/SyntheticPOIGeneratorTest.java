@@ -0,0 +1,118 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.POIBulkImporter;
+import service.PlacesService;
+import service.SpatialGridIndex;
+import service.SyntheticPOIGenerator;
+import domain.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * JUnit 5 tests for SyntheticPOIGenerator.
+ * Tests determinism, realistic values and spatial clustering.
+ */
+public class SyntheticPOIGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test same seed gives the same catalog")
+    public void testDeterministic() {
+        // Act
+        List<POI> first = new SyntheticPOIGenerator(7).generate(2000);
+        List<POI> second = new SyntheticPOIGenerator(7).generate(2000);
+        List<POI> other = new SyntheticPOIGenerator(8).generate(2000);
+
+        // Assert
+        assertEquals(2000, first.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getId(), second.get(i).getId());
+            assertEquals(first.get(i).getName(), second.get(i).getName());
+            assertEquals(first.get(i).getLocation().getLatitude(), second.get(i).getLocation().getLatitude());
+            assertEquals(first.get(i).getTags(), second.get(i).getTags());
+        }
+        assertNotEquals(first.get(0).getLocation().getLatitude(), other.get(0).getLocation().getLatitude());
+    }
+
+    @Test
+    @DisplayName("Test generated POIs have valid fields")
+    public void testValidFields() {
+        // Act
+        List<POI> pois = new SyntheticPOIGenerator(1).generate(5000);
+
+        // Assert
+        Set<String> categories = new HashSet<>();
+        for (POI poi : pois) {
+            assertTrue(poi.getRating() >= 1.0f && poi.getRating() <= 5.0f);
+            assertTrue(poi.getPriceLevel().matches("\\${1,4}"));
+            assertTrue(poi.getTags().size() >= 2 && poi.getTags().size() <= 4);
+            categories.add(poi.getCategory());
+        }
+        assertEquals(7, categories.size(), "Every category should appear");
+    }
+
+    @Test
+    @DisplayName("Test POIs are more clustered than a uniform spread")
+    public void testClustered() {
+        // Arrange
+        List<POI> pois = new SyntheticPOIGenerator(3).generate(20000);
+        Random random = new Random(3);
+        List<POI> uniform = new ArrayList<>();
+        for (int i = 0; i < pois.size(); i++) {
+            double r = 15000 * Math.sqrt(random.nextDouble());
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            uniform.add(new POI("u" + i, "u", new LatLng(43.6532 + r * Math.cos(bearing) / 111320,
+                                -79.3832 + r * Math.sin(bearing) / (111320 * Math.cos(Math.toRadians(43.6532)))),
+                                "park", 4.0f));
+        }
+
+        // Act
+        int syntheticCells = new SpatialGridIndex(pois).getCellCount();
+        int uniformCells = new SpatialGridIndex(uniform).getCellCount();
+
+        // Assert
+        assertTrue(syntheticCells < uniformCells * 0.7,
+                   "Clustered POIs should occupy fewer cells: " + syntheticCells + " vs " + uniformCells);
+    }
+
+    @Test
+    @DisplayName("Test CSV output is accepted by the bulk importer and PlacesService")
+    public void testCsvForImporter() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("synthetic.csv");
+        SyntheticPOIGenerator generator = new SyntheticPOIGenerator(5);
+
+        // Act
+        generator.writeCsv(500, file);
+
+        // Assert
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(501, lines.size());
+        String[] header = POIBulkImporter.parseCsvLine(lines.get(0)).toArray(new String[0]);
+        List<POI> expected = generator.generate(500);
+        for (int i = 1; i < lines.size(); i++) {
+            List<String> values = POIBulkImporter.parseCsvLine(lines.get(i));
+            Map<String, String> fields = new HashMap<>();
+            for (int c = 0; c < header.length; c++) {
+                fields.put(header[c], values.get(c));
+            }
+            POI poi = POIBulkImporter.normalize(fields);
+            assertEquals(expected.get(i - 1).getId(), poi.getId());
+            assertEquals(expected.get(i - 1).getAddress(), poi.getAddress());
+        }
+        assertEquals(500, new PlacesService(expected).getCatalog().size());
+    }
+}
@@ -0,0 +1,136 @@
+package test.service;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import service.Tracer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * JUnit 5 tests for Tracer.
+ * Tests sampling, parent/child spans, propagation to executor threads and file export.
+ */
+public class TracerTest {
+
+    private double originalRate;
+    private Path originalOutput;
+    private Path traceFile;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        originalRate = Tracer.getSampleRate();
+        originalOutput = Tracer.getOutput();
+        traceFile = Files.createTempFile("traces", ".ndjson");
+        Tracer.setOutput(traceFile);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Tracer.flush();
+        Tracer.setSampleRate(originalRate);
+        Tracer.setOutput(originalOutput);
+        Files.deleteIfExists(traceFile);
+    }
+
+    @Test
+    @DisplayName("Test unsampled requests create no spans")
+    public void testNotSampled() {
+        // Arrange
+        Tracer.setSampleRate(0);
+
+        // Act
+        Tracer.Span root = Tracer.startTrace("ConversationEngine.startPlanning");
+        Tracer.Span child = Tracer.startSpan("PlacesService.searchPlaces");
+
+        // Assert
+        assertSame(Tracer.Span.NOOP, root);
+        assertSame(Tracer.Span.NOOP, child);
+        assertNull(Tracer.currentTraceId());
+        child.end();
+        root.end();
+    }
+
+    @Test
+    @DisplayName("Test spans outside a trace are no-ops")
+    public void testSpanWithoutTrace() {
+        Tracer.setSampleRate(1);
+        Tracer.Span span = Tracer.startSpan("PlacesService.searchPlaces");
+        assertFalse(span.isSampled());
+    }
+
+    @Test
+    @DisplayName("Test nested spans share the trace and restore the parent")
+    public void testNesting() {
+        // Arrange
+        Tracer.setSampleRate(1);
+
+        // Act
+        Tracer.Span root = Tracer.startTrace("ConversationEngine.startPlanning");
+        Tracer.Span child = Tracer.startSpan("IntegrationLayer.geocode");
+        String traceInChild = Tracer.currentTraceId();
+        child.end();
+        String traceAfterChild = Tracer.currentTraceId();
+        root.end();
+
+        // Assert
+        assertTrue(root.isSampled());
+        assertEquals(root.getTraceId(), child.getTraceId());
+        assertNotEquals(root.getSpanId(), child.getSpanId());
+        assertEquals(root.getTraceId(), traceInChild);
+        assertEquals(root.getTraceId(), traceAfterChild);
+        assertNull(Tracer.currentTraceId());
+    }
+
+    @Test
+    @DisplayName("Test wrapped tasks join the caller's trace on another thread")
+    public void testWrapAcrossThreads() throws Exception {
+        // Arrange
+        Tracer.setSampleRate(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            Tracer.Span root = Tracer.startTrace("ConversationEngine.startPlanning");
+            String seenWrapped = executor.submit(Tracer.wrap(() -> Tracer.currentTraceId())).get();
+            String seenUnwrapped = executor.submit(() -> Tracer.currentTraceId()).get();
+            root.end();
+
+            // Assert
+            assertEquals(root.getTraceId(), seenWrapped);
+            assertNull(seenUnwrapped);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test finished spans are exported as JSON lines")
+    public void testExport() throws Exception {
+        // Arrange
+        Tracer.setSampleRate(1);
+
+        // Act
+        Tracer.Span root = Tracer.startTrace("ConversationEngine.startPlanning");
+        Tracer.Span child = Tracer.startSpan("RecommendationEngine.rankPOIs");
+        child.setAttribute("cacheHit", false).setAttribute("note", "say \"hi\"");
+        child.end();
+        root.end();
+        Tracer.flush();
+
+        // Assert
+        List<String> lines = Files.readAllLines(traceFile, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        String childLine = lines.get(0);
+        assertTrue(childLine.startsWith("{\"traceId\":\"" + root.getTraceId() + "\""), childLine);
+        assertTrue(childLine.contains("\"parentId\":\"" + root.getSpanId() + "\""));
+        assertTrue(childLine.contains("\"name\":\"RecommendationEngine.rankPOIs\""));
+        assertTrue(childLine.contains("\"attributes\":{\"cacheHit\":false,\"note\":\"say \\\"hi\\\"\"}"));
+        assertFalse(lines.get(1).contains("parentId"));
+        assertTrue(lines.get(1).contains("\"durationMicros\":"));
+    }
+}